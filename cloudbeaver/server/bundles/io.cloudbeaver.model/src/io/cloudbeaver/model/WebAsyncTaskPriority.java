@@ -0,0 +1,29 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.model;
+
+/**
+ * Priority of web async task. Tasks of the same user with higher priority are started first.
+ */
+public enum WebAsyncTaskPriority {
+    // Queries, transactions and other tasks which user waits for
+    INTERACTIVE,
+    // Data export and import
+    EXPORT,
+    // Row count and other auxiliary tasks
+    BACKGROUND
+}
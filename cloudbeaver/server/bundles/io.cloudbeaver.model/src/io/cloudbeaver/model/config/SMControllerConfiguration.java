@@ -27,6 +27,10 @@ public class SMControllerConfiguration {
     private int refreshTokenTtl = DEFAULT_REFRESH_TOKEN_TTL;
     private int expiredAuthAttemptInfoTtl = DEFAULT_EXPIRED_AUTH_ATTEMPT_INFO_TTL;
 
+    //in seconds, 0 disables cache
+    public static final int DEFAULT_PERMISSIONS_CACHE_TTL = 30;
+    private int permissionsCacheTtl = DEFAULT_PERMISSIONS_CACHE_TTL;
+
     private boolean enableBruteForceProtection = true;
 
     //in seconds
@@ -62,6 +66,14 @@ public class SMControllerConfiguration {
         this.expiredAuthAttemptInfoTtl = expiredAuthAttemptInfoTtl;
     }
 
+    public int getPermissionsCacheTtl() {
+        return permissionsCacheTtl;
+    }
+
+    public void setPermissionsCacheTtl(int permissionsCacheTtl) {
+        this.permissionsCacheTtl = permissionsCacheTtl;
+    }
+
     public void setCheckBruteforce(boolean checkBruteforce) {
         this.enableBruteForceProtection = checkBruteforce;
     }
@@ -66,6 +66,8 @@ public abstract class BaseWebSession extends AbstractSessionPersistent {
         this.workspace = createWebWorkspace();
         this.workspace.getAuthContext().addSession(this);
         this.userContext = createUserContext();
+        this.userContext.setAccessibleProjectsListener(
+            projectIds -> WebSessionProjectIndex.getInstance().setSessionProjects(this, projectIds));
     }
 
     @NotNull
@@ -87,14 +89,13 @@ public abstract class BaseWebSession extends AbstractSessionPersistent {
         if (!eventAllowedByFilter) {
             return;
         }
-        synchronized (sessionEventHandlers) {
-            for (CBWebSessionEventHandler eventHandler : sessionEventHandlers) {
-                try {
-                    eventHandler.handleWebSessionEvent(event);
-                } catch (DBException e) {
-                    log.error(e.getMessage(), e);
-                    addSessionError(e);
-                }
+        // Handlers only enqueue events, copy-on-write list needs no lock for iteration
+        for (CBWebSessionEventHandler eventHandler : sessionEventHandlers) {
+            try {
+                eventHandler.handleWebSessionEvent(event);
+            } catch (DBException e) {
+                log.error(e.getMessage(), e);
+                addSessionError(e);
             }
         }
     }
@@ -187,6 +188,8 @@ public abstract class BaseWebSession extends AbstractSessionPersistent {
     }
 
     private void cleanUpSession(boolean sendSessionExpiredEvent) {
+        userContext.setAccessibleProjectsListener(null);
+        WebSessionProjectIndex.getInstance().removeSession(this);
         application.getEventController().addEvent(new WSEventDeleteTempFile(getSessionId()));
         synchronized (sessionEventHandlers) {
             var sessionExpiredEvent = new WSSessionExpiredEvent();
@@ -222,11 +225,11 @@ public abstract class BaseWebSession extends AbstractSessionPersistent {
     }
 
     public void addSessionProject(@NotNull String projectId) throws DBException {
-        userContext.getAccessibleProjectIds().add(projectId);
+        userContext.addAccessibleProject(projectId);
     }
 
     public void removeSessionProject(@Nullable String projectId) throws DBException {
-        userContext.getAccessibleProjectIds().remove(projectId);
+        userContext.removeAccessibleProject(projectId);
     }
 
     public abstract void addSessionMessage(WebServerMessage message);
@@ -0,0 +1,278 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.model.session;
+
+import io.cloudbeaver.model.WebAsyncTaskPriority;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fair-share scheduler of web async tasks.
+ * Tasks are queued per owner (user) and started when the total and the owner running limits allow it.
+ * The next task is taken from the owner with the least number of running tasks,
+ * so a user who submitted many heavy tasks doesn't delay tasks of other users.
+ * Tasks of the same owner are started in priority order.
+ */
+public class WebAsyncTaskScheduler {
+
+    private static final Log log = Log.getLog(WebAsyncTaskScheduler.class);
+
+    public static final int DEFAULT_MAX_RUNNING_TASKS = 100;
+
+    private static final WebAsyncTaskScheduler INSTANCE = new WebAsyncTaskScheduler(DEFAULT_MAX_RUNNING_TASKS);
+
+    public static WebAsyncTaskScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    private static final Comparator<ScheduledTask> TASK_ORDER = Comparator
+        .comparing((ScheduledTask task) -> task.priority)
+        .thenComparingLong(task -> task.sequence);
+
+    // All fields below are guarded by this
+    private final Map<String, OwnerQueue> owners = new HashMap<>();
+    private final Map<String, ScheduledTask> queuedTasks = new HashMap<>();
+    private final Map<String, ScheduledTask> startedTasks = new HashMap<>();
+    private int maxRunningTasks;
+    private long taskSequence;
+    private long startSequence;
+
+    private final AtomicLong startedTasksCount = new AtomicLong();
+    private final AtomicLong totalQueueWaitTime = new AtomicLong();
+    private final AtomicLong maxQueueWaitTime = new AtomicLong();
+
+    public static class ScheduledTask {
+        private final String taskId;
+        private final String ownerId;
+        private final WebAsyncTaskPriority priority;
+        private final int ownerLimit;
+        private final Runnable starter;
+        private final long sequence;
+        private final long submitTime = System.nanoTime();
+        private volatile long startTime;
+
+        private ScheduledTask(
+            @NotNull String taskId,
+            @NotNull String ownerId,
+            @NotNull WebAsyncTaskPriority priority,
+            int ownerLimit,
+            @NotNull Runnable starter,
+            long sequence
+        ) {
+            this.taskId = taskId;
+            this.ownerId = ownerId;
+            this.priority = priority;
+            this.ownerLimit = ownerLimit;
+            this.starter = starter;
+            this.sequence = sequence;
+        }
+
+        @NotNull
+        public String getTaskId() {
+            return taskId;
+        }
+
+        @NotNull
+        public String getOwnerId() {
+            return ownerId;
+        }
+
+        @NotNull
+        public WebAsyncTaskPriority getPriority() {
+            return priority;
+        }
+
+        /**
+         * Returns time in milliseconds the task spent in queue (till now if it is not started yet)
+         */
+        public long getQueueWaitTime() {
+            long start = startTime;
+            return ((start == 0 ? System.nanoTime() : start) - submitTime) / 1_000_000;
+        }
+    }
+
+    private static class OwnerQueue {
+        private final PriorityQueue<ScheduledTask> tasks = new PriorityQueue<>(TASK_ORDER);
+        private int runningTasks;
+        // Used to rotate owners with the same number of running tasks
+        private long lastStartSequence;
+    }
+
+    public WebAsyncTaskScheduler(int maxRunningTasks) {
+        this.maxRunningTasks = maxRunningTasks;
+    }
+
+    /**
+     * Changes the maximum number of simultaneously running tasks of all owners.
+     */
+    public void setMaxRunningTasks(int maxRunningTasks) {
+        List<ScheduledTask> tasksToStart;
+        synchronized (this) {
+            if (this.maxRunningTasks == maxRunningTasks) {
+                return;
+            }
+            this.maxRunningTasks = maxRunningTasks;
+            tasksToStart = pollTasksToStart();
+        }
+        startTasks(tasksToStart);
+    }
+
+    /**
+     * Adds task to the owner queue. Starter is called (maybe immediately) when the task can be run.
+     * Each started task must be finished with {@link #finish(String)}.
+     *
+     * @param ownerLimit maximum number of simultaneously running tasks of the owner
+     */
+    @NotNull
+    public ScheduledTask submit(
+        @NotNull String ownerId,
+        @NotNull String taskId,
+        @NotNull WebAsyncTaskPriority priority,
+        int ownerLimit,
+        @NotNull Runnable starter
+    ) {
+        ScheduledTask task;
+        List<ScheduledTask> tasksToStart;
+        synchronized (this) {
+            task = new ScheduledTask(taskId, ownerId, priority, Math.max(ownerLimit, 1), starter, taskSequence++);
+            owners.computeIfAbsent(ownerId, id -> new OwnerQueue()).tasks.add(task);
+            queuedTasks.put(taskId, task);
+            tasksToStart = pollTasksToStart();
+        }
+        startTasks(tasksToStart);
+        return task;
+    }
+
+    /**
+     * Releases running task slot and starts the next queued tasks.
+     */
+    public void finish(@NotNull String taskId) {
+        List<ScheduledTask> tasksToStart;
+        synchronized (this) {
+            ScheduledTask task = startedTasks.remove(taskId);
+            if (task == null) {
+                return;
+            }
+            OwnerQueue owner = owners.get(task.ownerId);
+            if (owner != null) {
+                owner.runningTasks--;
+                removeIfIdle(task.ownerId, owner);
+            }
+            tasksToStart = pollTasksToStart();
+        }
+        startTasks(tasksToStart);
+    }
+
+    /**
+     * Removes task from the queue. Returns false if task is not queued (already started or finished).
+     */
+    public synchronized boolean cancel(@NotNull String taskId) {
+        ScheduledTask task = queuedTasks.remove(taskId);
+        if (task == null) {
+            return false;
+        }
+        OwnerQueue owner = owners.get(task.ownerId);
+        if (owner != null) {
+            owner.tasks.remove(task);
+            removeIfIdle(task.ownerId, owner);
+        }
+        return true;
+    }
+
+    public synchronized int getQueuedTasksCount() {
+        return queuedTasks.size();
+    }
+
+    public synchronized int getRunningTasksCount() {
+        return startedTasks.size();
+    }
+
+    public long getStartedTasksCount() {
+        return startedTasksCount.get();
+    }
+
+    /**
+     * Average time in milliseconds started tasks spent in queue
+     */
+    public long getAverageQueueWaitTime() {
+        long count = startedTasksCount.get();
+        return count == 0 ? 0 : totalQueueWaitTime.get() / count;
+    }
+
+    /**
+     * Maximum time in milliseconds started task spent in queue
+     */
+    public long getMaxQueueWaitTime() {
+        return maxQueueWaitTime.get();
+    }
+
+    @NotNull
+    private List<ScheduledTask> pollTasksToStart() {
+        List<ScheduledTask> result = new ArrayList<>();
+        while (startedTasks.size() < maxRunningTasks) {
+            OwnerQueue nextOwner = null;
+            for (OwnerQueue owner : owners.values()) {
+                ScheduledTask ownerTask = owner.tasks.peek();
+                if (ownerTask == null || owner.runningTasks >= ownerTask.ownerLimit) {
+                    continue;
+                }
+                if (nextOwner == null ||
+                    owner.runningTasks < nextOwner.runningTasks ||
+                    (owner.runningTasks == nextOwner.runningTasks && owner.lastStartSequence < nextOwner.lastStartSequence)
+                ) {
+                    nextOwner = owner;
+                }
+            }
+            if (nextOwner == null) {
+                break;
+            }
+            ScheduledTask task = nextOwner.tasks.poll();
+            queuedTasks.remove(task.taskId);
+            nextOwner.runningTasks++;
+            nextOwner.lastStartSequence = ++startSequence;
+            startedTasks.put(task.taskId, task);
+            task.startTime = System.nanoTime();
+
+            long waitTime = task.getQueueWaitTime();
+            startedTasksCount.incrementAndGet();
+            totalQueueWaitTime.addAndGet(waitTime);
+            maxQueueWaitTime.accumulateAndGet(waitTime, Math::max);
+            result.add(task);
+        }
+        return result;
+    }
+
+    private void removeIfIdle(@NotNull String ownerId, @NotNull OwnerQueue owner) {
+        if (owner.tasks.isEmpty() && owner.runningTasks <= 0) {
+            owners.remove(ownerId);
+        }
+    }
+
+    private void startTasks(@NotNull List<ScheduledTask> tasks) {
+        for (ScheduledTask task : tasks) {
+            try {
+                task.starter.run();
+            } catch (Throwable e) {
+                log.error("Error starting task " + task.taskId, e);
+                finish(task.taskId);
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.google.gson.InstanceCreator;
 import com.google.gson.Strictness;
 import io.cloudbeaver.*;
 import io.cloudbeaver.model.WebAsyncTaskInfo;
+import io.cloudbeaver.model.WebAsyncTaskPriority;
 import io.cloudbeaver.model.WebConnectionInfo;
 import io.cloudbeaver.model.WebServerMessage;
 import io.cloudbeaver.model.app.ServletApplication;
@@ -36,6 +37,8 @@ import io.cloudbeaver.utils.WebEventUtils;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
@@ -62,7 +65,6 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.security.SMAdminController;
 import org.jkiss.dbeaver.model.security.SMConstants;
 import org.jkiss.dbeaver.model.security.SMController;
-import org.jkiss.dbeaver.model.sql.DBQuotaException;
 import org.jkiss.dbeaver.model.websocket.event.MessageType;
 import org.jkiss.dbeaver.model.websocket.event.WSSessionLogUpdatedEvent;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -91,7 +93,6 @@ public class WebSession extends BaseWebSession
     private static final AtomicInteger TASK_ID = new AtomicInteger();
 
     public static String RUNTIME_PARAM_AUTH_INFOS = "auth-infos";
-    private final AtomicInteger taskCount = new AtomicInteger();
 
     private String lastRemoteAddr;
     private String lastRemoteUserAgent;
@@ -469,6 +470,7 @@ public class WebSession extends BaseWebSession
         } catch (Exception e) {
             log.error("Error closing web session tokens");
         }
+        cancelQueuedTasks();
         this.userContext.setUser(null);
         super.close();
     }
@@ -488,6 +490,7 @@ public class WebSession extends BaseWebSession
                 log.error("Error closing web session tokens");
             }
         }
+        cancelQueuedTasks();
         this.userContext.setUser(null);
         super.close(clearTokens, sendSessionExpiredEvent);
     }
@@ -543,31 +546,43 @@ public class WebSession extends BaseWebSession
                 throw new DBWebException("Task '" + taskId + "' not found");
             }
         }
+        if (WebAsyncTaskScheduler.getInstance().cancel(taskId)) {
+            // Task was not started yet
+            finishCanceledTask(taskInfo);
+            return true;
+        }
         AbstractJob job = taskInfo.getJob();
         if (job != null) {
+            // Running statements are canceled by the job monitor
             job.cancel();
         }
         return true;
     }
 
     public WebAsyncTaskInfo createAndRunAsyncTask(@NotNull String taskName, @NotNull WebAsyncTaskProcessor<?> runnable) {
+        return createAndRunAsyncTask(taskName, WebAsyncTaskPriority.INTERACTIVE, runnable);
+    }
+
+    /**
+     * Creates async task and queues it in the task scheduler.
+     * Tasks above the user running tasks quota wait in queue till other user tasks are finished.
+     */
+    public WebAsyncTaskInfo createAndRunAsyncTask(
+        @NotNull String taskName,
+        @NotNull WebAsyncTaskPriority priority,
+        @NotNull WebAsyncTaskProcessor<?> runnable
+    ) {
         int taskId = TASK_ID.incrementAndGet();
         WebAsyncTaskInfo asyncTask = getAsyncTask(String.valueOf(taskId), taskName, true);
+        WebAsyncTaskScheduler scheduler = WebAsyncTaskScheduler.getInstance();
 
         AbstractJob job = new AbstractJob(taskName) {
             @Override
             protected IStatus run(DBRProgressMonitor monitor) {
-                int curTaskCount = taskCount.incrementAndGet();
-
                 DBRProgressMonitor taskMonitor = new TaskProgressMonitor(monitor, WebSession.this, asyncTask);
 
                 try {
-                    Number queryLimit = application.getAppConfiguration().getResourceQuota(WebSQLConstants.QUOTA_PROP_QUERY_LIMIT);
-                    if (queryLimit != null && curTaskCount > queryLimit.intValue()) {
-                        throw new DBQuotaException(
-                            "Maximum simultaneous queries quota exceeded", WebSQLConstants.QUOTA_PROP_QUERY_LIMIT, queryLimit.intValue(), curTaskCount);
-                    }
-
+                    asyncTask.setStatus(null);
                     runnable.run(taskMonitor);
                     asyncTask.setResult(runnable.getResult());
                     asyncTask.setExtendedResult(runnable.getExtendedResults());
@@ -578,7 +593,6 @@ public class WebSession extends BaseWebSession
                 } catch (Exception e) {
                     asyncTask.setJobError(e);
                 } finally {
-                    taskCount.decrementAndGet();
                     asyncTask.setRunning(false);
                     WebEventUtils.sendAsyncTaskEvent(WebSession.this, asyncTask);
                 }
@@ -586,12 +600,53 @@ public class WebSession extends BaseWebSession
             }
         };
 
+        job.addJobChangeListener(new JobChangeAdapter() {
+            @Override
+            public void done(IJobChangeEvent event) {
+                // Called for jobs canceled before run too, so the running slot is always released
+                scheduler.finish(asyncTask.getId());
+                if (asyncTask.isRunning()) {
+                    finishCanceledTask(asyncTask);
+                }
+            }
+        });
         asyncTask.setJob(job);
         asyncTask.setRunning(true);
-        job.schedule();
+        asyncTask.setStatus("Queued");
+
+        Number totalLimit = application.getAppConfiguration().getResourceQuota(WebSQLConstants.QUOTA_PROP_TOTAL_QUERY_LIMIT);
+        scheduler.setMaxRunningTasks(totalLimit == null ? WebAsyncTaskScheduler.DEFAULT_MAX_RUNNING_TASKS : totalLimit.intValue());
+        Number queryLimit = application.getAppConfiguration().getResourceQuota(WebSQLConstants.QUOTA_PROP_QUERY_LIMIT);
+        String ownerId = CommonUtils.isEmpty(getUserId()) ? getSessionId() : getUserId();
+        scheduler.submit(
+            ownerId,
+            asyncTask.getId(),
+            priority,
+            queryLimit == null ? Integer.MAX_VALUE : queryLimit.intValue(),
+            job::schedule);
         return asyncTask;
     }
 
+    private void finishCanceledTask(@NotNull WebAsyncTaskInfo asyncTask) {
+        asyncTask.setJobError(new DBException("Task canceled"));
+        asyncTask.setStatus("Canceled");
+        asyncTask.setRunning(false);
+        WebEventUtils.sendAsyncTaskEvent(this, asyncTask);
+    }
+
+    private void cancelQueuedTasks() {
+        List<WebAsyncTaskInfo> tasks;
+        synchronized (asyncTasks) {
+            tasks = new ArrayList<>(asyncTasks.values());
+        }
+        for (WebAsyncTaskInfo task : tasks) {
+            if (task.isRunning() && WebAsyncTaskScheduler.getInstance().cancel(task.getId())) {
+                task.setJobError(new DBException("Session closed"));
+                task.setRunning(false);
+            }
+        }
+    }
+
     public void addSessionError(Throwable exception) {
         addSessionMessage(new WebServerMessage(exception));
     }
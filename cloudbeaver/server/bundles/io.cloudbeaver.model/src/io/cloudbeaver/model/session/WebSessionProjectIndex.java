@@ -0,0 +1,84 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.model.session;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of web sessions by accessible projects.
+ * Allows to find sessions affected by project event without checking all active sessions.
+ */
+public class WebSessionProjectIndex {
+
+    private static final WebSessionProjectIndex INSTANCE = new WebSessionProjectIndex();
+
+    public static WebSessionProjectIndex getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<String, Set<BaseWebSession>> sessionsByProject = new ConcurrentHashMap<>();
+    // Guarded by this
+    private final Map<BaseWebSession, Set<String>> projectsBySession = new HashMap<>();
+
+    WebSessionProjectIndex() {
+    }
+
+    /**
+     * Returns sessions which have access to the specified project
+     */
+    @NotNull
+    public Collection<BaseWebSession> getProjectSessions(@Nullable String projectId) {
+        if (projectId == null) {
+            return List.of();
+        }
+        Set<BaseWebSession> sessions = sessionsByProject.get(projectId);
+        return sessions == null ? List.of() : new ArrayList<>(sessions);
+    }
+
+    synchronized void setSessionProjects(@NotNull BaseWebSession session, @NotNull Set<String> projectIds) {
+        Set<String> oldProjectIds = projectsBySession.getOrDefault(session, Set.of());
+        for (String projectId : oldProjectIds) {
+            if (!projectIds.contains(projectId)) {
+                Set<BaseWebSession> sessions = sessionsByProject.get(projectId);
+                if (sessions != null) {
+                    sessions.remove(session);
+                    if (sessions.isEmpty()) {
+                        sessionsByProject.remove(projectId);
+                    }
+                }
+            }
+        }
+        for (String projectId : projectIds) {
+            if (!oldProjectIds.contains(projectId)) {
+                sessionsByProject.computeIfAbsent(projectId, id -> ConcurrentHashMap.newKeySet()).add(session);
+            }
+        }
+        if (projectIds.isEmpty()) {
+            projectsBySession.remove(session);
+        } else {
+            projectsBySession.put(session, Set.copyOf(projectIds));
+        }
+    }
+
+    void removeSession(@NotNull BaseWebSession session) {
+        setSessionProjects(session, Set.of());
+    }
+}
@@ -40,6 +40,7 @@ import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -65,6 +66,8 @@ public class WebUserContext implements SMCredentialsProvider {
     private RMController rmController;
     private DBFileController fileController;
     private Set<String> accessibleProjectIds = new HashSet<>();
+    @Nullable
+    private Consumer<Set<String>> accessibleProjectsListener;
     private final WebSessionPreferenceStore preferenceStore;
 
     public WebUserContext(ServletApplication application, DBPWorkspace workspace) throws DBException {
@@ -136,6 +139,32 @@ public class WebUserContext implements SMCredentialsProvider {
         this.accessibleProjectIds.addAll(
             Arrays.stream(rmController.listAccessibleProjects()).map(RMProject::getId).collect(Collectors.toSet())
         );
+        fireAccessibleProjectsChanged();
+    }
+
+    public synchronized void addAccessibleProject(@NotNull String projectId) {
+        if (accessibleProjectIds.add(projectId)) {
+            fireAccessibleProjectsChanged();
+        }
+    }
+
+    public synchronized void removeAccessibleProject(@Nullable String projectId) {
+        if (accessibleProjectIds.remove(projectId)) {
+            fireAccessibleProjectsChanged();
+        }
+    }
+
+    /**
+     * Sets listener which is notified with the new set of accessible projects on each change
+     */
+    public synchronized void setAccessibleProjectsListener(@Nullable Consumer<Set<String>> listener) {
+        this.accessibleProjectsListener = listener;
+    }
+
+    private void fireAccessibleProjectsChanged() {
+        if (accessibleProjectsListener != null) {
+            accessibleProjectsListener.accept(Set.copyOf(accessibleProjectIds));
+        }
     }
 
     public synchronized void refreshSMSession() throws DBException {
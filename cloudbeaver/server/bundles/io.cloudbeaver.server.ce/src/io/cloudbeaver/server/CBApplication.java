@@ -500,6 +500,7 @@ public abstract class CBApplication<T extends CBServerConfig> extends
 
     protected void shutdown() {
         log.debug("Cloudbeaver Server is stopping"); //$NON-NLS-1$
+        eventController.stopEventsDispatcher();
     }
 
     @Override
@@ -18,6 +18,7 @@ package io.cloudbeaver.server.events;
 
 import io.cloudbeaver.model.session.BaseWebSession;
 import io.cloudbeaver.model.session.WebHeadlessSession;
+import io.cloudbeaver.service.security.SMPermissionsCache;
 import io.cloudbeaver.service.security.SMUtils;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
@@ -31,6 +32,13 @@ import java.util.HashSet;
 public class WSSubjectPermissionUpdatedEventHandler extends WSDefaultEventHandler<WSSubjectPermissionEvent> {
     private static final Log log = Log.getLog(WSSubjectPermissionUpdatedEventHandler.class);
 
+    @Override
+    public void handleEvent(@NotNull WSSubjectPermissionEvent event) {
+        // Event may come from another cluster node, drop permissions cached before the change
+        SMPermissionsCache.getInstance().invalidatePermissions();
+        super.handleEvent(event);
+    }
+
     @Override
     protected void updateSessionData(@NotNull BaseWebSession activeUserSession, @NotNull WSSubjectPermissionEvent event) {
         var oldUserPermissions = new HashSet<>(activeUserSession.getUserContext().getUserPermissions());
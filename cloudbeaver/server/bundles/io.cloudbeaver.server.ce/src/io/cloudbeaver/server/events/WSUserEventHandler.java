@@ -17,11 +17,13 @@
 package io.cloudbeaver.server.events;
 
 import io.cloudbeaver.server.CBApplication;
+import io.cloudbeaver.service.security.SMPermissionsCache;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.model.websocket.WSEventHandler;
 import org.jkiss.dbeaver.model.websocket.event.WSAbstractEvent;
 import org.jkiss.dbeaver.model.websocket.event.WSUserCloseSessionsEvent;
 import org.jkiss.dbeaver.model.websocket.event.WSUserDeletedEvent;
+import org.jkiss.dbeaver.model.websocket.event.WSUserTokensInvalidatedEvent;
 
 public class WSUserEventHandler<EVENT extends WSAbstractEvent> implements WSEventHandler<EVENT> {
     @Override
@@ -31,17 +33,28 @@ public class WSUserEventHandler<EVENT extends WSAbstractEvent> implements WSEven
             case WSUserCloseSessionsEvent.ID:
                 if (event instanceof WSUserCloseSessionsEvent closeSessionsEvent) {
                     if (closeSessionsEvent.getSessionIds().isEmpty()) {
+                        SMPermissionsCache.getInstance().invalidateAll();
                         sessionManager.closeAllSessions(closeSessionsEvent.getSessionId());
                     } else {
+                        SMPermissionsCache.getInstance().invalidateSessionTokens(closeSessionsEvent.getSessionIds());
                         sessionManager.closeSessions(closeSessionsEvent.getSessionIds());
                     }
                 }
                 break;
             case WSUserDeletedEvent.ID:
                 if (event instanceof WSUserDeletedEvent userDeletedEvent) {
+                    SMPermissionsCache.getInstance().invalidateUser(userDeletedEvent.getDeletedUserId());
                     sessionManager.closeUserSession(userDeletedEvent);
                 }
                 break;
+            case WSUserTokensInvalidatedEvent.ID:
+                if (event instanceof WSUserTokensInvalidatedEvent tokensInvalidatedEvent) {
+                    if (tokensInvalidatedEvent.getInvalidatedUserId() != null) {
+                        SMPermissionsCache.getInstance().invalidateUser(tokensInvalidatedEvent.getInvalidatedUserId());
+                    }
+                    SMPermissionsCache.getInstance().invalidateSessionTokens(tokensInvalidatedEvent.getInvalidatedSessionIds());
+                }
+                break;
             default:
                 break;
         }
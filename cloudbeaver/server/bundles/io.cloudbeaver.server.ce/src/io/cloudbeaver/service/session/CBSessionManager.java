@@ -39,6 +39,8 @@ import org.jkiss.dbeaver.model.websocket.event.session.WSSessionStateEvent;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -49,12 +51,53 @@ public class CBSessionManager implements WebAppSessionManager {
     private static final Log log = Log.getLog(CBSessionManager.class);
 
     private final CBApplication application;
-    private final Map<String, BaseWebSession> sessionMap = new HashMap<>();
+    private final Map<String, BaseWebSession> sessionMap = new ConcurrentHashMap<>();
+    // Session creation/restore may call the database. Only callers with the same session id wait for it,
+    // lookups and creation of other sessions are never blocked.
+    private final Map<String, SessionLock> pendingSessions = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    private interface SessionAction<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    private static class SessionLock extends CompletableFuture<Void> {
+        private final Thread owner = Thread.currentThread();
+    }
 
     public CBSessionManager(CBApplication application) {
         this.application = application;
     }
 
+    /**
+     * Runs action exclusively for the specified session id.
+     * Callers with the same id wait until the running action is finished.
+     * The lock is reentrant: nested call for the same id from the action runs immediately.
+     */
+    private <T, E extends Exception> T runInSessionLock(
+        @NotNull String sessionId,
+        @NotNull SessionAction<T, E> action
+    ) throws E {
+        SessionLock lock = new SessionLock();
+        for (;;) {
+            SessionLock pending = pendingSessions.computeIfAbsent(sessionId, id -> lock);
+            if (pending == lock) {
+                break;
+            }
+            if (pending.owner == Thread.currentThread()) {
+                // Already locked by the outer call
+                return action.run();
+            }
+            pending.join();
+        }
+        try {
+            return action.run();
+        } finally {
+            pendingSessions.remove(sessionId, lock);
+            lock.complete(null);
+        }
+    }
+
     /**
      * Closes Web Session, associated to HttpSession from {@code request}
      */
@@ -69,10 +112,7 @@ public class CBSessionManager implements WebAppSessionManager {
 
     @Override
     public BaseWebSession closeSession(@NotNull String sessionId) {
-        BaseWebSession webSession;
-        synchronized (sessionMap) {
-            webSession = sessionMap.remove(sessionId);
-        }
+        BaseWebSession webSession = sessionMap.remove(sessionId);
         if (webSession != null) {
             log.debug("> Close session '" + sessionId + "'");
             webSession.close();
@@ -115,8 +155,12 @@ public class CBSessionManager implements WebAppSessionManager {
     ) throws DBWebException {
         HttpSession httpSession = request.getSession(true);
         String sessionId = httpSession.getId();
-        WebSession webSession;
-        synchronized (sessionMap) {
+        var cachedWebSession = sessionMap.get(sessionId);
+        if (cachedWebSession != null) {
+            return castWebSession(cachedWebSession);
+        }
+        return runInSessionLock(sessionId, () -> {
+            WebSession webSession;
             var baseWebSession = sessionMap.get(sessionId);
             if (baseWebSession == null && CBApplication.getInstance().isConfigurationMode()) {
                 try {
@@ -149,14 +193,18 @@ public class CBSessionManager implements WebAppSessionManager {
 
                 sessionMap.put(sessionId, webSession);
             } else {
-                if (!(baseWebSession instanceof WebSession)) {
-                    throw new DBWebException("Unexpected session type: " + baseWebSession.getClass().getName());
-                }
-                webSession = (WebSession) baseWebSession;
+                webSession = castWebSession(baseWebSession);
             }
-        }
+            return webSession;
+        });
+    }
 
-        return webSession;
+    @NotNull
+    private static WebSession castWebSession(@NotNull BaseWebSession baseWebSession) throws DBWebException {
+        if (!(baseWebSession instanceof WebSession)) {
+            throw new DBWebException("Unexpected session type: " + baseWebSession.getClass().getName());
+        }
+        return (WebSession) baseWebSession;
     }
 
     /**
@@ -171,15 +219,22 @@ public class CBSessionManager implements WebAppSessionManager {
             log.debug("Http session is null. No Web Session returned");
             return null;
         }
-        WebSession webSession;
-        synchronized (sessionMap) {
-            if (sessionMap.containsKey(sessionId)) {
-                var cachedWebSession = sessionMap.get(sessionId);
-                if (!(cachedWebSession instanceof WebSession)) {
-                    log.warn("Unexpected session type: " + cachedWebSession.getClass().getName());
+        var cachedWebSession = sessionMap.get(sessionId);
+        if (cachedWebSession != null) {
+            if (!(cachedWebSession instanceof WebSession)) {
+                log.warn("Unexpected session type: " + cachedWebSession.getClass().getName());
+                return null;
+            }
+            return (WebSession) cachedWebSession;
+        }
+        return runInSessionLock(sessionId, () -> {
+            var baseWebSession = sessionMap.get(sessionId);
+            if (baseWebSession != null) {
+                if (!(baseWebSession instanceof WebSession)) {
+                    log.warn("Unexpected session type: " + baseWebSession.getClass().getName());
                     return null;
                 }
-                return (WebSession) cachedWebSession;
+                return (WebSession) baseWebSession;
             } else {
                 try {
                     var oldAuthInfo = getApplication().getSecurityController().restoreUserSession(sessionId);
@@ -188,7 +243,7 @@ public class CBSessionManager implements WebAppSessionManager {
                         return null;
                     }
 
-                    webSession = createWebSessionImpl(requestInfo);
+                    WebSession webSession = createWebSessionImpl(requestInfo);
                     restorePreviousUserSession(webSession, oldAuthInfo);
 
                     sessionMap.put(sessionId, webSession);
@@ -199,7 +254,7 @@ public class CBSessionManager implements WebAppSessionManager {
                     return null;
                 }
             }
-        }
+        });
     }
 
     private boolean restorePreviousUserSession(@NotNull WebSession webSession) throws DBException {
@@ -236,22 +291,18 @@ public class CBSessionManager implements WebAppSessionManager {
     @Override
     @Nullable
     public BaseWebSession getSession(@NotNull String sessionId) {
-        synchronized (sessionMap) {
-            return sessionMap.get(sessionId);
-        }
+        return sessionMap.get(sessionId);
     }
 
     @Override
     @Nullable
     public WebSession findWebSession(HttpServletRequest request) {
         String sessionId = request.getSession().getId();
-        synchronized (sessionMap) {
-            var session = sessionMap.get(sessionId);
-            if (session instanceof WebSession) {
-                return (WebSession) session;
-            }
-            return null;
+        var session = sessionMap.get(sessionId);
+        if (session instanceof WebSession) {
+            return (WebSession) session;
         }
+        return null;
     }
 
     @Override
@@ -270,14 +321,12 @@ public class CBSessionManager implements WebAppSessionManager {
         long maxSessionIdleTime = application.getMaxSessionIdleTime();
 
         List<BaseWebSession> expiredList = new ArrayList<>();
-        synchronized (sessionMap) {
-            for (Iterator<BaseWebSession> iterator = sessionMap.values().iterator(); iterator.hasNext(); ) {
-                var session = iterator.next();
-                long idleMillis = System.currentTimeMillis() - session.getLastAccessTimeMillis();
-                if (idleMillis >= maxSessionIdleTime) {
-                    iterator.remove();
-                    expiredList.add(session);
-                }
+        long currentTime = System.currentTimeMillis();
+        for (var entry : sessionMap.entrySet()) {
+            var session = entry.getValue();
+            long idleMillis = currentTime - session.getLastAccessTimeMillis();
+            if (idleMillis >= maxSessionIdleTime && sessionMap.remove(entry.getKey(), session)) {
+                expiredList.add(session);
             }
         }
 
@@ -289,9 +338,7 @@ public class CBSessionManager implements WebAppSessionManager {
 
     @Override
     public Collection<BaseWebSession> getAllActiveSessions() {
-        synchronized (sessionMap) {
-            return new ArrayList<>(sessionMap.values());
-        }
+        return new ArrayList<>(sessionMap.values());
     }
 
     @Nullable
@@ -303,12 +350,17 @@ public class CBSessionManager implements WebAppSessionManager {
         if (CommonUtils.isEmpty(smAccessToken)) {
             return null;
         }
-        synchronized (sessionMap) {
-            var tempCredProvider = new SMTokenCredentialProvider(smAccessToken);
-            SMAuthPermissions authPermissions = application.createSecurityController(tempCredProvider).getTokenPermissions();
-            var sessionId = requestInfo.getId() != null ? requestInfo.getId()
-                : authPermissions.getSessionId();
+        // Token permissions are read from the database, do it before taking the session lock
+        var tempCredProvider = new SMTokenCredentialProvider(smAccessToken);
+        SMAuthPermissions authPermissions = application.createSecurityController(tempCredProvider).getTokenPermissions();
+        var sessionId = requestInfo.getId() != null ? requestInfo.getId()
+            : authPermissions.getSessionId();
+        if (CommonUtils.isEmpty(sessionId)) {
+            log.debug("No session id for headless session");
+            return null;
+        }
 
+        return runInSessionLock(sessionId, () -> {
             var existSession = sessionMap.get(sessionId);
 
             if (existSession instanceof WebHeadlessSession) {
@@ -340,62 +392,54 @@ public class CBSessionManager implements WebAppSessionManager {
             );
             sessionMap.put(sessionId, headlessSession);
             return headlessSession;
-        }
+        });
     }
 
     /**
      * Send session state with remaining alive time to all cached session
      */
     public void sendSessionsStates() {
-        synchronized (sessionMap) {
-            sessionMap.values()
-                .parallelStream()
-                .filter(session -> {
-                    if (session instanceof WebSession webSession) {
-                        return webSession.isAuthorizedInSecurityManager();
-                    }
-                    return false;
-                })
-                .forEach(session -> {
-                    try {
-                        session.addSessionEvent(new WSSessionStateEvent(
-                            session.getLastAccessTimeMillis(),
-                            session.getRemainingTime(),
-                            session.isValid(),
-                            ((WebSession) session).isCacheExpired(),
-                            ((WebSession) session).getLocale(),
-                            ((WebSession) session).getActionParameters()));
-                    } catch (Exception e) {
-                        log.error("Failed to refresh session state: " + session.getSessionId(), e);
-                    }
-                });
-        }
+        sessionMap.values()
+            .parallelStream()
+            .filter(session -> {
+                if (session instanceof WebSession webSession) {
+                    return webSession.isAuthorizedInSecurityManager();
+                }
+                return false;
+            })
+            .forEach(session -> {
+                try {
+                    session.addSessionEvent(new WSSessionStateEvent(
+                        session.getLastAccessTimeMillis(),
+                        session.getRemainingTime(),
+                        session.isValid(),
+                        ((WebSession) session).isCacheExpired(),
+                        ((WebSession) session).getLocale(),
+                        ((WebSession) session).getActionParameters()));
+                } catch (Exception e) {
+                    log.error("Failed to refresh session state: " + session.getSessionId(), e);
+                }
+            });
     }
 
     public void closeUserSession(@NotNull WSUserDeletedEvent userDeletedEvent) {
-        synchronized (sessionMap) {
-            for (Iterator<BaseWebSession> iterator = sessionMap.values().iterator(); iterator.hasNext(); ) {
-                var session = iterator.next();
-                if (CommonUtils.equalObjects(session.getUserContext().getUserId(),
-                    userDeletedEvent.getDeletedUserId())) {
-                    if (session instanceof WebHeadlessSession headlessSession) {
-                        headlessSession.addSessionEvent(userDeletedEvent);
-                    }
-                    iterator.remove();
-                    session.close();
+        for (var entry : sessionMap.entrySet()) {
+            var session = entry.getValue();
+            if (CommonUtils.equalObjects(session.getUserContext().getUserId(),
+                userDeletedEvent.getDeletedUserId()) && sessionMap.remove(entry.getKey(), session)) {
+                if (session instanceof WebHeadlessSession headlessSession) {
+                    headlessSession.addSessionEvent(userDeletedEvent);
                 }
+                session.close();
             }
         }
     }
 
     public void closeSessions(@NotNull List<String> smSessionsId) {
-        synchronized (sessionMap) {
-            for (Iterator<BaseWebSession> iterator = sessionMap.values().iterator(); iterator.hasNext(); ) {
-                var session = iterator.next();
-                if (smSessionsId.contains(session.getUserContext().getSmSessionId())) {
-                    iterator.remove();
-                    session.close(false, true);
-                }
+        for (var entry : sessionMap.entrySet()) {
+            var session = entry.getValue();
+            if (smSessionsId.contains(session.getUserContext().getSmSessionId()) && sessionMap.remove(entry.getKey(), session)) {
+                session.close(false, true);
             }
         }
     }
@@ -404,10 +448,9 @@ public class CBSessionManager implements WebAppSessionManager {
      * Closes all sessions in session manager.
      */
     public void closeAllSessions(@Nullable String initiatorSessionId) {
-        synchronized (sessionMap) {
-            for (Iterator<BaseWebSession> iterator = sessionMap.values().iterator(); iterator.hasNext(); ) {
-                var session = iterator.next();
-                iterator.remove();
+        for (var entry : sessionMap.entrySet()) {
+            var session = entry.getValue();
+            if (sessionMap.remove(entry.getKey(), session)) {
                 session.close(false, !WSWebUtils.isSessionIdEquals(session, initiatorSessionId));
             }
         }
@@ -418,7 +461,7 @@ public class CBSessionManager implements WebAppSessionManager {
      */
     public WebSession createWebSession(WebHttpRequestInfo requestInfo) throws DBException {
         String id = requestInfo.getId();
-        synchronized (sessionMap) {
+        return runInSessionLock(id, () -> {
             BaseWebSession baseWebSession = sessionMap.get(id);
             if (baseWebSession instanceof WebSession) {
                 return (WebSession) baseWebSession;
@@ -427,6 +470,6 @@ public class CBSessionManager implements WebAppSessionManager {
                 sessionMap.put(id, webSessionImpl);
                 return webSessionImpl;
             }
-        }
+        });
     }
 }
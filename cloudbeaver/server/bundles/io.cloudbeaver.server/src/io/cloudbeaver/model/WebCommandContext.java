@@ -16,8 +16,14 @@
  */
 package io.cloudbeaver.model;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.impl.edit.AbstractCommandContext;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataSnapshotStore;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.Map;
 
 /**
  * WebCommandContext.
@@ -28,4 +34,14 @@ public class WebCommandContext extends AbstractCommandContext {
         super(executionContext, atomic);
     }
 
+    @Override
+    public void saveChanges(@NotNull DBRProgressMonitor monitor, @NotNull Map<String, Object> options) throws DBException {
+        try {
+            super.saveChanges(monitor, options);
+        } finally {
+            // Metadata snapshot of other sessions doesn't contain changed objects anymore
+            JDBCMetadataSnapshotStore.getInstance().invalidate(getExecutionContext().getDataSource().getContainer());
+        }
+    }
+
 }
\ No newline at end of file
@@ -23,6 +23,7 @@ import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.app.DBACertificateStorage;
 import org.jkiss.dbeaver.model.app.DBPWorkspace;
 import org.jkiss.dbeaver.model.impl.app.DefaultCertificateStorage;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataSnapshotStore;
 import org.jkiss.dbeaver.model.qm.QMRegistry;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.registry.DataSourceProviderRegistry;
@@ -62,6 +63,8 @@ public abstract class BaseWebPlatform extends BaseServletPlatform {
                 .toFile()
                 .toPath()
                 .resolve(DBConstants.CERTIFICATE_STORAGE_FOLDER));
+        // Sessions which open the same connection share metadata read from database
+        JDBCMetadataSnapshotStore.getInstance().setEnabled(true);
         super.initialize();
     }
 
@@ -101,6 +104,7 @@ public abstract class BaseWebPlatform extends BaseServletPlatform {
             this.queryManager.dispose();
             //queryManager = null;
         }
+        JDBCMetadataSnapshotStore.getInstance().setEnabled(false);
         DataSourceProviderRegistry.dispose();
     }
 
@@ -17,14 +17,24 @@
 package io.cloudbeaver.server.events;
 
 import io.cloudbeaver.model.session.BaseWebSession;
+import io.cloudbeaver.model.session.WebSessionProjectIndex;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.model.websocket.event.WSProjectEvent;
 
+import java.util.Collection;
+
 /**
  * Notify all active user session that project has been updated
  */
 public abstract class WSAbstractProjectEventHandler<EVENT extends WSProjectEvent> extends WSDefaultEventHandler<EVENT> {
 
+    @NotNull
+    @Override
+    protected Collection<BaseWebSession> getEventSessions(@NotNull EVENT event) {
+        // Only sessions with access to the project are interested in its events
+        return WebSessionProjectIndex.getInstance().getProjectSessions(event.getProjectId());
+    }
+
     @Override
     protected boolean isAcceptableInSession(@NotNull BaseWebSession activeUserSession, @NotNull EVENT event) {
         return super.isAcceptableInSession(activeUserSession, event) &&
@@ -21,6 +21,7 @@ import io.cloudbeaver.model.session.BaseWebSession;
 import io.cloudbeaver.model.session.WebSession;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataSnapshotStore;
 import org.jkiss.dbeaver.model.websocket.event.datasource.WSDataSourceEvent;
 
 /**
@@ -30,6 +31,17 @@ public class WSDataSourceUpdatedEventHandlerImpl extends WSAbstractProjectEventH
 
     public static final Log log = Log.getLog(WSDataSourceUpdatedEventHandlerImpl.class);
 
+    @Override
+    public void handleEvent(@NotNull WSDataSourceEvent event) {
+        if (WSDataSourceEvent.UPDATED.equals(event.getId()) || WSDataSourceEvent.DELETED.equals(event.getId())) {
+            // Metadata snapshots are shared by all sessions, so they are dropped once per event
+            for (String dataSourceId : event.getDataSourceIds()) {
+                JDBCMetadataSnapshotStore.getInstance().invalidate(event.getProjectId(), dataSourceId);
+            }
+        }
+        super.handleEvent(event);
+    }
+
     @Override
     protected void updateSessionData(@NotNull BaseWebSession activeUserSession, @NotNull WSDataSourceEvent event) {
         var sendEvent = true;
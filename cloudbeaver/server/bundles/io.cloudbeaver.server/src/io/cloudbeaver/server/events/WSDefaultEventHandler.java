@@ -32,10 +32,7 @@ public class WSDefaultEventHandler<EVENT extends WSEvent> implements WSEventHand
     @Override
     public void handleEvent(@NotNull EVENT event) {
         log.debug(event.getTopicId() + " event handled");
-        Collection<BaseWebSession> allSessions = WebAppUtils.getWebApplication()
-            .getSessionManager()
-            .getAllActiveSessions();
-        for (var activeUserSession : allSessions) {
+        for (var activeUserSession : getEventSessions(event)) {
             if (!isAcceptableInSession(activeUserSession, event)) {
                 log.debug("Cannot handle " + event.getTopicId() + " event '" + event.getId() +
                     "' in session " + activeUserSession.getSessionId());
@@ -46,6 +43,15 @@ public class WSDefaultEventHandler<EVENT extends WSEvent> implements WSEventHand
         }
     }
 
+    /**
+     * Returns sessions which may be affected by the event.
+     * Each of them is additionally checked by {@link #isAcceptableInSession(BaseWebSession, WSEvent)}.
+     */
+    @NotNull
+    protected Collection<BaseWebSession> getEventSessions(@NotNull EVENT event) {
+        return WebAppUtils.getWebApplication().getSessionManager().getAllActiveSessions();
+    }
+
     protected void updateSessionData(@NotNull BaseWebSession activeUserSession, @NotNull EVENT event) {
         activeUserSession.addSessionEvent(event);
     }
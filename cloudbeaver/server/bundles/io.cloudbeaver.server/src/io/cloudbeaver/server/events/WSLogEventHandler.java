@@ -18,11 +18,28 @@ package io.cloudbeaver.server.events;
 
 import io.cloudbeaver.model.WebServerMessage;
 import io.cloudbeaver.model.session.BaseWebSession;
+import io.cloudbeaver.server.WebAppUtils;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.model.websocket.event.WSSessionLogUpdatedEvent;
 
+import java.util.Collection;
+import java.util.List;
+
 public class WSLogEventHandler extends WSDefaultEventHandler<WSSessionLogUpdatedEvent> {
 
+    @NotNull
+    @Override
+    protected Collection<BaseWebSession> getEventSessions(@NotNull WSSessionLogUpdatedEvent event) {
+        if (event.getSessionId() != null) {
+            BaseWebSession session = WebAppUtils.getWebApplication().getSessionManager().getSession(event.getSessionId());
+            if (session != null) {
+                return List.of(session);
+            }
+        }
+        // Event may be addressed by security manager session id
+        return super.getEventSessions(event);
+    }
+
     protected void updateSessionData(@NotNull BaseWebSession activeUserSession, @NotNull WSSessionLogUpdatedEvent event) {
         activeUserSession.addSessionMessage(new WebServerMessage(event.getMessageType(), event.getMessage()));
     }
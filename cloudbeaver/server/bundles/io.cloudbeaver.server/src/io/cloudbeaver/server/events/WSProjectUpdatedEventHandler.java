@@ -18,15 +18,28 @@ package io.cloudbeaver.server.events;
 
 import io.cloudbeaver.DBWConstants;
 import io.cloudbeaver.model.session.BaseWebSession;
+import io.cloudbeaver.server.WebAppUtils;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.websocket.event.WSProjectUpdateEvent;
 
+import java.util.Collection;
+
 public class WSProjectUpdatedEventHandler extends WSAbstractProjectEventHandler<WSProjectUpdateEvent> {
 
     private static final Log log = Log.getLog(WSProjectUpdatedEventHandler.class);
 
+    @NotNull
+    @Override
+    protected Collection<BaseWebSession> getEventSessions(@NotNull WSProjectUpdateEvent event) {
+        if (WSProjectUpdateEvent.ADDED.equals(event.getId())) {
+            // New project is not in the index yet, admin sessions get access to it from this event
+            return WebAppUtils.getWebApplication().getSessionManager().getAllActiveSessions();
+        }
+        return super.getEventSessions(event);
+    }
+
     @Override
     protected void updateSessionData(@NotNull BaseWebSession activeUserSession, @NotNull WSProjectUpdateEvent event) {
         var eventId = event.getId();
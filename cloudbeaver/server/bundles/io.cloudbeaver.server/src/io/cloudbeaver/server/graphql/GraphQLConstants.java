@@ -21,6 +21,10 @@ public class GraphQLConstants {
 
     public static final String CONTENT_TYPE_JSON_UTF8 = "application/json;charset=UTF-8";
 
+    public static final String EXTENSION_PERSISTED_QUERY = "persistedQuery";
+    public static final String PERSISTED_QUERY_HASH = "sha256Hash";
+    public static final String ERROR_PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound";
+
     public static final String SCHEMA_READ_QUERY = """
           __schema {
               queryType { name }
@@ -0,0 +1,162 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.server.graphql;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.language.Document;
+import io.cloudbeaver.utils.ServletAppUtils;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.utils.CommonUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache of parsed and validated GraphQL documents.
+ * Web UI sends the same set of operations all the time, so they are parsed and validated only once.
+ * Also keeps queries registered by clients as persisted queries (sent later by their sha256 hash only).
+ */
+public class GraphQLDocumentCache implements PreparsedDocumentProvider {
+
+    private static final int MAX_CACHE_SIZE = 1000;
+
+    private static final GraphQLDocumentCache INSTANCE = new GraphQLDocumentCache();
+
+    public static GraphQLDocumentCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<String, PreparsedDocumentEntry> documents = new ConcurrentHashMap<>();
+    private final Map<String, String> persistedQueries = new ConcurrentHashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    private GraphQLDocumentCache() {
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+        ExecutionInput executionInput,
+        Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+    ) {
+        return CompletableFuture.completedFuture(getDocument(executionInput, parseAndValidateFunction));
+    }
+
+    // Not marked as override: the synchronous variant is removed from the latest graphql-java versions
+    public PreparsedDocumentEntry getDocument(
+        ExecutionInput executionInput,
+        Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+    ) {
+        if (ServletAppUtils.getServletApplication().isConfigurationMode()) {
+            // Configuration time limit is checked during validation, it must not be skipped
+            return parseAndValidateFunction.apply(executionInput);
+        }
+        String query = executionInput.getQuery();
+        PreparsedDocumentEntry entry = documents.get(query);
+        if (entry != null) {
+            hitCount.incrementAndGet();
+            return entry;
+        }
+        missCount.incrementAndGet();
+        entry = parseAndValidateFunction.apply(executionInput);
+        if (!entry.hasErrors()) {
+            trimCache(documents);
+            documents.put(query, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Returns parsed and validated document of the query if it was already executed.
+     * Doesn't parse the query and doesn't affect cache statistics.
+     */
+    @Nullable
+    public Document getCachedDocument(@NotNull String query) {
+        PreparsedDocumentEntry entry = documents.get(query);
+        return entry == null ? null : entry.getDocument();
+    }
+
+    /**
+     * Returns query registered with the specified sha256 hash
+     */
+    @Nullable
+    public String getPersistedQuery(@NotNull String queryHash) {
+        return persistedQueries.get(queryHash.toLowerCase());
+    }
+
+    /**
+     * Registers persisted query. Returns false if hash doesn't match the query text.
+     */
+    public boolean registerPersistedQuery(@NotNull String queryHash, @NotNull String query) {
+        if (!computeQueryHash(query).equalsIgnoreCase(queryHash)) {
+            return false;
+        }
+        trimCache(persistedQueries);
+        persistedQueries.put(queryHash.toLowerCase(), query);
+        return true;
+    }
+
+    /**
+     * Drops all cached documents. Must be called when schema changes.
+     */
+    public void clear() {
+        documents.clear();
+        persistedQueries.clear();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int getCachedDocumentsCount() {
+        return documents.size();
+    }
+
+    public int getPersistedQueriesCount() {
+        return persistedQueries.size();
+    }
+
+    @NotNull
+    static String computeQueryHash(@NotNull String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return CommonUtils.toHexString(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    private static void trimCache(@NotNull Map<String, ?> cache) {
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            // Real UI uses much less operations, so the cache overflows only if somebody generates queries
+            cache.clear();
+        }
+    }
+}
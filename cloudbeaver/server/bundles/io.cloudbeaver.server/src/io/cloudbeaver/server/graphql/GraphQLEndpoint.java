@@ -17,9 +17,14 @@
 package io.cloudbeaver.server.graphql;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
 import graphql.*;
 import graphql.execution.*;
 import graphql.execution.instrumentation.Instrumentation;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
 import graphql.language.SourceLocation;
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.GraphQLSchema;
@@ -40,6 +45,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.data.json.JSONUtils;
 import org.jkiss.utils.CommonUtils;
@@ -48,14 +55,18 @@ import org.jkiss.utils.IOUtils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.PrintWriter;
 import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class GraphQLEndpoint extends HttpServlet {
 
@@ -68,6 +79,38 @@ public class GraphQLEndpoint extends HttpServlet {
     private static final String HEADER_ACCESS_CONTROL_ALLOW_CREDENTIALS = "Access-Control-Allow-Credentials";
 
     private static final String CORE_SCHEMA_FILE_NAME = "schema/schema.graphqls";
+
+    /**
+     * Query fields which don't modify server or session state and may be fetched concurrently.
+     * Some queries (e.g. authLogin, readSessionLog, navRefreshNode) have side effects, so any field
+     * which isn't listed here makes batch sequential.
+     */
+    private static final Set<String> PARALLEL_QUERY_FIELDS = Set.of(
+        "__typename",
+        "serverConfig",
+        "systemInfo",
+        "productSettings",
+        "sessionPermissions",
+        "driverList",
+        "authModels",
+        "networkHandlers",
+        "userConnections",
+        "templateConnections",
+        "connectionFolders",
+        "connectionInfo",
+        "listProjects",
+        "navNodeChildren",
+        "navNodeParents",
+        "navNodeInfo",
+        "navGetStructContainers",
+        "metadataGetNodeDDL",
+        "metadataGetNodeExtendedDDL"
+    );
+
+    // Shared between all requests, so batches cannot occupy more threads in total
+    private static final int MAX_PARALLEL_BATCH_OPERATIONS = Math.min(8, Runtime.getRuntime().availableProcessors());
+    private static final ExecutorService batchExecutor = createBatchExecutor();
+
     private final GraphQL graphQL;
 
     private static final Gson gson = new GsonBuilder()
@@ -80,9 +123,12 @@ public class GraphQLEndpoint extends HttpServlet {
         GraphQLSchema schema = buildSchema();
 
         PropertyDataFetcherHelper.setUseLambdaFactory(false);
+        // Documents validated against the previous schema are not valid anymore
+        GraphQLDocumentCache.getInstance().clear();
         graphQL = GraphQL
             .newGraphQL(schema)
             .instrumentation(instrumentation)
+            .preparsedDocumentProvider(GraphQLDocumentCache.getInstance())
             .queryExecutionStrategy(new WebExecutionStrategy())
             .mutationExecutionStrategy(new WebExecutionStrategy())
             .build();
@@ -168,42 +214,200 @@ public class GraphQLEndpoint extends HttpServlet {
         String postBody = IOUtils.readToString(request.getReader());
         JsonElement json = gson.fromJson(postBody, JsonElement.class);
         if (json instanceof JsonArray array) {
-            setDevelHeaders(request, response);
-            response.setContentType(GraphQLConstants.CONTENT_TYPE_JSON_UTF8);
-            response.getWriter().print("[\n");
-
-            int reqCount = 0;
-            for (int i = 0; i < array.size(); i++) {
-                if (reqCount > 0) {
-                    response.getWriter().print(",\n");
+            executeBatchQuery(request, response, array);
+        } else if (json instanceof JsonObject reqObject) {
+            ExecutionResult result = executeSingleQuery(request, response, reqObject);
+            if (result == null) {
+                response.sendError(400, "Query not specified");
+                return;
+            }
+            writeResult(request, response, result);
+        } else {
+            response.sendError(400, "Bad JSON request");
+        }
+    }
+
+    private void executeBatchQuery(HttpServletRequest request, HttpServletResponse response, JsonArray array) throws IOException {
+        List<JsonObject> reqObjects = new ArrayList<>(array.size());
+        for (JsonElement item : array) {
+            if (item instanceof JsonObject reqObject) {
+                reqObjects.add(reqObject);
+            }
+        }
+        setDevelHeaders(request, response);
+        response.setContentType(GraphQLConstants.CONTENT_TYPE_JSON_UTF8);
+        PrintWriter writer = response.getWriter();
+        writer.print("[\n");
+        if (reqObjects.size() > 1 && isParallelExecutionAllowed(request, reqObjects)) {
+            // Results are written in request order, each one as soon as it is ready
+            List<CompletableFuture<ExecutionResult>> futures = new ArrayList<>(reqObjects.size());
+            for (JsonObject reqObject : reqObjects) {
+                futures.add(CompletableFuture.supplyAsync(
+                    () -> executeBatchItem(request, response, reqObject),
+                    batchExecutor));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                if (i > 0) {
+                    writer.print(",\n");
                 }
-                JsonElement item = array.get(i);
-                if (item instanceof JsonObject) {
-                    executeSingleQuery(request, response, (JsonObject) item);
-                    reqCount++;
+                ExecutionResult result;
+                try {
+                    result = futures.get(i).join();
+                } catch (CompletionException e) {
+                    futures.forEach(f -> f.cancel(false));
+                    throw e.getCause() instanceof RuntimeException re ? re : e;
                 }
+                writeResultJson(writer, result);
             }
-
-            response.getWriter().print("\n]");
-        } else if (json instanceof JsonObject reqObject) {
-            executeSingleQuery(request, response, reqObject);
         } else {
-            response.sendError(400, "Bad JSON request");
+            for (int i = 0; i < reqObjects.size(); i++) {
+                if (i > 0) {
+                    writer.print(",\n");
+                }
+                writeResultJson(writer, executeBatchItem(request, response, reqObjects.get(i)));
+            }
         }
+        writer.print("\n]");
     }
 
-    private void executeSingleQuery(HttpServletRequest request, HttpServletResponse response, JsonObject reqObject) throws IOException {
-        JsonElement query = reqObject.get("query");
-        if (query == null) {
-            response.sendError(400, "Query not specified");
-            return;
+    private static ExecutorService createBatchExecutor() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            MAX_PARALLEL_BATCH_OPERATIONS,
+            MAX_PARALLEL_BATCH_OPERATIONS,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "GraphQL batch executor " + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @NotNull
+    private ExecutionResult executeBatchItem(HttpServletRequest request, HttpServletResponse response, JsonObject reqObject) {
+        ExecutionResult result = executeSingleQuery(request, response, reqObject);
+        return result != null ? result : makeErrorResult("Query not specified", "BAD_REQUEST");
+    }
+
+    /**
+     * Batch operations may be executed concurrently only if all of them are queries of
+     * side-effect-free fields (see {@link #PARALLEL_QUERY_FIELDS}) and web session cookie was already set
+     * (session creation modifies response headers which must not be done from several threads).
+     * Operations are checked by their cached documents, operations which were never executed before are executed in order.
+     */
+    private static boolean isParallelExecutionAllowed(HttpServletRequest request, List<JsonObject> reqObjects) {
+        if (request.getSession(false) == null) {
+            return false;
+        }
+        for (JsonObject reqObject : reqObjects) {
+            String query = getStringProperty(reqObject, "query");
+            if (query == null) {
+                String queryHash = getPersistedQueryHash(reqObject.get("extensions"));
+                if (queryHash != null) {
+                    query = GraphQLDocumentCache.getInstance().getPersistedQuery(queryHash);
+                }
+                if (query == null) {
+                    // Will fail anyway
+                    continue;
+                }
+            }
+            Document document = GraphQLDocumentCache.getInstance().getCachedDocument(query);
+            if (document == null) {
+                // Not parsed yet, or it has errors which execution will report
+                return false;
+            }
+            for (OperationDefinition operation : document.getDefinitionsOfType(OperationDefinition.class)) {
+                if (operation.getOperation() != OperationDefinition.Operation.QUERY) {
+                    return false;
+                }
+                for (Selection<?> selection : operation.getSelectionSet().getSelections()) {
+                    // Fragments and unknown fields are not checked, execute them in order
+                    if (!(selection instanceof Field field) || !PARALLEL_QUERY_FIELDS.contains(field.getName())) {
+                        return false;
+                    }
+                }
+            }
         }
+        return true;
+    }
+
+    /**
+     * Executes query from request object. Returns null if query is not specified.
+     */
+    @Nullable
+    private ExecutionResult executeSingleQuery(HttpServletRequest request, HttpServletResponse response, JsonObject reqObject) {
+        String query = getStringProperty(reqObject, "query");
+        String queryHash = getPersistedQueryHash(reqObject.get("extensions"));
+
         JsonElement varJSON = reqObject.get("variables");
         Map<String, Object> variables = varJSON == null ? null : gson.fromJson(varJSON, JSONUtils.MAP_TYPE_TOKEN);
 
-        JsonElement operNameJSON = reqObject.get("operationName");
+        return executeRequest(request, response, query, queryHash, variables, getStringProperty(reqObject, "operationName"));
+    }
 
-        executeQuery(request, response, query.getAsString(), variables, operNameJSON == null || operNameJSON instanceof JsonNull ? null : operNameJSON.getAsString());
+    @Nullable
+    private static String getStringProperty(@NotNull JsonObject object, @NotNull String name) {
+        JsonElement value = object.get(name);
+        return value == null || value instanceof JsonNull ? null : value.getAsString();
+    }
+
+    /**
+     * Returns sha256 hash of automatic persisted query (if specified in request extensions)
+     */
+    @Nullable
+    private static String getPersistedQueryHash(@Nullable JsonElement extensions) {
+        if (!(extensions instanceof JsonObject extensionsObject)) {
+            return null;
+        }
+        if (!(extensionsObject.get(GraphQLConstants.EXTENSION_PERSISTED_QUERY) instanceof JsonObject persistedQuery)) {
+            return null;
+        }
+        return getStringProperty(persistedQuery, GraphQLConstants.PERSISTED_QUERY_HASH);
+    }
+
+    /**
+     * Executes query. If query hash is specified then registers query sent with it
+     * or finds query previously registered by the hash.
+     * Returns null if query is not specified.
+     */
+    @Nullable
+    private ExecutionResult executeRequest(
+        @NotNull HttpServletRequest request,
+        @NotNull HttpServletResponse response,
+        @Nullable String query,
+        @Nullable String queryHash,
+        @Nullable Map<String, Object> variables,
+        @Nullable String operationName
+    ) {
+        if (queryHash != null) {
+            GraphQLDocumentCache documentCache = GraphQLDocumentCache.getInstance();
+            if (query == null) {
+                query = documentCache.getPersistedQuery(queryHash);
+                if (query == null) {
+                    // Client will resend request with full query text
+                    return makeErrorResult(GraphQLConstants.ERROR_PERSISTED_QUERY_NOT_FOUND, "PERSISTED_QUERY_NOT_FOUND");
+                }
+            } else if (!documentCache.registerPersistedQuery(queryHash, query)) {
+                return makeErrorResult("Provided sha256 hash does not match query", "INTERNAL_SERVER_ERROR");
+            }
+        }
+        if (query == null) {
+            return null;
+        }
+        return executeQuery(request, response, query, variables, operationName);
+    }
+
+    @NotNull
+    private static ExecutionResult makeErrorResult(@NotNull String message, @NotNull String code) {
+        GraphQLError error = GraphqlErrorBuilder.newError()
+            .message(message)
+            .extensions(Map.of("code", code))
+            .build();
+        return ExecutionResultImpl.newExecutionResult().addError(error).build();
     }
 
     @Override
@@ -215,22 +419,27 @@ public class GraphQLEndpoint extends HttpServlet {
         boolean develMode = ServletAppUtils.getServletApplication().getServerConfiguration().isDevelMode();
 
         if (path.contentEquals("/schema.json") && develMode) {
-            executeQuery(request, response, GraphQLConstants.SCHEMA_READ_QUERY, null, null);
+            writeResult(request, response, executeQuery(request, response, GraphQLConstants.SCHEMA_READ_QUERY, null, null));
         } else if (path.contentEquals("/console") && develMode) {
             try (InputStream consolePageStream = WebServiceUtils.openStaticResource("static/graphiql/index.html")) {
                 IOUtils.copyStream(consolePageStream, response.getOutputStream());
             }
         } else {
-            String query = request.getParameter("query");
-            if (query != null) {
-                executeQuery(request, response, query, null, request.getParameter("operationName"));
+            String extensions = request.getParameter("extensions");
+            String queryHash = CommonUtils.isEmpty(extensions) ? null :
+                getPersistedQueryHash(gson.fromJson(extensions, JsonElement.class));
+            ExecutionResult result = executeRequest(
+                request, response, request.getParameter("query"), queryHash, null, request.getParameter("operationName"));
+            if (result != null) {
+                writeResult(request, response, result);
             } else {
                 response.sendError(400, "Bad GET request");
             }
         }
     }
 
-    private void executeQuery(HttpServletRequest request, HttpServletResponse response, String query, Map<String, Object> variables, String operationName) throws IOException {
+    @NotNull
+    private ExecutionResult executeQuery(HttpServletRequest request, HttpServletResponse response, String query, Map<String, Object> variables, String operationName) {
         Map<String, Object> mapOfContext =
             Map.of(
                 "request", request,
@@ -262,13 +471,22 @@ public class GraphQLEndpoint extends HttpServlet {
             }
         }
         ExecutionInput executionInput = contextBuilder.build();
-        ExecutionResult executionResult = graphQL.execute(executionInput);
+        return graphQL.execute(executionInput);
+    }
 
-        Map<String, Object> resJSON = executionResult.toSpecification();
-        String resString = gson.toJson(resJSON);
+    private void writeResult(HttpServletRequest request, HttpServletResponse response, ExecutionResult executionResult) throws IOException {
         setDevelHeaders(request, response);
         response.setContentType(GraphQLConstants.CONTENT_TYPE_JSON_UTF8);
-        response.getWriter().print(resString);
+        writeResultJson(response.getWriter(), executionResult);
+    }
+
+    /**
+     * Serializes result directly into the response writer, without intermediate string
+     */
+    private static void writeResultJson(@NotNull Writer writer, @NotNull ExecutionResult executionResult) throws IOException {
+        JsonWriter jsonWriter = gson.newJsonWriter(writer);
+        gson.toJson(executionResult.toSpecification(), Map.class, jsonWriter);
+        jsonWriter.flush();
     }
 
     private static class WebExecutionStrategy extends AsyncExecutionStrategy {
@@ -17,8 +17,15 @@
 package io.cloudbeaver.server.servlets;
 
 import com.google.gson.stream.JsonWriter;
+import io.cloudbeaver.model.session.BaseWebSession;
+import io.cloudbeaver.model.session.WebAsyncTaskScheduler;
+import io.cloudbeaver.model.session.WebSession;
 import io.cloudbeaver.server.CBConstants;
 import io.cloudbeaver.server.WebAppUtils;
+import io.cloudbeaver.server.graphql.GraphQLDocumentCache;
+import io.cloudbeaver.server.websockets.CBJettyWebSocketManager;
+import io.cloudbeaver.service.security.SMPermissionsCache;
+import io.cloudbeaver.service.sql.WebSQLResultsRetention;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +33,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.eclipse.jetty.ee10.servlet.DefaultServlet;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.data.json.JSONUtils;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataSnapshotStore;
+import org.jkiss.dbeaver.model.websocket.event.WSEventController;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 
 import java.io.IOException;
@@ -46,9 +55,64 @@ public class WebStatusServlet extends DefaultServlet {
         infoMap.put("product.name", GeneralUtils.getProductName());
         infoMap.put("product.version", GeneralUtils.getProductVersion().toString());
         WebAppUtils.getWebApplication().getStatusInfo(infoMap);
+        GraphQLDocumentCache documentCache = GraphQLDocumentCache.getInstance();
+        infoMap.put("graphql.documents.cached", documentCache.getCachedDocumentsCount());
+        infoMap.put("graphql.documents.hits", documentCache.getHitCount());
+        infoMap.put("graphql.documents.misses", documentCache.getMissCount());
+        infoMap.put("graphql.persistedQueries", documentCache.getPersistedQueriesCount());
+        infoMap.put("sql.results.retained", WebSQLResultsRetention.getTotalRetainedResultsCount());
+        infoMap.put("sql.results.retainedSize", WebSQLResultsRetention.getTotalRetainedSize());
+        putSessionResultsInfo(infoMap);
+        infoMap.put("websocket.pendingEvents", CBJettyWebSocketManager.getPendingEventsCount());
+        WSEventController eventController = WebAppUtils.getWebApplication().getEventController();
+        infoMap.put("events.pending", eventController.getPendingEventsCount());
+        infoMap.put("events.dispatched", eventController.getDispatchedEventsCount());
+        infoMap.put("events.dispatchLatency.avg", eventController.getAverageDispatchLatency());
+        infoMap.put("events.dispatchLatency.max", eventController.getMaxDispatchLatency());
+        for (int percentile : new int[] {50, 90, 99}) {
+            infoMap.put("events.dispatchLatency.p" + percentile, eventController.getDispatchLatencyPercentile(percentile));
+            infoMap.put("events.batchSize.p" + percentile, eventController.getBatchSizePercentile(percentile));
+        }
+        WebAsyncTaskScheduler taskScheduler = WebAsyncTaskScheduler.getInstance();
+        infoMap.put("tasks.running", taskScheduler.getRunningTasksCount());
+        infoMap.put("tasks.queued", taskScheduler.getQueuedTasksCount());
+        infoMap.put("tasks.started", taskScheduler.getStartedTasksCount());
+        infoMap.put("tasks.queueWait.avg", taskScheduler.getAverageQueueWaitTime());
+        infoMap.put("tasks.queueWait.max", taskScheduler.getMaxQueueWaitTime());
+        JDBCMetadataSnapshotStore snapshotStore = JDBCMetadataSnapshotStore.getInstance();
+        infoMap.put("metadata.snapshots", snapshotStore.getSnapshotsCount());
+        infoMap.put("metadata.snapshots.rows", snapshotStore.getSnapshotRowsCount());
+        infoMap.put("metadata.snapshots.hits", snapshotStore.getHitCount());
+        infoMap.put("metadata.snapshots.misses", snapshotStore.getMissCount());
+        SMPermissionsCache permissionsCache = SMPermissionsCache.getInstance();
+        infoMap.put("security.tokens.cached", permissionsCache.getCachedTokensCount());
+        infoMap.put("security.tokens.hits", permissionsCache.getTokenHitCount());
+        infoMap.put("security.tokens.misses", permissionsCache.getTokenMissCount());
+        infoMap.put("security.permissions.cached", permissionsCache.getCachedPermissionsCount());
+        infoMap.put("security.permissions.hits", permissionsCache.getPermissionsHitCount());
+        infoMap.put("security.permissions.misses", permissionsCache.getPermissionsMissCount());
         try (JsonWriter writer = new JsonWriter(response.getWriter())) {
             JSONUtils.serializeMap(writer, infoMap);
         }
     }
 
+    /**
+     * Sessions share the same results limits, the largest session shows how close they are to eviction
+     */
+    private static void putSessionResultsInfo(Map<String, Object> infoMap) {
+        int maxResultsCount = 0;
+        long maxResultsSize = 0;
+        for (BaseWebSession session : WebAppUtils.getWebApplication().getSessionManager().getAllActiveSessions()) {
+            if (session instanceof WebSession webSession) {
+                WebSQLResultsRetention retention = WebSQLResultsRetention.findSessionRetention(webSession);
+                if (retention != null) {
+                    maxResultsCount = Math.max(maxResultsCount, retention.getRetainedResultsCount());
+                    maxResultsSize = Math.max(maxResultsSize, retention.getRetainedSize());
+                }
+            }
+        }
+        infoMap.put("sql.results.retained.sessionMax", maxResultsCount);
+        infoMap.put("sql.results.retainedSize.sessionMax", maxResultsSize);
+    }
+
 }
\ No newline at end of file
@@ -17,21 +17,60 @@
 package io.cloudbeaver.server.websockets;
 
 import com.google.gson.Gson;
+import jakarta.websocket.CloseReason;
 import jakarta.websocket.Endpoint;
 import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
 import jakarta.websocket.Session;
+import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.websocket.WSUtils;
 import org.jkiss.dbeaver.model.websocket.event.WSEvent;
+import org.jkiss.dbeaver.model.websocket.event.datasource.WSDataSourceEvent;
+import org.jkiss.dbeaver.model.websocket.event.session.WSSessionStateEvent;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Base websocket endpoint.
+ * Events are sent asynchronously from the bounded per-socket queue, so slow clients do not block event producers.
+ * Socket is closed if client cannot keep up with events.
+ */
 public abstract class CBAbstractWebSocket extends Endpoint {
     private static final Log log = Log.getLog(CBAbstractWebSocket.class);
     protected static final Gson gson = WSUtils.clientGson;
 
+    public static final int MAX_OUTBOUND_QUEUE_SIZE = 1000;
+    // Time to send pending events before the socket is closed anyway
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
     @Nullable
     private Session webSocketSession;
 
+    // Guarded by outboundQueue
+    private final Deque<OutboundMessage> outboundQueue = new ArrayDeque<>();
+    private boolean sending;
+    private boolean closeRequested;
+    private long coalescedCount;
+
+    private static class OutboundMessage {
+        @Nullable
+        private final String coalesceKey;
+        @NotNull
+        private String text;
+
+        OutboundMessage(@Nullable String coalesceKey, @NotNull String text) {
+            this.coalesceKey = coalesceKey;
+            this.text = text;
+        }
+    }
+
     @Override
     public void onOpen(Session session, EndpointConfig config) {
         this.webSocketSession = session;
@@ -41,12 +80,149 @@ public abstract class CBAbstractWebSocket extends Endpoint {
         if (!isOpen()) {
             return;
         }
+        String text;
         try {
-            webSocketSession.getBasicRemote().sendText(
-                gson.toJson(event)
-            );
+            text = gson.toJson(event);
         } catch (Exception e) {
             handleEventException(e);
+            return;
+        }
+        String coalesceKey = getCoalesceKey(event);
+        boolean overflow;
+        synchronized (outboundQueue) {
+            OutboundMessage lastMessage = outboundQueue.peekLast();
+            if (coalesceKey != null && lastMessage != null && coalesceKey.equals(lastMessage.coalesceKey)) {
+                // Client is interested in the latest state only.
+                // Only the last message is replaced, so events are never reordered
+                lastMessage.text = text;
+                coalescedCount++;
+                return;
+            }
+            overflow = outboundQueue.size() >= MAX_OUTBOUND_QUEUE_SIZE;
+            if (!overflow) {
+                OutboundMessage message = new OutboundMessage(coalesceKey, text);
+                outboundQueue.add(message);
+                if (sending) {
+                    // Will be sent after the current message
+                    return;
+                }
+                sending = true;
+            } else {
+                clearOutboundQueue();
+            }
+        }
+        if (overflow) {
+            handleOutboundQueueOverflow();
+        } else {
+            sendMessages();
+        }
+    }
+
+    /**
+     * Sends queued messages one by one.
+     * If a message is sent synchronously, the loop continues in this thread, otherwise it is resumed by the send callback.
+     * So the stack never grows with the number of sent messages.
+     */
+    private void sendMessages() {
+        for (;;) {
+            OutboundMessage message;
+            boolean closeSession = false;
+            synchronized (outboundQueue) {
+                message = outboundQueue.poll();
+                if (message == null) {
+                    sending = false;
+                    closeSession = closeRequested;
+                }
+            }
+            if (message == null) {
+                if (closeSession) {
+                    closeSession();
+                }
+                return;
+            }
+            Session session = webSocketSession;
+            if (session == null || !session.isOpen()) {
+                synchronized (outboundQueue) {
+                    clearOutboundQueue();
+                    sending = false;
+                }
+                return;
+            }
+            MessageSendHandler sendHandler = new MessageSendHandler();
+            try {
+                session.getAsyncRemote().sendText(message.text, sendHandler);
+            } catch (Exception e) {
+                handleEventException(e);
+                continue;
+            }
+            if (sendHandler.completed.compareAndSet(false, true)) {
+                // Message is still being sent, the callback continues
+                return;
+            }
+        }
+    }
+
+    private class MessageSendHandler implements SendHandler {
+        // Set by the first of the send call return and the send result
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        @Override
+        public void onResult(SendResult result) {
+            if (!result.isOK()) {
+                handleEventException(result.getException());
+            }
+            if (!completed.compareAndSet(false, true)) {
+                // Send call has returned already
+                sendMessages();
+            }
+        }
+    }
+
+    /**
+     * Returns key of the state event. The last pending event with the same key is replaced by the newer one.
+     */
+    @Nullable
+    protected String getCoalesceKey(@NotNull WSEvent event) {
+        if (event instanceof WSSessionStateEvent) {
+            return event.getId();
+        }
+        if (event instanceof WSDataSourceEvent dataSourceEvent && WSDataSourceEvent.UPDATED.equals(event.getId())) {
+            return event.getId() + "/" + dataSourceEvent.getProjectId() + "/" +
+                dataSourceEvent.getProperty() + "/" + dataSourceEvent.getDataSourceIds();
+        }
+        return null;
+    }
+
+    private void clearOutboundQueue() {
+        outboundQueue.clear();
+    }
+
+    protected void handleOutboundQueueOverflow() {
+        log.warn("Too many pending websocket events (" + MAX_OUTBOUND_QUEUE_SIZE + "), closing websocket");
+        if (isOpen()) {
+            try {
+                getSession().close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Too many pending events"));
+            } catch (Exception e) {
+                log.error("Failed to close websocket", e);
+            }
+        }
+    }
+
+    /**
+     * Returns number of events waiting to be sent to the client
+     */
+    public int getPendingEventsCount() {
+        synchronized (outboundQueue) {
+            return outboundQueue.size();
+        }
+    }
+
+    /**
+     * Returns number of events replaced by newer events before sending
+     */
+    public long getCoalescedEventsCount() {
+        synchronized (outboundQueue) {
+            return coalescedCount;
         }
     }
 
@@ -58,7 +234,27 @@ public abstract class CBAbstractWebSocket extends Endpoint {
         log.error("Failed to send websocket message", e);
     }
 
+    /**
+     * Closes websocket after all pending events are sent.
+     * If client doesn't receive them in {@link #CLOSE_TIMEOUT_SECONDS}, websocket is closed and events are dropped.
+     */
     public void close() {
+        synchronized (outboundQueue) {
+            if (sending) {
+                closeRequested = true;
+                CompletableFuture.delayedExecutor(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS).execute(() -> {
+                    synchronized (outboundQueue) {
+                        clearOutboundQueue();
+                    }
+                    closeSession();
+                });
+                return;
+            }
+        }
+        closeSession();
+    }
+
+    private void closeSession() {
         if (isOpen()) {
             try {
                 getSession().close();
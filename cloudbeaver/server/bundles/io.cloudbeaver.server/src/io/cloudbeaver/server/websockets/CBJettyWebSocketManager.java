@@ -59,7 +59,7 @@ public class CBJettyWebSocketManager {
                     var webSockets = entry.getValue();
                     for (CBEventsWebSocket webSocket : webSockets) {
                         try {
-                            webSocket.getSession().getBasicRemote().sendPing(
+                            webSocket.getSession().getAsyncRemote().sendPing(
                                 ByteBuffer.wrap("cb-ping".getBytes(StandardCharsets.UTF_8))
                             );
                         } catch (Exception e) {
@@ -69,4 +69,17 @@ public class CBJettyWebSocketManager {
                 }
             );
     }
+
+    /**
+     * Returns total number of events waiting to be sent to all connected websockets
+     */
+    public static int getPendingEventsCount() {
+        int count = 0;
+        for (List<CBEventsWebSocket> webSockets : socketBySessionId.values()) {
+            for (CBEventsWebSocket webSocket : webSockets) {
+                count += webSocket.getPendingEventsCount();
+            }
+        }
+        return count;
+    }
 }
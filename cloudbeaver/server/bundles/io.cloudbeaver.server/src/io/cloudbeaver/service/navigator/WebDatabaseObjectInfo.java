@@ -16,11 +16,9 @@
  */
 package io.cloudbeaver.service.navigator;
 
-import io.cloudbeaver.WebProjectImpl;
 import io.cloudbeaver.WebServiceUtils;
 import io.cloudbeaver.model.WebPropertyInfo;
 import io.cloudbeaver.model.session.WebSession;
-import io.cloudbeaver.service.security.SMUtils;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
@@ -61,10 +59,16 @@ public class WebDatabaseObjectInfo {
 
     private final WebSession session;
     private final DBSObject object;
+    private final WebNavigatorNodeBatch batch;
 
     public WebDatabaseObjectInfo(WebSession session, DBSObject object) {
-        this.session = session;
+        this(new WebNavigatorNodeBatch(session), object);
+    }
+
+    public WebDatabaseObjectInfo(@NotNull WebNavigatorNodeBatch batch, DBSObject object) {
+        this.session = batch.getSession();
         this.object = object;
+        this.batch = batch;
     }
 
     ///////////////////////////////////
@@ -102,11 +106,7 @@ public class WebDatabaseObjectInfo {
     }
 
     private boolean isDataSourceEditable(@NotNull DBPDataSourceContainer container) {
-        WebProjectImpl project = session.getProjectById(container.getProject().getId());
-        if (project == null) {
-            return false;
-        }
-        return SMUtils.hasProjectPermission(session, project.getRMProject(), RMProjectPermission.DATA_SOURCES_EDIT);
+        return batch.hasProjectPermission(container.getProject().getId(), RMProjectPermission.DATA_SOURCES_EDIT);
     }
 
     ///////////////////////////////////
@@ -0,0 +1,101 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.navigator;
+
+import io.cloudbeaver.WebProjectImpl;
+import io.cloudbeaver.WebServiceUtils;
+import io.cloudbeaver.model.session.WebSession;
+import io.cloudbeaver.registry.WebDriverRegistry;
+import io.cloudbeaver.server.WebAppUtils;
+import io.cloudbeaver.service.security.SMUtils;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.edit.DBEObjectMaker;
+import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
+import org.jkiss.dbeaver.model.rm.RMProjectPermission;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Values shared by sibling navigator nodes returned by a single request.
+ * Node children usually belong to the same project, have the same meta and a few object classes,
+ * so permission checks and registry lookups are done once per batch instead of once per node.
+ * Not thread safe: a batch is used within a single GraphQL request.
+ */
+public class WebNavigatorNodeBatch {
+
+    private final WebSession session;
+    private final Map<String, Boolean> projectPermissions = new HashMap<>();
+    private final Map<Class<?>, DBEObjectMaker> objectManagers = new HashMap<>();
+    private final Map<DBXTreeNode, Boolean> filterableMetas = new IdentityHashMap<>();
+    private final Map<String, Boolean> connectionFileExtensions = new HashMap<>();
+
+    public WebNavigatorNodeBatch(@NotNull WebSession session) {
+        this.session = session;
+    }
+
+    @NotNull
+    public WebSession getSession() {
+        return session;
+    }
+
+    public boolean hasProjectPermission(@Nullable String projectId, @NotNull RMProjectPermission permission) {
+        return projectPermissions.computeIfAbsent(projectId + "\n" + permission.getPermissionId(), key -> {
+            WebProjectImpl project = session.getProjectById(projectId);
+            if (project == null) {
+                return false;
+            }
+            return SMUtils.hasProjectPermission(session, project.getRMProject(), permission);
+        });
+    }
+
+    @Nullable
+    public DBEObjectMaker getObjectManager(@NotNull Class<?> objectClass) {
+        if (objectManagers.containsKey(objectClass)) {
+            return objectManagers.get(objectClass);
+        }
+        DBEObjectMaker objectManager = DBWorkbench.getPlatform().getEditorsRegistry().getObjectManager(
+            objectClass, DBEObjectMaker.class);
+        objectManagers.put(objectClass, objectManager);
+        return objectManager;
+    }
+
+    public boolean hasNonFolderChildren(@NotNull DBXTreeNode meta) {
+        return filterableMetas.computeIfAbsent(meta, m -> DBXTreeNode.hasNonFolderNode(m.getChildren(null)));
+    }
+
+    public boolean canCreateConnectionFromFileExtension(@NotNull String fileExtension) {
+        return connectionFileExtensions.computeIfAbsent(fileExtension, ext -> {
+            WebDriverRegistry driverRegistry = WebAppUtils.getWebApplication().getDriverRegistry();
+            Set<DBPDriver> dbpDrivers = driverRegistry.getSupportedFileOpenExtension().get(ext);
+            if (dbpDrivers == null) {
+                return false;
+            }
+            for (DBPDriver dbpDriver : dbpDrivers) {
+                if (WebServiceUtils.isDriverEnabled(dbpDriver)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+}
@@ -17,21 +17,17 @@
 package io.cloudbeaver.service.navigator;
 
 import io.cloudbeaver.DBWebException;
-import io.cloudbeaver.WebProjectImpl;
 import io.cloudbeaver.WebServiceUtils;
 import io.cloudbeaver.model.WebPropertyInfo;
 import io.cloudbeaver.model.fs.FSUtils;
 import io.cloudbeaver.model.rm.DBNResourceManagerProject;
 import io.cloudbeaver.model.rm.DBNResourceManagerResource;
 import io.cloudbeaver.model.session.WebSession;
-import io.cloudbeaver.registry.WebDriverRegistry;
-import io.cloudbeaver.server.WebAppUtils;
-import io.cloudbeaver.service.security.SMUtils;
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.app.DBPProject;
-import org.jkiss.dbeaver.model.connection.DBPDriver;
 import org.jkiss.dbeaver.model.edit.DBEObjectMaker;
 import org.jkiss.dbeaver.model.edit.DBEObjectRenamer;
 import org.jkiss.dbeaver.model.fs.DBFUtils;
@@ -41,8 +37,6 @@ import org.jkiss.dbeaver.model.navigator.*;
 import org.jkiss.dbeaver.model.navigator.fs.DBNFileSystem;
 import org.jkiss.dbeaver.model.navigator.fs.DBNPath;
 import org.jkiss.dbeaver.model.navigator.fs.DBNPathBase;
-import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
-import org.jkiss.dbeaver.model.rm.RMProject;
 import org.jkiss.dbeaver.model.rm.RMProjectPermission;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSObject;
@@ -50,7 +44,6 @@ import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
 import org.jkiss.dbeaver.model.struct.rdb.DBSProcedure;
 import org.jkiss.dbeaver.registry.DataSourceFolder;
 import org.jkiss.dbeaver.registry.ResourceTypeRegistry;
-import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.IOUtils;
 
@@ -74,10 +67,16 @@ public class WebNavigatorNodeInfo {
     public static final String NODE_FEATURE_CAN_CREATE_CONNECTION_FROM_NODE = "canCreateConnectionFromNode";
     private final WebSession session;
     private final DBNNode node;
+    private final WebNavigatorNodeBatch batch;
 
     public WebNavigatorNodeInfo(WebSession session, DBNNode node) {
-        this.session = session;
+        this(new WebNavigatorNodeBatch(session), node);
+    }
+
+    public WebNavigatorNodeInfo(@NotNull WebNavigatorNodeBatch batch, DBNNode node) {
+        this.session = batch.getSession();
         this.node = node;
+        this.batch = batch;
     }
 
     public DBNNode getNode() {
@@ -203,15 +202,13 @@ public class WebNavigatorNodeInfo {
         if (node instanceof DBNDatabaseNode && !isLeaf) {
             if (node instanceof DBNDataSource dataSource) {
                 if (dataSource.getDataSourceContainer().getDataSource() != null) {
-                    boolean hasNonFolderNode = DBXTreeNode.hasNonFolderNode(dataSource.getMeta().getChildren(null));
-                    if (hasNonFolderNode) {
+                    if (batch.hasNonFolderChildren(dataSource.getMeta())) {
                         features.add(NODE_FEATURE_CAN_FILTER);
                     }
                 }
             } else if (node instanceof DBNDatabaseItem item) {
                 if (item.getDataSourceContainer().getDataSource() != null) {
-                    boolean hasNonFolderNode = DBXTreeNode.hasNonFolderNode(item.getMeta().getChildren(null));
-                    if (hasNonFolderNode) {
+                    if (batch.hasNonFolderChildren(item.getMeta())) {
                         features.add(NODE_FEATURE_CAN_FILTER);
                     }
                 }
@@ -237,8 +234,7 @@ public class WebNavigatorNodeInfo {
             boolean canEditDatasources = hasNodePermission(RMProjectPermission.DATA_SOURCES_EDIT);
             DBSObject object = ((DBNDatabaseNode) node).getObject();
             if (object != null && canEditDatasources && !DBUtils.isReadOnly(object)) {
-                DBEObjectMaker objectManager = DBWorkbench.getPlatform().getEditorsRegistry().getObjectManager(
-                    object.getClass(), DBEObjectMaker.class);
+                DBEObjectMaker objectManager = batch.getObjectManager(object.getClass());
                 if (objectManager != null && objectManager.canDeleteObject(object)) {
                     features.add(NODE_FEATURE_CAN_DELETE);
                 }
@@ -271,26 +267,11 @@ public class WebNavigatorNodeInfo {
         if (CommonUtils.isEmpty(fileExtension)) {
             return false;
         }
-        WebDriverRegistry driverRegistry = WebAppUtils.getWebApplication().getDriverRegistry();
-        Set<DBPDriver> dbpDrivers = driverRegistry.getSupportedFileOpenExtension().get(fileExtension);
-        if (dbpDrivers == null) {
-            return false;
-        }
-        for (DBPDriver dbpDriver : dbpDrivers) {
-            if (WebServiceUtils.isDriverEnabled(dbpDriver)) {
-                return true;
-            }
-        }
-        return false;
+        return batch.canCreateConnectionFromFileExtension(fileExtension);
     }
 
     private boolean hasNodePermission(RMProjectPermission permission) {
-        WebProjectImpl project = session.getProjectById(getProjectId());
-        if (project == null) {
-            return false;
-        }
-        RMProject rmProject = project.getRMProject();
-        return SMUtils.hasProjectPermission(session, rmProject, permission);
+        return batch.hasProjectPermission(getProjectId(), permission);
     }
 
     private boolean isDistributedSpecialFolderNode() {
@@ -334,7 +315,7 @@ public class WebNavigatorNodeInfo {
     public WebDatabaseObjectInfo getObject() {
         if (node instanceof DBNDatabaseNode dbNode) {
             DBSObject object = dbNode.getObject();
-            return object == null ? null : new WebDatabaseObjectInfo(session, object);
+            return object == null ? null : new WebDatabaseObjectInfo(batch, object);
         }
         return null;
     }
@@ -27,6 +27,7 @@ import io.cloudbeaver.model.rm.DBNResourceManagerResource;
 import io.cloudbeaver.model.session.WebSession;
 import io.cloudbeaver.service.navigator.DBWServiceNavigator;
 import io.cloudbeaver.service.navigator.WebCatalog;
+import io.cloudbeaver.service.navigator.WebNavigatorNodeBatch;
 import io.cloudbeaver.service.navigator.WebNavigatorNodeInfo;
 import io.cloudbeaver.service.navigator.WebStructContainers;
 import io.cloudbeaver.service.security.SMUtils;
@@ -41,12 +42,15 @@ import org.jkiss.dbeaver.model.edit.DBEObjectMaker;
 import org.jkiss.dbeaver.model.edit.DBEObjectRenamer;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContextDefaults;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataSnapshotStore;
 import org.jkiss.dbeaver.model.navigator.*;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeItem;
 import org.jkiss.dbeaver.model.rm.RMControllerProvider;
 import org.jkiss.dbeaver.model.rm.RMProject;
 import org.jkiss.dbeaver.model.rm.RMProjectPermission;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.completion.SQLCompletionAssistantCache;
+import org.jkiss.dbeaver.model.sql.completion.SQLCompletionNameIndex;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
@@ -106,6 +110,8 @@ public class WebServiceNavigator implements DBWServiceNavigator {
             }
             List<WebNavigatorNodeInfo> result = new ArrayList<>();
             Set<String> nodeIds = new HashSet<>(); // filter duplicate node ids
+            // Children share project and meta, so their features are resolved together
+            WebNavigatorNodeBatch nodeBatch = new WebNavigatorNodeBatch(session);
 
             for (DBNNode node : nodeChildren) {
                 if (node instanceof DBNDatabaseFolder folderNode && CommonUtils.isEmpty(folderNode.getMeta().getChildren(null))) {
@@ -122,7 +128,7 @@ public class WebServiceNavigator implements DBWServiceNavigator {
                         }
                     }
                     var nodeId = node.getNodeUri();
-                    if (nodeIds.contains(nodeId)) {
+                    if (!nodeIds.add(nodeId)) {
                         session.addWarningMessage(
                             MessageFormat.format("Duplicate child node ''{0}'' was found in parent node ''{1}''",
                                 nodeId,
@@ -130,8 +136,7 @@ public class WebServiceNavigator implements DBWServiceNavigator {
                         );
                         continue;
                     }
-                    nodeIds.add(node.getNodeUri());
-                    result.add(new WebNavigatorNodeInfo(session, node));
+                    result.add(new WebNavigatorNodeInfo(nodeBatch, node));
                 }
             }
             // Checks the range of the expected result
@@ -162,6 +167,7 @@ public class WebServiceNavigator implements DBWServiceNavigator {
 
             boolean shouldSkipProjectNode = nodePath.startsWith(DBNNode.NodePathType.ext.getPrefix());
             List<WebNavigatorNodeInfo> nodeParents = new ArrayList<>();
+            WebNavigatorNodeBatch nodeBatch = new WebNavigatorNodeBatch(session);
             for (DBNNode parent = getLogicalParentNode(node);
                  parent != null && !(parent instanceof DBNRoot);
                  parent = getLogicalParentNode(parent)) {
@@ -172,7 +178,7 @@ public class WebServiceNavigator implements DBWServiceNavigator {
                 if (parent instanceof DBNProject && shouldSkipProjectNode) {
                     continue;
                 }
-                nodeParents.add(new WebNavigatorNodeInfo(session, parent));
+                nodeParents.add(new WebNavigatorNodeInfo(nodeBatch, parent));
             }
 
             return nodeParents;
@@ -260,6 +266,12 @@ public class WebServiceNavigator implements DBWServiceNavigator {
             if (node == null) {
                 throw new DBWebException("Navigator node '"  + nodePath + "' not found");
             }
+            if (node instanceof DBNDatabaseNode databaseNode) {
+                // Refresh must read actual metadata, not the snapshot shared by sessions
+                JDBCMetadataSnapshotStore.getInstance().invalidate(databaseNode.getDataSourceContainer());
+                SQLCompletionNameIndex.invalidate(databaseNode.getDataSourceContainer());
+                SQLCompletionAssistantCache.invalidate(databaseNode.getDataSourceContainer());
+            }
             if (node instanceof DBNDataSource dbnDataSource) {
                 // Do not refresh entire tree - just clear child nodes
                 // Otherwise refresh may fail if navigator settings were changed.
@@ -26,6 +26,7 @@ import io.cloudbeaver.model.session.WebAsyncTaskProcessor;
 import io.cloudbeaver.model.session.WebSession;
 import io.cloudbeaver.model.session.WebSessionProvider;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
@@ -43,6 +44,7 @@ import org.jkiss.dbeaver.model.qm.meta.QMMTransactionInfo;
 import org.jkiss.dbeaver.model.qm.meta.QMMTransactionSavepointInfo;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.dbeaver.model.websocket.event.WSTransactionalCountEvent;
@@ -55,6 +57,7 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -66,10 +69,23 @@ public class WebSQLContextInfo implements WebSessionProvider {
 
     private static final Log log = Log.getLog(WebSQLContextInfo.class);
 
+    private static final int MAX_EVICTED_RESULTS = 1000;
+
     private final transient WebSQLProcessor processor;
     private final String id;
     private final String projectId;
+
+    private final transient WebSQLResultsRetention resultsRetention;
+    // Results maps are guarded by resultsRetention
     private final Map<String, WebSQLResultsInfo> resultInfoMap = new HashMap<>();
+    private final Map<String, WebDataFormat> resultFormats = new HashMap<>();
+    // Null value means that evicted results can't be restored
+    private final Map<String, EvictedResults> evictedResultsMap = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, EvictedResults> eldest) {
+            return size() > MAX_EVICTED_RESULTS;
+        }
+    };
 
     private final AtomicInteger resultId = new AtomicInteger();
 
@@ -81,6 +97,7 @@ public class WebSQLContextInfo implements WebSessionProvider {
     ) throws DBCException {
         this.processor = processor;
         this.id = id;
+        this.resultsRetention = WebSQLResultsRetention.getSessionRetention(processor.getWebSession());
 
         WebProjectImpl project = processor.getWebSession().getProjectById(projectId);
         if (project == null) {
@@ -170,35 +187,156 @@ public class WebSQLContextInfo implements WebSessionProvider {
         @NotNull DBCTrace trace,
         @NotNull DBDAttributeBinding[] attributes,
         boolean singleRow) {
+        return saveResult(dataContainer, trace, attributes, singleRow, null, null);
+    }
+
+    /**
+     * Saves results info into cache.
+     * Least recently used results may be evicted from cache when session retention limits are exceeded.
+     *
+     * @param dataFormat data format used to restore evicted results
+     * @param resultId   id of restored results, new id is generated if null
+     */
+    @NotNull
+    public WebSQLResultsInfo saveResult(
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBCTrace trace,
+        @NotNull DBDAttributeBinding[] attributes,
+        boolean singleRow,
+        @Nullable WebDataFormat dataFormat,
+        @Nullable String resultId
+    ) {
         WebSQLResultsInfo resultInfo = new WebSQLResultsInfo(
             dataContainer,
-            String.valueOf(resultId.incrementAndGet())
+            resultId != null ? resultId : String.valueOf(this.resultId.incrementAndGet())
         );
         resultInfo.setAttributes(attributes);
         resultInfo.setSingleRow(singleRow);
-        resultInfo.setTrace(trace);
-        resultInfoMap.put(resultInfo.getId(), resultInfo);
+        if (trace != null) {
+            resultInfo.setTrace(trace);
+        }
+        synchronized (resultsRetention) {
+            evictedResultsMap.remove(resultInfo.getId());
+            WebSQLResultsInfo oldResultInfo = resultInfoMap.put(resultInfo.getId(), resultInfo);
+            if (oldResultInfo != null) {
+                resultsRetention.removeResult(oldResultInfo);
+            }
+            resultsRetention.addResult(this, resultInfo);
+            if (dataFormat != null && resultInfoMap.containsKey(resultInfo.getId())) {
+                resultFormats.put(resultInfo.getId(), dataFormat);
+            }
+        }
         return resultInfo;
     }
 
     @NotNull
     public WebSQLResultsInfo getResults(@NotNull String resultId) throws DBWebException {
-        WebSQLResultsInfo resultsInfo = resultInfoMap.get(resultId);
-        if (resultsInfo == null) {
-            throw new DBWebException("Results '" + resultId + "' not found in context '" + getId() + "'@'" + processor.getConnection().getId() + "'");
+        EvictedResults evictedResults;
+        synchronized (resultsRetention) {
+            WebSQLResultsInfo resultsInfo = resultInfoMap.get(resultId);
+            if (resultsInfo != null) {
+                resultsRetention.touchResult(resultsInfo);
+                return resultsInfo;
+            }
+            if (!evictedResultsMap.containsKey(resultId)) {
+                throw new DBWebException("Results '" + resultId + "' not found in context '" + getId() + "'@'" + processor.getConnection().getId() + "'");
+            }
+            evictedResults = evictedResultsMap.get(resultId);
+        }
+        if (evictedResults == null) {
+            // Query is not executed again implicitly, it may have side effects
+            throw new DBWebException("Results '" + resultId + "' expired. Execute query again.");
         }
-        return resultsInfo;
+        return restoreResults(resultId, evictedResults);
     }
 
     public boolean closeResult(@NotNull String resultId) {
-        return resultInfoMap.remove(resultId) != null;
+        synchronized (resultsRetention) {
+            resultFormats.remove(resultId);
+            WebSQLResultsInfo resultsInfo = resultInfoMap.remove(resultId);
+            if (resultsInfo != null) {
+                resultsRetention.removeResult(resultsInfo);
+                return true;
+            }
+            if (evictedResultsMap.containsKey(resultId)) {
+                evictedResultsMap.remove(resultId);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Removes results info from cache. Results of entities keep their data container, so they can be restored later.
+     * Called by session results retention.
+     */
+    void evictResult(@NotNull WebSQLResultsInfo resultsInfo) {
+        synchronized (resultsRetention) {
+            String resultId = resultsInfo.getId();
+            if (resultInfoMap.get(resultId) != resultsInfo) {
+                return;
+            }
+            resultInfoMap.remove(resultId);
+            WebDataFormat dataFormat = resultFormats.remove(resultId);
+            evictedResultsMap.put(
+                resultId,
+                isRestorable(resultsInfo.getDataContainer()) ?
+                    new EvictedResults(resultsInfo.getDataContainer(), resultsInfo.isSingleRow(), dataFormat, resultsInfo.getQueryText()) :
+                    null);
+        }
+    }
+
+    /**
+     * Re-reads results metadata. Evicted results keep their id, so front-end doesn't notice eviction.
+     */
+    @NotNull
+    private WebSQLResultsInfo restoreResults(
+        @NotNull String resultId,
+        @NotNull EvictedResults evictedResults
+    ) throws DBWebException {
+        try {
+            WebSQLResultsInfo resultsInfo = processor.restoreResults(
+                this,
+                getWebSession().getProgressMonitor(),
+                evictedResults.dataContainer(),
+                resultId,
+                evictedResults.singleRow(),
+                evictedResults.dataFormat());
+            if (resultsInfo.getQueryText() == null) {
+                resultsInfo.setQueryText(evictedResults.queryText());
+            }
+            return resultsInfo;
+        } catch (DBException e) {
+            throw new DBWebException("Results '" + resultId + "' expired and can't be restored. Execute query again.", e);
+        }
+    }
+
+    /**
+     * Only results which may be read again without side effects are restored.
+     * Reading entity data has no side effects, while even SELECT query may call functions or lock rows.
+     */
+    private static boolean isRestorable(@NotNull DBSDataContainer dataContainer) {
+        return dataContainer instanceof DBSEntity;
+    }
+
+    private record EvictedResults(
+        @NotNull DBSDataContainer dataContainer,
+        boolean singleRow,
+        @Nullable WebDataFormat dataFormat,
+        @Nullable String queryText
+    ) {
     }
 
     ///////////////////////////////////////////////////////
     // Async model
 
     void dispose() {
-        resultInfoMap.clear();
+        synchronized (resultsRetention) {
+            resultsRetention.removeContextResults(this);
+            resultInfoMap.clear();
+            resultFormats.clear();
+            evictedResultsMap.clear();
+        }
     }
 
     @Override
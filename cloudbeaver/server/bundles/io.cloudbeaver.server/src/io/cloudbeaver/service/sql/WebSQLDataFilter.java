@@ -35,7 +35,7 @@ import java.util.stream.Collectors;
 public class WebSQLDataFilter {
 
     private static final int DEFAULT_ROWS_NUMBER = 200;
-    private static final int MAX_ROWS_NUMBER = 100000;
+    static final int MAX_ROWS_NUMBER = 100000;
 
 
     private int offset;
@@ -333,6 +333,87 @@ public class WebSQLProcessor implements WebSessionProvider {
         return executeInfo;
     }
 
+    /**
+     * Reads results data and writes it to the stream chunk by chunk.
+     * Rows are not collected, so memory usage depends on the chunk size only.
+     * Read is not retried after connection recovery: some rows may be already sent to the client.
+     */
+    public void streamResultsData(
+        @NotNull WebSQLContextInfo contextInfo,
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull WebSQLResultsInfo resultsInfo,
+        @NotNull WebSQLDataFilter filter,
+        @NotNull WebDataFormat dataFormat,
+        @NotNull WebSQLResultStreamWriter streamWriter,
+        int chunkSize) throws DBException {
+
+        DBSDataContainer dataContainer = resultsInfo.getDataContainer();
+        DBCExecutionContext executionContext = getExecutionContext(dataContainer);
+        DBDDataFilter dataFilter = filter.makeDataFilter(resultsInfo);
+        try (DBCSession session = executionContext.openSession(monitor, resolveQueryPurpose(dataFilter), "Stream data from container")) {
+            try (WebSQLStreamDataReceiver dataReceiver = new WebSQLStreamDataReceiver(
+                contextInfo, dataContainer, dataFormat, resultsInfo.getId(), streamWriter, chunkSize)
+            ) {
+                DBCStatistics statistics = dataContainer.readData(
+                    new WebExecutionSource(dataContainer, executionContext, this),
+                    session,
+                    dataReceiver,
+                    dataFilter,
+                    filter.getOffset(),
+                    filter.getLimit(),
+                    DBSDataContainer.FLAG_NONE,
+                    chunkSize);
+                streamWriter.finish(statistics.getTotalTime());
+            } catch (IOException e) {
+                throw new DBException("Error writing results stream", e);
+            }
+        }
+    }
+
+    /**
+     * Restores evicted results info. Reads results metadata and the first row only.
+     */
+    @NotNull
+    WebSQLResultsInfo restoreResults(
+        @NotNull WebSQLContextInfo contextInfo,
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull String resultId,
+        boolean singleRow,
+        @Nullable WebDataFormat dataFormat) throws DBException {
+
+        WebSQLResultsInfo[] resultsInfo = new WebSQLResultsInfo[1];
+        DBCExecutionContext executionContext = getExecutionContext(dataContainer);
+        DBExecUtils.tryExecuteRecover(monitor, connection.getDataSource(), param -> {
+            try (DBCSession session = executionContext.openSession(monitor, DBCExecutionPurpose.USER, "Restore results metadata")) {
+                try (WebSQLQueryDataReceiver dataReceiver = new WebSQLQueryDataReceiver(
+                    contextInfo, dataContainer, dataFormat, resultId, singleRow)
+                ) {
+                    DBCStatistics statistics = dataContainer.readData(
+                        new WebExecutionSource(dataContainer, executionContext, this),
+                        session,
+                        dataReceiver,
+                        null,
+                        0,
+                        1,
+                        DBSDataContainer.FLAG_NONE,
+                        1);
+                    WebSQLQueryResultSet resultSet = dataReceiver.getResultSet();
+                    if (resultSet.getResultsInfo() != null) {
+                        resultSet.getResultsInfo().setQueryText(statistics.getQueryText());
+                    }
+                    resultsInfo[0] = resultSet.getResultsInfo();
+                } catch (DBException e) {
+                    throw new InvocationTargetException(e);
+                }
+            }
+        });
+        if (resultsInfo[0] == null) {
+            throw new DBException("Results '" + resultId + "' metadata can't be read");
+        }
+        return resultsInfo[0];
+    }
+
     public WebSQLExecuteInfo updateResultsDataBatch(
         @NotNull DBRProgressMonitor monitor,
         @NotNull WebSQLContextInfo contextInfo,
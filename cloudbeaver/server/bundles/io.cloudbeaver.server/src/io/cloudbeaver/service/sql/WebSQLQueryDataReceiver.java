@@ -19,6 +19,7 @@ package io.cloudbeaver.service.sql;
 import io.cloudbeaver.model.session.WebSession;
 import io.cloudbeaver.utils.ServletAppUtils;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataKind;
@@ -36,25 +37,79 @@ import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.stream.Collectors;
 
 class WebSQLQueryDataReceiver implements DBDDataReceiver {
     private static final Log log = Log.getLog(WebSQLQueryDataReceiver.class);
 
+    private static final MetaDataAccessor[] NO_ACCESSORS = new MetaDataAccessor[0];
+
+    /**
+     * {@link MetaData} accessors of value classes.
+     * ClassValue keeps entries bound to the class itself, so they go away together with the bundle class loader.
+     */
+    private static final ClassValue<MetaDataAccessor[]> META_DATA_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected MetaDataAccessor[] computeValue(@NotNull Class<?> type) {
+            if (type.isPrimitive() || type.isArray() || type.getName().startsWith("java.")) {
+                // JDK value types (strings, numbers, dates) never declare meta data
+                return NO_ACCESSORS;
+            }
+            List<MetaDataAccessor> accessors = new ArrayList<>();
+            for (Method method : type.getMethods()) {
+                MetaData metaData = method.getAnnotation(MetaData.class);
+                if (metaData != null) {
+                    accessors.add(new MetaDataAccessor(metaData.name(), method));
+                }
+            }
+            return accessors.isEmpty() ? NO_ACCESSORS : accessors.toArray(new MetaDataAccessor[0]);
+        }
+    };
+
     private final WebSQLContextInfo contextInfo;
     private final DBSDataContainer dataContainer;
     private final WebDataFormat dataFormat;
+    // Id and single row flag of evicted results which are restored by this receiver
+    @Nullable
+    private final String restoredResultId;
+    private final boolean restoredSingleRow;
     private final WebSQLQueryResultSet webResultSet = new WebSQLQueryResultSet();
 
     private DBDAttributeBinding[] bindings;
     private DBCTrace trace;
+    // Fetched page. Cell values are converted in place and the list is handed over to the result set.
+    // The whole page is still kept in memory until the response is serialized,
+    // large pages should be read with WebSQLResultStreamServlet.
     private List<WebSQLQueryResultSetRow> rows = new ArrayList<>();
+    // Live view of row values, so binding resolution doesn't need a list of all row arrays
+    private final List<Object[]> rowValues = new AbstractList<>() {
+        @Override
+        public Object[] get(int index) {
+            return rows.get(index).getData();
+        }
+
+        @Override
+        public int size() {
+            return rows.size();
+        }
+    };
     private final Number rowLimit;
 
     WebSQLQueryDataReceiver(WebSQLContextInfo contextInfo, DBSDataContainer dataContainer, WebDataFormat dataFormat) {
+        this(contextInfo, dataContainer, dataFormat, null, false);
+    }
+
+    WebSQLQueryDataReceiver(
+        WebSQLContextInfo contextInfo,
+        DBSDataContainer dataContainer,
+        WebDataFormat dataFormat,
+        @Nullable String restoredResultId,
+        boolean restoredSingleRow
+    ) {
         this.contextInfo = contextInfo;
         this.dataContainer = dataContainer;
         this.dataFormat = dataFormat;
+        this.restoredResultId = restoredResultId;
+        this.restoredSingleRow = restoredSingleRow;
         rowLimit = ServletAppUtils.getServletApplication()
             .getAppConfiguration()
             .getResourceQuota(WebSQLConstants.QUOTA_PROP_ROW_LIMIT);
@@ -94,15 +149,12 @@ class WebSQLQueryDataReceiver implements DBDDataReceiver {
                     i);
                 row[i] = cellValue;
                 if (cellValue != null) {
-                    Method[] methods = cellValue.getClass().getMethods();
-                    for (Method method : methods) {
-                        if (method.isAnnotationPresent(MetaData.class)) {
-                            if (metaDataMap == null) {
-                                metaDataMap = new HashMap<>();
-                            }
-                            Object value = method.invoke(cellValue);
-                            metaDataMap.put(method.getAnnotation(MetaData.class).name(), value);
+                    MetaDataAccessor[] accessors = META_DATA_ACCESSORS.get(cellValue.getClass());
+                    for (MetaDataAccessor accessor : accessors) {
+                        if (metaDataMap == null) {
+                            metaDataMap = new HashMap<>();
                         }
+                        metaDataMap.put(accessor.name(), accessor.method().invoke(cellValue));
                     }
                 }
 
@@ -126,7 +178,7 @@ class WebSQLQueryDataReceiver implements DBDDataReceiver {
         DBSEntity entity = dataContainer instanceof DBSEntity ? (DBSEntity) dataContainer : null;
 
         try {
-            DBExecUtils.bindAttributes(session, entity, resultSet, bindings, rows.stream().map(WebSQLQueryResultSetRow::getData).collect(Collectors.toList()));
+            DBExecUtils.bindAttributes(session, entity, resultSet, bindings, rowValues);
         } catch (DBException e) {
             log.error("Error binding attributes", e);
         }
@@ -148,20 +200,26 @@ class WebSQLQueryDataReceiver implements DBDDataReceiver {
 
         // Convert row values
         for (WebSQLQueryResultSetRow row : rows) {
+            Object[] data = row.getData();
             for (int i = 0; i < bindings.length; i++) {
-                DBDAttributeBinding binding = bindings[i];
-                row.getData()[i] = WebSQLUtils.makeWebCellValue(webSession, binding, row.getData()[i], dataFormat);
+                data[i] = WebSQLUtils.makeWebCellValue(webSession, bindings[i], data[i], dataFormat);
             }
         }
 
+        // Hand rows over to the result set, receiver close must not clear them
+        List<WebSQLQueryResultSetRow> resultRows = Collections.unmodifiableList(rows);
+        rows = new ArrayList<>();
+
         webResultSet.setColumns(bindings);
-        webResultSet.setRows(List.of(rows.toArray(new WebSQLQueryResultSetRow[0])));
+        webResultSet.setRows(resultRows);
         webResultSet.setHasChildrenCollection(resultSet instanceof DBDSubCollectionResultSet);
         webResultSet.setSupportsDataFilter(dataContainer.isFeatureSupported(DBSDataContainer.FEATURE_DATA_FILTER));
         webResultSet.setHasDynamicTrace(trace instanceof DBCTraceDynamic);
         webResultSet.setReadOnlyInfo(contextInfo.getProcessor().getExecutionContext());
 
-        WebSQLResultsInfo resultsInfo = contextInfo.saveResult(dataContainer, trace, bindings, rows.size() == 1);
+        boolean singleRow = restoredResultId != null ? restoredSingleRow : resultRows.size() == 1;
+        WebSQLResultsInfo resultsInfo = contextInfo.saveResult(
+            dataContainer, trace, bindings, singleRow, dataFormat, restoredResultId);
         webResultSet.setResultsInfo(resultsInfo);
 
         boolean isSingleEntity = DBExecUtils.detectSingleSourceTable(bindings) != null;
@@ -186,8 +244,8 @@ class WebSQLQueryDataReceiver implements DBDDataReceiver {
 
         // Convert original rows into new rows with leaf attributes
         // Extract values for leaf attributes from original row
+        // Rows are replaced in place to avoid holding two copies of the page
         DBDAttributeBinding[] leafAttributes = leafBindings.toArray(new DBDAttributeBinding[0]);
-        List<WebSQLQueryResultSetRow> newRows = new ArrayList<>();
         for (WebSQLQueryResultSetRow row : rows) {
             Object[] newRow = new Object[leafBindings.size()];
             for (int i = 0; i < leafBindings.size(); i++) {
@@ -208,10 +266,9 @@ class WebSQLQueryDataReceiver implements DBDDataReceiver {
                     newRow[i] = new DBDValueError(e);
                 }
             }
-            newRows.add(new WebSQLQueryResultSetRow(newRow, row.getMetaData()));
+            row.setData(newRow);
         }
         this.bindings = leafAttributes;
-        this.rows = newRows;
     }
 
     private void collectLeafBindings(DBDAttributeBinding attr, List<DBDAttributeBinding> leafBindings) {
@@ -230,6 +287,9 @@ class WebSQLQueryDataReceiver implements DBDDataReceiver {
         }
     }
 
+    private record MetaDataAccessor(@NotNull String name, @NotNull Method method) {
+    }
+
     @Override
     public void close() {
         rows.clear();
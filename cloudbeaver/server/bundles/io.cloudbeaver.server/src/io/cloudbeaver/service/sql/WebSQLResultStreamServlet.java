@@ -0,0 +1,96 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.sql;
+
+import io.cloudbeaver.DBWebException;
+import io.cloudbeaver.model.WebConnectionInfo;
+import io.cloudbeaver.model.app.ServletApplication;
+import io.cloudbeaver.model.session.WebSession;
+import io.cloudbeaver.service.WebServiceServletBase;
+import io.cloudbeaver.utils.WebDataSourceUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.data.json.JSONUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Streams rows of existing results in chunks, see {@link WebSQLResultStreamWriter} for the format.
+ * Unlike GraphQL results fetch the page is never kept in memory, so large pages don't spike heap usage.
+ * Variables: projectId, connectionId, contextId, resultsId, filter (same as in GraphQL), dataFormat, chunkSize.
+ */
+public class WebSQLResultStreamServlet extends WebServiceServletBase {
+
+    private static final Log log = Log.getLog(WebSQLResultStreamServlet.class);
+
+    public static final String CONTENT_TYPE_NDJSON = "application/x-ndjson";
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+    private static final int MAX_CHUNK_SIZE = 10000;
+
+    public WebSQLResultStreamServlet(ServletApplication application) {
+        super(application);
+    }
+
+    @Override
+    protected void processServiceRequest(WebSession session, HttpServletRequest request, HttpServletResponse response) throws DBException, IOException {
+        Map<String, Object> variables = getVariables(request);
+        if (variables == null) {
+            throw new DBWebException("Results stream variables not specified");
+        }
+        String connectionId = JSONUtils.getString(variables, "connectionId");
+        String contextId = JSONUtils.getString(variables, "contextId");
+        String resultsId = JSONUtils.getString(variables, "resultsId");
+        if (connectionId == null || contextId == null || resultsId == null) {
+            throw new DBWebException("Results not specified");
+        }
+        WebConnectionInfo connectionInfo = WebDataSourceUtils.getWebConnectionInfo(
+            session, JSONUtils.getString(variables, "projectId"), connectionId);
+        WebSQLProcessor processor = WebServiceBindingSQL.getSQLProcessor(connectionInfo);
+        WebSQLContextInfo contextInfo = WebServiceBindingSQL.getSQLContext(processor, contextId);
+        WebSQLResultsInfo resultsInfo = contextInfo.getResults(resultsId);
+
+        Map<String, Object> filterProps = JSONUtils.getObject(variables, "filter");
+        WebSQLDataFilter filter = new WebSQLDataFilter(filterProps);
+        if (!filterProps.containsKey("limit")) {
+            filter.setLimit(WebSQLDataFilter.MAX_ROWS_NUMBER);
+        }
+        WebDataFormat dataFormat = CommonUtils.valueOf(
+            WebDataFormat.class, JSONUtils.getString(variables, "dataFormat"), WebDataFormat.resultset);
+        int chunkSize = Math.min(Math.max(CommonUtils.toInt(variables.get("chunkSize"), DEFAULT_CHUNK_SIZE), 1), MAX_CHUNK_SIZE);
+
+        response.setContentType(CONTENT_TYPE_NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-cache");
+        WebSQLResultStreamWriter streamWriter = new WebSQLResultStreamWriter(response.getWriter(), chunkSize);
+        try {
+            processor.streamResultsData(
+                contextInfo, session.getProgressMonitor(), resultsInfo, filter, dataFormat, streamWriter, chunkSize);
+        } catch (DBException e) {
+            if (!streamWriter.isStarted()) {
+                throw e;
+            }
+            // Response is already committed, report error in the stream
+            log.debug("Error streaming results '" + resultsId + "'", e);
+            streamWriter.writeError(e.getMessage());
+        }
+    }
+}
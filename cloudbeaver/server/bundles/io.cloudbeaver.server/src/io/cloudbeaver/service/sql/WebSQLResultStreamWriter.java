@@ -0,0 +1,160 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.sql;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes result set rows as a stream of JSON lines.
+ * The first line describes columns, then rows follow in column-oriented chunks:
+ * <pre>
+ * {"resultsId":"1","columns":[{"name":"id",...},{"name":"name",...}]}
+ * {"offset":0,"rowCount":2,"columns":[["1","2"],["a","b"]]}
+ * {"rowCount":2,"duration":15}
+ * </pre>
+ * Each chunk is flushed to the client as soon as it is filled, so only one chunk of converted values is kept in memory.
+ * Stream which failed after the first line ends with {"error":"message"}.
+ */
+public class WebSQLResultStreamWriter {
+
+    private static final Gson gson = new GsonBuilder()
+        .serializeNulls()
+        .create();
+
+    private final Writer writer;
+    private final int chunkSize;
+    private Object[][] columnValues;
+    private int chunkRows;
+    private long rowCount;
+    private boolean started;
+
+    public WebSQLResultStreamWriter(@NotNull Writer writer, int chunkSize) {
+        this.writer = writer;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Returns true if something was written to the stream. Errors can't be reported with response status after that.
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public void writeColumns(@NotNull String resultsId, @NotNull List<Map<String, Object>> columns) throws IOException {
+        columnValues = new Object[columns.size()][chunkSize];
+        JsonWriter json = startLine();
+        json.beginObject();
+        json.name("resultsId").value(resultsId);
+        json.name("columns");
+        gson.toJson(columns, List.class, json);
+        json.endObject();
+        endLine();
+    }
+
+    /**
+     * Adds converted row values to the current chunk. Chunk is written when it is full.
+     */
+    public void addRow(@NotNull Object[] values) throws IOException {
+        if (columnValues == null) {
+            throw new IllegalStateException("Columns must be written before rows");
+        }
+        for (int i = 0; i < columnValues.length; i++) {
+            columnValues[i][chunkRows] = i < values.length ? values[i] : null;
+        }
+        chunkRows++;
+        rowCount++;
+        if (chunkRows >= chunkSize) {
+            writeChunk();
+        }
+    }
+
+    /**
+     * Writes the last chunk and the results summary.
+     */
+    public void finish(long duration) throws IOException {
+        if (chunkRows > 0) {
+            writeChunk();
+        }
+        JsonWriter json = startLine();
+        json.beginObject();
+        json.name("rowCount").value(rowCount);
+        json.name("duration").value(duration);
+        json.endObject();
+        endLine();
+    }
+
+    public void writeError(@Nullable String message) throws IOException {
+        JsonWriter json = startLine();
+        json.beginObject();
+        json.name("error").value(message);
+        json.endObject();
+        endLine();
+    }
+
+    private void writeChunk() throws IOException {
+        JsonWriter json = startLine();
+        json.beginObject();
+        json.name("offset").value(rowCount - chunkRows);
+        json.name("rowCount").value(chunkRows);
+        json.name("columns");
+        json.beginArray();
+        for (Object[] values : columnValues) {
+            json.beginArray();
+            for (int i = 0; i < chunkRows; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    json.nullValue();
+                } else {
+                    gson.toJson(value, value.getClass(), json);
+                }
+            }
+            json.endArray();
+            // Release converted values of the written chunk
+            Arrays.fill(values, 0, chunkRows, null);
+        }
+        json.endArray();
+        json.endObject();
+        endLine();
+        chunkRows = 0;
+    }
+
+    @NotNull
+    private JsonWriter startLine() throws IOException {
+        started = true;
+        return gson.newJsonWriter(writer);
+    }
+
+    private void endLine() throws IOException {
+        // Json writer doesn't buffer, line is sent to the client with a single flush
+        writer.write('\n');
+        writer.flush();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.sql;
+
+import io.cloudbeaver.model.session.WebSession;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retention policy of results info kept by SQL contexts of a web session.
+ * All session contexts share the same limits, the least recently used results are evicted first.
+ * Evicted entity results keep only their data container, so contexts may restore them on the next request.
+ * Requests for evicted query results fail with results expiration error.
+ * Also used as a lock of results maps of session contexts.
+ */
+public class WebSQLResultsRetention {
+
+    public static final int MAX_RETAINED_RESULTS = 300;
+    public static final long MAX_RETAINED_RESULTS_SIZE = 64L * 1024 * 1024;
+
+    private static final String ATTR_RESULTS_RETENTION = "sqlResultsRetention";
+
+    // Rough size of results info and of each attribute binding with its metadata and row identifier
+    private static final long RESULTS_INFO_SIZE = 2048;
+    private static final long ATTRIBUTE_BINDING_SIZE = 1024;
+
+    private static final AtomicInteger totalRetainedResults = new AtomicInteger();
+    private static final AtomicLong totalRetainedSize = new AtomicLong();
+
+    @NotNull
+    public static WebSQLResultsRetention getSessionRetention(@NotNull WebSession webSession) {
+        return webSession.getAttribute(
+            ATTR_RESULTS_RETENTION, r -> new WebSQLResultsRetention(), WebSQLResultsRetention::dispose);
+    }
+
+    /**
+     * Returns session retention without creating it, null if session has no SQL results yet
+     */
+    @Nullable
+    public static WebSQLResultsRetention findSessionRetention(@NotNull WebSession webSession) {
+        return webSession.getAttribute(ATTR_RESULTS_RETENTION);
+    }
+
+    /**
+     * Number of results retained by all sessions
+     */
+    public static int getTotalRetainedResultsCount() {
+        return totalRetainedResults.get();
+    }
+
+    /**
+     * Estimated heap size of results retained by all sessions
+     */
+    public static long getTotalRetainedSize() {
+        return totalRetainedSize.get();
+    }
+
+    // Access ordered, the eldest entry is the least recently used one
+    private final Map<WebSQLResultsInfo, WebSQLContextInfo> results = new LinkedHashMap<>(16, 0.75f, true);
+    private long retainedSize;
+
+    synchronized void addResult(@NotNull WebSQLContextInfo contextInfo, @NotNull WebSQLResultsInfo resultInfo) {
+        if (results.put(resultInfo, contextInfo) == null) {
+            totalRetainedResults.incrementAndGet();
+            updateRetainedSize(estimateSize(resultInfo));
+        }
+        // Never evict just added results
+        Iterator<Map.Entry<WebSQLResultsInfo, WebSQLContextInfo>> iterator = results.entrySet().iterator();
+        while ((results.size() > MAX_RETAINED_RESULTS || retainedSize > MAX_RETAINED_RESULTS_SIZE) && results.size() > 1) {
+            Map.Entry<WebSQLResultsInfo, WebSQLContextInfo> eldest = iterator.next();
+            iterator.remove();
+            totalRetainedResults.decrementAndGet();
+            updateRetainedSize(-estimateSize(eldest.getKey()));
+            eldest.getValue().evictResult(eldest.getKey());
+        }
+    }
+
+    synchronized void touchResult(@NotNull WebSQLResultsInfo resultInfo) {
+        results.get(resultInfo);
+    }
+
+    synchronized void removeResult(@NotNull WebSQLResultsInfo resultInfo) {
+        if (results.remove(resultInfo) != null) {
+            totalRetainedResults.decrementAndGet();
+            updateRetainedSize(-estimateSize(resultInfo));
+        }
+    }
+
+    synchronized void removeContextResults(@NotNull WebSQLContextInfo contextInfo) {
+        List<WebSQLResultsInfo> contextResults = new ArrayList<>();
+        for (Map.Entry<WebSQLResultsInfo, WebSQLContextInfo> entry : results.entrySet()) {
+            if (entry.getValue() == contextInfo) {
+                contextResults.add(entry.getKey());
+            }
+        }
+        contextResults.forEach(this::removeResult);
+    }
+
+    /**
+     * Number of results retained by session
+     */
+    public synchronized int getRetainedResultsCount() {
+        return results.size();
+    }
+
+    /**
+     * Estimated heap size of results retained by session
+     */
+    public synchronized long getRetainedSize() {
+        return retainedSize;
+    }
+
+    private void updateRetainedSize(long delta) {
+        retainedSize += delta;
+        totalRetainedSize.addAndGet(delta);
+    }
+
+    private static long estimateSize(@NotNull WebSQLResultsInfo resultInfo) {
+        DBDAttributeBinding[] attributes = resultInfo.getAttributes();
+        return RESULTS_INFO_SIZE + (attributes == null ? 0 : attributes.length * ATTRIBUTE_BINDING_SIZE);
+    }
+
+    private synchronized WebSQLResultsRetention dispose() {
+        totalRetainedResults.addAndGet(-results.size());
+        updateRetainedSize(-retainedSize);
+        results.clear();
+        return this;
+    }
+}
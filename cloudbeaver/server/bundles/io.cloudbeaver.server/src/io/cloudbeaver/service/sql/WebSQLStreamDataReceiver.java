@@ -0,0 +1,223 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.sql;
+
+import io.cloudbeaver.model.session.WebSession;
+import io.cloudbeaver.utils.ServletAppUtils;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeBindingMeta;
+import org.jkiss.dbeaver.model.data.DBDAttributeBindingType;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.data.DBDValueError;
+import org.jkiss.dbeaver.model.sql.DBQuotaException;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Passes fetched rows to the results stream.
+ * Attribute bindings are resolved by the first chunk of rows, which is kept until the columns are written.
+ * After that each row is converted and written as soon as it is fetched.
+ * Unlike {@link WebSQLQueryDataReceiver} rows metadata is not collected.
+ */
+class WebSQLStreamDataReceiver implements DBDDataReceiver {
+    private static final Log log = Log.getLog(WebSQLStreamDataReceiver.class);
+
+    private final WebSQLContextInfo contextInfo;
+    private final DBSDataContainer dataContainer;
+    private final WebDataFormat dataFormat;
+    private final String resultsId;
+    private final WebSQLResultStreamWriter streamWriter;
+    private final int chunkSize;
+    private final Number rowLimit;
+
+    private DBDAttributeBinding[] bindings;
+    // Leaf attributes of complex values, null if values are written as is
+    private DBDAttributeBinding[] leafBindings;
+    // Rows fetched before bindings were resolved
+    private List<Object[]> firstRows = new ArrayList<>();
+    private long rowCount;
+
+    WebSQLStreamDataReceiver(
+        @NotNull WebSQLContextInfo contextInfo,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull WebDataFormat dataFormat,
+        @NotNull String resultsId,
+        @NotNull WebSQLResultStreamWriter streamWriter,
+        int chunkSize
+    ) {
+        this.contextInfo = contextInfo;
+        this.dataContainer = dataContainer;
+        this.dataFormat = dataFormat;
+        this.resultsId = resultsId;
+        this.streamWriter = streamWriter;
+        this.chunkSize = chunkSize;
+        rowLimit = ServletAppUtils.getServletApplication()
+            .getAppConfiguration()
+            .getResourceQuota(WebSQLConstants.QUOTA_PROP_ROW_LIMIT);
+    }
+
+    @Override
+    public void fetchStart(@NotNull DBCSession session, @NotNull DBCResultSet dbResult, long offset, long maxRows) throws DBCException {
+        List<? extends DBCAttributeMetaData> attributes = dbResult.getMeta().getAttributes();
+        bindings = new DBDAttributeBindingMeta[attributes.size()];
+        for (int i = 0; i < attributes.size(); i++) {
+            bindings[i] = new DBDAttributeBindingMeta(dataContainer, dbResult.getSession(), attributes.get(i));
+        }
+    }
+
+    @Override
+    public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+        Object[] row = new Object[bindings.length];
+        for (int i = 0; i < bindings.length; i++) {
+            DBDAttributeBinding binding = bindings[i];
+            try {
+                row[i] = binding.getValueHandler().fetchValueObject(
+                    resultSet.getSession(),
+                    resultSet,
+                    binding.getMetaAttribute(),
+                    i);
+            } catch (Throwable e) {
+                row[i] = new DBDValueError(e);
+            }
+        }
+        rowCount++;
+        if (rowLimit != null && rowCount > rowLimit.longValue()) {
+            throw new DBQuotaException(
+                "Result set rows quota exceeded", WebSQLConstants.QUOTA_PROP_ROW_LIMIT, rowLimit.longValue(), rowCount);
+        }
+        if (firstRows != null) {
+            firstRows.add(row);
+            if (firstRows.size() >= chunkSize) {
+                writeColumns(session, resultSet);
+            }
+        } else {
+            writeRow(row);
+        }
+    }
+
+    @Override
+    public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+        if (firstRows != null) {
+            writeColumns(session, resultSet);
+        }
+    }
+
+    private void writeColumns(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+        DBSEntity entity = dataContainer instanceof DBSEntity ? (DBSEntity) dataContainer : null;
+        try {
+            DBExecUtils.bindAttributes(session, entity, resultSet, bindings, firstRows);
+        } catch (DBException e) {
+            log.error("Error binding attributes", e);
+        }
+        if (dataFormat != WebDataFormat.document) {
+            List<DBDAttributeBinding> leafList = new ArrayList<>();
+            for (DBDAttributeBinding attr : bindings) {
+                collectLeafBindings(attr, leafList);
+            }
+            if (!Arrays.asList(bindings).equals(leafList)) {
+                leafBindings = leafList.toArray(new DBDAttributeBinding[0]);
+            }
+        }
+        DBDAttributeBinding[] columnBindings = leafBindings != null ? leafBindings : bindings;
+        List<Map<String, Object>> columns = new ArrayList<>(columnBindings.length);
+        for (int i = 0; i < columnBindings.length; i++) {
+            DBDAttributeBinding binding = columnBindings[i];
+            if (binding instanceof DBDAttributeBindingType bindingType) {
+                // Leaf attributes are written as a plain list, see WebSQLQueryDataReceiver
+                bindingType.setOrdinalPosition(i);
+            }
+            WebSQLQueryResultColumn column = new WebSQLQueryResultColumn(binding);
+            Map<String, Object> columnInfo = new LinkedHashMap<>();
+            columnInfo.put("position", column.getPosition());
+            columnInfo.put("name", column.getName());
+            columnInfo.put("label", column.getLabel());
+            columnInfo.put("dataKind", column.getDataKind());
+            columnInfo.put("typeName", column.getTypeName());
+            columnInfo.put("fullTypeName", column.getFullTypeName());
+            columns.add(columnInfo);
+        }
+        try {
+            streamWriter.writeColumns(resultsId, columns);
+        } catch (IOException e) {
+            throw new DBCException("Error writing results stream", e);
+        }
+        List<Object[]> rows = firstRows;
+        firstRows = null;
+        for (Object[] row : rows) {
+            writeRow(row);
+        }
+    }
+
+    private void writeRow(@NotNull Object[] row) throws DBCException {
+        WebSession webSession = contextInfo.getProcessor().getWebSession();
+        DBDAttributeBinding[] columnBindings = leafBindings != null ? leafBindings : bindings;
+        Object[] values = new Object[columnBindings.length];
+        for (int i = 0; i < columnBindings.length; i++) {
+            Object cellValue;
+            if (leafBindings == null) {
+                cellValue = row[i];
+            } else {
+                try {
+                    cellValue = DBUtils.getAttributeValue(leafBindings[i], leafBindings, row);
+                } catch (Exception e) {
+                    cellValue = new DBDValueError(e);
+                }
+            }
+            values[i] = WebSQLUtils.makeWebCellValue(webSession, columnBindings[i], cellValue, dataFormat);
+        }
+        try {
+            streamWriter.addRow(values);
+        } catch (IOException e) {
+            throw new DBCException("Error writing results stream", e);
+        }
+    }
+
+    private static void collectLeafBindings(DBDAttributeBinding attr, List<DBDAttributeBinding> leafBindings) {
+        // Arrays are shown as strings, same as in WebSQLQueryDataReceiver
+        if (attr.getDataKind() == DBPDataKind.ARRAY) {
+            leafBindings.add(attr);
+            return;
+        }
+        List<DBDAttributeBinding> nestedBindings = attr.getNestedBindings();
+        if (CommonUtils.isEmpty(nestedBindings)) {
+            leafBindings.add(attr);
+        } else {
+            for (DBDAttributeBinding nested : nestedBindings) {
+                collectLeafBindings(nested, leafBindings);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        firstRows = null;
+    }
+}
@@ -315,6 +315,11 @@ public class WebServiceBindingSQL extends WebServiceBindingBase<DBWServiceSQL>
             new WebSQLResultServlet(application, getServiceImpl()),
             application.getServicesURI() + "sql-result-value/*"
         );
+        servletContext.addServlet(
+            "sqlResultStream",
+            new WebSQLResultStreamServlet(application),
+            application.getServicesURI() + "sql-result-stream/*"
+        );
         servletContext.addServlet(
             "sqlUploadFile",
             new WebSQLFileLoaderServlet(application),
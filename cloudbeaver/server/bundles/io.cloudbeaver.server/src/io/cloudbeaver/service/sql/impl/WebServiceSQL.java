@@ -19,6 +19,7 @@ package io.cloudbeaver.service.sql.impl;
 
 import io.cloudbeaver.DBWebException;
 import io.cloudbeaver.model.WebAsyncTaskInfo;
+import io.cloudbeaver.model.WebAsyncTaskPriority;
 import io.cloudbeaver.model.WebConnectionInfo;
 import io.cloudbeaver.model.WebTransactionLogInfo;
 import io.cloudbeaver.model.session.WebAsyncTaskProcessor;
@@ -651,7 +652,7 @@ public class WebServiceSQL implements DBWServiceSQL {
                 }
             }
         };
-        return contextInfo.getProcessor().getWebSession().createAndRunAsyncTask("SQL result set count rows", runnable);
+        return contextInfo.getProcessor().getWebSession().createAndRunAsyncTask("SQL result set count rows", WebAsyncTaskPriority.BACKGROUND, runnable);
     }
 
     @Override
@@ -18,6 +18,7 @@ package io.cloudbeaver.service.data.transfer.impl;
 
 import io.cloudbeaver.DBWebException;
 import io.cloudbeaver.model.WebAsyncTaskInfo;
+import io.cloudbeaver.model.WebAsyncTaskPriority;
 import io.cloudbeaver.model.session.WebAsyncTaskProcessor;
 import io.cloudbeaver.model.session.WebSession;
 import io.cloudbeaver.server.CBPlatform;
@@ -188,7 +189,7 @@ public class WebServiceDataTransfer implements DBWServiceDataTransfer {
 
         //fixme fake task for keeping api
         return sqlProcessor.getWebSession().createAndRunAsyncTask(
-            "Data export", new WebAsyncTaskProcessor<>() {
+            "Data export", WebAsyncTaskPriority.EXPORT, new WebAsyncTaskProcessor<>() {
                 @Override
                 public void run(DBRProgressMonitor monitor) throws InvocationTargetException {
                     result = fileNameKey;
@@ -231,7 +232,7 @@ public class WebServiceDataTransfer implements DBWServiceDataTransfer {
                 }
             }
         };
-        return webSession.createAndRunAsyncTask("Data import", runnable);
+        return webSession.createAndRunAsyncTask("Data import", WebAsyncTaskPriority.EXPORT, runnable);
     }
 
     private void exportData(
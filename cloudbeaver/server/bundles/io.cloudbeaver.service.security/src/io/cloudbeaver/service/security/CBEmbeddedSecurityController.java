@@ -53,6 +53,7 @@ import org.jkiss.dbeaver.model.security.user.*;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.websocket.event.WSUserCloseSessionsEvent;
 import org.jkiss.dbeaver.model.websocket.event.WSUserDeletedEvent;
+import org.jkiss.dbeaver.model.websocket.event.WSUserTokensInvalidatedEvent;
 import org.jkiss.dbeaver.model.websocket.event.permissions.WSObjectPermissionEvent;
 import org.jkiss.dbeaver.model.websocket.event.permissions.WSSubjectPermissionEvent;
 import org.jkiss.dbeaver.model.websocket.event.session.WSAuthEvent;
@@ -768,6 +769,9 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
         } catch (SQLException e) {
             throw new DBCException("Error while updating user configuration", e);
         }
+        if (!enabled) {
+            addTokensInvalidatedEvent(userId, List.of());
+        }
     }
 
     public void enableUser(Connection dbCon, String userId, boolean enabled) throws SQLException {
@@ -776,6 +780,9 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
             dbStat.setString(1, enabled ? CHAR_BOOL_TRUE : CHAR_BOOL_FALSE);
             dbStat.setString(2, userId);
             dbStat.executeUpdate();
+        } finally {
+            // Disabled user must lose cached tokens and permissions immediately
+            SMPermissionsCache.getInstance().invalidateUser(userId);
         }
     }
 
@@ -2051,6 +2058,13 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
                 dbCon, database.normalizeTableNames("DELETE FROM {table_prefix}CB_AUTH_TOKEN WHERE TOKEN_ID=?"), smToken);
         } catch (SQLException e) {
             throw new DBCException("Session invalidation failed", e);
+        } finally {
+            SMPermissionsCache.getInstance().invalidateToken(smToken);
+        }
+        // Token belongs to the current session, other nodes don't know the token itself
+        String smSessionId = getSmSessionId();
+        if (smSessionId != null) {
+            addTokensInvalidatedEvent(null, List.of(smSessionId));
         }
     }
 
@@ -2061,6 +2075,8 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
                 dbCon, database.normalizeTableNames("DELETE FROM {table_prefix}CB_AUTH_TOKEN"));
         } catch (SQLException e) {
             throw new DBCException("Session invalidation failed", e);
+        } finally {
+            SMPermissionsCache.getInstance().invalidateAll();
         }
         application.getEventController().addEvent(new WSUserCloseSessionsEvent(List.of(), getSmSessionId(), getUserId()));
     }
@@ -2071,7 +2087,18 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
                 dbCon, database.normalizeTableNames("DELETE FROM {table_prefix}CB_AUTH_TOKEN WHERE USER_ID=?"), userId);
         } catch (SQLException e) {
             throw new DBCException("Session invalidation failed", e);
+        } finally {
+            SMPermissionsCache.getInstance().invalidateUser(userId);
         }
+        addTokensInvalidatedEvent(userId, List.of());
+    }
+
+    /**
+     * Notifies other cluster nodes that their cached token info and permissions are no longer valid.
+     * Must be sent after changes are committed, otherwise other nodes may cache the old state again.
+     */
+    private void addTokensInvalidatedEvent(@Nullable String userId, @NotNull List<String> smSessionIds) {
+        application.getEventController().addEvent(new WSUserTokensInvalidatedEvent(userId, smSessionIds));
     }
 
     private SMCredentials getCurrentUserCreds() throws SMException {
@@ -2309,6 +2336,10 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
                 updateAuthStatus(authId, SMAuthStatus.ERROR, dbStoredUserData, error, null);
                 throw new SMException(error, e);
             }
+            if (authAttemptSessionInfo.getSmSessionId() != null) {
+                // Previous tokens of the existing session were deleted
+                addTokensInvalidatedEvent(null, List.of(authAttemptSessionInfo.getSmSessionId()));
+            }
         }
         var authStatus = isSyncAuth ? SMAuthStatus.EXPIRED : SMAuthStatus.SUCCESS;
         updateAuthStatus(authId, authStatus, dbStoredUserData, null, permissions.getSessionId(), null);
@@ -2559,6 +2590,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
     ) throws SQLException, DBException {
         JDBCUtils.executeStatement(
             dbCon, database.normalizeTableNames("DELETE FROM {table_prefix}CB_AUTH_TOKEN WHERE SESSION_ID=?"), smSessionId);
+        SMPermissionsCache.getInstance().invalidateSessionTokens(List.of(smSessionId));
         return generateNewSessionTokens(smSessionId, userId, authRole, dbCon);
     }
 
@@ -2620,6 +2652,8 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
             }
         } catch (SQLException e) {
             throw new DBException("Error delete active user's session", e);
+        } finally {
+            SMPermissionsCache.getInstance().invalidateSessionTokens(sessionsId);
         }
     }
 
@@ -2664,9 +2698,36 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
 
     @NotNull
     private SMAuthPermissions getTokenPermissions(@NotNull String token) throws DBException {
-        String userId;
-        String sessionId;
-        String authRole;
+        SMPermissionsCache permissionsCache = SMPermissionsCache.getInstance();
+        long cacheTtl = getPermissionsCacheTtl();
+        long cacheVersion = permissionsCache.getVersion();
+        SMPermissionsCache.TokenInfo tokenInfo = cacheTtl > 0 ? permissionsCache.getTokenInfo(token, cacheTtl) : null;
+        if (tokenInfo == null) {
+            tokenInfo = readTokenInfo(token);
+            if (cacheTtl > 0) {
+                permissionsCache.putTokenInfo(token, tokenInfo, cacheVersion);
+            }
+        }
+        if (application.isMultiNode() && isTokenExpired(tokenInfo.expirationTime())) {
+            throw new SMAccessTokenExpiredException("Error reading permissions: token has expired");
+        }
+        String userId = tokenInfo.userId();
+        String authRole = tokenInfo.authRole();
+
+        Set<String> permissions = cacheTtl > 0 ? permissionsCache.getUserPermissions(userId, authRole, cacheTtl) : null;
+        if (permissions == null) {
+            permissions = userId == null ? getAnonymousUserPermissions() : getUserPermissions(userId, authRole);
+            if (cacheTtl > 0) {
+                permissionsCache.putUserPermissions(userId, authRole, permissions, cacheVersion);
+            }
+        } else {
+            permissions = new HashSet<>(permissions);
+        }
+        return new SMAuthPermissions(userId, tokenInfo.sessionId(), permissions);
+    }
+
+    @NotNull
+    private SMPermissionsCache.TokenInfo readTokenInfo(@NotNull String token) throws DBException {
         try (Connection dbCon = database.openConnection();
              PreparedStatement dbStat = dbCon.prepareStatement(
                  database.normalizeTableNames("""
@@ -2678,19 +2739,21 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
                 if (!dbResult.next()) {
                     throw new SMException("Error reading permissions: input token not recognized.");
                 }
-                userId = dbResult.getString(1);
-                var expiredDate = dbResult.getTimestamp(2);
-                if (application.isMultiNode() && isTokenExpired(expiredDate)) {
-                    throw new SMAccessTokenExpiredException("Error reading permissions: token has expired");
-                }
-                sessionId = dbResult.getString(3);
-                authRole = dbResult.getString(4);
+                return new SMPermissionsCache.TokenInfo(
+                    dbResult.getString(1),
+                    dbResult.getString(3),
+                    dbResult.getString(4),
+                    dbResult.getTimestamp(2),
+                    System.currentTimeMillis()
+                );
             }
         } catch (SQLException e) {
             throw new DBCException("Error reading token info in database", e);
         }
-        var permissions = userId == null ? getAnonymousUserPermissions() : getUserPermissions(userId, authRole);
-        return new SMAuthPermissions(userId, sessionId, permissions);
+    }
+
+    private long getPermissionsCacheTtl() {
+        return smConfig.getPermissionsCacheTtl() * 1000L;
     }
 
     @Override
@@ -2903,6 +2966,7 @@ public class CBEmbeddedSecurityController<T extends ServletAuthApplication>
 
 
     private void addSubjectPermissionsUpdateEvent(@NotNull String subjectId, @Nullable SMSubjectType subjectType) {
+        SMPermissionsCache.getInstance().invalidatePermissions();
         if (subjectType == null) {
             subjectType = getSubjectType(subjectId);
         }
@@ -0,0 +1,220 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.security;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.utils.CommonUtils;
+
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Node-wide cache of access token info and user permissions.
+ * Security controllers are created per request, so the cache is shared between all of them.
+ * Entries live not longer than configured TTL, permission changes invalidate them explicitly.
+ */
+public class SMPermissionsCache {
+
+    private static final int MAX_CACHE_SIZE = 10000;
+    // Entries evicted at once, so that entries are not sorted on each put to the full cache
+    private static final int EVICTION_BATCH_SIZE = MAX_CACHE_SIZE / 10;
+
+    private static final SMPermissionsCache INSTANCE = new SMPermissionsCache();
+
+    public static SMPermissionsCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<String, TokenInfo> tokenCache = new ConcurrentHashMap<>();
+    private final Map<String, PermissionsInfo> permissionsCache = new ConcurrentHashMap<>();
+    private final AtomicLong tokenHitCount = new AtomicLong();
+    private final AtomicLong tokenMissCount = new AtomicLong();
+    private final AtomicLong permissionsHitCount = new AtomicLong();
+    private final AtomicLong permissionsMissCount = new AtomicLong();
+    // Incremented on each invalidation, so values read from the database before it are not cached
+    private final AtomicLong version = new AtomicLong();
+
+    private SMPermissionsCache() {
+    }
+
+    record TokenInfo(
+        @Nullable String userId,
+        @Nullable String sessionId,
+        @Nullable String authRole,
+        @Nullable Timestamp expirationTime,
+        long loadTime
+    ) {
+    }
+
+    private record PermissionsInfo(@NotNull Set<String> permissions, long loadTime) {
+    }
+
+    @Nullable
+    TokenInfo getTokenInfo(@NotNull String token, long ttlMillis) {
+        TokenInfo tokenInfo = tokenCache.get(token);
+        if (tokenInfo == null || isExpired(tokenInfo.loadTime(), ttlMillis)) {
+            tokenMissCount.incrementAndGet();
+            return null;
+        }
+        tokenHitCount.incrementAndGet();
+        return tokenInfo;
+    }
+
+    void putTokenInfo(@NotNull String token, @NotNull TokenInfo tokenInfo, long readVersion) {
+        if (readVersion != version.get()) {
+            return;
+        }
+        trimCache(tokenCache, TokenInfo::loadTime);
+        tokenCache.put(token, tokenInfo);
+    }
+
+    @Nullable
+    Set<String> getUserPermissions(@Nullable String userId, @Nullable String authRole, long ttlMillis) {
+        PermissionsInfo permissionsInfo = permissionsCache.get(makePermissionsKey(userId, authRole));
+        if (permissionsInfo == null || isExpired(permissionsInfo.loadTime(), ttlMillis)) {
+            permissionsMissCount.incrementAndGet();
+            return null;
+        }
+        permissionsHitCount.incrementAndGet();
+        return permissionsInfo.permissions();
+    }
+
+    void putUserPermissions(
+        @Nullable String userId,
+        @Nullable String authRole,
+        @NotNull Set<String> permissions,
+        long readVersion
+    ) {
+        if (readVersion != version.get()) {
+            return;
+        }
+        trimCache(permissionsCache, PermissionsInfo::loadTime);
+        permissionsCache.put(
+            makePermissionsKey(userId, authRole),
+            new PermissionsInfo(Set.copyOf(permissions), System.currentTimeMillis()));
+    }
+
+    /**
+     * Returns current cache version. Must be read before reading cached values from the database.
+     */
+    long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Invalidates single access token.
+     */
+    public void invalidateToken(@NotNull String token) {
+        version.incrementAndGet();
+        tokenCache.remove(token);
+    }
+
+    /**
+     * Invalidates all access tokens of specified sm sessions.
+     */
+    public void invalidateSessionTokens(@NotNull Iterable<String> smSessionIds) {
+        version.incrementAndGet();
+        for (String smSessionId : smSessionIds) {
+            tokenCache.values().removeIf(info -> CommonUtils.equalObjects(info.sessionId(), smSessionId));
+        }
+    }
+
+    /**
+     * Invalidates all access tokens and permissions of the user.
+     */
+    public void invalidateUser(@NotNull String userId) {
+        version.incrementAndGet();
+        tokenCache.values().removeIf(info -> CommonUtils.equalObjects(info.userId(), userId));
+        invalidatePermissions();
+    }
+
+    /**
+     * Invalidates cached permissions.
+     * Permissions depend on teams, so any subject change may affect any user.
+     */
+    public void invalidatePermissions() {
+        version.incrementAndGet();
+        permissionsCache.clear();
+    }
+
+    /**
+     * Invalidates everything.
+     */
+    public void invalidateAll() {
+        version.incrementAndGet();
+        tokenCache.clear();
+        permissionsCache.clear();
+    }
+
+    public long getTokenHitCount() {
+        return tokenHitCount.get();
+    }
+
+    public long getTokenMissCount() {
+        return tokenMissCount.get();
+    }
+
+    public long getPermissionsHitCount() {
+        return permissionsHitCount.get();
+    }
+
+    public long getPermissionsMissCount() {
+        return permissionsMissCount.get();
+    }
+
+    public int getCachedTokensCount() {
+        return tokenCache.size();
+    }
+
+    public int getCachedPermissionsCount() {
+        return permissionsCache.size();
+    }
+
+    private static boolean isExpired(long loadTime, long ttlMillis) {
+        return System.currentTimeMillis() - loadTime > ttlMillis;
+    }
+
+    /**
+     * Evicts the oldest entries of the full cache.
+     * All entries have the same TTL, so expired entries are evicted first.
+     */
+    private static <T> void trimCache(@NotNull Map<String, T> cache, @NotNull ToLongFunction<T> loadTime) {
+        if (cache.size() < MAX_CACHE_SIZE) {
+            return;
+        }
+        int evictCount = cache.size() - MAX_CACHE_SIZE + EVICTION_BATCH_SIZE;
+        List<Map.Entry<String, T>> oldestEntries = cache.entrySet().stream()
+            .sorted(Comparator.comparingLong(entry -> loadTime.applyAsLong(entry.getValue())))
+            .limit(evictCount)
+            .toList();
+        for (Map.Entry<String, T> entry : oldestEntries) {
+            cache.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @NotNull
+    private static String makePermissionsKey(@Nullable String userId, @Nullable String authRole) {
+        return CommonUtils.notEmpty(userId) + "\n" + CommonUtils.notEmpty(authRole);
+    }
+}
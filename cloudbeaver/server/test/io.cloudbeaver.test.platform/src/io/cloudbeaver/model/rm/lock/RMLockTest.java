@@ -207,4 +207,62 @@ public class RMLockTest {
         }
         Assert.assertFalse(lockController2.isFileLocked(project1));
     }
+
+    @Test
+    public void testWaitingForLockDoesNotBlockOtherProjects() throws Throwable {
+        var lockController1 = new TestLockController(CEAppStarter.getTestApp(), 1);
+        var lockController2 = new TestLockController(CEAppStarter.getTestApp(), 60000);
+        var lockController3 = new TestLockController(CEAppStarter.getTestApp(), 1);
+
+        CountDownLatch thread1CDL = new CountDownLatch(1);
+        CountDownLatch thread2InitCDL = new CountDownLatch(1);
+        CountDownLatch globalCountDown = new CountDownLatch(2);
+        AtomicReference<Throwable> exceptionReference = new AtomicReference<>();
+
+        Runnable runnable1 = () -> {
+            try (var lock = lockController1.lock(project1, "testWaitingForLockDoesNotBlockOtherProjects1")) {
+                thread2InitCDL.countDown();
+                thread1CDL.await(1, TimeUnit.MINUTES);
+            } catch (Throwable e) {
+                log.error(e);
+                exceptionReference.set(e);
+            } finally {
+                globalCountDown.countDown();
+            }
+        };
+        Runnable runnable2 = () -> {
+            try {
+                thread2InitCDL.await(1, TimeUnit.MINUTES);
+                // waits for thread 1
+                try (var lock = lockController2.lock(project1, "testWaitingForLockDoesNotBlockOtherProjects2")) {
+                    Assert.assertTrue("Project1 not locked", lockController2.isFileLocked(project1));
+                }
+            } catch (Throwable e) {
+                log.error(e);
+                exceptionReference.set(e);
+            } finally {
+                globalCountDown.countDown();
+            }
+        };
+
+        executor.submit(runnable1);
+        executor.submit(runnable2);
+        thread2InitCDL.await(1, TimeUnit.MINUTES);
+        try {
+            // project1 is locked and awaited, another project must be available immediately
+            long startTime = System.currentTimeMillis();
+            try (var lock = lockController3.lock(project2, "testWaitingForLockDoesNotBlockOtherProjects3")) {
+                Assert.assertTrue("Project2 not locked", lockController3.isFileLocked(project2));
+            }
+            Assert.assertTrue("Project2 lock was blocked by project1", System.currentTimeMillis() - startTime < 5000);
+        } finally {
+            thread1CDL.countDown();
+        }
+        globalCountDown.await(1, TimeUnit.MINUTES);
+        if (exceptionReference.get() != null) {
+            throw exceptionReference.get();
+        }
+        Assert.assertFalse(lockController2.isFileLocked(project1));
+        Assert.assertFalse(lockController3.isFileLocked(project2));
+    }
 }
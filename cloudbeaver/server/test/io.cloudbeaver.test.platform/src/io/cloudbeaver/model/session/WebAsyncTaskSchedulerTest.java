@@ -0,0 +1,148 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.model.session;
+
+import io.cloudbeaver.model.WebAsyncTaskPriority;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class WebAsyncTaskSchedulerTest {
+
+    private static final String HEAVY_USER = "heavy";
+    private static final String LIGHT_USER = "light";
+
+    // Simulated time
+    private long clock;
+    private final Map<String, Long> startTimes = new HashMap<>();
+    private final Map<String, Long> endTimes = new HashMap<>();
+    private final List<String> startOrder = new ArrayList<>();
+
+    @Test
+    public void testLightUserIsolatedFromHeavyUser() {
+        WebAsyncTaskScheduler scheduler = new WebAsyncTaskScheduler(4);
+        int heavyTaskDuration = 100;
+        for (int i = 0; i < 50; i++) {
+            submit(scheduler, HEAVY_USER, "heavy-" + i, WebAsyncTaskPriority.EXPORT, heavyTaskDuration);
+        }
+        Assert.assertEquals(4, scheduler.getRunningTasksCount());
+        Assert.assertEquals(46, scheduler.getQueuedTasksCount());
+
+        clock = 10;
+        for (int i = 0; i < 5; i++) {
+            submit(scheduler, LIGHT_USER, "light-" + i, WebAsyncTaskPriority.INTERACTIVE, 1);
+        }
+        runSimulation(scheduler);
+
+        for (int i = 0; i < 5; i++) {
+            long waitTime = startTimes.get("light-" + i) - 10;
+            // Light tasks wait for the currently running heavy tasks only, not for the whole heavy queue
+            Assert.assertTrue("Light task waited " + waitTime, waitTime <= heavyTaskDuration);
+        }
+        Assert.assertEquals(55, startTimes.size());
+        Assert.assertEquals(0, scheduler.getRunningTasksCount());
+        Assert.assertEquals(0, scheduler.getQueuedTasksCount());
+        Assert.assertEquals(55, scheduler.getStartedTasksCount());
+    }
+
+    @Test
+    public void testOwnerLimitQueuesTasks() {
+        WebAsyncTaskScheduler scheduler = new WebAsyncTaskScheduler(10);
+        for (int i = 0; i < 5; i++) {
+            submit(scheduler, HEAVY_USER, "task-" + i, WebAsyncTaskPriority.INTERACTIVE, 2, 10);
+        }
+        // Tasks over the owner limit are queued instead of failing
+        Assert.assertEquals(2, scheduler.getRunningTasksCount());
+        Assert.assertEquals(3, scheduler.getQueuedTasksCount());
+
+        runSimulation(scheduler);
+        Assert.assertEquals(5, startTimes.size());
+        Assert.assertEquals(30, clock);
+    }
+
+    @Test
+    public void testPriorityOrder() {
+        WebAsyncTaskScheduler scheduler = new WebAsyncTaskScheduler(1);
+        submit(scheduler, HEAVY_USER, "running", WebAsyncTaskPriority.INTERACTIVE, 10);
+        submit(scheduler, HEAVY_USER, "count", WebAsyncTaskPriority.BACKGROUND, 10);
+        submit(scheduler, HEAVY_USER, "export", WebAsyncTaskPriority.EXPORT, 10);
+        submit(scheduler, HEAVY_USER, "query", WebAsyncTaskPriority.INTERACTIVE, 10);
+
+        runSimulation(scheduler);
+        Assert.assertEquals(List.of("running", "query", "export", "count"), startOrder);
+    }
+
+    @Test
+    public void testCancelQueuedTask() {
+        WebAsyncTaskScheduler scheduler = new WebAsyncTaskScheduler(1);
+        submit(scheduler, HEAVY_USER, "running", WebAsyncTaskPriority.INTERACTIVE, 10);
+        submit(scheduler, HEAVY_USER, "queued", WebAsyncTaskPriority.INTERACTIVE, 10);
+
+        Assert.assertFalse(scheduler.cancel("running"));
+        Assert.assertTrue(scheduler.cancel("queued"));
+        Assert.assertEquals(0, scheduler.getQueuedTasksCount());
+
+        runSimulation(scheduler);
+        Assert.assertEquals(List.of("running"), startOrder);
+    }
+
+    private void submit(
+        WebAsyncTaskScheduler scheduler,
+        String ownerId,
+        String taskId,
+        WebAsyncTaskPriority priority,
+        long duration
+    ) {
+        submit(scheduler, ownerId, taskId, priority, Integer.MAX_VALUE, duration);
+    }
+
+    private void submit(
+        WebAsyncTaskScheduler scheduler,
+        String ownerId,
+        String taskId,
+        WebAsyncTaskPriority priority,
+        int ownerLimit,
+        long duration
+    ) {
+        scheduler.submit(ownerId, taskId, priority, ownerLimit, () -> {
+            startOrder.add(taskId);
+            startTimes.put(taskId, clock);
+            endTimes.put(taskId, clock + duration);
+        });
+    }
+
+    /**
+     * Finishes running tasks in order of their end time
+     */
+    private void runSimulation(WebAsyncTaskScheduler scheduler) {
+        while (!endTimes.isEmpty()) {
+            Map.Entry<String, Long> next = null;
+            for (Map.Entry<String, Long> entry : endTimes.entrySet()) {
+                if (next == null || entry.getValue() < next.getValue()) {
+                    next = entry;
+                }
+            }
+            clock = next.getValue();
+            endTimes.remove(next.getKey());
+            scheduler.finish(next.getKey());
+        }
+    }
+}
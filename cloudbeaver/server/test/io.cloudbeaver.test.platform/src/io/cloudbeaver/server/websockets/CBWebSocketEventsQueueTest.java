@@ -0,0 +1,162 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.server.websockets;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import org.jkiss.dbeaver.model.websocket.event.session.WSAccessTokenExpiredEvent;
+import org.jkiss.dbeaver.model.websocket.event.session.WSSessionStateEvent;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class CBWebSocketEventsQueueTest {
+
+    private static final int SOCKETS_COUNT = 1000;
+    private static final int EVENTS_COUNT = 50;
+
+    @Test
+    public void testSlowClientDoesNotBlockBroadcast() throws Exception {
+        TestWebSocket slowSocket = new TestWebSocket(false);
+        List<TestWebSocket> sockets = new ArrayList<>();
+        sockets.add(slowSocket);
+        for (int i = 1; i < SOCKETS_COUNT; i++) {
+            sockets.add(new TestWebSocket(true));
+        }
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < EVENTS_COUNT; i++) {
+            WSAccessTokenExpiredEvent event = new WSAccessTokenExpiredEvent();
+            for (TestWebSocket socket : sockets) {
+                socket.handleEvent(event);
+            }
+        }
+        long broadcastTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        Assert.assertTrue("Broadcast took " + broadcastTime + "ms", broadcastTime < TimeUnit.SECONDS.toMillis(30));
+
+        // The first event is being sent, others are waiting in the queue
+        Assert.assertEquals(1, slowSocket.sentMessages.size());
+        Assert.assertEquals(EVENTS_COUNT - 1, slowSocket.getPendingEventsCount());
+        for (int i = 1; i < SOCKETS_COUNT; i++) {
+            Assert.assertEquals(EVENTS_COUNT, sockets.get(i).sentMessages.size());
+            Assert.assertEquals(0, sockets.get(i).getPendingEventsCount());
+        }
+
+        // Slow client receives all events in order once it catches up
+        while (slowSocket.completeSend()) {
+            // continue
+        }
+        Assert.assertEquals(EVENTS_COUNT, slowSocket.sentMessages.size());
+        Assert.assertEquals(0, slowSocket.getPendingEventsCount());
+    }
+
+    @Test
+    public void testSessionStateEventsCoalesced() throws Exception {
+        TestWebSocket socket = new TestWebSocket(false);
+        socket.handleEvent(new WSAccessTokenExpiredEvent());
+        for (int i = 0; i < 10; i++) {
+            socket.handleEvent(new WSSessionStateEvent(0, i, true, false, "en", Map.of()));
+        }
+        Assert.assertEquals(1, socket.getPendingEventsCount());
+        Assert.assertEquals(9, socket.getCoalescedEventsCount());
+
+        socket.completeSend();
+        Assert.assertEquals(2, socket.sentMessages.size());
+        Assert.assertTrue(socket.sentMessages.get(1).contains("\"remainingTime\":9"));
+    }
+
+    @Test
+    public void testCoalescingKeepsEventsOrder() throws Exception {
+        TestWebSocket socket = new TestWebSocket(false);
+        socket.handleEvent(new WSAccessTokenExpiredEvent());
+        socket.handleEvent(new WSSessionStateEvent(0, 1, true, false, "en", Map.of()));
+        socket.handleEvent(new WSAccessTokenExpiredEvent());
+        socket.handleEvent(new WSSessionStateEvent(0, 2, true, false, "en", Map.of()));
+        // State event queued before other event is not replaced
+        Assert.assertEquals(3, socket.getPendingEventsCount());
+        Assert.assertEquals(0, socket.getCoalescedEventsCount());
+
+        while (socket.completeSend()) {
+            // continue
+        }
+        Assert.assertEquals(4, socket.sentMessages.size());
+        Assert.assertTrue(socket.sentMessages.get(1).contains("\"remainingTime\":1"));
+        Assert.assertTrue(socket.sentMessages.get(3).contains("\"remainingTime\":2"));
+    }
+
+    @Test
+    public void testQueueOverflowClosesSocket() throws Exception {
+        TestWebSocket socket = new TestWebSocket(false);
+        // One event is being sent, so the queue is full after MAX + 1 events
+        for (int i = 0; i <= CBAbstractWebSocket.MAX_OUTBOUND_QUEUE_SIZE; i++) {
+            socket.handleEvent(new WSAccessTokenExpiredEvent());
+        }
+        Assert.assertNull(socket.closeReason);
+
+        socket.handleEvent(new WSAccessTokenExpiredEvent());
+        Assert.assertNotNull(socket.closeReason);
+        Assert.assertEquals(CloseReason.CloseCodes.TRY_AGAIN_LATER, socket.closeReason.getCloseCode());
+        Assert.assertEquals(0, socket.getPendingEventsCount());
+    }
+
+    private static class TestWebSocket extends CBAbstractWebSocket {
+        private final List<String> sentMessages = new ArrayList<>();
+        private final List<SendHandler> pendingHandlers = new ArrayList<>();
+        private CloseReason closeReason;
+
+        TestWebSocket(boolean completeImmediately) throws IOException {
+            // Stub only mocks don't record invocations, there are lots of them
+            Session session = Mockito.mock(Session.class, Mockito.withSettings().stubOnly());
+            RemoteEndpoint.Async async = Mockito.mock(RemoteEndpoint.Async.class, Mockito.withSettings().stubOnly());
+            Mockito.when(session.isOpen()).thenReturn(true);
+            Mockito.when(session.getAsyncRemote()).thenReturn(async);
+            Mockito.doAnswer(invocation -> {
+                sentMessages.add(invocation.getArgument(0));
+                SendHandler handler = invocation.getArgument(1);
+                if (completeImmediately) {
+                    handler.onResult(new SendResult());
+                } else {
+                    pendingHandlers.add(handler);
+                }
+                return null;
+            }).when(async).sendText(ArgumentMatchers.anyString(), ArgumentMatchers.any(SendHandler.class));
+            Mockito.doAnswer(invocation -> {
+                closeReason = invocation.getArgument(0);
+                return null;
+            }).when(session).close(ArgumentMatchers.any(CloseReason.class));
+            onOpen(session, null);
+        }
+
+        boolean completeSend() {
+            if (pendingHandlers.isEmpty()) {
+                return false;
+            }
+            pendingHandlers.remove(0).onResult(new SendResult());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.cloudbeaver.service.sql;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+public class WebSQLResultStreamWriterTest {
+
+    @Test
+    public void testRowsWrittenInColumnChunks() throws Exception {
+        FlushCountingWriter writer = new FlushCountingWriter();
+        WebSQLResultStreamWriter streamWriter = new WebSQLResultStreamWriter(writer, 2);
+        Assert.assertFalse(streamWriter.isStarted());
+
+        streamWriter.writeColumns("1", List.of(Map.of("name", "id"), Map.of("name", "value")));
+        streamWriter.addRow(new Object[]{"1", "a"});
+        Assert.assertEquals(1, writer.flushCount);
+        streamWriter.addRow(new Object[]{"2", null});
+        // Full chunk is sent immediately
+        Assert.assertEquals(2, writer.flushCount);
+        streamWriter.addRow(new Object[]{"3", Map.of("type", "collection")});
+        streamWriter.finish(15);
+
+        Assert.assertTrue(streamWriter.isStarted());
+        Assert.assertEquals(3, streamWriter.getRowCount());
+        Assert.assertEquals(
+            "{\"resultsId\":\"1\",\"columns\":[{\"name\":\"id\"},{\"name\":\"value\"}]}\n" +
+                "{\"offset\":0,\"rowCount\":2,\"columns\":[[\"1\",\"2\"],[\"a\",null]]}\n" +
+                "{\"offset\":2,\"rowCount\":1,\"columns\":[[\"3\"],[{\"type\":\"collection\"}]]}\n" +
+                "{\"rowCount\":3,\"duration\":15}\n",
+            writer.toString());
+    }
+
+    @Test
+    public void testErrorEndsStream() throws Exception {
+        StringWriter writer = new StringWriter();
+        WebSQLResultStreamWriter streamWriter = new WebSQLResultStreamWriter(writer, 10);
+        streamWriter.writeColumns("2", List.of(Map.of("name", "id")));
+        streamWriter.addRow(new Object[]{"1"});
+        streamWriter.writeError("Connection lost");
+        Assert.assertEquals(
+            "{\"resultsId\":\"2\",\"columns\":[{\"name\":\"id\"}]}\n" +
+                "{\"error\":\"Connection lost\"}\n",
+            writer.toString());
+    }
+
+    private static class FlushCountingWriter extends StringWriter {
+        private int flushCount;
+
+        @Override
+        public void flush() {
+            flushCount++;
+            super.flush();
+        }
+    }
+}
@@ -20,6 +20,9 @@ package io.cloudbeaver.test.platform;
 import io.cloudbeaver.app.CEAppStarter;
 import io.cloudbeaver.model.rm.RMNIOTest;
 import io.cloudbeaver.model.rm.lock.RMLockTest;
+import io.cloudbeaver.model.session.WebAsyncTaskSchedulerTest;
+import io.cloudbeaver.server.websockets.CBWebSocketEventsQueueTest;
+import io.cloudbeaver.service.sql.WebSQLResultStreamWriterTest;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.runner.RunWith;
@@ -34,7 +37,10 @@ import org.junit.runners.Suite;
         ResourceManagerTest.class,
         RMLockTest.class,
         RMNIOTest.class,
-        NoSessionTest.class
+        NoSessionTest.class,
+        CBWebSocketEventsQueueTest.class,
+        WebAsyncTaskSchedulerTest.class,
+        WebSQLResultStreamWriterTest.class
     }
 )
 public class CEServerTestSuite {
@@ -0,0 +1,114 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2025 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Splits character stream into lines without creating strings.
+ * Current line is available as a range of the internal buffer until the next call of {@link #nextLine()}.
+ * Lines are terminated the same way as in {@link java.io.BufferedReader#readLine()}: by LF, CR or CR LF.
+ */
+class CSVLineScanner {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private char[] buffer;
+    private int position;
+    private int limit;
+    private int lineStart;
+    private int lineEnd;
+    private boolean skipLF;
+    private boolean eof;
+
+    CSVLineScanner(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Moves to the next line.
+     *
+     * @return false if there are no more lines
+     */
+    boolean nextLine() throws IOException {
+        int start = position;
+        int scan = position;
+        for (;;) {
+            if (scan >= limit) {
+                if (!eof) {
+                    // Keep current line in the buffer and read more data after it
+                    if (start > 0) {
+                        System.arraycopy(buffer, start, buffer, 0, limit - start);
+                        scan -= start;
+                        limit -= start;
+                        start = 0;
+                    }
+                    if (limit == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                    int count = reader.read(buffer, limit, buffer.length - limit);
+                    if (count < 0) {
+                        eof = true;
+                    } else {
+                        limit += count;
+                    }
+                    continue;
+                }
+                position = scan;
+                if (scan == start) {
+                    return false;
+                }
+                lineStart = start;
+                lineEnd = scan;
+                return true;
+            }
+            char c = buffer[scan];
+            if (skipLF) {
+                skipLF = false;
+                if (c == '\n') {
+                    scan++;
+                    start = scan;
+                    continue;
+                }
+            }
+            if (c == '\n' || c == '\r') {
+                skipLF = c == '\r';
+                lineStart = start;
+                lineEnd = scan;
+                position = scan + 1;
+                return true;
+            }
+            scan++;
+        }
+    }
+
+    char[] getBuffer() {
+        return buffer;
+    }
+
+    int getLineStart() {
+        return lineStart;
+    }
+
+    int getLineEnd() {
+        return lineEnd;
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2025 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Reads CSV records using several threads.
+ * <p>
+ * Reader thread splits the input into chunks of whole records. Record boundaries are found by tracking
+ * the quotation state only, so multi-line quoted values are never split. Chunks are parsed by worker threads
+ * and returned in the input order. The number of chunks in progress is limited, so memory usage
+ * doesn't depend on the input size.
+ * <p>
+ * Returns the same records as {@link CSVReader} with the same parser settings.
+ */
+public class CSVParallelReader implements Closeable {
+
+    /**
+     * The default chunk size in characters.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+
+    private static final ParsedChunk END_CHUNK = new ParsedChunk(List.of(), false);
+    private static final Future<ParsedChunk> END_RESULT = CompletableFuture.completedFuture(END_CHUNK);
+
+    private final Reader reader;
+    private final Supplier<CSVParser> parserFactory;
+    private final int skipLines;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final BlockingQueue<Future<ParsedChunk>> results;
+    private final Thread splitThread;
+    private List<String[]> currentRows = List.of();
+    private int currentRow;
+    private boolean pending;
+    private boolean finished;
+    private volatile boolean closed;
+
+    /**
+     * Constructs reader which uses all available processors.
+     *
+     * @param reader        the reader to an underlying CSV source
+     * @param parserFactory creates parsers, each thread uses its own parser
+     */
+    public CSVParallelReader(Reader reader, Supplier<CSVParser> parserFactory) {
+        this(reader, parserFactory, CSVReader.DEFAULT_SKIP_LINES, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs reader.
+     *
+     * @param reader        the reader to an underlying CSV source
+     * @param parserFactory creates parsers, each thread uses its own parser
+     * @param skipLines     the number of lines to skip before reading
+     * @param threadCount   the number of parsing threads
+     * @param chunkSize     the minimal number of characters passed to a parsing thread at once
+     */
+    public CSVParallelReader(Reader reader, Supplier<CSVParser> parserFactory, int skipLines, int threadCount, int chunkSize) {
+        this.reader = reader;
+        this.parserFactory = parserFactory;
+        this.skipLines = skipLines;
+        this.chunkSize = Math.max(chunkSize, 1);
+        threadCount = Math.max(threadCount, 1);
+        this.executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "CSV parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.results = new ArrayBlockingQueue<>(threadCount * 2);
+        this.splitThread = new Thread(this::splitChunks, "CSV reader");
+        this.splitThread.setDaemon(true);
+        this.splitThread.start();
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return a string array with each comma-separated element as a separate entry,
+     * or null if there are no more records
+     * @throws IOException if bad things happen during the read
+     */
+    public String[] readNext() throws IOException {
+        while (currentRow >= currentRows.size()) {
+            if (finished) {
+                return null;
+            }
+            ParsedChunk chunk = takeChunk();
+            if (chunk == END_CHUNK) {
+                finished = true;
+                return null;
+            }
+            currentRows = chunk.rows;
+            currentRow = 0;
+            pending = chunk.pending;
+        }
+        String[] row = currentRows.get(currentRow);
+        currentRows.set(currentRow++, null);
+        return row;
+    }
+
+    /**
+     * @return true if the input ended inside a quoted value
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    /**
+     * Stops all threads and closes the underlying reader.
+     *
+     * @throws IOException if the close fails
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        splitThread.interrupt();
+        executor.shutdownNow();
+        results.clear();
+        reader.close();
+    }
+
+    private ParsedChunk takeChunk() throws IOException {
+        if (closed) {
+            throw new IOException("CSV reader is closed");
+        }
+        try {
+            return results.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSV read interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Error parsing CSV", cause);
+        }
+    }
+
+    private void splitChunks() {
+        try {
+            CSVLineScanner scanner = new CSVLineScanner(reader, CSVLineScanner.DEFAULT_BUFFER_SIZE);
+            for (int i = 0; i < skipLines; i++) {
+                scanner.nextLine();
+            }
+            CSVParser scanParser = parserFactory.get();
+            RawChunk chunk = new RawChunk(chunkSize);
+            while (scanner.nextLine()) {
+                char[] buffer = scanner.getBuffer();
+                int start = scanner.getLineStart();
+                int end = scanner.getLineEnd();
+                chunk.addLine(buffer, start, end);
+                if (!scanParser.scanLineMulti(buffer, start, end) && chunk.length >= chunkSize) {
+                    submitChunk(chunk);
+                    chunk = new RawChunk(chunkSize);
+                }
+            }
+            if (chunk.lineCount > 0) {
+                submitChunk(chunk);
+            }
+            results.put(END_RESULT);
+        } catch (InterruptedException e) {
+            // Reader was closed
+        } catch (Throwable e) {
+            if (!closed) {
+                try {
+                    results.put(CompletableFuture.failedFuture(e));
+                } catch (InterruptedException ignored) {
+                    // Reader was closed
+                }
+            }
+        }
+    }
+
+    private void submitChunk(RawChunk chunk) throws InterruptedException {
+        if (closed) {
+            throw new InterruptedException();
+        }
+        results.put(executor.submit(() -> parseChunk(chunk)));
+    }
+
+    /**
+     * Parses chunk lines the same way as {@link CSVReader#readNext()}
+     */
+    private ParsedChunk parseChunk(RawChunk chunk) throws IOException {
+        CSVParser parser = parserFactory.get();
+        List<String[]> rows = new ArrayList<>();
+        int line = 0;
+        int lineStart = 0;
+        while (line < chunk.lineCount) {
+            String[] result = null;
+            do {
+                if (line >= chunk.lineCount) {
+                    // Un-terminated quote at the end of input
+                    break;
+                }
+                int lineEnd = chunk.lineEnds[line++];
+                String[] r = parser.parseLineMulti(chunk.data, lineStart, lineEnd);
+                lineStart = lineEnd;
+                if (r.length > 0) {
+                    if (result == null) {
+                        result = r;
+                    } else {
+                        String[] t = Arrays.copyOf(result, result.length + r.length);
+                        System.arraycopy(r, 0, t, result.length, r.length);
+                        result = t;
+                    }
+                }
+            } while (parser.isPending());
+            if (result != null) {
+                rows.add(result);
+            }
+        }
+        return new ParsedChunk(rows, parser.isPending());
+    }
+
+    /**
+     * Characters of whole records without line terminators
+     */
+    private static class RawChunk {
+        private char[] data;
+        private int length;
+        private int[] lineEnds = new int[64];
+        private int lineCount;
+
+        RawChunk(int capacity) {
+            this.data = new char[capacity];
+        }
+
+        void addLine(char[] buffer, int start, int end) {
+            int lineLength = end - start;
+            if (length + lineLength > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length + data.length / 2, length + lineLength));
+            }
+            System.arraycopy(buffer, start, data, length, lineLength);
+            length += lineLength;
+            if (lineCount == lineEnds.length) {
+                lineEnds = Arrays.copyOf(lineEnds, lineCount * 2);
+            }
+            lineEnds[lineCount++] = length;
+        }
+    }
+
+    private static class ParsedChunk {
+        private final List<String[]> rows;
+        private final boolean pending;
+
+        ParsedChunk(List<String[]> rows, boolean pending) {
+            this.rows = rows;
+            this.pending = pending;
+        }
+    }
+}
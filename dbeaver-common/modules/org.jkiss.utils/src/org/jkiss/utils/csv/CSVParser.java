@@ -304,6 +304,21 @@ public class CSVParser {
         return parseLine(nextLine, true);
     }
 
+    /**
+     * Parses a line stored in the character buffer and returns an array of elements.
+     * This method is used when the data spans multiple lines.
+     * Buffer content is copied, so the buffer may be reused after the call.
+     *
+     * @param buffer buffer with the current line
+     * @param start  index of the first character of the line
+     * @param end    index after the last character of the line (line terminator is not included)
+     * @return the comma-tokenized list of elements
+     * @throws IOException if bad things happen during the read
+     */
+    public String[] parseLineMulti(char[] buffer, int start, int end) throws IOException {
+        return parseLine(buffer, start, end, true);
+    }
+
     /**
      * Parses an incoming String and returns an array of elements.  This method is used when all data is contained
      * in a single line.
@@ -340,6 +355,17 @@ public class CSVParser {
             }
         }
 
+        char[] buffer = nextLine.toCharArray();
+        return parseLine(buffer, 0, buffer.length, multi);
+    }
+
+    /**
+     * Parses characters of a single line and returns an array of elements.
+     * Positions are checked relative to the line start, so the result doesn't depend on the buffer layout.
+     * Runs of regular characters are copied into the field at once.
+     */
+    private String[] parseLine(char[] line, int start, int end, boolean multi) throws IOException {
+
         List<String> tokensOnThisLine = new ArrayList<>();
         StringBuilder sb = new StringBuilder(INITIAL_READ_SIZE);
         boolean inQuotes = false;
@@ -349,16 +375,16 @@ public class CSVParser {
             pending = null;
             inQuotes = !this.ignoreQuotations;//true;
         }
-        for (int i = 0; i < nextLine.length(); i++) {
+        for (int i = start; i < end; i++) {
 
-            char c = nextLine.charAt(i);
+            char c = line[i];
             if (c == this.escape) {
-                if (isNextCharacterEscapable(nextLine, inQuotes(inQuotes), i)) {
-                    i = appendNextCharacterAndAdvanceLoop(nextLine, sb, i);
+                if (isNextCharacterEscapable(line, end, inQuotes(inQuotes), i)) {
+                    i = appendNextCharacterAndAdvanceLoop(line, sb, i);
                 }
             } else if (c == quotechar) {
-                if (isNextCharacterEscapedQuote(nextLine, inQuotes(inQuotes), i)) {
-                    i = appendNextCharacterAndAdvanceLoop(nextLine, sb, i);
+                if (isNextCharacterEscapedQuote(line, end, inQuotes(inQuotes), i)) {
+                    i = appendNextCharacterAndAdvanceLoop(line, sb, i);
                 } else {
 
                     inQuotes = !inQuotes;
@@ -368,10 +394,10 @@ public class CSVParser {
 
                     // the tricky case of an embedded quote in the middle: a,bc"d"ef,g
                     if (!strictQuotes) {
-                        if (i > 2 //not on the beginning of the line
-                            && nextLine.charAt(i - 1) != this.separator //not at the beginning of an escape sequence
-                            && nextLine.length() > (i + 1) &&
-                            nextLine.charAt(i + 1) != this.separator //not at the	end of an escape sequence
+                        if (i - start > 2 //not on the beginning of the line
+                            && line[i - 1] != this.separator //not at the beginning of an escape sequence
+                            && end > (i + 1) &&
+                            line[i + 1] != this.separator //not at the	end of an escape sequence
                         ) {
 
                             if (ignoreLeadingWhiteSpace && sb.length() > 0 && isAllWhiteSpace(sb)) {
@@ -391,7 +417,18 @@ public class CSVParser {
                 inField = false;
             } else {
                 if (!strictQuotes || (inQuotes && !ignoreQuotations)) {
-                    sb.append(c);
+                    // Copy all following regular characters. Separator is a regular character inside quotes.
+                    boolean quotedSeparator = inQuotes && !ignoreQuotations;
+                    int runEnd = i + 1;
+                    while (runEnd < end) {
+                        char next = line[runEnd];
+                        if (next == escape || next == quotechar || (next == separator && !quotedSeparator)) {
+                            break;
+                        }
+                        runEnd++;
+                    }
+                    sb.append(line, i, runEnd - i);
+                    i = runEnd - 1;
                     inField = true;
                     fromQuotedField = true;
                 }
@@ -423,6 +460,49 @@ public class CSVParser {
 
     }
 
+    /**
+     * Processes a line the same way as {@link #parseLineMulti(char[], int, int)} but doesn't build field values.
+     * Only the quotation state is tracked, so this is a cheap way to find where multi-line records end.
+     * Parser used for scanning must not be used for parsing.
+     *
+     * @param buffer buffer with the current line
+     * @param start  index of the first character of the line
+     * @param end    index after the last character of the line
+     * @return true if the record continues on the next line
+     */
+    public boolean scanLineMulti(char[] buffer, int start, int end) {
+        boolean inQuotes = false;
+        if (pending != null) {
+            pending = null;
+            inQuotes = !this.ignoreQuotations;
+        }
+        for (int i = start; i < end; i++) {
+            char c = buffer[i];
+            if (c == this.escape) {
+                if (isNextCharacterEscapable(buffer, end, inQuotes(inQuotes), i)) {
+                    i++;
+                }
+            } else if (c == quotechar) {
+                if (isNextCharacterEscapedQuote(buffer, end, inQuotes(inQuotes), i)) {
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+                inField = !inField;
+            } else if (c == separator && !(inQuotes && !ignoreQuotations)) {
+                inField = false;
+            } else if (!strictQuotes || (inQuotes && !ignoreQuotations)) {
+                inField = true;
+            }
+        }
+        if (inQuotes && !ignoreQuotations) {
+            pending = "";
+        } else {
+            inField = false;
+        }
+        return pending != null;
+    }
+
     private boolean atStartOfField(StringBuilder sb) {
         return sb.length() == 0;
     }
@@ -455,8 +535,8 @@ public class CSVParser {
      * @param i    - current position in the line.
      * @return new position in the line.
      */
-    private int appendNextCharacterAndAdvanceLoop(String line, StringBuilder sb, int i) {
-        sb.append(line.charAt(i + 1));
+    private int appendNextCharacterAndAdvanceLoop(char[] line, StringBuilder sb, int i) {
+        sb.append(line[i + 1]);
         i++;
         return i;
     }
@@ -477,14 +557,15 @@ public class CSVParser {
      * precondition: the current character is a quote or an escape
      *
      * @param nextLine the current line
+     * @param end      index after the last character of the line
      * @param inQuotes true if the current context is quoted
      * @param i        current index in line
      * @return true if the following character is a quote
      */
-    private boolean isNextCharacterEscapedQuote(String nextLine, boolean inQuotes, int i) {
+    private boolean isNextCharacterEscapedQuote(char[] nextLine, int end, boolean inQuotes, int i) {
         return inQuotes  // we are in quotes, therefore there can be escaped quotes in here.
-            && nextLine.length() > (i + 1)  // there is indeed another character to check.
-            && isCharacterQuoteCharacter(nextLine.charAt(i + 1));
+            && end > (i + 1)  // there is indeed another character to check.
+            && isCharacterQuoteCharacter(nextLine[i + 1]);
     }
 
     /**
@@ -526,14 +607,15 @@ public class CSVParser {
      * precondition: the current character is an escape
      *
      * @param nextLine the current line
+     * @param end      index after the last character of the line
      * @param inQuotes true if the current context is quoted
      * @param i        current index in line
      * @return true if the following character is a quote
      */
-    protected boolean isNextCharacterEscapable(String nextLine, boolean inQuotes, int i) {
+    protected boolean isNextCharacterEscapable(char[] nextLine, int end, boolean inQuotes, int i) {
         return inQuotes  // we are in quotes, therefore there can be escaped quotes in here.
-            && nextLine.length() > (i + 1)  // there is indeed another character to check.
-            && isCharacterEscapable(nextLine.charAt(i + 1));
+            && end > (i + 1)  // there is indeed another character to check.
+            && isCharacterEscapable(nextLine[i + 1]);
     }
 
     /**
@@ -48,6 +48,7 @@ public class CSVReader implements Closeable {
     private final int skipLines;
     private final BufferedReader br;
     private final LineReader lineReader;
+    private final CSVLineScanner lineScanner;
     private boolean hasNext = true;
     private boolean linesSkiped;
     private final boolean keepCR;
@@ -210,6 +211,8 @@ public class CSVReader implements Closeable {
                 (BufferedReader) reader :
                 new BufferedReader(reader));
         this.lineReader = new LineReader(br, keepCR);
+        // Lines are parsed directly from the read buffer unless reader needs special handling
+        this.lineScanner = keepCR || verifyReader ? null : new CSVLineScanner(br, CSVLineScanner.DEFAULT_BUFFER_SIZE);
         this.skipLines = line;
         this.parser = csvParser;
         this.keepCR = keepCR;
@@ -274,11 +277,10 @@ public class CSVReader implements Closeable {
 
         String[] result = null;
         do {
-            String nextLine = getNextLine();
+            String[] r = parseNextLine();
             if (!hasNext) {
                 return result; // should throw if still pending?
             }
-            String[] r = parser.parseLineMulti(nextLine);
             if (r.length > 0) {
                 if (result == null) {
                     result = r;
@@ -304,6 +306,30 @@ public class CSVReader implements Closeable {
         return t;
     }
 
+    /**
+     * Reads the next line from the file and parses it.
+     *
+     * @return tokens of the next line, or null if there are no more lines
+     * @throws IOException if bad things happen during the read
+     */
+    private String[] parseNextLine() throws IOException {
+        if (lineScanner == null) {
+            String nextLine = getNextLine();
+            return hasNext ? parser.parseLineMulti(nextLine) : null;
+        }
+        if (!this.linesSkiped) {
+            for (int i = 0; i < skipLines; i++) {
+                lineScanner.nextLine();
+            }
+            this.linesSkiped = true;
+        }
+        if (!lineScanner.nextLine()) {
+            hasNext = false;
+            return null;
+        }
+        return parser.parseLineMulti(lineScanner.getBuffer(), lineScanner.getLineStart(), lineScanner.getLineEnd());
+    }
+
     /**
      * Reads the next line from the file.
      *
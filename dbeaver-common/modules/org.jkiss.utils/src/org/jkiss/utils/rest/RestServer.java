@@ -131,7 +131,7 @@ public class RestServer<T> {
 
         @Override
         public void handle(HttpExchange exchange) throws IOException {
-
+            boolean aborted = false;
             try {
                 Response<?> response;
                 try {
@@ -146,29 +146,36 @@ public class RestServer<T> {
                     responseObject = "Internal error";
                 }
                 if (response.code == RpcConstants.SC_OK) {
-                    String responseText;
                     if (response.type == void.class) {
-                        responseText = CommonUtils.toString(response.object);
+                        byte[] responseBytes = CommonUtils.toString(response.object).getBytes(StandardCharsets.UTF_8);
                         exchange.getResponseHeaders().add("Content-Type", "text/plain");
-                    } else {
-                        try {
-                            responseText = gson.toJson(response.object, response.type);
-                        } catch (Throwable e) {
-                            // Serialization error
-                            StringWriter buf = new StringWriter();
-                            new RpcException("JSON serialization error: " + e.getMessage(), e).printStackTrace(new PrintWriter(buf, true));
-
-                            sendError(exchange, RpcConstants.SC_SERVER_ERROR, buf.toString());
-                            return;
+                        exchange.sendResponseHeaders(RpcConstants.SC_OK, responseBytes.length);
+                        try (OutputStream responseBody = exchange.getResponseBody()) {
+                            responseBody.write(responseBytes);
                         }
-                        exchange.getResponseHeaders().add("Content-Type", "application/json");
+                        return;
                     }
-                    byte[] responseBytes = responseText.getBytes(StandardCharsets.UTF_8);
+                    // Response is serialized straight to the response body
+                    JsonResponseStream responseStream = new JsonResponseStream(exchange);
+                    try {
+                        Writer writer = new OutputStreamWriter(responseStream, StandardCharsets.UTF_8);
+                        gson.toJson(response.object, response.type, writer);
+                        writer.flush();
+                    } catch (Throwable e) {
+                        if (responseStream.isCommitted()) {
+                            // Status and a part of the body are already sent. Drop the connection without finishing
+                            // the chunked body, so the client gets an incomplete response rather than truncated JSON.
+                            aborted = true;
+                            throw new IOException("JSON serialization error: " + e.getMessage(), e);
+                        }
+                        // Serialization error
+                        StringWriter buf = new StringWriter();
+                        new RpcException("JSON serialization error: " + e.getMessage(), e).printStackTrace(new PrintWriter(buf, true));
 
-                    exchange.sendResponseHeaders(RpcConstants.SC_OK, responseBytes.length);
-                    try (OutputStream responseBody = exchange.getResponseBody()) {
-                        responseBody.write(responseBytes);
+                        sendError(exchange, RpcConstants.SC_SERVER_ERROR, buf.toString());
+                        return;
                     }
+                    responseStream.finish();
                 } else {
                     sendError(exchange, response.code, responseObject);
                 }
@@ -176,7 +183,9 @@ public class RestServer<T> {
                 log.log(Level.SEVERE, "Internal IO error", e);
                 throw e;
             } finally {
-                exchange.close();
+                if (!aborted) {
+                    exchange.close();
+                }
             }
         }
 
@@ -239,6 +248,57 @@ public class RestServer<T> {
             }
         }
 
+        /**
+         * Buffers small responses to send them with the content length.
+         * Larger responses are sent with chunked encoding as they are written.
+         */
+        private static class JsonResponseStream extends OutputStream {
+            private static final int MAX_BUFFERED_SIZE = 64 * 1024;
+
+            private final HttpExchange exchange;
+            private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            private OutputStream responseBody;
+
+            JsonResponseStream(@NotNull HttpExchange exchange) {
+                this.exchange = exchange;
+            }
+
+            boolean isCommitted() {
+                return responseBody != null;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(@NotNull byte[] b, int off, int len) throws IOException {
+                if (responseBody == null && buffer.size() + len > MAX_BUFFERED_SIZE) {
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(RpcConstants.SC_OK, 0);
+                    responseBody = exchange.getResponseBody();
+                    buffer.writeTo(responseBody);
+                    buffer.reset();
+                }
+                if (responseBody != null) {
+                    responseBody.write(b, off, len);
+                } else {
+                    buffer.write(b, off, len);
+                }
+            }
+
+            void finish() throws IOException {
+                if (responseBody == null) {
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(RpcConstants.SC_OK, buffer.size());
+                    responseBody = exchange.getResponseBody();
+                    buffer.writeTo(responseBody);
+                }
+                responseBody.close();
+            }
+        }
+
         @NotNull
         protected Map<String, Method> createMappings(@NotNull Class<T> cls) {
             final Map<String, Method> mappings = new HashMap<>();
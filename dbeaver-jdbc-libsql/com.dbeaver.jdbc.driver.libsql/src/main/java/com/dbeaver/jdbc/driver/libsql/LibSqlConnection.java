@@ -52,7 +52,7 @@ public class LibSqlConnection extends AbstractJdbcConnection {
 
         try {
             String token = CommonUtils.toString(driverProperties.get("password"), null);
-            this.client = new LibSqlClient(new URL(url), token);
+            this.client = new LibSqlClient(new URL(url), token, driverProperties);
         } catch (IOException e) {
             throw new SQLException(e);
         }
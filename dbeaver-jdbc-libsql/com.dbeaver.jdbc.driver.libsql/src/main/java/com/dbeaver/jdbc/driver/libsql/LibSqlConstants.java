@@ -30,5 +30,14 @@ public class LibSqlConstants {
     public static final String DRIVER_NAME = "LibSQL";
     public static final String DRIVER_INFO = "DBeaver LibSQL JDBC driver";
 
+    // Driver properties
+    public static final String PROP_HTTP_VERSION = "httpVersion";
+    public static final String PROP_MAX_THREADS = "maxThreads";
+    public static final String PROP_CONNECT_TIMEOUT = "connectTimeout";
+    public static final String PROP_REQUEST_TIMEOUT = "requestTimeout";
+    public static final String PROP_COMPRESSION = "compression";
+
+    public static final int DEFAULT_MAX_THREADS = 4;
+
     public static final String DEFAULT_ISO_TIMESTAMP_FORMAT = "yyyy-MM-dd'T'HH:mm:ss'Z'";
 }
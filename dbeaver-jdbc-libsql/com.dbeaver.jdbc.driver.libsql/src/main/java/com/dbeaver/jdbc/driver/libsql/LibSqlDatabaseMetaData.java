@@ -92,6 +92,11 @@ public class LibSqlDatabaseMetaData extends AbstractJdbcDatabaseMetaData<LibSqlC
         return connection.getDriver().getMinorVersion();
     }
 
+    @Override
+    public boolean supportsBatchUpdates() {
+        return true;
+    }
+
     @Override
     public ResultSet getTables(String catalog, String schemaPattern, String tableNamePattern, String[] types) throws SQLException {
         verifySchemaParameters(catalog, schemaPattern);
@@ -66,10 +66,25 @@ public class LibSqlDriver implements Driver {
     @Override
     public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
         return new DriverPropertyInfo[] {
-
+            createPropertyInfo(info, LibSqlConstants.PROP_HTTP_VERSION, null,
+                "HTTP protocol version (1.1 or 2). By default HTTP/2 is used for https URLs"),
+            createPropertyInfo(info, LibSqlConstants.PROP_MAX_THREADS, String.valueOf(LibSqlConstants.DEFAULT_MAX_THREADS),
+                "Maximum number of transport threads shared by all connections to the same server"),
+            createPropertyInfo(info, LibSqlConstants.PROP_CONNECT_TIMEOUT, null,
+                "Connect timeout in milliseconds"),
+            createPropertyInfo(info, LibSqlConstants.PROP_REQUEST_TIMEOUT, null,
+                "Request timeout in milliseconds"),
+            createPropertyInfo(info, LibSqlConstants.PROP_COMPRESSION, "true",
+                "Request gzip compressed responses"),
         };
     }
 
+    private static DriverPropertyInfo createPropertyInfo(Properties info, String name, String defaultValue, String description) {
+        DriverPropertyInfo propertyInfo = new DriverPropertyInfo(name, info == null ? defaultValue : info.getProperty(name, defaultValue));
+        propertyInfo.description = description;
+        return propertyInfo;
+    }
+
     @Override
     public int getMajorVersion() {
         return LibSqlConstants.DRIVER_VERSION_MAJOR;
@@ -26,6 +26,7 @@ import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.*;
 import java.util.Calendar;
+import java.util.LinkedHashMap;
 
 public class LibSqlPreparedStatement extends LibSqlStatement implements PreparedStatement {
 
@@ -145,7 +146,8 @@ public class LibSqlPreparedStatement extends LibSqlStatement implements Prepared
 
     @Override
     public void addBatch() throws SQLException {
-        throw new SQLFeatureNotSupportedException("Batches not supported");
+        batchQueries.add(queryText);
+        batchParameters.add(new LinkedHashMap<>(parameters));
     }
 
     @Override
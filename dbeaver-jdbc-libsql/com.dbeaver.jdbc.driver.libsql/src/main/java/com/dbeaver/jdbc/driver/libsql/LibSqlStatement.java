@@ -21,10 +21,13 @@ import com.dbeaver.jdbc.model.AbstractJdbcStatement;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 
+import java.sql.BatchUpdateException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class LibSqlStatement extends AbstractJdbcStatement<LibSqlConnection> {
@@ -35,6 +38,9 @@ public class LibSqlStatement extends AbstractJdbcStatement<LibSqlConnection> {
     protected LibSqlExecutionResult executionResult;
     protected LibSqlResultSet resultSet;
 
+    protected final List<String> batchQueries = new ArrayList<>();
+    protected final List<Map<Object, Object>> batchParameters = new ArrayList<>();
+
     public LibSqlStatement(@NotNull LibSqlConnection connection) throws SQLException {
         super(connection);
     }
@@ -98,8 +104,68 @@ public class LibSqlStatement extends AbstractJdbcStatement<LibSqlConnection> {
         return executionResult.getUpdateCount();
     }
 
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        batchQueries.add(sql);
+        batchParameters.add(null);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        batchQueries.clear();
+        batchParameters.clear();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        try {
+            return toIntUpdateCounts(executeLargeBatch());
+        } catch (BatchUpdateException e) {
+            throw new BatchUpdateException(
+                e.getMessage(), e.getSQLState(), e.getErrorCode(), toIntUpdateCounts(e.getLargeUpdateCounts()), e.getCause());
+        }
+    }
+
+    /**
+     * Sends all batched statements to the server in a single request.
+     */
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        if (batchQueries.isEmpty()) {
+            return new long[0];
+        }
+        List<String> queries = new ArrayList<>(batchQueries);
+        List<Map<Object, Object>> queryParameters = new ArrayList<>(batchParameters);
+        clearBatch();
+
+        LibSqlExecutionResult[] results;
+        try {
+            results = connection.getClient().executeBatch(queries, queryParameters);
+        } catch (BatchUpdateException e) {
+            // Contains update counts of statements completed before the failed one
+            throw e;
+        } catch (SQLException e) {
+            // Request failed, nothing is known about executed statements
+            throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(), new long[0], e);
+        }
+        long[] updateCounts = new long[results.length];
+        for (int i = 0; i < results.length; i++) {
+            updateCounts[i] = results[i] == null ? SUCCESS_NO_INFO : results[i].getUpdateCount();
+        }
+        return updateCounts;
+    }
+
+    private static int[] toIntUpdateCounts(long[] updateCounts) {
+        int[] result = new int[updateCounts.length];
+        for (int i = 0; i < updateCounts.length; i++) {
+            result[i] = (int) updateCounts[i];
+        }
+        return result;
+    }
+
     @Override
     public void close() throws SQLException {
+        clearBatch();
     }
 
     @Override
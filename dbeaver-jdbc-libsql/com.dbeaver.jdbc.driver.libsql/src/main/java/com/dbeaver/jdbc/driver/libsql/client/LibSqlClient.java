@@ -21,6 +21,8 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.Strictness;
 import com.google.gson.ToNumberPolicy;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
@@ -29,16 +31,20 @@ import org.jkiss.utils.CommonUtils;
 import java.io.*;
 import java.net.CookieManager;
 import java.net.HttpURLConnection;
+import java.net.URI;
 import java.net.URL;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.sql.BatchUpdateException;
 import java.sql.SQLException;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
 
 /**
  * The entry point to LibSQL client API.
@@ -53,22 +59,38 @@ public class LibSqlClient {
 
     private final URL url;
     private final String authToken;
-    private final ExecutorService clientExecutor;
+    private final LibSqlTransport transport;
+    private final HttpClient client;
+    // Cookies are kept per connection, shared transport doesn't store them
+    private final CookieManager cookieManager = new CookieManager();
+    @Nullable
+    private final Duration requestTimeout;
+    private final boolean compression;
+    private boolean closed;
     private String userAgent = LibSqlConstants.DRIVER_INFO + " " +
         LibSqlConstants.DRIVER_VERSION_MAJOR +
         "." + LibSqlConstants.DRIVER_VERSION_MAJOR +
         "." + LibSqlConstants.DRIVER_VERSION_MICRO;
-    private final HttpClient client;
 
     public LibSqlClient(URL url, String authToken) {
+        this(url, authToken, Collections.emptyMap());
+    }
+
+    public LibSqlClient(@NotNull URL url, @Nullable String authToken, @NotNull Map<String, Object> properties) {
         this.url = url;
         this.authToken = authToken;
 
-        this.clientExecutor = Executors.newSingleThreadExecutor();
-        HttpClient.Builder builder = HttpClient.newBuilder()
-            .executor(this.clientExecutor)
-            .cookieHandler(new CookieManager());
-        this.client = builder.build();
+        HttpClient.Version httpVersion = getHttpVersion(url, properties.get(LibSqlConstants.PROP_HTTP_VERSION));
+        int maxThreads = Math.max(1,
+            CommonUtils.toInt(properties.get(LibSqlConstants.PROP_MAX_THREADS), LibSqlConstants.DEFAULT_MAX_THREADS));
+        this.transport = LibSqlTransport.acquire(
+            url,
+            httpVersion,
+            maxThreads,
+            getTimeout(properties.get(LibSqlConstants.PROP_CONNECT_TIMEOUT)));
+        this.client = transport.getHttpClient();
+        this.requestTimeout = getTimeout(properties.get(LibSqlConstants.PROP_REQUEST_TIMEOUT));
+        this.compression = CommonUtils.getBoolean(properties.get(LibSqlConstants.PROP_COMPRESSION), true);
     }
 
     public void setUserAgent(String userAgent) {
@@ -81,56 +103,58 @@ public class LibSqlClient {
      * @return The result set.
      */
     public LibSqlExecutionResult execute(String stmt, Map<Object, Object> parameters) throws SQLException {
-        return executeBatch(new String[]{stmt}, new Map[]{ parameters })[0];
+        try {
+            return executeBatch(List.of(stmt), Collections.singletonList(parameters))[0];
+        } catch (BatchUpdateException e) {
+            // Report statement error as is
+            throw e.getCause() instanceof SQLException ? (SQLException) e.getCause() : e;
+        }
     }
 
     /**
      * Execute a batch of SQL statements.
+     *
+     * @param parameters parameters of each statement, null elements mean statements without parameters
+     * @throws BatchUpdateException if some statement failed, update counts of statements completed before it are reported
      */
     public LibSqlExecutionResult[] executeBatch(
-        @NotNull String[] stmts,
-        @Nullable Map<Object, Object>[] parameters) throws SQLException {
+        @NotNull List<String> stmts,
+        @Nullable List<Map<Object, Object>> parameters) throws SQLException {
         try {
             StringWriter requestBuffer = new StringWriter();
             executeQuery(stmts, parameters, requestBuffer);
 
+            final URI uri = url.toURI();
             final HttpRequest.Builder builder = HttpRequest.newBuilder()
-                .uri(url.toURI())
-                .version(HttpClient.Version.HTTP_1_1)
+                .uri(uri)
                 .header("Content-Type", "application/json")
                 .header("User-Agent", userAgent)
                 .POST(HttpRequest.BodyPublishers.ofString(requestBuffer.toString()));
             if (!CommonUtils.isEmpty(authToken)) {
                 builder.header("Authorization", "Bearer " + authToken);
             }
+            if (compression) {
+                builder.header("Accept-Encoding", "gzip");
+            }
+            if (requestTimeout != null) {
+                builder.timeout(requestTimeout);
+            }
+            for (Map.Entry<String, List<String>> cookieHeader : cookieManager.get(uri, Map.of()).entrySet()) {
+                for (String value : cookieHeader.getValue()) {
+                    builder.header(cookieHeader.getKey(), value);
+                }
+            }
 
-            HttpResponse.BodyHandler<String> readerBodyHandler =
-                info -> HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
-
-            final HttpResponse<String> httpResponse = client.send(
+            final HttpResponse<InputStream> httpResponse = client.send(
                 builder.build(),
-                readerBodyHandler
+                HttpResponse.BodyHandlers.ofInputStream()
             );
-            try {
-                String responseBody = httpResponse.body();
-                try (Reader isr = new StringReader(responseBody)) {
-                    Response[] response;
-                    if (responseBody.startsWith("[")) {
-                        response = gson.fromJson(isr, Response[].class);
-                    } else {
-                        response = new Response[] {
-                            gson.fromJson(isr, Response.class)
-                        };
-                    }
-                    LibSqlExecutionResult[] resultSets = new LibSqlExecutionResult[response.length];
-                    for (int i = 0; i < response.length; i++) {
-                        if (!CommonUtils.isEmpty(response[i].error)) {
-                            throw new SQLException(response[i].error);
-                        }
-                        resultSets[i] = response[i].results;
-                    }
-                    return resultSets;
-                }
+            cookieManager.put(uri, httpResponse.headers().map());
+            try (Reader isr = new InputStreamReader(openResponseStream(httpResponse), StandardCharsets.UTF_8)) {
+                // Parse response directly from the stream. Response text is never held in memory as a whole.
+                JsonReader jsonReader = new JsonReader(isr);
+                jsonReader.setStrictness(Strictness.LENIENT);
+                return readResponse(jsonReader);
             } catch (Exception e) {
                 switch (httpResponse.statusCode()) {
                     case HttpURLConnection.HTTP_UNAUTHORIZED:
@@ -140,6 +164,8 @@ public class LibSqlClient {
                 }
                 throw e;
             }
+        } catch (HttpTimeoutException e) {
+            throw new SQLTimeoutException("Request timed out", e);
         } catch (Exception e) {
             if (e instanceof SQLException) {
                 SQLException sqle = (SQLException) e;
@@ -162,25 +188,26 @@ public class LibSqlClient {
     }
 
     private void executeQuery(
-        @NotNull String[] queries,
-        @Nullable Map<Object, Object>[] parameters,
+        @NotNull List<String> queries,
+        @Nullable List<Map<Object, Object>> parameters,
         @NotNull Writer os
     ) throws IOException {
         JsonWriter jsonWriter = new JsonWriter(os);
         jsonWriter.beginObject();
         jsonWriter.name("statements");
         jsonWriter.beginArray();
-        for (int i = 0; i < queries.length; i++) {
-            String stmt = queries[i];
-            if (parameters != null && i < parameters.length && !CommonUtils.isEmpty(parameters[i])) {
+        for (int i = 0; i < queries.size(); i++) {
+            String stmt = queries.get(i);
+            Map<Object, Object> stmtParameters = parameters != null && i < parameters.size() ? parameters.get(i) : null;
+            if (!CommonUtils.isEmpty(stmtParameters)) {
                 // Query with parameters
                 jsonWriter.beginObject();
                 jsonWriter.name("q");
                 jsonWriter.value(stmt);
                 jsonWriter.name("params");
-                if (isIndexedParams(parameters[i])) {
+                if (isIndexedParams(stmtParameters)) {
                     Map<Integer, Object> paramTree = new TreeMap<>();
-                    for (Map.Entry<?,?> entry : parameters[i].entrySet()) {
+                    for (Map.Entry<?,?> entry : stmtParameters.entrySet()) {
                         paramTree.put((Integer) entry.getKey(), entry.getValue());
                     }
                     jsonWriter.beginArray();
@@ -190,7 +217,7 @@ public class LibSqlClient {
                     jsonWriter.endArray();
                 } else {
                     jsonWriter.beginObject();
-                    for (Map.Entry<?, ?> param : parameters[i].entrySet()) {
+                    for (Map.Entry<?, ?> param : stmtParameters.entrySet()) {
                         jsonWriter.name(String.valueOf(param.getKey()));
                         serializeParameterValue(param.getValue(), jsonWriter);
                     }
@@ -233,15 +260,173 @@ public class LibSqlClient {
     }
 
     /**
-     * Closes client. Terminates client executor.
+     * Closes client. Releases shared transport.
      */
-    public void close() {
-        clientExecutor.shutdown();
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            transport.release();
+        }
+    }
+
+    @NotNull
+    private static InputStream openResponseStream(@NotNull HttpResponse<InputStream> httpResponse) throws IOException {
+        InputStream stream = httpResponse.body();
+        String encoding = httpResponse.headers().firstValue("Content-Encoding").orElse(null);
+        if ("gzip".equalsIgnoreCase(encoding)) {
+            return new GZIPInputStream(stream);
+        }
+        return stream;
+    }
+
+    @NotNull
+    private static HttpClient.Version getHttpVersion(@NotNull URL url, @Nullable Object value) {
+        String version = CommonUtils.toString(value, null);
+        if (CommonUtils.isEmpty(version)) {
+            // HTTP/2 is negotiated over TLS only, plain connections stay on HTTP/1.1
+            return "https".equalsIgnoreCase(url.getProtocol()) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1;
+        }
+        return version.startsWith("2") ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1;
+    }
+
+    @Nullable
+    private static Duration getTimeout(@Nullable Object value) {
+        long timeout = CommonUtils.toLong(value, 0);
+        return timeout > 0 ? Duration.ofMillis(timeout) : null;
     }
 
-    private static class Response {
-        public String error;
-        public LibSqlExecutionResult results;
+    @NotNull
+    private static LibSqlExecutionResult[] readResponse(@NotNull JsonReader reader) throws IOException, SQLException {
+        List<LibSqlExecutionResult> results = new ArrayList<>();
+        try {
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    results.add(readStatementResponse(reader));
+                }
+                reader.endArray();
+            } else {
+                results.add(readStatementResponse(reader));
+            }
+        } catch (SQLException e) {
+            throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(), getUpdateCounts(results), e);
+        }
+        return results.toArray(new LibSqlExecutionResult[0]);
+    }
+
+    @NotNull
+    private static long[] getUpdateCounts(@NotNull List<LibSqlExecutionResult> results) {
+        long[] updateCounts = new long[results.size()];
+        for (int i = 0; i < updateCounts.length; i++) {
+            LibSqlExecutionResult result = results.get(i);
+            updateCounts[i] = result == null ? Statement.SUCCESS_NO_INFO : result.getUpdateCount();
+        }
+        return updateCounts;
+    }
+
+    @Nullable
+    private static LibSqlExecutionResult readStatementResponse(@NotNull JsonReader reader) throws IOException, SQLException {
+        String error = null;
+        LibSqlExecutionResult result = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "error":
+                    Object errorValue = readValue(reader);
+                    error = errorValue == null ? null : errorValue.toString();
+                    break;
+                case "results":
+                    result = readExecutionResult(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        if (!CommonUtils.isEmpty(error)) {
+            throw new SQLException(error);
+        }
+        return result;
+    }
+
+    @Nullable
+    private static LibSqlExecutionResult readExecutionResult(@NotNull JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        List<String> columns = null;
+        List<Object[]> rows = null;
+        long rowsRead = 0;
+        long rowsWritten = 0;
+        double queryDurationMs = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "columns":
+                    columns = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        Object column = readValue(reader);
+                        columns.add(column == null ? null : column.toString());
+                    }
+                    reader.endArray();
+                    break;
+                case "rows":
+                    rows = new ArrayList<>();
+                    List<Object> rowValues = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            rowValues.add(readValue(reader));
+                        }
+                        reader.endArray();
+                        rows.add(rowValues.toArray());
+                        rowValues.clear();
+                    }
+                    reader.endArray();
+                    break;
+                case "rows_read":
+                    rowsRead = reader.nextLong();
+                    break;
+                case "rows_written":
+                    rowsWritten = reader.nextLong();
+                    break;
+                case "query_duration_ms":
+                    queryDurationMs = reader.nextDouble();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new LibSqlExecutionResult(columns, rows, rowsRead, rowsWritten, queryDurationMs);
+    }
+
+    @Nullable
+    private static Object readValue(@NotNull JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return null;
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case STRING:
+                return reader.nextString();
+            case NUMBER:
+                return ToNumberPolicy.LONG_OR_DOUBLE.readNumber(reader);
+            default:
+                // Nested structures are rare, let gson handle them
+                return gson.fromJson(reader, Object.class);
+        }
     }
 
 }
\ No newline at end of file
@@ -26,6 +26,23 @@ public class LibSqlExecutionResult {
     private long rows_written;
     private double query_duration_ms;
 
+    public LibSqlExecutionResult() {
+    }
+
+    LibSqlExecutionResult(
+        List<String> columns,
+        List<Object[]> rows,
+        long rowsRead,
+        long rowsWritten,
+        double queryDurationMs
+    ) {
+        this.columns = columns;
+        this.rows = rows;
+        this.rows_read = rowsRead;
+        this.rows_written = rowsWritten;
+        this.query_duration_ms = queryDurationMs;
+    }
+
     public List<String> getColumns() {
         return columns;
     }
@@ -0,0 +1,124 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dbeaver.jdbc.driver.libsql.client;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP transport shared by all clients connected to the same server with the same settings.
+ * Keeps single connection pool and a bounded executor per server instead of per connection.
+ * Transport is reference counted, it is shut down when the last client releases it.
+ * Transport has no cookie handler: cookies belong to the client session and are handled by each client.
+ */
+class LibSqlTransport {
+
+    private static final Map<String, LibSqlTransport> transports = new HashMap<>();
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    private final String key;
+    private final ThreadPoolExecutor executor;
+    private final HttpClient httpClient;
+    private int refCount;
+
+    private LibSqlTransport(
+        @NotNull String key,
+        @NotNull HttpClient.Version httpVersion,
+        int maxThreads,
+        @Nullable Duration connectTimeout
+    ) {
+        this.key = key;
+        this.executor = new ThreadPoolExecutor(
+            maxThreads,
+            maxThreads,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            createThreadFactory());
+        // Idle transports must not hold threads
+        this.executor.allowCoreThreadTimeOut(true);
+
+        HttpClient.Builder builder = HttpClient.newBuilder()
+            .version(httpVersion)
+            .executor(executor);
+        if (connectTimeout != null) {
+            builder.connectTimeout(connectTimeout);
+        }
+        this.httpClient = builder.build();
+    }
+
+    /**
+     * Returns transport for the specified server. Must be released with {@link #release()}.
+     */
+    @NotNull
+    static LibSqlTransport acquire(
+        @NotNull URL url,
+        @NotNull HttpClient.Version httpVersion,
+        int maxThreads,
+        @Nullable Duration connectTimeout
+    ) {
+        String key = url.getProtocol() + "://" + url.getAuthority() +
+            "|" + httpVersion + "|" + maxThreads + "|" + connectTimeout;
+        synchronized (transports) {
+            LibSqlTransport transport = transports.get(key);
+            if (transport == null) {
+                transport = new LibSqlTransport(key, httpVersion, maxThreads, connectTimeout);
+                transports.put(key, transport);
+            }
+            transport.refCount++;
+            return transport;
+        }
+    }
+
+    @NotNull
+    HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Releases transport. Terminates executor when transport is not used anymore.
+     */
+    void release() {
+        synchronized (transports) {
+            if (--refCount > 0) {
+                return;
+            }
+            transports.remove(key);
+        }
+        executor.shutdown();
+    }
+
+    @NotNull
+    private static ThreadFactory createThreadFactory() {
+        return runnable -> {
+            Thread thread = new Thread(runnable, "LibSQL transport " + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dbeaver.jdbc.upd.driver.test;
+
+import com.dbeaver.jdbc.driver.libsql.LibSqlConstants;
+import com.dbeaver.jdbc.driver.libsql.client.LibSqlClient;
+import com.dbeaver.jdbc.driver.libsql.client.LibSqlExecutionResult;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jkiss.utils.CommonUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Runs LibSQL client against a local stand-in server.
+ */
+public class LibSqlClientTest {
+
+    private static final int LARGE_RESULT_ROWS = 2_000_000;
+
+    private HttpServer server;
+    private volatile int rowCount;
+    private volatile String error;
+    // Index of the batch statement which fails with error, -1 if all statements succeed
+    private volatile int failedStatement = -1;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger statementCount = new AtomicInteger();
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handleRequest);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testLargeResult() throws Exception {
+        rowCount = LARGE_RESULT_ROWS;
+        LibSqlExecutionResult result = execute("select * from big_table");
+
+        Assertions.assertEquals(List.of("id", "name", "value"), result.getColumns());
+        List<Object[]> rows = result.getRows();
+        Assertions.assertEquals(LARGE_RESULT_ROWS, rows.size());
+        Assertions.assertArrayEquals(new Object[]{0L, "row 0", 0.5}, rows.get(0));
+        Assertions.assertArrayEquals(new Object[]{1L, "row 1", null}, rows.get(1));
+        Object[] lastRow = rows.get(LARGE_RESULT_ROWS - 1);
+        Assertions.assertEquals((long) LARGE_RESULT_ROWS - 1, lastRow[0]);
+        Assertions.assertEquals(LARGE_RESULT_ROWS, result.getRowsRead());
+    }
+
+    @Test
+    public void testUncompressedResult() throws Exception {
+        rowCount = 10;
+        LibSqlClient client = new LibSqlClient(
+            new URL("http://localhost:" + server.getAddress().getPort() + "/"),
+            null,
+            Map.of(LibSqlConstants.PROP_COMPRESSION, "false"));
+        try {
+            LibSqlExecutionResult result = client.execute("select * from small_table", Collections.emptyMap());
+            Assertions.assertEquals(10, result.getRows().size());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testEmptyResult() throws Exception {
+        rowCount = 0;
+        LibSqlExecutionResult result = execute("select * from empty_table");
+
+        Assertions.assertEquals(3, result.getColumns().size());
+        Assertions.assertTrue(result.getRows().isEmpty());
+    }
+
+    @Test
+    public void testError() {
+        error = "no such table: missing_table";
+        SQLException exception = Assertions.assertThrows(
+            SQLException.class,
+            () -> execute("select * from missing_table"));
+        Assertions.assertEquals(error, exception.getMessage());
+    }
+
+    @Test
+    public void testPreparedStatementBatch() throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+            "jdbc:dbeaver:libsql:http://localhost:" + server.getAddress().getPort() + "/")
+        ) {
+            requestCount.set(0);
+            statementCount.set(0);
+            try (PreparedStatement dbStat = connection.prepareStatement("insert into test_table values (?, ?)")) {
+                for (int i = 0; i < 100; i++) {
+                    dbStat.setInt(1, i);
+                    dbStat.setString(2, "row " + i);
+                    dbStat.addBatch();
+                }
+                int[] updateCounts = dbStat.executeBatch();
+                Assertions.assertEquals(100, updateCounts.length);
+                for (int updateCount : updateCounts) {
+                    Assertions.assertEquals(1, updateCount);
+                }
+                // Batch is cleared after execution
+                Assertions.assertEquals(0, dbStat.executeBatch().length);
+            }
+            Assertions.assertEquals(1, requestCount.get());
+            Assertions.assertEquals(100, statementCount.get());
+        }
+    }
+
+    @Test
+    public void testFailedBatchUpdateCounts() throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+            "jdbc:dbeaver:libsql:http://localhost:" + server.getAddress().getPort() + "/")
+        ) {
+            error = "UNIQUE constraint failed: test_table.id";
+            failedStatement = 3;
+            try (PreparedStatement dbStat = connection.prepareStatement("insert into test_table values (?)")) {
+                for (int i = 0; i < 5; i++) {
+                    dbStat.setInt(1, i);
+                    dbStat.addBatch();
+                }
+                BatchUpdateException exception = Assertions.assertThrows(BatchUpdateException.class, dbStat::executeLargeBatch);
+                Assertions.assertEquals(error, exception.getMessage());
+                Assertions.assertArrayEquals(new long[]{1, 1, 1}, exception.getLargeUpdateCounts());
+
+                for (int i = 0; i < 5; i++) {
+                    dbStat.setInt(1, i);
+                    dbStat.addBatch();
+                }
+                exception = Assertions.assertThrows(BatchUpdateException.class, dbStat::executeBatch);
+                Assertions.assertArrayEquals(new int[]{1, 1, 1}, exception.getUpdateCounts());
+            }
+        }
+    }
+
+    private LibSqlExecutionResult execute(String query) throws Exception {
+        LibSqlClient client = new LibSqlClient(
+            new URL("http://localhost:" + server.getAddress().getPort() + "/"),
+            null);
+        try {
+            return client.execute(query, Collections.emptyMap());
+        } finally {
+            client.close();
+        }
+    }
+
+    private void handleRequest(HttpExchange exchange) throws IOException {
+        JsonArray statements;
+        try (InputStreamReader in = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            statements = JsonParser.parseReader(in).getAsJsonObject().getAsJsonArray("statements");
+        }
+        requestCount.incrementAndGet();
+        statementCount.addAndGet(statements.size());
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        boolean gzip = CommonUtils.notEmpty(exchange.getRequestHeaders().getFirst("Accept-Encoding")).contains("gzip");
+        if (gzip) {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        // Zero length means chunked response, so the result is generated on the fly
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream responseBody = gzip ? new GZIPOutputStream(exchange.getResponseBody()) : exchange.getResponseBody();
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(responseBody, StandardCharsets.UTF_8))) {
+            if (error != null && failedStatement < 0) {
+                out.write("[{\"error\":\"" + error + "\"}]");
+                return;
+            }
+            out.write('[');
+            for (int i = 0; i < statements.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                if (i == failedStatement) {
+                    // Statements after the failed one are not executed
+                    out.write("{\"error\":\"" + error + "\"}");
+                    break;
+                }
+                JsonElement statement = statements.get(i);
+                String query = statement.isJsonObject() ? statement.getAsJsonObject().get("q").getAsString() : statement.getAsString();
+                if (query.startsWith("insert")) {
+                    out.write("{\"results\":{\"columns\":[],\"rows\":[],\"rows_read\":0,\"rows_written\":1}}");
+                } else {
+                    writeQueryResult(out);
+                }
+            }
+            out.write(']');
+        }
+    }
+
+    private void writeQueryResult(Writer out) throws IOException {
+        out.write("{\"results\":{\"columns\":[\"id\",\"name\",\"value\"],\"rows\":[");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write("[" + i + ",\"row " + i + "\"," + (i % 2 == 0 ? i + 0.5 : "null") + "]");
+        }
+        out.write("],\"rows_read\":" + rowCount + ",\"rows_written\":0,\"query_duration_ms\":1.5}}");
+    }
+}
@@ -228,6 +228,12 @@ public class DataExporterXLSX extends StreamExporterAbstract implements IAppenda
         super.init(site);
     }
 
+    @Override
+    public boolean isBackgroundRowExportSupported() {
+        // New sheets are created while rows are exported, their headers read attribute bindings from the session
+        return false;
+    }
+
     @Override
     public void dispose() {
         try {
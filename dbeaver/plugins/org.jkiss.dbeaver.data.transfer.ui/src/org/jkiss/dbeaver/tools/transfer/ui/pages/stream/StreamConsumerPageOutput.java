@@ -171,6 +171,7 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
     private Button singleFileCheck;
     private Button showFinalMessageCheckbox;
     private Button splitFilesCheckbox;
+    private Button pipelinedCheckbox;
     private EnumSelectionGroup<DataFileConflictBehavior> dataFileConflictBehaviorSelector;
     private EnumSelectionGroup<BlobFileConflictBehavior> blobFileConflictBehaviorSelector;
     private Label maximumFileSizeLabel;
@@ -267,6 +268,13 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
                     updateControlsEnablement();
                 }
             });
+            pipelinedCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_pipelined, DTMessages.data_transfer_wizard_output_checkbox_pipelined_tip, false, 4);
+            pipelinedCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setPipelinedExport(pipelinedCheckbox.getSelection());
+                }
+            });
 
             {
                 Composite outFilesSettings = UIUtils.createComposite(generalSettings, 3);
@@ -450,6 +458,7 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
         fileNameText.setText(CommonUtils.toString(settings.getOutputFilePattern()));
         compressCheckbox.setSelection(settings.isCompressResults());
         splitFilesCheckbox.setSelection(settings.isSplitOutFiles());
+        pipelinedCheckbox.setSelection(settings.isPipelinedExport());
         maximumFileSizeText.setText(String.valueOf(settings.getMaxOutFileSize()));
         encodingCombo.setText(CommonUtils.toString(settings.getOutputEncoding()));
         timestampPattern.setText(settings.getOutputTimestampPattern());
@@ -19,6 +19,7 @@ package org.jkiss.dbeaver.tools.transfer;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -71,8 +72,9 @@ public interface IDataTransferConsumer<SETTINGS extends IDataTransferSettings, P
      * Finishes this transfer
      * @param monitor monitor
      * @param last called in the very end of all transfers
+     * @throws DBException if transferred data can't be completed, e.g. output file can't be written
      */
-    void finishTransfer(DBRProgressMonitor monitor, boolean last);
+    void finishTransfer(DBRProgressMonitor monitor, boolean last) throws DBException;
 
     /**
      * Finishes this transfer
@@ -94,7 +96,11 @@ public interface IDataTransferConsumer<SETTINGS extends IDataTransferSettings, P
      * @param last    called in the very end of all transfers
      */
     default void finishTransfer(@NotNull DBRProgressMonitor monitor, @Nullable Throwable error, @Nullable DBTTask task, boolean last) {
-        finishTransfer(monitor, last);
+        try {
+            finishTransfer(monitor, last);
+        } catch (DBException e) {
+            Log.getLog(IDataTransferConsumer.class).error("Error finishing transfer", e);
+        }
     }
 
     // Target object. May be null or target database object (table)
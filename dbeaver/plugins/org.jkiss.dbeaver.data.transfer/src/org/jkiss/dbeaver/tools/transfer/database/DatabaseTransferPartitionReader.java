@@ -0,0 +1,705 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.runtime.BlockCanceler;
+import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.ProxyProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reads a table by primary key ranges. Each range is read in its own connection, all ranges are read concurrently.
+ * Table must have a single column numeric or date primary key. Tables with user defined order are not partitioned,
+ * rows are always read in key order.
+ *
+ * Consumer is not thread safe, so partitions pass rows to it in blocks: each block is framed by
+ * consumer fetchStart/fetchEnd and only one partition delivers a block at a time.
+ * Other partitions fetch their next rows meanwhile. Rows order is not preserved.
+ *
+ * Partition which failed to read is retried from the last delivered key, so rows are not duplicated.
+ * Key literals may lose fractional seconds, so date partitions are resumed from the whole second
+ * and rows up to the last delivered key are skipped.
+ *
+ * Partitions don't share a transaction snapshot: each connection sees the table state at the moment its
+ * query runs. Rows modified concurrently with the export may be missed or exported in an inconsistent state.
+ */
+public class DatabaseTransferPartitionReader {
+
+    private static final Log log = Log.getLog(DatabaseTransferPartitionReader.class);
+
+    private static final int MAX_RETRIES = 2;
+    private static final int MIN_BLOCK_SIZE = 100;
+    private static final long PROGRESS_UPDATE_PERIOD = 500;
+
+    @NotNull
+    private final DBSEntity entity;
+    @Nullable
+    private final DBDDataFilter dataFilter;
+    private final int partitionCount;
+    private final long readFlags;
+    private final int fetchSize;
+    @Nullable
+    private final String defaultCatalog;
+    @Nullable
+    private final String defaultSchema;
+
+    public DatabaseTransferPartitionReader(
+        @NotNull DBSEntity entity,
+        @Nullable DBDDataFilter dataFilter,
+        int partitionCount,
+        long readFlags,
+        int fetchSize,
+        @Nullable String defaultCatalog,
+        @Nullable String defaultSchema
+    ) {
+        this.entity = entity;
+        this.dataFilter = dataFilter;
+        this.partitionCount = partitionCount;
+        this.readFlags = readFlags;
+        this.fetchSize = fetchSize;
+        this.defaultCatalog = defaultCatalog;
+        this.defaultSchema = defaultSchema;
+    }
+
+    /**
+     * Reads table partitions and passes all rows to the consumer. Consumer is closed at the end.
+     *
+     * @param session session used to determine key ranges
+     * @return statistics or null if table can't be partitioned. In this case nothing is passed to the consumer.
+     */
+    @Nullable
+    public DBCStatistics readData(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession session,
+        @NotNull IDataTransferConsumer consumer
+    ) throws DBException {
+        DBPDataSource dataSource = entity.getDataSource();
+        if (partitionCount < 2 || dataSource == null || dataSource.getInfo().isDynamicMetadata() ||
+            !(entity instanceof DBSDataContainer dataContainer) || !dataContainer.isFeatureSupported(DBSDataContainer.FEATURE_DATA_FILTER)) {
+            return null;
+        }
+        if (dataFilter != null && dataFilter.hasOrdering()) {
+            log.debug("Data of '" + entity.getName() + "' is ordered, partitioned read is not possible");
+            return null;
+        }
+        DBSEntityAttribute keyAttribute = getPartitionKey(monitor, entity);
+        if (keyAttribute == null) {
+            log.debug("Table '" + entity.getName() + "' has no numeric or date primary key, partitioned read is not possible");
+            return null;
+        }
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+        Object[] keyBounds = readKeyBounds(session, keyName);
+        if (keyBounds == null) {
+            return null;
+        }
+        List<String> boundaries = new ArrayList<>();
+        for (Object boundary : splitKeyRange(keyBounds[0], keyBounds[1], partitionCount)) {
+            String literal = getKeyLiteral(dataSource, keyAttribute, boundary);
+            if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(literal)) {
+                boundaries.add(literal);
+            }
+        }
+        if (boundaries.isEmpty()) {
+            return null;
+        }
+
+        ReentrantLock deliveryLock = new ReentrantLock(true);
+        AtomicLong deliveredRows = new AtomicLong();
+        // Blocks follow fetches, so partitions fetch next rows while other partitions deliver
+        int blockSize = Math.max(fetchSize, MIN_BLOCK_SIZE);
+        List<Partition> partitions = new ArrayList<>();
+        // First and last ranges are unbounded, so rows added after key bounds were read are not lost
+        for (int i = 0; i <= boundaries.size(); i++) {
+            partitions.add(new Partition(
+                i + 1,
+                i == 0 ? null : boundaries.get(i - 1),
+                i == boundaries.size() ? null : boundaries.get(i),
+                new PartitionReceiver(consumer, deliveryLock, deliveredRows, blockSize, keyAttribute.getName()),
+                new PartitionMonitor(monitor)));
+        }
+
+        DBCStatistics statistics = new DBCStatistics();
+        ExecutorService executor = Executors.newFixedThreadPool(partitions.size(), runnable -> {
+            Thread thread = new Thread(runnable, "Read partition of " + entity.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            DBCExecutionContext initContext = session.getExecutionContext();
+            for (Partition partition : partitions) {
+                partition.result = executor.submit(() -> readPartition(dataContainer, initContext, consumer, partition, keyAttribute, keyName));
+            }
+            long reportedRows = 0;
+            for (Partition partition : partitions) {
+                for (;;) {
+                    try {
+                        statistics.accumulate(partition.result.get(PROGRESS_UPDATE_PERIOD, TimeUnit.MILLISECONDS));
+                        break;
+                    } catch (TimeoutException e) {
+                        reportedRows = reportProgress(monitor, partitions, reportedRows);
+                        if (monitor.isCanceled() || hasFailedPartition(partitions)) {
+                            stopPartitions(monitor, partitions);
+                        }
+                    } catch (ExecutionException e) {
+                        if (partition.error == null && !partition.monitor.isCanceled()) {
+                            partition.error = e.getCause();
+                        }
+                        stopPartitions(monitor, partitions);
+                        break;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        stopPartitions(monitor, partitions);
+                        throw new DBCException("Partitioned read interrupted", e);
+                    }
+                }
+            }
+            reportProgress(monitor, partitions, reportedRows);
+            // Other partitions could fail because they were stopped
+            for (Partition partition : partitions) {
+                if (partition.error instanceof DBException dbe) {
+                    throw dbe;
+                } else if (partition.error != null) {
+                    throw new DBException("Error reading partition " + partition.number, partition.error);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            consumer.close();
+        }
+        return statistics;
+    }
+
+    /**
+     * Splits keys range into the specified number of ranges.
+     *
+     * @return boundaries between ranges in ascending order, all of them are greater than min value.
+     * Fewer boundaries are returned if range is too narrow. Empty list is returned for unsupported values.
+     */
+    @NotNull
+    public static List<Object> splitKeyRange(@NotNull Object minValue, @NotNull Object maxValue, int count) {
+        List<Object> boundaries = new ArrayList<>();
+        if (minValue instanceof java.util.Date minDate && maxValue instanceof java.util.Date maxDate) {
+            long minTime = minDate.getTime(), range = maxDate.getTime() - minTime;
+            long prevTime = minTime;
+            for (int i = 1; i < count && range > 0; i++) {
+                long time = minTime + (long) ((double) range * i / count);
+                if (time > prevTime) {
+                    boundaries.add(makeDate(minValue, time));
+                    prevTime = time;
+                }
+            }
+            return boundaries;
+        }
+        BigDecimal min = toDecimal(minValue), max = toDecimal(maxValue);
+        if (min == null || max == null || min.compareTo(max) >= 0) {
+            return boundaries;
+        }
+        boolean integral = isIntegral(min) && isIntegral(max);
+        BigDecimal step = max.subtract(min).divide(BigDecimal.valueOf(count), MathContext.DECIMAL64);
+        BigDecimal prev = min;
+        for (int i = 1; i < count; i++) {
+            BigDecimal boundary = min.add(step.multiply(BigDecimal.valueOf(i)));
+            if (integral) {
+                boundary = boundary.setScale(0, RoundingMode.CEILING);
+            }
+            if (boundary.compareTo(prev) > 0 && boundary.compareTo(max) <= 0) {
+                boundaries.add(boundary);
+                prev = boundary;
+            }
+        }
+        return boundaries;
+    }
+
+    @Nullable
+    private static DBSEntityAttribute getPartitionKey(@NotNull DBRProgressMonitor monitor, @NotNull DBSEntity entity) throws DBException {
+        List<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, entity);
+        if (identifier.size() != 1) {
+            return null;
+        }
+        DBSEntityAttribute attribute = identifier.get(0);
+        if (!attribute.isRequired() || DBUtils.isPseudoAttribute(attribute) ||
+            (attribute.getDataKind() != DBPDataKind.NUMERIC && attribute.getDataKind() != DBPDataKind.DATETIME)) {
+            return null;
+        }
+        return attribute;
+    }
+
+    /**
+     * Reads min and max key values. Data filter is not applied here, it only makes ranges wider.
+     */
+    @Nullable
+    private Object[] readKeyBounds(@NotNull DBCSession session, @NotNull String keyName) throws DBCException {
+        String query = "SELECT MIN(" + keyName + "), MAX(" + keyName + ") FROM " +
+            DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML);
+        try (DBCStatement statement = session.prepareStatement(DBCStatementType.QUERY, query, false, false, false)) {
+            if (statement.executeStatement()) {
+                try (DBCResultSet resultSet = statement.openResultSet()) {
+                    if (resultSet != null && resultSet.nextRow()) {
+                        Object minValue = resultSet.getAttributeValue(0);
+                        Object maxValue = resultSet.getAttributeValue(1);
+                        if (minValue != null && maxValue != null) {
+                            return new Object[]{minValue, maxValue};
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private DBCStatistics readPartition(
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBCExecutionContext initContext,
+        @NotNull IDataTransferConsumer consumer,
+        @NotNull Partition partition,
+        @NotNull DBSEntityAttribute keyAttribute,
+        @NotNull String keyName
+    ) throws DBException {
+        DBRProgressMonitor monitor = partition.monitor;
+        for (int attempt = 0; ; attempt++) {
+            DBDDataFilter partitionFilter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+            List<String> conditions = new ArrayList<>();
+            if (!CommonUtils.isEmpty(partitionFilter.getWhere())) {
+                conditions.add("(" + partitionFilter.getWhere() + ")");
+            }
+            Object lastKey = partition.receiver.lastKey;
+            partition.receiver.skipDeliveredRows(null);
+            if (lastKey instanceof java.util.Date lastDate) {
+                // Resume from the whole second of the last delivered row, delivered rows are skipped by receiver
+                long time = Math.floorDiv(lastDate.getTime(), 1000L) * 1000L;
+                conditions.add(keyName + " >= " + getKeyLiteral(entity.getDataSource(), keyAttribute, makeDate(lastKey, time)));
+                partition.receiver.skipDeliveredRows(lastKey);
+            } else if (lastKey != null) {
+                // Resume after the last delivered row
+                conditions.add(keyName + " > " + getKeyLiteral(entity.getDataSource(), keyAttribute, lastKey));
+            } else if (partition.startKey != null) {
+                conditions.add(keyName + " >= " + partition.startKey);
+            }
+            if (partition.endKey != null) {
+                conditions.add(keyName + " < " + partition.endKey);
+            }
+            partitionFilter.setWhere(String.join(" AND ", conditions));
+            partitionFilter.setOrder(keyName);
+
+            try {
+                return readRange(dataContainer, initContext, consumer, partitionFilter, partition);
+            } catch (DBException e) {
+                if (monitor.isCanceled()) {
+                    throw e;
+                }
+                if (partition.receiver.consumerError != null || attempt >= MAX_RETRIES) {
+                    partition.error = e;
+                    throw e;
+                }
+                partition.retries++;
+                log.warn("Error reading partition " + partition.number + " of '" + entity.getName() + "', retry " + partition.retries, e);
+            }
+        }
+    }
+
+    private DBCStatistics readRange(
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBCExecutionContext initContext,
+        @NotNull IDataTransferConsumer consumer,
+        @NotNull DBDDataFilter partitionFilter,
+        @NotNull Partition partition
+    ) throws DBException {
+        DBRProgressMonitor monitor = partition.monitor;
+        DBPDataSource dataSource = initContext.getDataSource();
+        DBCExecutionContext context = DBUtils.getObjectOwnerInstance(entity).openIsolatedContext(
+            monitor, "Data transfer partition reader", initContext);
+        try {
+            DBExecUtils.setExecutionContextDefaults(monitor, dataSource, context, defaultCatalog, null, defaultSchema);
+            try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Read partition " + partition.number)) {
+                session.enableLogging(false);
+                // Some drivers read LOBs and use cursors only in transactional mode
+                DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                if (txnManager != null && txnManager.isSupportsTransactions()) {
+                    try {
+                        txnManager.setAutoCommit(monitor, false);
+                    } catch (DBCException e) {
+                        log.warn("Can't change auto-commit", e);
+                        txnManager = null;
+                    }
+                }
+                try {
+                    DBCStatistics statistics = dataContainer.readData(
+                        new AbstractExecutionSource(dataContainer, context, consumer),
+                        session,
+                        partition.receiver,
+                        partitionFilter,
+                        -1,
+                        -1,
+                        readFlags,
+                        fetchSize);
+                    // Consumer errors are only logged by some containers
+                    Throwable consumerError = partition.receiver.consumerError;
+                    if (consumerError != null) {
+                        throw consumerError instanceof DBException dbe ? dbe : new DBException("Error transferring rows", consumerError);
+                    }
+                    return statistics;
+                } finally {
+                    if (txnManager != null && !txnManager.isAutoCommit()) {
+                        try {
+                            txnManager.rollback(session, null);
+                        } catch (DBCException e) {
+                            log.debug("Error rolling back partition transaction", e);
+                        }
+                    }
+                }
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private long reportProgress(@NotNull DBRProgressMonitor monitor, @NotNull List<Partition> partitions, long reportedRows) {
+        long totalRows = 0;
+        StringBuilder status = new StringBuilder("Read partitions:");
+        for (Partition partition : partitions) {
+            long rows = partition.receiver.rowCount;
+            totalRows += rows;
+            status.append(' ').append(partition.number).append(": ").append(rows);
+            if (partition.result != null && partition.result.isDone()) {
+                status.append(" (done)");
+            } else if (partition.retries > 0) {
+                status.append(" (retry ").append(partition.retries).append(")");
+            }
+        }
+        monitor.subTask(status.toString());
+        monitor.worked((int) (totalRows - reportedRows));
+        return totalRows;
+    }
+
+    private static boolean hasFailedPartition(@NotNull List<Partition> partitions) {
+        for (Partition partition : partitions) {
+            if (partition.error != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void stopPartitions(@NotNull DBRProgressMonitor monitor, @NotNull List<Partition> partitions) {
+        for (Partition partition : partitions) {
+            partition.monitor.stop(monitor);
+        }
+    }
+
+    @Nullable
+    private static String getKeyLiteral(@Nullable DBPDataSource dataSource, @NotNull DBSEntityAttribute keyAttribute, @NotNull Object value) {
+        BigDecimal decimal = toDecimal(value);
+        if (decimal != null) {
+            return decimal.toPlainString();
+        }
+        return dataSource == null ? String.valueOf(value) : SQLUtils.convertValueToSQL(dataSource, keyAttribute, value);
+    }
+
+    @Nullable
+    private static BigDecimal toDecimal(@NotNull Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        } else if (value instanceof BigInteger integer) {
+            return new BigDecimal(integer);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        } else if (value instanceof Number number) {
+            double doubleValue = number.doubleValue();
+            return Double.isFinite(doubleValue) ? new BigDecimal(number.toString()) : null;
+        }
+        return null;
+    }
+
+    private static boolean isIntegral(@NotNull BigDecimal value) {
+        return value.signum() == 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    @NotNull
+    private static java.util.Date makeDate(@NotNull Object sample, long time) {
+        if (sample instanceof java.sql.Timestamp) {
+            return new java.sql.Timestamp(time);
+        } else if (sample instanceof java.sql.Date) {
+            return new java.sql.Date(time);
+        }
+        return new java.util.Date(time);
+    }
+
+    private static class Partition {
+        private final int number;
+        // Key literals
+        @Nullable
+        private final String startKey;
+        @Nullable
+        private final String endKey;
+        private final PartitionReceiver receiver;
+        private final PartitionMonitor monitor;
+        private volatile Future<DBCStatistics> result;
+        private volatile int retries;
+        @Nullable
+        private volatile Throwable error;
+
+        Partition(int number, @Nullable String startKey, @Nullable String endKey, @NotNull PartitionReceiver receiver, @NotNull PartitionMonitor monitor) {
+            this.number = number;
+            this.startKey = startKey;
+            this.endKey = endKey;
+            this.receiver = receiver;
+            this.monitor = monitor;
+        }
+    }
+
+    /**
+     * Passes partition rows to the shared consumer in blocks.
+     * Block starts with the first row delivered after delivery lock is acquired and ends after
+     * block size rows or at the end of the partition. Lock is held by partition thread during the block.
+     */
+    public static class PartitionReceiver implements DBDDataReceiver {
+
+        private final IDataTransferConsumer consumer;
+        private final ReentrantLock deliveryLock;
+        private final AtomicLong deliveredRows;
+        private final int blockSize;
+        private final String keyName;
+        private int blockRows;
+        @Nullable
+        private volatile Object lastKey;
+        // Rows with keys up to this one were delivered before retry
+        @Nullable
+        private volatile Object skipKey;
+        private volatile long rowCount;
+        @Nullable
+        private volatile Throwable consumerError;
+
+        public PartitionReceiver(
+            @NotNull IDataTransferConsumer consumer,
+            @NotNull ReentrantLock deliveryLock,
+            @NotNull AtomicLong deliveredRows,
+            int blockSize,
+            @NotNull String keyName
+        ) {
+            this.consumer = consumer;
+            this.deliveryLock = deliveryLock;
+            this.deliveredRows = deliveredRows;
+            this.blockSize = blockSize;
+            this.keyName = keyName;
+        }
+
+        @Nullable
+        public Object getLastKey() {
+            return lastKey;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        @Nullable
+        public Throwable getConsumerError() {
+            return consumerError;
+        }
+
+        /**
+         * Skips leading rows with date keys up to the specified one. They were delivered before the partition was retried.
+         */
+        public void skipDeliveredRows(@Nullable Object lastKey) {
+            this.skipKey = lastKey;
+        }
+
+        @Override
+        public void fetchStart(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, long offset, long maxRows) {
+            // Block is started with the first row
+        }
+
+        @Override
+        public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+            Object key = resultSet.getAttributeValue(keyName);
+            if (skipKey != null) {
+                if (isDelivered(key, skipKey)) {
+                    return;
+                }
+                skipKey = null;
+            }
+            if (!deliveryLock.isHeldByCurrentThread()) {
+                startBlock(session, resultSet);
+            }
+            try {
+                consumer.fetchRow(session, resultSet);
+            } catch (DBCException | RuntimeException e) {
+                consumerError = e;
+                throw e;
+            }
+            lastKey = key;
+            rowCount++;
+            deliveredRows.incrementAndGet();
+            if (++blockRows >= blockSize) {
+                endBlock(session, resultSet);
+            }
+        }
+
+        @Override
+        public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+            if (deliveryLock.isHeldByCurrentThread()) {
+                endBlock(session, resultSet);
+            }
+        }
+
+        @Override
+        public void close() {
+            // Consumer is closed after all partitions are read
+            while (deliveryLock.isHeldByCurrentThread()) {
+                deliveryLock.unlock();
+            }
+        }
+
+        private static boolean isDelivered(@Nullable Object key, @NotNull Object skipKey) {
+            if (!(skipKey instanceof java.util.Date skipDate)) {
+                return false;
+            }
+            if (key instanceof java.sql.Timestamp timestamp) {
+                // Timestamp comparison includes nanoseconds
+                return timestamp.compareTo(skipDate) <= 0;
+            }
+            return key instanceof java.util.Date date && !date.after(skipDate);
+        }
+
+        private void startBlock(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+            try {
+                deliveryLock.lockInterruptibly();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DBCException("Partition read interrupted", e);
+            }
+            blockRows = 0;
+            try {
+                consumer.fetchStart(session, resultSet, deliveredRows.get(), -1);
+            } catch (DBCException | RuntimeException e) {
+                consumerError = e;
+                deliveryLock.unlock();
+                throw e;
+            }
+        }
+
+        private void endBlock(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+            try {
+                consumer.fetchEnd(session, resultSet);
+            } catch (DBCException | RuntimeException e) {
+                consumerError = e;
+                throw e;
+            } finally {
+                deliveryLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Partition threads must not report progress to the original monitor, it is done by the main thread.
+     * Blocks are kept per partition, so they can be canceled separately.
+     */
+    private static class PartitionMonitor extends ProxyProgressMonitor {
+
+        private final List<DBRBlockingObject> blocks = new ArrayList<>();
+        private volatile boolean stopped;
+
+        PartitionMonitor(@NotNull DBRProgressMonitor original) {
+            super(original);
+        }
+
+        @Override
+        public void beginTask(String name, int totalWork) {
+        }
+
+        @Override
+        public void done() {
+        }
+
+        @Override
+        public void subTask(String name) {
+        }
+
+        @Override
+        public void worked(int work) {
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return stopped || super.isCanceled();
+        }
+
+        @Override
+        public synchronized void startBlock(DBRBlockingObject object, String taskName) {
+            blocks.add(object);
+        }
+
+        @Override
+        public synchronized void endBlock() {
+            if (!blocks.isEmpty()) {
+                blocks.remove(blocks.size() - 1);
+            }
+        }
+
+        @Override
+        public synchronized List<DBRBlockingObject> getActiveBlocks() {
+            return blocks.isEmpty() ? null : new ArrayList<>(blocks);
+        }
+
+        void stop(@NotNull DBRProgressMonitor monitor) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            List<DBRBlockingObject> activeBlocks = getActiveBlocks();
+            if (activeBlocks == null) {
+                return;
+            }
+            for (DBRBlockingObject block : activeBlocks) {
+                try {
+                    BlockCanceler.cancelBlock(monitor, block);
+                } catch (DBException e) {
+                    log.debug("Error canceling partition read", e);
+                }
+            }
+        }
+    }
+}
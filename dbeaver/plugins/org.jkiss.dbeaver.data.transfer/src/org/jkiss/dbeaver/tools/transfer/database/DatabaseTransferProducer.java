@@ -273,7 +273,18 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                             monitor.subTask("Read data");
 
                             // Perform export
-                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                            DBCStatistics partitionsStatistics = null;
+                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.PARTITIONS &&
+                                !selectiveExportFromUI && newConnection && dataContainer instanceof DBSEntity entity
+                            ) {
+                                // Read key ranges concurrently, each range needs its own connection
+                                partitionsStatistics = new DatabaseTransferPartitionReader(
+                                    entity, dataFilter, settings.getPartitionCount(), readFlags, settings.getFetchSize(), defaultCatalog, defaultSchema
+                                ).readData(monitor, session, consumer);
+                            }
+                            if (partitionsStatistics != null) {
+                                producerStatistics.accumulate(partitionsStatistics);
+                            } else if (settings.getExtractType() != DatabaseProducerSettings.ExtractType.SEGMENTS) {
                                 // Just do it in single query
                                 producerStatistics.accumulate(dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
                             } else {
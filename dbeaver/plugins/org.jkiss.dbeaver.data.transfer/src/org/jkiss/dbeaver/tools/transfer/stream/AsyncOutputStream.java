@@ -0,0 +1,172 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes data to the target stream in a separate thread.
+ * Used to move expensive target streams (e.g. compression) out of the thread which produces data.
+ * Data is passed in chunks through a bounded queue.
+ */
+public class AsyncOutputStream extends OutputStream {
+
+    private static final byte[] FLUSH_CHUNK = new byte[0];
+    private static final byte[] END_CHUNK = new byte[0];
+
+    private final OutputStream target;
+    private final BlockingQueue<byte[]> queue;
+    private final Thread writeThread;
+    private final byte[] buffer;
+    private int count;
+    private volatile IOException error;
+
+    public AsyncOutputStream(@NotNull OutputStream target, @NotNull String name, int chunkSize, int queueSize) {
+        this.target = target;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.buffer = new byte[chunkSize];
+        this.writeThread = new Thread(this::writeChunks, name);
+        this.writeThread.setDaemon(true);
+        this.writeThread.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count >= buffer.length) {
+            sendBuffer();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (count >= buffer.length) {
+                sendBuffer();
+            }
+            int length = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, length);
+            count += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    /**
+     * Passes buffered data to the write thread, which flushes the target stream after writing it.
+     * Doesn't wait for the target stream, use {@link #finish()} for that.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (count > 0) {
+            sendBuffer();
+            sendChunk(FLUSH_CHUNK);
+        }
+    }
+
+    /**
+     * Writes all data and stops the write thread. Target stream remains open.
+     */
+    public void finish() throws IOException {
+        if (!writeThread.isAlive()) {
+            checkError();
+            return;
+        }
+        try {
+            sendBuffer();
+        } finally {
+            try {
+                queue.put(END_CHUNK);
+                writeThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Output finish interrupted");
+            }
+        }
+        checkError();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+            target.flush();
+        } finally {
+            target.close();
+        }
+    }
+
+    private void sendBuffer() throws IOException {
+        if (count > 0) {
+            sendChunk(Arrays.copyOf(buffer, count));
+            count = 0;
+        }
+    }
+
+    private void sendChunk(@NotNull byte[] chunk) throws IOException {
+        checkError();
+        if (!writeThread.isAlive()) {
+            throw new IOException("Output stream is closed");
+        }
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Output write interrupted");
+        }
+    }
+
+    private void checkError() throws IOException {
+        IOException writeError = error;
+        if (writeError != null) {
+            throw new IOException("Error writing to the output stream", writeError);
+        }
+    }
+
+    private void writeChunks() {
+        for (;;) {
+            byte[] chunk;
+            try {
+                chunk = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (chunk == END_CHUNK) {
+                return;
+            }
+            // Chunks are dropped after the first error, but writer must not be blocked
+            if (error == null) {
+                try {
+                    if (chunk == FLUSH_CHUNK) {
+                        target.flush();
+                    } else {
+                        target.write(chunk);
+                    }
+                } catch (Throwable e) {
+                    error = e instanceof IOException ioe ? ioe : new IOException(e);
+                }
+            }
+        }
+    }
+}
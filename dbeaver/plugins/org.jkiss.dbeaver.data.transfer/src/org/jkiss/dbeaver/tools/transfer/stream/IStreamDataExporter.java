@@ -42,6 +42,15 @@ public interface IStreamDataExporter extends IDataTransferProcessor {
     void exportFooter(DBRProgressMonitor monitor)
         throws DBException, IOException;
 
+    /**
+     * Returns true if {@link #exportRow} may be called in a background thread for rows of plain values
+     * (without contents and documents). Such calls must not use the session or the result set,
+     * values needed from the session are captured in {@link #exportHeader}, which is called in the fetch thread.
+     */
+    default boolean isBackgroundRowExportSupported() {
+        return false;
+    }
+
     void dispose();
 
 }
@@ -136,6 +136,7 @@ public class StreamConsumerSettings implements IDataTransferConsumerSettings {
     private boolean useSingleFile = false;
     private boolean compressResults = false;
     private boolean splitOutFiles = false;
+    private boolean pipelinedExport = false;
     private long maxOutFileSize = 10 * 1000 * 1000;
     private final Map<DBSDataContainer, StreamMappingContainer> dataMappings = new LinkedHashMap<>();
     private final Map<String, Map<String, Object>> eventProcessors = new HashMap<>();
@@ -252,6 +253,14 @@ public class StreamConsumerSettings implements IDataTransferConsumerSettings {
         this.splitOutFiles = splitOutFiles;
     }
 
+    public boolean isPipelinedExport() {
+        return pipelinedExport;
+    }
+
+    public void setPipelinedExport(boolean pipelinedExport) {
+        this.pipelinedExport = pipelinedExport;
+    }
+
     public long getMaxOutFileSize() {
         return maxOutFileSize;
     }
@@ -331,6 +340,7 @@ public class StreamConsumerSettings implements IDataTransferConsumerSettings {
         compressResults = CommonUtils.getBoolean(settings.get("compressResults"), compressResults);
         splitOutFiles = CommonUtils.getBoolean(settings.get("splitOutFiles"), splitOutFiles);
         maxOutFileSize = CommonUtils.toLong(settings.get("maxOutFileSize"), maxOutFileSize);
+        pipelinedExport = CommonUtils.getBoolean(settings.get("pipelinedExport"), pipelinedExport);
 
         final boolean openFolderOnFinish = CommonUtils.getBoolean(settings.get("openFolderOnFinish"), false);
         final boolean deleteFileInCaseOfFail = CommonUtils.getBoolean(settings.get("deleteFileInCaseOfFail"), true);
@@ -418,6 +428,7 @@ public class StreamConsumerSettings implements IDataTransferConsumerSettings {
         settings.put("compressResults", compressResults);
         settings.put("splitOutFiles", splitOutFiles);
         settings.put("maxOutFileSize", maxOutFileSize);
+        settings.put("pipelinedExport", pipelinedExport);
 
         if (formatterProfile != null) {
             settings.put("formatterProfile", formatterProfile.getProfileName());
@@ -459,6 +470,7 @@ public class StreamConsumerSettings implements IDataTransferConsumerSettings {
         }
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_compress, compressResults);
+        DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_pipelined, pipelinedExport);
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_settings_label_binaries, lobExtractType);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_settings_label_encoding, lobEncoding);
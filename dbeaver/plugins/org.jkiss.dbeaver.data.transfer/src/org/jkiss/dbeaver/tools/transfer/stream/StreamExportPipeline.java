@@ -0,0 +1,184 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Passes fetched rows to the exporter working in a separate thread.
+ * Rows are sent in batches through a bounded queue, so fetch stage never runs far ahead of the export stage.
+ * Exporter is invoked by a single thread in the fetch order.
+ */
+public class StreamExportPipeline {
+
+    public interface RowExporter {
+        void exportRow(@NotNull Object[] row) throws Exception;
+    }
+
+    private static final Batch END_BATCH = new Batch(0, null);
+
+    private final RowExporter exporter;
+    private final int batchSize;
+    private final BlockingQueue<Batch> queue;
+    private final Thread exportThread;
+    private Batch currentBatch;
+    private volatile Throwable error;
+    private volatile boolean closed;
+
+    public StreamExportPipeline(@NotNull String name, @NotNull RowExporter exporter, int batchSize, int queueSize) {
+        this.exporter = exporter;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.currentBatch = new Batch(batchSize, null);
+        this.exportThread = new Thread(this::exportRows, name);
+        this.exportThread.setDaemon(true);
+        this.exportThread.start();
+    }
+
+    /**
+     * Adds row to the pipeline. Blocks if export stage is too slow.
+     */
+    public void addRow(@NotNull Object[] row) throws DBCException {
+        checkError();
+        currentBatch.rows.add(row);
+        if (currentBatch.rows.size() >= batchSize) {
+            sendBatch(currentBatch);
+            currentBatch = new Batch(batchSize, null);
+        }
+    }
+
+    /**
+     * Waits until all added rows are exported
+     */
+    public void flush() throws DBCException {
+        checkError();
+        Batch batch = currentBatch;
+        currentBatch = new Batch(batchSize, null);
+        CountDownLatch exported = new CountDownLatch(1);
+        sendBatch(new Batch(batch.rows, exported));
+        try {
+            exported.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DBCException("Export interrupted", e);
+        }
+        checkError();
+    }
+
+    /**
+     * Exports all added rows and stops export thread
+     */
+    public void finish() throws DBCException {
+        try {
+            flush();
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Stops export thread. Rows which weren't exported yet are discarded.
+     */
+    public void close() {
+        if (!exportThread.isAlive()) {
+            return;
+        }
+        closed = true;
+        queue.clear();
+        try {
+            queue.put(END_BATCH);
+            exportThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Nullable
+    public Throwable getError() {
+        return error;
+    }
+
+    private void sendBatch(@NotNull Batch batch) throws DBCException {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DBCException("Export interrupted", e);
+        }
+    }
+
+    private void checkError() throws DBCException {
+        Throwable exportError = error;
+        if (exportError instanceof DBCException dbce) {
+            throw dbce;
+        } else if (exportError != null) {
+            throw new DBCException("Error while exporting table row", exportError);
+        } else if (closed) {
+            throw new DBCException("Export pipeline is closed");
+        }
+    }
+
+    private void exportRows() {
+        for (;;) {
+            Batch batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (batch == END_BATCH) {
+                return;
+            }
+            // Rows are skipped after the first error, but fetch stage must not be blocked
+            if (error == null && !closed) {
+                try {
+                    for (Object[] row : batch.rows) {
+                        exporter.exportRow(row);
+                    }
+                } catch (Throwable e) {
+                    error = e;
+                }
+            }
+            if (batch.exported != null) {
+                batch.exported.countDown();
+            }
+        }
+    }
+
+    private static class Batch {
+        private final List<Object[]> rows;
+        @Nullable
+        private final CountDownLatch exported;
+
+        Batch(int size, @Nullable CountDownLatch exported) {
+            this(new ArrayList<>(size), exported);
+        }
+
+        Batch(@NotNull List<Object[]> rows, @Nullable CountDownLatch exported) {
+            this.rows = rows;
+            this.exported = exported;
+        }
+    }
+}
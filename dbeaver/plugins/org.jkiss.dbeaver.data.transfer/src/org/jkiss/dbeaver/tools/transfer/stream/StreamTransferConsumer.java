@@ -123,6 +123,12 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     public static final int OUT_FILE_BUFFER_SIZE = 100000;
 
+    // Pipelined export: rows are passed to the export thread in batches, compressed data in chunks
+    private static final int PIPELINE_BATCH_SIZE = 1000;
+    private static final int PIPELINE_QUEUE_SIZE = 4;
+    private static final int COMPRESS_CHUNK_SIZE = 64 * 1024;
+    private static final int COMPRESS_QUEUE_SIZE = 16;
+
     private IStreamDataExporter processor;
     private StreamConsumerSettings settings;
     private ConsumerRuntimeParameters runtimeParameters;
@@ -132,6 +138,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     private OutputStream outputStream;
     private ZipOutputStream zipStream;
+    private AsyncOutputStream compressStream;
     private PrintWriter writer;
     private int multiFileNumber;
     private long bytesWritten = 0;
@@ -150,6 +157,10 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     private final List<Path> outputFiles = new ArrayList<>();
     private StatOutputStream statStream;
+    private StreamExportPipeline exportPipeline;
+    private Throwable pipelineError;
+    // Size of the current file as seen by the export thread
+    private volatile long pipelineBytesWritten;
     
     public StreamTransferConsumer() {
     }
@@ -192,13 +203,30 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
 
         initialized = true;
+
+        if (settings.isPipelinedExport() && processor.isBackgroundRowExportSupported()) {
+            exportPipeline = new StreamExportPipeline(
+                "Export rows of " + dataContainer.getName(),
+                row -> {
+                    processor.exportRow(session, resultSet, row);
+                    pipelineBytesWritten = bytesWritten;
+                },
+                PIPELINE_BATCH_SIZE,
+                PIPELINE_QUEUE_SIZE);
+        }
     }
 
     @Override
     public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
         try {
             // Check for file split
-            if (settings.isSplitOutFiles() && !parameters.isBinary && !firstRow) {
+            if (settings.isSplitOutFiles() && !parameters.isBinary && !firstRow &&
+                (exportPipeline == null || pipelineBytesWritten >= settings.getMaxOutFileSize())
+            ) {
+                if (exportPipeline != null) {
+                    // Rows in the pipeline belong to the current file. Split and headers are done in this thread.
+                    exportPipeline.flush();
+                }
                 writer.flush();
                 if (bytesWritten >= settings.getMaxOutFileSize()) {
                     // First add footer for the previous file
@@ -206,6 +234,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                     // Make new file with the header
                     createNewOutFile(session.getProgressMonitor());
                     exportHeaderInFile(session);
+                    pipelineBytesWritten = 0;
                 }
             }
 
@@ -213,6 +242,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             Object[] srcRow = fetchRow(session, resultSet, columnMetas);
             Object[] targetRow;
             targetRow = new Object[columnBindings.length];
+            boolean hasContents = false;
             for (int i = 0; i < columnBindings.length; i++) {
                 DBDAttributeBinding column = columnBindings[i];
                 Object value = DBUtils.getAttributeValue(column, columnMetas, srcRow);
@@ -236,10 +266,21 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                         }
                     }
                 }
+                if (value instanceof DBDContent || value instanceof DBDDocument) {
+                    hasContents = true;
+                }
                 targetRow[i] = value;
             }
             // Export row
-            processor.exportRow(session, resultSet, targetRow);
+            if (exportPipeline == null) {
+                processor.exportRow(session, resultSet, targetRow);
+            } else if (hasContents) {
+                // Contents must be read before the cursor moves to the next row
+                exportPipeline.flush();
+                processor.exportRow(session, resultSet, targetRow);
+            } else {
+                exportPipeline.addRow(targetRow);
+            }
             firstRow = false;
         } catch (IOException e) {
             throw new DBCException("IO error", e);
@@ -268,12 +309,35 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
+    private void finishOutputFile(@NotNull DBRProgressMonitor monitor) throws DBException {
+        exportFooterInFile(monitor);
+        try {
+            closeExporter();
+        } catch (IOException e) {
+            throw new DBException("Error writing output file " + outputFile, e);
+        }
+    }
+
     @Override
     public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+        if (exportPipeline != null) {
+            try {
+                exportPipeline.finish();
+            } catch (DBCException e) {
+                pipelineError = e;
+                throw e;
+            } finally {
+                exportPipeline = null;
+            }
+        }
     }
 
     @Override
     public void close() {
+        if (exportPipeline != null) {
+            exportPipeline.close();
+            exportPipeline = null;
+        }
         columnBindings = null;
     }
     
@@ -382,7 +446,11 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                 openOutputStreams(session.getProgressMonitor());
             }
         } catch (IOException e) {
-            closeExporter();
+            try {
+                closeExporter();
+            } catch (IOException e1) {
+                log.debug(e1);
+            }
             throw new DBCException("Data transfer IO error", e);
         }
 
@@ -394,7 +462,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
-    private void closeExporter() {
+    private void closeExporter() throws IOException {
         if (exportSite != null) {
             try {
                 exportSite.flush();
@@ -519,6 +587,14 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             this.zipStream = new ZipOutputStream(this.outputStream);
             this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
             this.outputStream = zipStream;
+            if (settings.isPipelinedExport()) {
+                // Compress in a separate thread
+                this.outputStream = this.compressStream = new AsyncOutputStream(
+                    zipStream,
+                    "Compress " + getOutputFileName(),
+                    COMPRESS_CHUNK_SIZE,
+                    COMPRESS_QUEUE_SIZE);
+            }
         }
 
         // If we need to split files - use stream wrapper to calculate file size
@@ -543,12 +619,23 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
-    private void closeOutputStreams() {
+    private void closeOutputStreams() throws IOException {
         log.debug("\tClose output stream");
         if (this.writer != null) {
             this.writer.flush();
         }
 
+        IOException compressError = null;
+        if (compressStream != null) {
+            try {
+                compressStream.finish();
+            } catch (IOException e) {
+                // Writer doesn't report errors of the underlying stream, so this is the only place to detect them
+                compressError = e;
+            }
+            compressStream = null;
+        }
+
         // Finish zip stream
         if (zipStream != null) {
             try {
@@ -573,6 +660,9 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             ContentUtils.close(outputStream);
             outputStream = null;
         }
+        if (compressError != null) {
+            throw compressError;
+        }
     }
 
     private void createNewOutFile(DBRProgressMonitor monitor) throws IOException {
@@ -624,17 +714,28 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     }
 
     @Override
-    public void finishTransfer(DBRProgressMonitor monitor, boolean last) {
+    public void finishTransfer(DBRProgressMonitor monitor, boolean last) throws DBException {
+        if (!last && pipelineError == null) {
+            finishOutputFile(monitor);
+            return;
+        }
         finishTransfer(monitor, null, last);
     }
 
     @Override
     public void finishTransfer(@NotNull DBRProgressMonitor monitor, @Nullable Throwable error, @Nullable DBTTask task, boolean last) {
+        if (error == null && pipelineError != null) {
+            // Errors thrown from fetchEnd are not reported by producers
+            error = pipelineError;
+        }
         if (!last && error == null) {
-            exportFooterInFile(monitor);
-
-            closeExporter();
-            return;
+            try {
+                finishOutputFile(monitor);
+                return;
+            } catch (DBException e) {
+                // Report to the event processors
+                error = e;
+            }
         }
 
         if (!parameters.isBinary && settings.isOutputClipboard() && error == null) {
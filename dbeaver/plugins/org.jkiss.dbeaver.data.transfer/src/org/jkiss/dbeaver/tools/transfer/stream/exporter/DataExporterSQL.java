@@ -94,6 +94,8 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
     private transient StringBuilder sqlBuffer = new StringBuilder(100);
     private transient long rowCount;
     private SQLDialect dialect;
+    // Captured in the header, rows of plain values may be exported in a background thread
+    private DBPDataSource dataSource;
 
     enum InsertKeyword {
         INSERT("INSERT"),
@@ -190,6 +192,7 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
             }
         }
         columns = getSite().getAttributes();
+        dataSource = session.getDataSource();
         DBPNamedObject source = getSite().getSource();
         if (CommonUtils.isNotEmpty(userTableName)) {
             // We will use custom table name in this case. As is.
@@ -271,7 +274,7 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
                         sqlBuffer.append(identifierCase.transform(KEYWORD_INSERT_INTO));
                     }
             }
-            sqlBuffer.append(" ").append(transformTableNameCase(session.getDataSource(), tableName)).append(" (");
+            sqlBuffer.append(" ").append(transformTableNameCase(dataSource, tableName)).append(" (");
             boolean hasColumn = false;
             for (DBDAttributeBinding column : columns) {
                 if (isSkipColumn(column)) {
@@ -281,7 +284,7 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
                     sqlBuffer.append(',');
                 }
                 hasColumn = true;
-                sqlBuffer.append(transformIdentifierCase(session.getDataSource(), DBUtils.getQuotedIdentifier(column)));
+                sqlBuffer.append(transformIdentifierCase(dataSource, DBUtils.getQuotedIdentifier(column)));
             }
             sqlBuffer.append(") ");
             sqlBuffer.append(identifierCase.transform(KEYWORD_VALUES));
@@ -363,7 +366,7 @@ public class DataExporterSQL extends StreamExporterAbstract implements IAppendab
                     needQuotes = true;
                 }
                 String sqlValue = SQLUtils.convertValueToSQL(
-                    session.getDataSource(),
+                    dataSource,
                     column,
                     column.getValueHandler(),
                     row[i],
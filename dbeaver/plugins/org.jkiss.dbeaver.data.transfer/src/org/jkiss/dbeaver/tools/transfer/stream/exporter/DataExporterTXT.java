@@ -191,6 +191,8 @@ public class DataExporterTXT extends StreamExporterAbstract implements IAppendab
     private final StringBuilder blobContentBuffer = new StringBuilder();
     private DBDAttributeBinding[] columns;
     private int[] colWidths;
+    // Captured in the header, rows of plain values may be exported in a background thread
+    private DBRProgressMonitor sessionMonitor;
     private int blobContentMaxLength = 0;
 
     @Override
@@ -229,6 +231,7 @@ public class DataExporterTXT extends StreamExporterAbstract implements IAppendab
     @Override
     public void exportHeader(DBCSession session) throws DBException, IOException {
         columns = getSite().getAttributes();
+        sessionMonitor = session.getProgressMonitor();
         colWidths = new int[columns.length];
         Arrays.fill(colWidths, minColumnSize);
 
@@ -243,7 +246,7 @@ public class DataExporterTXT extends StreamExporterAbstract implements IAppendab
                 header[index] = new CellTextValue(cell);
             }
 
-            appendRow(header, session.getProgressMonitor());
+            appendRow(header, sessionMonitor);
         }
     }
 
@@ -277,7 +280,7 @@ public class DataExporterTXT extends StreamExporterAbstract implements IAppendab
             }
         }
 
-        appendRow(values, session.getProgressMonitor());
+        appendRow(values, sessionMonitor);
     }
 
     private String stringifyContent(Reader reader) throws IOException {
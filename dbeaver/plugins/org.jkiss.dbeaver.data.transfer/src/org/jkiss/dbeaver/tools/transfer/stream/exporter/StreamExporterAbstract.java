@@ -59,6 +59,11 @@ public abstract class StreamExporterAbstract implements IStreamDataExporter {
         // do nothing
     }
 
+    @Override
+    public boolean isBackgroundRowExportSupported() {
+        return true;
+    }
+
     protected String getValueDisplayString(
         DBDAttributeBinding column,
         Object value)
@@ -34,6 +34,7 @@ import org.jkiss.dbeaver.tools.transfer.stream.*;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.Pair;
+import org.jkiss.utils.csv.CSVParallelReader;
 import org.jkiss.utils.csv.CSVParser;
 import org.jkiss.utils.csv.CSVReader;
 import org.jkiss.utils.io.BOMInputStream;
@@ -58,6 +59,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
     private static final String PROP_EMPTY_STRING_NULL = "emptyStringNull";
     private static final String PROP_ESCAPE_CHAR = "escapeChar";
     private static final String PROP_TRIM_WHITESPACES = "trimWhitespaces";
+    private static final String PROP_PARALLEL_PARSING = "parallelParsing";
     public static final int READ_BUFFER_SIZE = 255 * 1024;
 
     public enum HeaderPosition {
@@ -165,6 +167,16 @@ public class DataImporterCSV extends StreamImporterAbstract {
     }
 
     private CSVReader openCSVReader(Reader reader, Map<String, Object> processorProperties) {
+        return new CSVReader(reader, CSVReader.DEFAULT_SKIP_LINES, createCSVParser(processorProperties));
+    }
+
+    private CSVParallelReader openParallelCSVReader(Reader reader, Map<String, Object> processorProperties) {
+        // Check settings before starting threads
+        createCSVParser(processorProperties);
+        return new CSVParallelReader(reader, () -> createCSVParser(processorProperties));
+    }
+
+    private CSVParser createCSVParser(Map<String, Object> processorProperties) {
         String delimiter = StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER);
         String quoteChar = CommonUtils.toString(processorProperties.get(PROP_QUOTE_CHAR));
         if (CommonUtils.isEmpty(quoteChar)) {
@@ -174,7 +186,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
         if (CommonUtils.isEmpty(escapeChar)) {
             escapeChar = String.valueOf(CSVParser.NULL_CHARACTER);
         }
-        return new CSVReader(reader, delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
+        return new CSVParser(delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
     }
 
     private Reader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties, boolean useBufferedStream) throws UnsupportedEncodingException {
@@ -213,6 +225,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
         boolean emptyStringNull = CommonUtils.getBoolean(properties.get(PROP_EMPTY_STRING_NULL), false);
         boolean trimWhitespaces = CommonUtils.getBoolean(properties.get(PROP_TRIM_WHITESPACES), false);
         String nullValueMark = CommonUtils.toString(properties.get(PROP_NULL_STRING));
+        boolean parallelParsing = CommonUtils.getBoolean(properties.get(PROP_PARALLEL_PARSING), false);
 
         DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
         try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
@@ -224,7 +237,10 @@ public class DataImporterCSV extends StreamImporterAbstract {
             applyTransformHints(resultSet, consumer, properties, PROP_TIMESTAMP_FORMAT, PROP_TIMESTAMP_ZONE);
 
             try (Reader reader = openStreamReader(inputStream, properties, true)) {
-                try (CSVReader csvReader = openCSVReader(reader, properties)) {
+                // Parallel reader parses records ahead in several threads, but returns them in the file order
+                try (CSVReader csvReader = parallelParsing ? null : openCSVReader(reader, properties);
+                     CSVParallelReader parallelReader = parallelParsing ? openParallelCSVReader(reader, properties) : null
+                ) {
 
                     int maxRows = site.getSettings().getMaxRows();
                     int targetAttrSize = entityMapping.getStreamColumns().size();
@@ -233,9 +249,9 @@ public class DataImporterCSV extends StreamImporterAbstract {
                         if (monitor.isCanceled()) {
                             break;
                         }
-                        String[] line = csvReader.readNext();
+                        String[] line = csvReader != null ? csvReader.readNext() : parallelReader.readNext();
                         if (line == null) {
-                            if (csvReader.getParser().isPending()) {
+                            if (csvReader != null ? csvReader.getParser().isPending() : parallelReader.isPending()) {
                                 throw new IOException("Un-terminated quote sequence was detected");
                             }
                             break;
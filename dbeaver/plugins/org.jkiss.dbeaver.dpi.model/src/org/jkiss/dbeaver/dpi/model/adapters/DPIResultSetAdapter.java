@@ -30,6 +30,8 @@ import org.jkiss.dbeaver.model.impl.dpi.DPIResultSetColumn;
 import org.jkiss.dbeaver.model.impl.dpi.DPIServerSmartProxyDataReceiver;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 
 public class DPIResultSetAdapter extends AbstractTypeAdapter<DBCResultSet> {
@@ -46,36 +48,64 @@ public class DPIResultSetAdapter extends AbstractTypeAdapter<DBCResultSet> {
 
     @Override
     public void write(JsonWriter jsonWriter, DBCResultSet resultSet) throws IOException {
-        DPIResultSet dpiResultSet;
-        if (resultSet instanceof DPIResultSet) {
-            dpiResultSet = (DPIResultSet) resultSet;
-        } else {
-            try (var dataReceiver = new DPIServerSmartProxyDataReceiver()) {
-                DBCSession session = resultSet.getSession();
-                dataReceiver.fetchStart(session, resultSet, 0, 0);
-                while (resultSet.nextRow()) {
-                    dataReceiver.fetchRow(session, resultSet);
+        if (resultSet instanceof DPIResultSet dpiResultSet) {
+            writeHeader(jsonWriter, dpiResultSet);
+            for (Object[] row : dpiResultSet.getAllRows()) {
+                writeValue(jsonWriter, row);
+            }
+            writeFooter(jsonWriter);
+            return;
+        }
+        // Write rows as soon as they are fetched, so the whole result set is never kept in memory
+        try (var dataReceiver = new DPIServerSmartProxyDataReceiver()) {
+            DBCSession session = resultSet.getSession();
+            dataReceiver.fetchStart(session, resultSet, 0, 0);
+            DPIResultSet dpiResultSet = dataReceiver.getDpiResultSet();
+            writeHeader(jsonWriter, dpiResultSet);
+            List<Object[]> fetchedRows = dpiResultSet.getAllRows();
+            while (resultSet.nextRow()) {
+                dataReceiver.fetchRow(session, resultSet);
+                for (Object[] row : fetchedRows) {
+                    writeValue(jsonWriter, row);
                 }
-                dataReceiver.fetchEnd(session, resultSet);
-                dpiResultSet = dataReceiver.getDpiResultSet();
-            } catch (Exception e) {
-                throw new IOException("Failed to fetch data from result set: " + e.getMessage(), e);
+                fetchedRows.clear();
             }
+            dataReceiver.fetchEnd(session, resultSet);
+            writeFooter(jsonWriter);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to fetch data from result set: " + e.getMessage(), e);
         }
+    }
+
+    private void writeHeader(JsonWriter jsonWriter, DPIResultSet dpiResultSet) throws IOException {
         jsonWriter.beginObject();
 
         jsonWriter.name(META);
-        jsonWriter.value(gson.toJson(dpiResultSet.getMetaColumns()));
+        writeValue(jsonWriter, dpiResultSet.getMetaColumns());
         jsonWriter.name(SESSION);
-        jsonWriter.value(gson.toJson(dpiResultSet.getSession()));
+        writeValue(jsonWriter, dpiResultSet.getSession());
         jsonWriter.name(STATEMENT);
-        jsonWriter.value(gson.toJson(dpiResultSet.getSourceStatement()));
+        writeValue(jsonWriter, dpiResultSet.getSourceStatement());
         jsonWriter.name(ROWS);
-        jsonWriter.value(gson.toJson(dpiResultSet.getAllRows()));
+        jsonWriter.beginArray();
+    }
 
+    private void writeFooter(JsonWriter jsonWriter) throws IOException {
+        jsonWriter.endArray();
         jsonWriter.endObject();
     }
 
+    // Values are written inline (not as nested json strings), so they are encoded and parsed only once
+    private void writeValue(JsonWriter jsonWriter, Object value) throws IOException {
+        if (value == null) {
+            jsonWriter.nullValue();
+        } else {
+            gson.toJson(value, value.getClass(), jsonWriter);
+        }
+    }
+
     @Override
     public DBCResultSet read(JsonReader jsonReader) throws IOException {
         DBCSession session = null;
@@ -87,24 +117,28 @@ public class DPIResultSetAdapter extends AbstractTypeAdapter<DBCResultSet> {
             String attrName = jsonReader.nextName();
             switch (attrName) {
                 case META:
-                    meta = gson.fromJson(
-                        jsonReader.nextString(),
+                    meta = readValue(
+                        jsonReader,
                         new TypeToken<List<DPIResultSetColumn>>() {
                         }.getType()
                     );
                     break;
                 case SESSION:
-                    session = gson.fromJson(jsonReader.nextString(), DBCSession.class);
+                    session = readValue(jsonReader, DBCSession.class);
                     break;
                 case STATEMENT:
-                    statement = gson.fromJson(jsonReader.nextString(), DBCStatement.class);
+                    statement = readValue(jsonReader, DBCStatement.class);
                     break;
                 case ROWS:
-                    rows = gson.fromJson(
-                        jsonReader.nextString(),
-                        new TypeToken<List<Object[]>>() {
-                        }.getType()
-                    );
+                    rows = new ArrayList<>();
+                    jsonReader.beginArray();
+                    while (jsonReader.hasNext()) {
+                        rows.add(readValue(jsonReader, Object[].class));
+                    }
+                    jsonReader.endArray();
+                    break;
+                default:
+                    jsonReader.skipValue();
                     break;
             }
         }
@@ -112,4 +146,12 @@ public class DPIResultSetAdapter extends AbstractTypeAdapter<DBCResultSet> {
 
         return new DPIResultSet(session, statement, meta, rows);
     }
+
+    private <T> T readValue(JsonReader jsonReader, Type type) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+        return gson.fromJson(jsonReader, type);
+    }
 }
@@ -0,0 +1,285 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Encodes rows in COPY FROM STDIN format.
+ * Binary format is used if all columns have simple types, otherwise rows are encoded as CSV.
+ * Encoded rows are kept in buffer until they are written to the copy stream.
+ */
+public class PostgreCopyEncoder {
+
+    private static final byte[] BINARY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    /**
+     * Column types which have binary encoding
+     */
+    public enum BinaryType {
+        BOOL,
+        INT2,
+        INT4,
+        INT8,
+        FLOAT4,
+        FLOAT8,
+        UUID,
+        TEXT;
+
+        @Nullable
+        public static BinaryType fromTypeOid(long typeOid) {
+            return switch ((int) typeOid) {
+                case PostgreOid.BOOL -> BOOL;
+                case PostgreOid.INT2 -> INT2;
+                case PostgreOid.INT4 -> INT4;
+                case PostgreOid.INT8 -> INT8;
+                case PostgreOid.FLOAT4 -> FLOAT4;
+                case PostgreOid.FLOAT8 -> FLOAT8;
+                case PostgreOid.UUID -> UUID;
+                case PostgreOid.TEXT, PostgreOid.VARCHAR, PostgreOid.BPCHAR, PostgreOid.NAME -> TEXT;
+                default -> null;
+            };
+        }
+    }
+
+    private final BinaryType[] binaryTypes;
+    private final int columnCount;
+    private final ByteArrayOutputStream buffer;
+    private final DataOutputStream output;
+
+    /**
+     * @param binaryTypes column types for binary format, or null for CSV format
+     */
+    public PostgreCopyEncoder(@Nullable BinaryType[] binaryTypes, int columnCount, int bufferSize) {
+        this.binaryTypes = binaryTypes;
+        this.columnCount = columnCount;
+        this.buffer = new ByteArrayOutputStream(bufferSize);
+        this.output = new DataOutputStream(buffer);
+    }
+
+    public boolean isBinary() {
+        return binaryTypes != null;
+    }
+
+    /**
+     * Format options of COPY statement
+     */
+    @NotNull
+    public String getFormatOptions() {
+        return isBinary() ? "FORMAT BINARY" : "FORMAT CSV, ESCAPE '\\'";
+    }
+
+    public int getBufferedSize() {
+        return buffer.size();
+    }
+
+    /**
+     * Writes data header. Must be called in the beginning of each COPY statement.
+     */
+    public void writeHeader() throws IOException {
+        if (isBinary()) {
+            output.write(BINARY_SIGNATURE);
+            // Flags and header extension length
+            output.writeInt(0);
+            output.writeInt(0);
+        }
+    }
+
+    /**
+     * Writes data trailer. Must be called in the end of each COPY statement.
+     */
+    public void writeTrailer() throws IOException {
+        if (isBinary()) {
+            output.writeShort(-1);
+        }
+    }
+
+    /**
+     * Encodes row values.
+     * In binary format TEXT values must be strings.
+     * In CSV format values must be strings or numbers.
+     */
+    public void writeRow(@NotNull Object[] values) throws IOException {
+        if (isBinary()) {
+            output.writeShort(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                writeBinaryValue(binaryTypes[i], values[i]);
+            }
+        } else {
+            for (int i = 0; i < columnCount; i++) {
+                if (i > 0) {
+                    output.write(',');
+                }
+                writeCsvValue(values[i]);
+            }
+            output.write('\n');
+        }
+    }
+
+    /**
+     * Writes buffered data into the copy stream and clears buffer
+     */
+    public void flushBuffer(@NotNull OutputStream stream) throws IOException {
+        if (buffer.size() > 0) {
+            buffer.writeTo(stream);
+            buffer.reset();
+        }
+    }
+
+    public void clearBuffer() {
+        buffer.reset();
+    }
+
+    private void writeCsvValue(@Nullable Object value) throws IOException {
+        if (value == null) {
+            // Unquoted empty value is NULL
+            return;
+        }
+        if (value instanceof Number) {
+            String strValue = value instanceof BigDecimal bd ? bd.toPlainString() : value.toString();
+            output.write(strValue.getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        String strValue = value.toString();
+        if (strValue.indexOf('"') != -1 || strValue.indexOf('\\') != -1) {
+            strValue = strValue.replace("\\", "\\\\").replace("\"", "\\\"");
+        }
+        output.write('"');
+        output.write(strValue.getBytes(StandardCharsets.UTF_8));
+        output.write('"');
+    }
+
+    private void writeBinaryValue(@NotNull BinaryType type, @Nullable Object value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        switch (type) {
+            case BOOL -> {
+                output.writeInt(1);
+                output.writeByte(toBoolean(value) ? 1 : 0);
+            }
+            case INT2 -> {
+                output.writeInt(2);
+                output.writeShort((int) toLong(value, Short.MIN_VALUE, Short.MAX_VALUE));
+            }
+            case INT4 -> {
+                output.writeInt(4);
+                output.writeInt((int) toLong(value, Integer.MIN_VALUE, Integer.MAX_VALUE));
+            }
+            case INT8 -> {
+                output.writeInt(8);
+                output.writeLong(toLong(value, Long.MIN_VALUE, Long.MAX_VALUE));
+            }
+            case FLOAT4 -> {
+                output.writeInt(4);
+                output.writeFloat((float) toDouble(value));
+            }
+            case FLOAT8 -> {
+                output.writeInt(8);
+                output.writeDouble(toDouble(value));
+            }
+            case UUID -> {
+                UUID uuid = toUUID(value);
+                output.writeInt(16);
+                output.writeLong(uuid.getMostSignificantBits());
+                output.writeLong(uuid.getLeastSignificantBits());
+            }
+            case TEXT -> {
+                byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+        }
+    }
+
+    private static boolean toBoolean(@NotNull Object value) throws IOException {
+        if (value instanceof Boolean b) {
+            return b;
+        }
+        if (value instanceof Number n) {
+            return n.intValue() != 0;
+        }
+        return switch (value.toString().trim().toLowerCase()) {
+            case "t", "true", "y", "yes", "on", "1" -> true;
+            case "f", "false", "n", "no", "off", "0" -> false;
+            default -> throw new IOException("Invalid boolean value: " + value);
+        };
+    }
+
+    private static long toLong(@NotNull Object value, long minValue, long maxValue) throws IOException {
+        long result;
+        try {
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                result = ((Number) value).longValue();
+            } else if (value instanceof BigDecimal bd) {
+                result = bd.longValueExact();
+            } else if (value instanceof BigInteger bi) {
+                result = bi.longValueExact();
+            } else if (value instanceof Number n) {
+                double doubleValue = n.doubleValue();
+                result = (long) doubleValue;
+                if (result != doubleValue) {
+                    throw new ArithmeticException("Not an integer value");
+                }
+            } else if (value instanceof Boolean b) {
+                result = b ? 1 : 0;
+            } else {
+                result = Long.parseLong(value.toString().trim());
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IOException("Invalid integer value: " + value, e);
+        }
+        if (result < minValue || result > maxValue) {
+            throw new IOException("Integer value out of range: " + value);
+        }
+        return result;
+    }
+
+    @NotNull
+    private static UUID toUUID(@NotNull Object value) throws IOException {
+        if (value instanceof UUID uuid) {
+            return uuid;
+        }
+        try {
+            return UUID.fromString(value.toString().trim());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid UUID value: " + value, e);
+        }
+    }
+
+    private static double toDouble(@NotNull Object value) throws IOException {
+        if (value instanceof Number n) {
+            return n.doubleValue();
+        }
+        try {
+            return Double.parseDouble(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid floating point value: " + value, e);
+        }
+    }
+}
@@ -30,31 +30,27 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
-import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Bulk loader based on CopyManager
+ * Bulk loader based on CopyManager.
+ * Rows are encoded straight into the COPY stream, without intermediate files:
  *
- * //        new CopyManager((BaseConnection) conn)
- * //            .copyIn(
- * //                "COPY table1 FROM STDIN (FORMAT csv)",
- * //                new BufferedReader(new FileReader("data.csv"))
- * //            );
+ * //        CopyIn copyIn = new CopyManager((BaseConnection) conn).copyIn("COPY table1 FROM STDIN (FORMAT binary)");
+ * //        copyIn.writeToCopy(data, 0, length);
+ * //        copyIn.endCopy();
+ *
+ * Each chunk of rows (commit size) is loaded by a separate COPY statement and committed.
  */
 public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
 
@@ -64,10 +60,21 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
     private PostgreTableReal table;
     private Object copyManager;
     private Method copyInMethod;
-    private Writer csvWriter;
-    private Path csvFile;
+    private Method writeToCopyMethod;
+    private Method endCopyMethod;
+    private Method cancelCopyMethod;
+    private Method isActiveMethod;
+    // Current COPY operation
+    private Object copyIn;
+    private final OutputStream copyStream = new CopyInStream();
+    private String copyQuery;
 
     private AttrMapping[] mappings;
+    private PostgreCopyEncoder encoder;
+    private Object[] rowValues;
+    private int commitAfterRows;
+    private int chunkRows;
+    private long totalRows;
 
     private int copyBufferSize = 100 * 1024;
 
@@ -75,11 +82,35 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         PostgreTableColumn tableAttr;
         DBDValueHandler valueHandler;
         int srcPos;
+        PostgreCopyEncoder.BinaryType binaryType;
 
         AttrMapping(PostgreTableColumn tableAttr, DBDValueHandler valueHandler, int srcPos) {
             this.tableAttr = tableAttr;
             this.valueHandler = valueHandler;
             this.srcPos = srcPos;
+            PostgreDataType dataType = tableAttr.getDataType();
+            this.binaryType = dataType == null ? null : PostgreCopyEncoder.BinaryType.fromTypeOid(dataType.getObjectId());
+        }
+    }
+
+    /**
+     * Writes encoded rows into the current COPY operation
+     */
+    private class CopyInStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(@NotNull byte[] b, int off, int len) throws IOException {
+            try {
+                writeToCopyMethod.invoke(copyIn, b, off, len);
+            } catch (InvocationTargetException e) {
+                throw new IOException(e.getTargetException().getMessage(), e.getTargetException());
+            } catch (IllegalAccessException e) {
+                throw new IOException(e);
+            }
         }
     }
 
@@ -98,6 +129,7 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         Map<String, Object> options) throws DBCException
     {
         this.table = (PostgreTableReal) dataContainer;
+        this.commitAfterRows = batchSize;
         try {
             // Use reflection to create copy manager
             Connection pgConnection = ((JDBCSession) session).getOriginal();
@@ -105,111 +137,134 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
 
             Class<?> baseConnectionClass = Class.forName("org.postgresql.core.BaseConnection", true, driverClassLoader);
             Class<?> copyManagerClass = Class.forName("org.postgresql.copy.CopyManager", true, driverClassLoader);
+            Class<?> copyInClass = Class.forName("org.postgresql.copy.CopyIn", true, driverClassLoader);
 
-            // Get method copyIn(final String sql, Reader from, int bufferSize)
-            copyInMethod = copyManagerClass.getMethod("copyIn", String.class, Reader.class, Integer.TYPE);
+            // Get method copyIn(final String sql) and methods of CopyIn
+            copyInMethod = copyManagerClass.getMethod("copyIn", String.class);
+            writeToCopyMethod = copyInClass.getMethod("writeToCopy", byte[].class, Integer.TYPE, Integer.TYPE);
+            endCopyMethod = copyInClass.getMethod("endCopy");
+            cancelCopyMethod = copyInClass.getMethod("cancelCopy");
+            isActiveMethod = copyInClass.getMethod("isActive");
 
             copyManager = copyManagerClass.getConstructor(baseConnectionClass).newInstance(pgConnection);
 
-            Path tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "postgesql-copy-datasets");
-            csvFile = tempFolder.resolve(CommonUtils.escapeFileName(table.getFullyQualifiedName(DBPEvaluationContext.DML)) + "-" + System.currentTimeMillis() + ".csv");  //$NON-NLS-1$ //$NON-NLS-2$
-            try {
-                Files.createFile(csvFile);
-            } catch (IOException ex) {
-                throw new IOException("Can't create CSV file " + csvFile);
-            }
-
-            csvWriter = new BufferedWriter(
-                Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8),
-                copyBufferSize
-                );
-
             List<? extends PostgreTableColumn> tableAttrs = CommonUtils.safeList(table.getAttributes(session.getProgressMonitor()));
-            tableAttrs.removeIf(a -> a.getOrdinalPosition() < 0);
-            mappings = new AttrMapping[tableAttrs.size()];
-
-            for (int i = 0; i < tableAttrs.size(); i++) {
-                PostgreTableColumn attr = tableAttrs.get(i);
-                DBDValueHandler valueHandler = DBUtils.findValueHandler(session, attr);
-                AttrMapping mapping = new AttrMapping(
-                    attr,
-                    valueHandler,
-                    ArrayUtils.indexOf(attributes, attr)
-                );
-                mappings[i] = mapping;
+            List<AttrMapping> mappingList = new ArrayList<>();
+            for (PostgreTableColumn attr : tableAttrs) {
+                int srcPos = ArrayUtils.indexOf(attributes, attr);
+                if (attr.getOrdinalPosition() < 0 || srcPos < 0) {
+                    // Not mapped columns get default values
+                    continue;
+                }
+                mappingList.add(new AttrMapping(attr, DBUtils.findValueHandler(session, attr), srcPos));
             }
+            mappings = mappingList.toArray(new AttrMapping[0]);
         } catch (Exception e) {
             throw new DBCException("Can't instantiate CopyManager", e);
         }
+
+        PostgreCopyEncoder.BinaryType[] binaryTypes = new PostgreCopyEncoder.BinaryType[mappings.length];
+        for (int i = 0; i < mappings.length; i++) {
+            binaryTypes[i] = mappings[i].binaryType;
+            if (binaryTypes[i] == null) {
+                binaryTypes = null;
+                break;
+            }
+        }
+        encoder = new PostgreCopyEncoder(binaryTypes, mappings.length, copyBufferSize);
+        rowValues = new Object[mappings.length];
+
+        StringBuilder query = new StringBuilder();
+        query.append("COPY ").append(table.getFullyQualifiedName(DBPEvaluationContext.DML)).append(" (");
+        for (int i = 0; i < mappings.length; i++) {
+            if (i > 0) {
+                query.append(", ");
+            }
+            query.append(DBUtils.getQuotedIdentifier(mappings[i].tableAttr));
+        }
+        query.append(") FROM STDIN (").append(encoder.getFormatOptions()).append(")");
+        copyQuery = query.toString();
+
         return this;
     }
 
     @Override
     public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
-        StringBuilder line = new StringBuilder();
-        boolean hasCell = false;
-        for (AttrMapping mapping : mappings) {
-            if (mapping.srcPos >= 0) {
-                if (hasCell) {
-                    line.append(",");
-                }
-                Object srcValue = attributeValues[mapping.srcPos];
-                if (!DBUtils.isNullValue(srcValue)) {
-                    if (srcValue instanceof Number) {
-                        line.append(srcValue);
-                    } else {
-                        String strValue = mapping.valueHandler.getValueDisplayString(
-                            mapping.tableAttr, srcValue, DBDDisplayFormat.NATIVE);
-                        strValue = convertStringValueToCell(strValue);
-                        line.append(strValue);
-                    }
-                }
-                hasCell = true;
+        for (int i = 0; i < mappings.length; i++) {
+            AttrMapping mapping = mappings[i];
+            Object srcValue = attributeValues[mapping.srcPos];
+            if (DBUtils.isNullValue(srcValue)) {
+                rowValues[i] = null;
+            } else if (encoder.isBinary() ? mapping.binaryType != PostgreCopyEncoder.BinaryType.TEXT : srcValue instanceof Number) {
+                rowValues[i] = srcValue;
+            } else {
+                rowValues[i] = mapping.valueHandler.getValueDisplayString(mapping.tableAttr, srcValue, DBDDisplayFormat.NATIVE);
             }
         }
-        line.append("\n");
         try {
-            csvWriter.write(line.toString());
-        } catch (IOException e) {
-            throw new DBCException("Error writing CSV line", e);
+            if (copyIn == null) {
+                startCopy(session);
+            }
+            encoder.writeRow(rowValues);
+            chunkRows++;
+            if (encoder.getBufferedSize() >= copyBufferSize) {
+                encoder.flushBuffer(copyStream);
+            }
+        } catch (Throwable e) {
+            throw makeCopyError(e);
         }
     }
 
-    private String convertStringValueToCell(String strValue) {
-        return '"' +
-            strValue.replace("\"", "\\\"") +
-            '"';
-    }
-
     @Override
     public void flushRows(@NotNull DBCSession session) throws DBCException {
-        try {
-            csvWriter.flush();
-        } catch (IOException e) {
-            throw new DBCException("Error saving CSV data", e);
+        // May be called for each row, so finish COPY only when the commit size is reached
+        if (chunkRows >= commitAfterRows) {
+            endCopy(session);
         }
     }
 
     @Override
     public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
-        try {
-            csvWriter.flush();
-            csvWriter.close();
-        } catch (IOException e) {
-            log.debug(e);
-        }
-        csvWriter = null;
-
-        String tableFQN = table.getFullyQualifiedName(DBPEvaluationContext.DML);
+        endCopy(session);
+        log.debug("Rows have been copied into " + table.getFullyQualifiedName(DBPEvaluationContext.DML) + " (" + totalRows + ")");
+    }
 
-        session.getProgressMonitor().subTask("Copy into " + tableFQN);
+    @Override
+    public void close() {
+        if (copyIn != null) {
+            try {
+                if ((Boolean) isActiveMethod.invoke(copyIn)) {
+                    cancelCopyMethod.invoke(copyIn);
+                }
+            } catch (Throwable e) {
+                log.debug("Error canceling COPY", e);
+            }
+            copyIn = null;
+        }
+        if (encoder != null) {
+            encoder.clearBuffer();
+        }
+    }
 
-        String queryText = "COPY " + tableFQN + " FROM STDIN (FORMAT CSV, ESCAPE '\\')";
+    private void startCopy(@NotNull DBCSession session) throws Exception {
+        session.getProgressMonitor().subTask("Copy into " + table.getFullyQualifiedName(DBPEvaluationContext.DML));
+        encoder.clearBuffer();
+        copyIn = copyInMethod.invoke(copyManager, copyQuery);
+        encoder.writeHeader();
+    }
 
+    private void endCopy(@NotNull DBCSession session) throws DBCException {
+        if (copyIn == null) {
+            return;
+        }
         try {
-            Object rowCount;
-            try (Reader csvReader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
-                rowCount = copyInMethod.invoke(copyManager, queryText, csvReader, copyBufferSize);
+            encoder.writeTrailer();
+            encoder.flushBuffer(copyStream);
+            Object rowCount = endCopyMethod.invoke(copyIn);
+            copyIn = null;
+            chunkRows = 0;
+            if (rowCount instanceof Number count) {
+                totalRows += count.longValue();
             }
 
             // Commit changes
@@ -218,26 +273,19 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
                 session.getProgressMonitor().subTask("Commit COPY");
                 txnManager.commit(session);
             }
-
-            log.debug("CSV has been imported (" + rowCount + ")");
         } catch (Throwable e) {
-            if (e instanceof InvocationTargetException) {
-                e = ((InvocationTargetException) e).getTargetException();
-            }
-            throw new DBCException("Error copying dataset on remote server", e);
+            throw makeCopyError(e);
         }
     }
 
-    @Override
-
-    public void close() {
-        if (csvFile != null && Files.exists(csvFile)) {
-            try {
-                Files.delete(csvFile);
-            } catch (IOException e) {
-                log.debug("Error deleting CSV file " + csvFile, e);
-                csvFile.toFile().deleteOnExit();
-            }
+    @NotNull
+    private static DBCException makeCopyError(@NotNull Throwable e) {
+        if (e instanceof DBCException dbe) {
+            return dbe;
+        }
+        if (e instanceof InvocationTargetException ite) {
+            e = ite.getTargetException();
         }
+        return new DBCException("Error copying dataset on remote server", e);
     }
 }
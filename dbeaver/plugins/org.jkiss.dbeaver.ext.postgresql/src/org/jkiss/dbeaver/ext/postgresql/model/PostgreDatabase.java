@@ -1130,6 +1130,11 @@ public class PostgreDatabase extends JDBCRemoteInstance
             throws SQLException, DBException {
             return new PostgreCharset(owner, dbResult);
         }
+
+        @Override
+        protected boolean isSharedSnapshotSupported() {
+            return true;
+        }
     }
 
     static class CollationCache extends PostgreDatabaseJDBCObjectCache<PostgreCollation> {
@@ -1149,6 +1154,12 @@ public class PostgreDatabase extends JDBCRemoteInstance
         {
             return new PostgreCollation(session.getProgressMonitor(), owner, dbResult);
         }
+
+        @Override
+        protected boolean isSharedSnapshotSupported() {
+            // Collations list depends on the database only and has no array columns
+            return true;
+        }
     }
 
     static class LanguageCache extends PostgreDatabaseJDBCObjectCache<PostgreLanguage> {
@@ -16,12 +16,8 @@
  */
 package org.jkiss.dbeaver.model.websocket.event;
 
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.Log;
-import org.jkiss.dbeaver.model.runtime.AbstractJob;
-import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.websocket.WSEventHandler;
 import org.jkiss.dbeaver.model.websocket.registry.WSEventHandlersRegistry;
 
@@ -29,13 +25,78 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+/**
+ * Dispatches events to the registered handlers.
+ * Events are handled by a single dispatcher thread as soon as they arrive, in the order they were added.
+ */
 public class WSEventController {
     private static final Log log = Log.getLog(WSEventController.class);
 
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final long STOP_TIMEOUT = 5000;
+    private static final long[] LATENCY_BUCKETS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+    private static final long[] BATCH_SIZE_BUCKETS = {1, 2, 5, 10, 20, 50, MAX_BATCH_SIZE};
+
     private final Map<String, List<WSEventHandler>> eventHandlersByType = new HashMap<>();
-    protected final List<WSEvent> eventsPool = new ArrayList<>();
-    private boolean forceSkipEvents = false;
+    protected final BlockingQueue<WSEvent> eventsPool = new LinkedBlockingQueue<>();
+    private volatile boolean forceSkipEvents = false;
+    private Thread dispatcherThread;
+
+    private final AtomicLong dispatchedEventsCount = new AtomicLong();
+    private final AtomicLong totalDispatchLatency = new AtomicLong();
+    private final AtomicLong maxDispatchLatency = new AtomicLong();
+    private final Histogram dispatchLatencyHistogram = new Histogram(LATENCY_BUCKETS);
+    private final Histogram batchSizeHistogram = new Histogram(BATCH_SIZE_BUCKETS);
+
+    /**
+     * Counts values in buckets with fixed upper bounds, values above the last bound go to the overflow bucket
+     */
+    private static final class Histogram {
+        private final long[] bounds;
+        private final AtomicLongArray counts;
+        private final AtomicLong max = new AtomicLong();
+
+        Histogram(long[] bounds) {
+            this.bounds = bounds;
+            this.counts = new AtomicLongArray(bounds.length + 1);
+        }
+
+        void add(long value) {
+            int bucket = 0;
+            while (bucket < bounds.length && value > bounds[bucket]) {
+                bucket++;
+            }
+            counts.incrementAndGet(bucket);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        /**
+         * Returns upper bound of the bucket which contains the percentile, or maximum value for the overflow bucket
+         */
+        long getPercentile(double percentile) {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                total += counts.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * percentile / 100);
+            long count = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                count += counts.get(i);
+                if (count >= rank) {
+                    return Math.min(bounds[i], max.get());
+                }
+            }
+            return max.get();
+        }
+    }
 
     public WSEventController() {
 
@@ -56,16 +117,37 @@ public class WSEventController {
         if (!event.isForceProcessed() && forceSkipEvents) {
             return;
         }
-        synchronized (eventsPool) {
-            eventsPool.add(event);
+        eventsPool.add(event);
+    }
+
+    /**
+     * Starts events dispatcher thread
+     */
+    public synchronized void scheduleCheckJob() {
+        if (dispatcherThread != null && dispatcherThread.isAlive()) {
+            return;
         }
+        dispatcherThread = new Thread(this::dispatchEvents, "CloudBeaver events dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
     }
 
     /**
-     * Add cb event to the event pool
+     * Stops events dispatcher thread. Events which were not dispatched yet are dropped.
      */
-    public void scheduleCheckJob() {
-        new CBEventCheckJob().schedule();
+    public synchronized void stopEventsDispatcher() {
+        if (dispatcherThread == null) {
+            return;
+        }
+        dispatcherThread.interrupt();
+        try {
+            // Let the current event handler finish
+            dispatcherThread.join(STOP_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dispatcherThread = null;
+        eventsPool.clear();
     }
 
     /**
@@ -75,42 +157,86 @@ public class WSEventController {
         this.forceSkipEvents = forceSkipEvents;
     }
 
+    /**
+     * Returns number of events waiting for dispatch
+     */
+    public int getPendingEventsCount() {
+        return eventsPool.size();
+    }
 
-    private class CBEventCheckJob extends AbstractJob {
-        private static final long CHECK_PERIOD = 1000;
+    public long getDispatchedEventsCount() {
+        return dispatchedEventsCount.get();
+    }
 
-        protected CBEventCheckJob() {
-            super("CloudBeaver events job");
-            setUser(false);
-            setSystem(true);
-        }
+    /**
+     * Returns average time in milliseconds between event creation and its dispatch
+     */
+    public long getAverageDispatchLatency() {
+        long count = dispatchedEventsCount.get();
+        return count == 0 ? 0 : totalDispatchLatency.get() / count;
+    }
 
-        @Override
-        protected IStatus run(DBRProgressMonitor monitor) {
-            List<WSEvent> events;
+    /**
+     * Returns maximum time in milliseconds between event creation and its dispatch
+     */
+    public long getMaxDispatchLatency() {
+        return maxDispatchLatency.get();
+    }
 
-            synchronized (eventsPool) {
-                events = List.copyOf(eventsPool);
-                eventsPool.clear();
-            }
-            if (events.isEmpty()) {
-                schedule(CHECK_PERIOD);
-                return Status.OK_STATUS;
+    /**
+     * Returns percentile of time in milliseconds between event creation and its dispatch.
+     * Latencies are counted in buckets, so the result is the upper bound of the percentile bucket.
+     */
+    public long getDispatchLatencyPercentile(double percentile) {
+        return dispatchLatencyHistogram.getPercentile(percentile);
+    }
+
+    /**
+     * Returns percentile of number of events dispatched per dispatcher wake-up
+     */
+    public long getBatchSizePercentile(double percentile) {
+        return batchSizeHistogram.getPercentile(percentile);
+    }
+
+    private void dispatchEvents() {
+        List<WSEvent> events = new ArrayList<>(MAX_BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                events.add(eventsPool.take());
+            } catch (InterruptedException e) {
+                break;
             }
+            // Take everything accumulated under load at once
+            eventsPool.drainTo(events, MAX_BATCH_SIZE - 1);
+            batchSizeHistogram.add(events.size());
             for (WSEvent event : events) {
-                eventHandlersByType.getOrDefault(event.getTopicId(), List.of()).forEach(handler -> {
-                    try {
-                        handler.handleEvent(event);
-                    } catch (Exception e) {
-                        log.error(
-                            "Error on event handle " + event.getTopicId(),
-                            e
-                        );
-                    }
-                });
+                try {
+                    handleEvent(event);
+                } catch (Throwable e) {
+                    // Dispatcher must survive any event failure
+                    log.error("Error dispatching event " + event.getTopicId(), e);
+                }
             }
-            schedule(CHECK_PERIOD);
-            return Status.OK_STATUS;
+            events.clear();
         }
     }
+
+    private void handleEvent(@NotNull WSEvent event) {
+        long latency = Math.max(0, System.currentTimeMillis() - event.getTimestamp());
+        dispatchedEventsCount.incrementAndGet();
+        totalDispatchLatency.addAndGet(latency);
+        maxDispatchLatency.accumulateAndGet(latency, Math::max);
+        dispatchLatencyHistogram.add(latency);
+
+        eventHandlersByType.getOrDefault(event.getTopicId(), List.of()).forEach(handler -> {
+            try {
+                handler.handleEvent(event);
+            } catch (Throwable e) {
+                log.error(
+                    "Error on event handle " + event.getTopicId(),
+                    e
+                );
+            }
+        });
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.websocket.event;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.websocket.WSConstants;
+import org.jkiss.dbeaver.model.websocket.gson.HiddenField;
+
+import java.util.List;
+
+/**
+ * Access tokens were revoked or user was disabled.
+ * Cluster nodes must drop cached token info and permissions, sessions are not closed.
+ */
+public class WSUserTokensInvalidatedEvent extends WSAbstractEvent {
+    public static final String ID = "cb_user_tokens_invalidated";
+    @Nullable
+    @HiddenField
+    private final String invalidatedUserId;
+    @NotNull
+    @HiddenField
+    private final List<String> invalidatedSessionIds;
+
+    public WSUserTokensInvalidatedEvent(@Nullable String invalidatedUserId, @NotNull List<String> invalidatedSessionIds) {
+        super(ID, WSConstants.TOPIC_USER);
+        this.invalidatedUserId = invalidatedUserId;
+        this.invalidatedSessionIds = invalidatedSessionIds;
+    }
+
+    /**
+     * User which tokens and permissions are invalidated, null if only tokens of sessions are invalidated
+     */
+    @Nullable
+    public String getInvalidatedUserId() {
+        return invalidatedUserId;
+    }
+
+    @NotNull
+    public List<String> getInvalidatedSessionIds() {
+        return invalidatedSessionIds;
+    }
+}
@@ -0,0 +1,537 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Immutable copy of metadata query results.
+ * Snapshot is recorded while cache reads the original result set and then may be replayed
+ * any number of times (concurrently) as a read-only forward-only result set.
+ * Only simple values (strings, numbers, dates, binaries) are kept. Results with
+ * connection bound values (arrays, LOBs, structs) are never turned into snapshots.
+ */
+public class JDBCMetadataSnapshot {
+
+    private final Column[] columns;
+    private final Map<String, Integer> columnIndexes;
+    private final List<Row> rows;
+    private final long createTime = System.currentTimeMillis();
+
+    /**
+     * @param properties values of the source result set metadata methods for this column, by method name
+     */
+    private record Column(@NotNull String label, @NotNull Map<String, Object> properties) {
+    }
+
+    /**
+     * @param values values returned by getObject
+     * @param texts  values returned by getString, if they are different from values string representation
+     */
+    private record Row(@NotNull Object[] values, @Nullable String[] texts) {
+    }
+
+    private JDBCMetadataSnapshot(@NotNull Column[] columns, @NotNull List<Row> rows) {
+        this.columns = columns;
+        this.columnIndexes = makeColumnIndexes(columns);
+        this.rows = rows;
+    }
+
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    public long getCreateTime() {
+        return createTime;
+    }
+
+    /**
+     * Opens new result set over snapshot rows.
+     *
+     * @param statement statement returned by the result set getStatement
+     */
+    @NotNull
+    public ResultSet openResultSet(@Nullable Statement statement) {
+        return (ResultSet) Proxy.newProxyInstance(
+            JDBCMetadataSnapshot.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class},
+            new SnapshotCursor(this, statement));
+    }
+
+    /**
+     * Wraps source result set. All calls are passed to the source result set, values of each row
+     * are copied when cursor moves to it.
+     * When source result set is read till the end, snapshot of its rows is passed to the consumer.
+     * Snapshot is not created if result set was closed before the end, contains more than maxRows rows
+     * or contains values which can't be copied.
+     */
+    @NotNull
+    public static ResultSet recordResultSet(
+        @NotNull ResultSet source,
+        int maxRows,
+        @NotNull Consumer<JDBCMetadataSnapshot> snapshotConsumer
+    ) {
+        Column[] columns;
+        try {
+            columns = readColumns(source.getMetaData());
+        } catch (Exception e) {
+            // Can't describe results, don't record them
+            return source;
+        }
+        if (columns == null) {
+            return source;
+        }
+        return (ResultSet) Proxy.newProxyInstance(
+            JDBCMetadataSnapshot.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class},
+            new RecordingCursor(columns, source, maxRows, snapshotConsumer));
+    }
+
+    @NotNull
+    private static Map<String, Integer> makeColumnIndexes(@NotNull Column[] columns) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            indexes.putIfAbsent(columns[i].label().toLowerCase(Locale.ENGLISH), i);
+        }
+        return indexes;
+    }
+
+    /**
+     * Reads column descriptions. Returns null if results contain values which can't be copied.
+     */
+    @Nullable
+    private static Column[] readColumns(@NotNull ResultSetMetaData metaData) throws SQLException {
+        Column[] columns = new Column[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            int type = metaData.getColumnType(i + 1);
+            if (!isCopyableType(type)) {
+                return null;
+            }
+            Map<String, Object> properties = new HashMap<>();
+            for (Method method : ResultSetMetaData.class.getMethods()) {
+                if (method.getParameterCount() == 1 && method.getParameterTypes()[0] == int.class) {
+                    try {
+                        properties.put(method.getName(), method.invoke(metaData, i + 1));
+                    } catch (Exception e) {
+                        // Not supported by the driver, replayed result set won't support it either
+                    }
+                }
+            }
+            String label = metaData.getColumnLabel(i + 1);
+            columns[i] = new Column(label == null ? String.valueOf(metaData.getColumnName(i + 1)) : label, properties);
+        }
+        return columns;
+    }
+
+    private static boolean isCopyableType(int type) {
+        return switch (type) {
+            case Types.ARRAY, Types.BLOB, Types.CLOB, Types.NCLOB, Types.STRUCT, Types.REF, Types.SQLXML, Types.DATALINK,
+                Types.LONGVARCHAR, Types.LONGNVARCHAR, Types.LONGVARBINARY -> false;
+            default -> true;
+        };
+    }
+
+    private static boolean isCopyableValue(@Nullable Object value) {
+        return !(value instanceof Array || value instanceof Blob || value instanceof Clob || value instanceof Struct ||
+            value instanceof Ref || value instanceof SQLXML || value instanceof InputStream || value instanceof Reader);
+    }
+
+    /**
+     * Result set over snapshot rows.
+     */
+    private static class SnapshotCursor implements InvocationHandler {
+        private final Column[] columns;
+        private final Map<String, Integer> columnIndexes;
+        private final Iterator<Row> iterator;
+        @Nullable
+        private final Statement statement;
+        private Row currentRow;
+        private int rowNumber;
+        private boolean lastValueNull;
+        private boolean closed;
+
+        SnapshotCursor(@NotNull JDBCMetadataSnapshot snapshot, @Nullable Statement statement) {
+            this.columns = snapshot.columns;
+            this.columnIndexes = snapshot.columnIndexes;
+            this.iterator = snapshot.rows.iterator();
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (methodName) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "Metadata snapshot result set";
+                };
+            }
+            switch (methodName) {
+                case "next":
+                    checkOpen();
+                    if (iterator.hasNext()) {
+                        currentRow = iterator.next();
+                        rowNumber++;
+                        return true;
+                    }
+                    currentRow = null;
+                    return false;
+                case "close":
+                    closed = true;
+                    currentRow = null;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "wasNull":
+                    return lastValueNull;
+                case "findColumn":
+                    return findColumn((String) args[0]) + 1;
+                case "getMetaData":
+                    return makeMetaData();
+                case "getStatement":
+                    return statement;
+                case "getRow":
+                    return currentRow == null ? 0 : rowNumber;
+                case "getType":
+                    return ResultSet.TYPE_FORWARD_ONLY;
+                case "getConcurrency":
+                    return ResultSet.CONCUR_READ_ONLY;
+                case "getFetchDirection":
+                    return ResultSet.FETCH_FORWARD;
+                case "getFetchSize":
+                    return 0;
+                case "getHoldability":
+                    return ResultSet.CLOSE_CURSORS_AT_COMMIT;
+                case "setFetchSize":
+                case "setFetchDirection":
+                case "clearWarnings":
+                    return null;
+                case "getWarnings":
+                    return null;
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    throw new SQLException("Metadata snapshot result set is not a wrapper for " + args[0]);
+                default:
+                    break;
+            }
+            if (methodName.startsWith("get") && args != null && args.length >= 1 &&
+                (args[0] instanceof Integer || args[0] instanceof String)
+            ) {
+                int index = getColumnIndex(args[0]);
+                Object value = currentRow.values()[index];
+                lastValueNull = value == null;
+                if (methodName.equals("getString") || methodName.equals("getNString")) {
+                    String[] texts = currentRow.texts();
+                    return texts != null && texts[index] != null ? texts[index] : convertValue(String.class, value);
+                }
+                if (methodName.equals("getObject") && args.length == 2 && args[1] instanceof Class<?> type) {
+                    return value == null || type.isInstance(value) ? value : convertValue(type, value);
+                }
+                return convertValue(method.getReturnType(), value);
+            }
+            throw new SQLFeatureNotSupportedException("Method " + methodName + " is not supported by metadata snapshot");
+        }
+
+        private void checkOpen() throws SQLException {
+            if (closed) {
+                throw new SQLException("Metadata snapshot result set is closed");
+            }
+        }
+
+        private int findColumn(@NotNull String label) throws SQLException {
+            Integer index = columnIndexes.get(label.toLowerCase(Locale.ENGLISH));
+            if (index == null) {
+                throw new SQLException("Column '" + label + "' not found in result set");
+            }
+            return index;
+        }
+
+        private int getColumnIndex(@NotNull Object column) throws SQLException {
+            checkOpen();
+            if (currentRow == null) {
+                throw new SQLException("No current row in metadata snapshot");
+            }
+            if (column instanceof Integer columnNumber) {
+                if (columnNumber < 1 || columnNumber > columns.length) {
+                    throw new SQLException("Column index " + columnNumber + " is out of range");
+                }
+                return columnNumber - 1;
+            }
+            return findColumn((String) column);
+        }
+
+        @NotNull
+        private ResultSetMetaData makeMetaData() {
+            return (ResultSetMetaData) Proxy.newProxyInstance(
+                JDBCMetadataSnapshot.class.getClassLoader(),
+                new Class<?>[]{ResultSetMetaData.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount":
+                            return columns.length;
+                        case "isWrapperFor":
+                            return ((Class<?>) args[0]).isInstance(proxy);
+                        case "unwrap":
+                            if (((Class<?>) args[0]).isInstance(proxy)) {
+                                return proxy;
+                            }
+                            throw new SQLException("Metadata snapshot is not a wrapper for " + args[0]);
+                        default:
+                            break;
+                    }
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.getName().equals("equals") ? proxy == args[0] :
+                            method.getName().equals("hashCode") ? System.identityHashCode(proxy) : "Metadata snapshot";
+                    }
+                    if (args != null && args.length == 1 && args[0] instanceof Integer columnNumber) {
+                        if (columnNumber < 1 || columnNumber > columns.length) {
+                            throw new SQLException("Column index " + columnNumber + " is out of range");
+                        }
+                        Map<String, Object> properties = columns[columnNumber - 1].properties();
+                        if (properties.containsKey(method.getName())) {
+                            return properties.get(method.getName());
+                        }
+                    }
+                    throw new SQLFeatureNotSupportedException(
+                        "Method " + method.getName() + " is not supported by metadata snapshot");
+                });
+        }
+    }
+
+    /**
+     * Passes all calls to the source result set and copies values of each row.
+     */
+    private static class RecordingCursor implements InvocationHandler {
+        private final Column[] columns;
+        private final ResultSet source;
+        private final int maxRows;
+        private final Consumer<JDBCMetadataSnapshot> snapshotConsumer;
+        @Nullable
+        private List<Row> recordedRows = new ArrayList<>();
+
+        RecordingCursor(
+            @NotNull Column[] columns,
+            @NotNull ResultSet source,
+            int maxRows,
+            @NotNull Consumer<JDBCMetadataSnapshot> snapshotConsumer
+        ) {
+            this.columns = columns;
+            this.source = source;
+            this.maxRows = maxRows;
+            this.snapshotConsumer = snapshotConsumer;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> source.toString();
+                };
+            }
+            switch (method.getName()) {
+                case "next":
+                    if (source.next()) {
+                        recordRow();
+                        return true;
+                    }
+                    if (recordedRows != null) {
+                        List<Row> rows = recordedRows;
+                        recordedRows = null;
+                        snapshotConsumer.accept(new JDBCMetadataSnapshot(columns, Collections.unmodifiableList(rows)));
+                    }
+                    return false;
+                case "close":
+                    recordedRows = null;
+                    source.close();
+                    return null;
+                default:
+                    try {
+                        return method.invoke(source, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+            }
+        }
+
+        /**
+         * Copies values of the current row. Values are read before the caller reads them,
+         * so results with stream values are never recorded (see {@link #isCopyableType(int)}).
+         */
+        private void recordRow() {
+            if (recordedRows == null) {
+                return;
+            }
+            if (recordedRows.size() >= maxRows) {
+                recordedRows = null;
+                return;
+            }
+            Object[] values = new Object[columns.length];
+            String[] texts = null;
+            try {
+                for (int i = 0; i < columns.length; i++) {
+                    Object value = source.getObject(i + 1);
+                    if (!isCopyableValue(value)) {
+                        recordedRows = null;
+                        return;
+                    }
+                    values[i] = value;
+                    if (value != null && !(value instanceof String)) {
+                        // Drivers format some values in their own way (e.g. booleans)
+                        String text = source.getString(i + 1);
+                        if (text != null && !text.equals(convertValue(String.class, value))) {
+                            if (texts == null) {
+                                texts = new String[columns.length];
+                            }
+                            texts[i] = text;
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                // Errors are reported when the caller reads the values, just don't share these results
+                recordedRows = null;
+                return;
+            }
+            recordedRows.add(new Row(values, texts));
+        }
+    }
+
+    @Nullable
+    private static Object convertValue(@NotNull Class<?> returnType, @Nullable Object value) throws SQLException {
+        try {
+            if (returnType == String.class) {
+                if (value == null || value instanceof String) {
+                    return value;
+                }
+                if (value instanceof BigDecimal bigDecimal) {
+                    return bigDecimal.toPlainString();
+                }
+                return value.toString();
+            } else if (returnType == Object.class) {
+                return value;
+            } else if (returnType == boolean.class || returnType == Boolean.class) {
+                return toBoolean(value);
+            } else if (returnType.isPrimitive() || Number.class.isAssignableFrom(returnType)) {
+                return toNumber(returnType, value);
+            } else if (value == null) {
+                return null;
+            } else if (returnType.isInstance(value)) {
+                return value;
+            } else if (returnType == Timestamp.class || returnType == java.sql.Date.class || returnType == Time.class) {
+                Timestamp timestamp = toTimestamp(value);
+                if (timestamp != null) {
+                    if (returnType == Timestamp.class) {
+                        return timestamp;
+                    }
+                    return returnType == Time.class ? new Time(timestamp.getTime()) : new java.sql.Date(timestamp.getTime());
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new SQLException("Can't convert value '" + value + "' to " + returnType.getSimpleName(), e);
+        }
+        throw new SQLException("Can't convert value of type " + value.getClass().getName() + " to " + returnType.getSimpleName());
+    }
+
+    private static boolean toBoolean(@Nullable Object value) {
+        if (value == null) {
+            return false;
+        } else if (value instanceof Boolean bool) {
+            return bool;
+        } else if (value instanceof Number number) {
+            return number.intValue() != 0;
+        }
+        String strValue = value.toString().trim().toLowerCase(Locale.ENGLISH);
+        return switch (strValue) {
+            case "t", "true", "y", "yes", "1" -> true;
+            default -> false;
+        };
+    }
+
+    @NotNull
+    private static Object toNumber(@NotNull Class<?> type, @Nullable Object value) {
+        if (value == null) {
+            return type == BigDecimal.class ? null : castNumber(type, 0);
+        }
+        if (type == BigDecimal.class) {
+            if (value instanceof BigDecimal) {
+                return value;
+            }
+            return new BigDecimal(value instanceof Boolean bool ? (bool ? "1" : "0") : value.toString().trim());
+        }
+        Number number;
+        if (value instanceof Number num) {
+            number = num;
+        } else if (value instanceof Boolean bool) {
+            number = bool ? 1 : 0;
+        } else {
+            number = new BigDecimal(value.toString().trim());
+        }
+        return castNumber(type, number);
+    }
+
+    @NotNull
+    private static Object castNumber(@NotNull Class<?> type, @NotNull Number number) {
+        if (type == int.class || type == Integer.class) {
+            return number.intValue();
+        } else if (type == long.class || type == Long.class) {
+            return number.longValue();
+        } else if (type == short.class || type == Short.class) {
+            return number.shortValue();
+        } else if (type == byte.class || type == Byte.class) {
+            return number.byteValue();
+        } else if (type == double.class || type == Double.class) {
+            return number.doubleValue();
+        } else if (type == float.class || type == Float.class) {
+            return number.floatValue();
+        }
+        return number;
+    }
+
+    @Nullable
+    private static Timestamp toTimestamp(@NotNull Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp;
+        } else if (value instanceof java.util.Date date) {
+            return new Timestamp(date.getTime());
+        } else if (value instanceof LocalDateTime localDateTime) {
+            return Timestamp.valueOf(localDateTime);
+        } else if (value instanceof OffsetDateTime offsetDateTime) {
+            return Timestamp.from(offsetDateTime.toInstant());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCPreparedStatementImpl;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.utils.CommonUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide store of metadata query snapshots.
+ * Data sources with the same connection configuration and the same user (database role) read
+ * the same metadata, so results of cache loading queries are shared between them.
+ * Each data source still creates its own objects from snapshot rows, so snapshots are never modified.
+ *
+ * Store is disabled by default. It makes sense in multi-user servers, where many data source instances
+ * are created for the same connection.
+ */
+public class JDBCMetadataSnapshotStore {
+
+    private static final Log log = Log.getLog(JDBCMetadataSnapshotStore.class);
+
+    public static final long DEFAULT_SNAPSHOT_TTL = 10 * 60 * 1000;
+    public static final int MAX_SNAPSHOT_ROWS = 100_000;
+    public static final long MAX_TOTAL_ROWS = 2_000_000;
+
+    private static final JDBCMetadataSnapshotStore INSTANCE = new JDBCMetadataSnapshotStore();
+
+    public static JDBCMetadataSnapshotStore getInstance() {
+        return INSTANCE;
+    }
+
+    private record SnapshotKey(
+        @NotNull String projectId,
+        @NotNull String dataSourceId,
+        @NotNull String configDigest,
+        @NotNull String cacheName,
+        @NotNull String objectPath,
+        @NotNull String query,
+        @NotNull String parameters
+    ) {
+    }
+
+    private final Map<SnapshotKey, JDBCMetadataSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong totalRows = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    // Snapshots which were being recorded during invalidation are dropped
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private volatile boolean enabled;
+    private volatile long snapshotTTL = DEFAULT_SNAPSHOT_TTL;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Sets maximum snapshot age in milliseconds. Older snapshots are read from database again.
+     */
+    public void setSnapshotTTL(long snapshotTTL) {
+        this.snapshotTTL = snapshotTTL;
+    }
+
+    /**
+     * Executes cache loading statement or replays its snapshot.
+     *
+     * @param cache     cache which loads objects
+     * @param forObject object which children are loaded (if any)
+     * @return statement result set, or null if statement has no results
+     */
+    @Nullable
+    public JDBCResultSet executeStatement(
+        @NotNull JDBCSession session,
+        @NotNull JDBCStatement dbStat,
+        @NotNull DBSObject owner,
+        @NotNull Object cache,
+        @Nullable DBSObject forObject
+    ) throws DBCException, SQLException {
+        SnapshotKey key = enabled ? makeSnapshotKey(dbStat, owner, cache, forObject) : null;
+        if (key == null) {
+            dbStat.executeStatement();
+            return dbStat.getResultSet();
+        }
+        JDBCMetadataSnapshot snapshot = snapshots.get(key);
+        if (snapshot != null) {
+            if (System.currentTimeMillis() - snapshot.getCreateTime() < snapshotTTL) {
+                hitCount.incrementAndGet();
+                return JDBCResultSetImpl.makeResultSet(session, dbStat, snapshot.openResultSet(dbStat), dbStat.getQueryString(), true);
+            }
+            removeSnapshot(key, snapshot);
+        }
+        missCount.incrementAndGet();
+        long invalidation = invalidationCount.get();
+        dbStat.executeStatement();
+        JDBCResultSet dbResult = dbStat.getResultSet();
+        if (dbResult == null) {
+            return null;
+        }
+        return JDBCResultSetImpl.makeResultSet(
+            session,
+            dbStat,
+            JDBCMetadataSnapshot.recordResultSet(dbResult, MAX_SNAPSHOT_ROWS, s -> addSnapshot(key, s, invalidation)),
+            dbStat.getQueryString(),
+            true);
+    }
+
+    /**
+     * Removes snapshots of the specified data source.
+     * Must be called when data source metadata is refreshed or changed.
+     */
+    public void invalidate(@NotNull DBPDataSourceContainer dataSourceContainer) {
+        if (dataSourceContainer.getProject() != null) {
+            invalidate(dataSourceContainer.getProject().getId(), dataSourceContainer.getId());
+        }
+    }
+
+    public void invalidate(@NotNull String projectId, @NotNull String dataSourceId) {
+        invalidationCount.incrementAndGet();
+        snapshots.entrySet().removeIf(entry -> {
+            SnapshotKey key = entry.getKey();
+            if (key.projectId().equals(projectId) && key.dataSourceId().equals(dataSourceId)) {
+                totalRows.addAndGet(-entry.getValue().getRowCount());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public void invalidateAll() {
+        invalidationCount.incrementAndGet();
+        snapshots.clear();
+        totalRows.set(0);
+    }
+
+    public int getSnapshotsCount() {
+        return snapshots.size();
+    }
+
+    public long getSnapshotRowsCount() {
+        return totalRows.get();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private void addSnapshot(@NotNull SnapshotKey key, @NotNull JDBCMetadataSnapshot snapshot, long invalidation) {
+        if (!enabled || invalidationCount.get() != invalidation) {
+            return;
+        }
+        if (totalRows.get() + snapshot.getRowCount() > MAX_TOTAL_ROWS) {
+            log.debug("Metadata snapshots limit exceeded, clear snapshots");
+            invalidateAll();
+        }
+        JDBCMetadataSnapshot oldSnapshot = snapshots.put(key, snapshot);
+        totalRows.addAndGet(snapshot.getRowCount() - (oldSnapshot == null ? 0 : oldSnapshot.getRowCount()));
+    }
+
+    private void removeSnapshot(@NotNull SnapshotKey key, @NotNull JDBCMetadataSnapshot snapshot) {
+        if (snapshots.remove(key, snapshot)) {
+            totalRows.addAndGet(-snapshot.getRowCount());
+        }
+    }
+
+    @Nullable
+    private static SnapshotKey makeSnapshotKey(
+        @NotNull JDBCStatement dbStat,
+        @NotNull DBSObject owner,
+        @NotNull Object cache,
+        @Nullable DBSObject forObject
+    ) {
+        DBPDataSource dataSource = owner.getDataSource();
+        DBPDataSourceContainer container = dataSource == null ? null : dataSource.getContainer();
+        if (container == null || container.getProject() == null) {
+            return null;
+        }
+        DBPConnectionConfiguration configuration = container.getActualConnectionConfiguration();
+        String query = dbStat.getQueryString();
+        if (configuration == null || CommonUtils.isEmpty(configuration.getUserName()) || CommonUtils.isEmpty(query)) {
+            // Without user name we can't say whether metadata is visible for other users
+            return null;
+        }
+        String parameters = "";
+        if (dbStat instanceof PreparedStatement) {
+            Map<Object, Object> boundValues = dbStat instanceof JDBCPreparedStatementImpl preparedStatement ?
+                preparedStatement.getBoundValues() : null;
+            if (boundValues == null) {
+                // Parameter values are unknown, results of different loads can't be told apart
+                return null;
+            }
+            parameters = makeParametersKey(boundValues);
+        }
+        String objectPath = DBUtils.getObjectFullId(owner);
+        if (forObject != null) {
+            objectPath += "/" + forObject.getName();
+        }
+        return new SnapshotKey(
+            container.getProject().getId(),
+            container.getId(),
+            makeConfigurationDigest(container, configuration),
+            cache.getClass().getName(),
+            objectPath,
+            query,
+            parameters);
+    }
+
+    @NotNull
+    private static String makeParametersKey(@NotNull Map<Object, Object> boundValues) {
+        Map<String, String> parameters = new TreeMap<>();
+        for (Map.Entry<Object, Object> entry : boundValues.entrySet()) {
+            Object value = entry.getValue();
+            parameters.put(
+                String.valueOf(entry.getKey()),
+                value == null ? "NULL" : value.getClass().getName() + ":" + value);
+        }
+        return parameters.toString();
+    }
+
+    /**
+     * Configuration digest changes whenever connection settings or credentials are changed.
+     * Settings may contain secrets, so only their digest is kept.
+     */
+    @NotNull
+    private static String makeConfigurationDigest(
+        @NotNull DBPDataSourceContainer container,
+        @NotNull DBPConnectionConfiguration configuration
+    ) {
+        StringBuilder settings = new StringBuilder();
+        settings.append(container.getDriver().getFullId()).append('\n')
+            .append(configuration.getUrl()).append('\n')
+            .append(configuration.getHostName()).append('\n')
+            .append(configuration.getHostPort()).append('\n')
+            .append(configuration.getServerName()).append('\n')
+            .append(configuration.getDatabaseName()).append('\n')
+            .append(configuration.getUserName()).append('\n')
+            .append(configuration.getUserPassword()).append('\n')
+            .append(configuration.getAuthModelId()).append('\n')
+            .append(configuration.getAuthProperties() == null ? "" : new TreeMap<>(configuration.getAuthProperties())).append('\n')
+            .append(new TreeMap<>(configuration.getProperties())).append('\n')
+            .append(new TreeMap<>(configuration.getProviderProperties()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return CommonUtils.toHexString(digest.digest(settings.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
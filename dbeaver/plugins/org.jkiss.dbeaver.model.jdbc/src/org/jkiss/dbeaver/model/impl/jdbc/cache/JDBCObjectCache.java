@@ -113,8 +113,7 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
                     try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
                         monitor.subTask("Load " + getCacheName());
                         dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                        dbStat.executeStatement();
-                        JDBCResultSet dbResult = dbStat.getResultSet();
+                        JDBCResultSet dbResult = executeObjectsStatement(session, dbStat, owner, null);
                         if (dbResult != null) {
                             try {
                                 while (dbResult.next()) {
@@ -168,6 +167,32 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         this.invalidateObjects(monitor, owner, new CacheIterator());
     }
 
+    /**
+     * Executes objects loading statement. Results may be read from the shared metadata snapshot.
+     */
+    @Nullable
+    protected JDBCResultSet executeObjectsStatement(
+        @NotNull JDBCSession session,
+        @NotNull JDBCStatement dbStat,
+        @NotNull OWNER owner,
+        @Nullable DBSObject forObject
+    ) throws SQLException, DBException {
+        if (!isSharedSnapshotSupported()) {
+            dbStat.executeStatement();
+            return dbStat.getResultSet();
+        }
+        return JDBCMetadataSnapshotStore.getInstance().executeStatement(session, dbStat, owner, this, forObject);
+    }
+
+    /**
+     * Returns true if objects may be read from metadata snapshot made by other data source with the same configuration.
+     * Disabled by default: caches must opt in only if their query results don't depend on session state
+     * and are read with plain getters.
+     */
+    protected boolean isSharedSnapshotSupported() {
+        return false;
+    }
+
     public void beforeCacheLoading(JDBCSession session, OWNER owner) throws DBException {
         // Do nothing
     }
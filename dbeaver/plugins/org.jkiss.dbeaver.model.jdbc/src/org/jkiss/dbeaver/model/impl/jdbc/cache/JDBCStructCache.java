@@ -94,8 +94,7 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
             // Load columns
             try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
                 dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
+                JDBCResultSet dbResult = executeObjectsStatement(session, dbStat, owner, forObject);
                 if (dbResult != null) {
                     try {
                         while (dbResult.next()) {
@@ -26,9 +26,11 @@ import org.jkiss.dbeaver.model.data.DBDDataFormatter;
 import org.jkiss.dbeaver.model.data.DBDDataFormatterProfile;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataSnapshotStore;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.sql.DBSQLException;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
@@ -39,6 +41,8 @@ import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.*;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -53,6 +57,10 @@ public class JDBCPreparedStatementImpl extends JDBCStatementImpl<PreparedStateme
     private static final Object NULL_VALUE = new Object();
 
     private Map<Object, Object> paramMap;
+    // Bound values of metadata reads identify shared metadata snapshots, other statements don't keep them
+    private final boolean trackBoundValues;
+    private Map<Object, Object> boundValues;
+    private boolean complexValuesBound;
 
     protected static class ContentParameter {
         String displayString;
@@ -81,6 +89,8 @@ public class JDBCPreparedStatementImpl extends JDBCStatementImpl<PreparedStateme
     {
         super(connection, original, disableLogging);
         setQueryString(query);
+        this.trackBoundValues = connection.getPurpose() == DBCExecutionPurpose.META &&
+            JDBCMetadataSnapshotStore.getInstance().isEnabled();
     }
 
     @Override
@@ -95,6 +105,7 @@ public class JDBCPreparedStatementImpl extends JDBCStatementImpl<PreparedStateme
             paramMap.clear();
             paramMap = null;
         }
+        boundValues = null;
         super.close();
     }
 
@@ -173,8 +184,30 @@ public class JDBCPreparedStatementImpl extends JDBCStatementImpl<PreparedStateme
         return value.toString();
     }
 
+    /**
+     * Returns parameter values bound to this statement, by parameter index or name.
+     * Returns null if values are not tracked by this statement or some of them can't be compared (e.g. streams or LOBs).
+     */
+    @Nullable
+    public Map<Object, Object> getBoundValues() {
+        if (!trackBoundValues || complexValuesBound) {
+            return null;
+        }
+        return boundValues == null ? Map.of() : Collections.unmodifiableMap(boundValues);
+    }
+
     protected void handleStatementBind(Object parameter, @Nullable Object o)
     {
+        if (trackBoundValues) {
+            if (o != null && !DBUtils.isAtomicParameter(o)) {
+                complexValuesBound = true;
+            } else {
+                if (boundValues == null) {
+                    boundValues = new HashMap<>();
+                }
+                boundValues.put(parameter, o);
+            }
+        }
         if (isQMLoggingEnabled()) {
             // Save parameters
             if (o == null) {
@@ -426,6 +459,8 @@ public class JDBCPreparedStatementImpl extends JDBCStatementImpl<PreparedStateme
         throws SQLException
     {
         getOriginal().clearParameters();
+        boundValues = null;
+        complexValuesBound = false;
     }
 
     @Override
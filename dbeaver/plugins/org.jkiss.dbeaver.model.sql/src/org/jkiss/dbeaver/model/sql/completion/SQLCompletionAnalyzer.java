@@ -647,19 +647,22 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         DBSObject selectedObject = defaultInstance == null || executionContext == null ? null : DBUtils.getActiveInstanceObject(executionContext);
         boolean hideDups = request.getContext().isHideDuplicates() && selectedObject != null;
         if (hideDups) {
-            for (int i = 0; i < proposals.size(); i++) {
-                SQLCompletionProposalBase proposal = proposals.get(i);
-                for (int j = 0; j < proposals.size(); ) {
-                    SQLCompletionProposalBase proposal2 = proposals.get(j);
-                    if (i != j && proposal.hasStructObject() && proposal2.hasStructObject() &&
-                        CommonUtils.equalObjects(proposal.getObject().getName(), proposal2.getObject().getName()) &&
-                        proposal.getObjectContainer() == selectedObject) {
-                        proposals.remove(j);
-                    } else {
-                        j++;
-                    }
+            // Keep the first proposal from the selected container, remove other objects with the same name
+            Map<String, SQLCompletionProposalBase> selectedProposals = new HashMap<>();
+            for (SQLCompletionProposalBase proposal : proposals) {
+                if (proposal.hasStructObject() && proposal.getObjectContainer() == selectedObject) {
+                    selectedProposals.putIfAbsent(proposal.getObject().getName(), proposal);
                 }
             }
+            if (!selectedProposals.isEmpty()) {
+                proposals.removeIf(proposal -> {
+                    if (!proposal.hasStructObject()) {
+                        return false;
+                    }
+                    SQLCompletionProposalBase selectedProposal = selectedProposals.get(proposal.getObject().getName());
+                    return selectedProposal != null && selectedProposal != proposal;
+                });
+            }
         }
 
         if (hideDups) {
@@ -675,6 +678,7 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         if (dataSource != null) {
             DBPDataSourceContainer dsContainer = dataSource.getContainer();
             Map<DBSObject, Map<Class<?>, List<SQLCompletionProposalBase>>> containerMap = new HashMap<>();
+            Set<SQLCompletionProposalBase> filteredProposals = Collections.newSetFromMap(new IdentityHashMap<>());
             for (SQLCompletionProposalBase proposal : proposals) {
                 DBSObject container = proposal.getObjectContainer();
                 DBPNamedObject object = proposal.getObject();
@@ -692,12 +696,15 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                     if (filter != null && filter.isEnabled()) {
                         for (SQLCompletionProposalBase proposal : typeEntry.getValue()) {
                             if (!filter.matches(proposal.getObject().getName())) {
-                                proposals.remove(proposal);
+                                filteredProposals.add(proposal);
                             }
                         }
                     }
                 }
             }
+            if (!filteredProposals.isEmpty()) {
+                proposals.removeIf(filteredProposals::contains);
+            }
         }
     }
 
@@ -898,7 +905,7 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                             );
                             params.setCaseSensitive(request.getWordDetector().isQuoted(token));
                             params.setMaxResults(2);
-                            Collection<DBSObjectReference> references = structureAssistant.findObjectsByMask(monitor, executionContext, params);
+                            Collection<DBSObjectReference> references = findObjectsByMask(structureAssistant, executionContext, params);
                             if (!references.isEmpty()) {
                                 childObject = references.iterator().next().resolveObject(monitor);
                             }
@@ -1073,6 +1080,16 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                 }
             }
             StringBuilder combinedMatch = new StringBuilder();
+            SQLCompletionNameIndex nameIndex = allObjects || CommonUtils.isEmpty(startPart) ?
+                null : SQLCompletionNameIndex.getIndex(parent, children);
+            if (nameIndex != null) {
+                if (dataSource != null && !request.getContext().isSearchInsideNames()) {
+                    matchedObjects.addAll(nameIndex.findByPrefix(startPart));
+                } else {
+                    matchedObjects.addAll(nameIndex.findFuzzy(startPart, scoredMatches));
+                }
+                children = Collections.emptyList();
+            }
             for (DBSObject child : children) {
                 if (DBUtils.isHiddenObject(child)) {
                     // Skip hidden
@@ -1174,7 +1191,7 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         assistantParams.setCaseSensitive(request.getWordDetector().isQuoted(objectName));
         assistantParams.setGlobalSearch(request.getContext().isSearchGlobally());
         assistantParams.setMaxResults(MAX_STRUCT_PROPOSALS);
-        Collection<DBSObjectReference> references = assistant.findObjectsByMask(monitor, request.getContext().getExecutionContext(), assistantParams);
+        Collection<DBSObjectReference> references = findObjectsByMask(assistant, request.getContext().getExecutionContext(), assistantParams);
         for (DBSObjectReference reference : references) {
             proposals.add(
                 makeProposalsFromObject(
@@ -1185,6 +1202,21 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         }
     }
 
+    /**
+     * Searches are cached for a while, so typing an object name doesn't query the catalog on each keystroke
+     */
+    private Collection<DBSObjectReference> findObjectsByMask(
+        @NotNull DBSStructureAssistant assistant,
+        @Nullable DBCExecutionContext executionContext,
+        @NotNull DBSStructureAssistant.ObjectsSearchParams params) throws DBException
+    {
+        DBPDataSource dataSource = request.getContext().getDataSource();
+        if (dataSource == null) {
+            return assistant.findObjectsByMask(monitor, executionContext, params);
+        }
+        return SQLCompletionAssistantCache.findObjectsByMask(monitor, dataSource, assistant, executionContext, params);
+    }
+
     private String makeObjectNameMask(String objectName, @Nullable DBSObjectContainer rootSC) {
         SQLWordPartDetector wordDetector = request.getWordDetector();
         if (wordDetector.containsSeparator(objectName)) {
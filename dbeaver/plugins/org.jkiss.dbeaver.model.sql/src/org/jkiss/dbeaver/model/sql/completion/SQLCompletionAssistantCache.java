@@ -0,0 +1,251 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContextDefaults;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectReference;
+import org.jkiss.dbeaver.model.struct.DBSObjectType;
+import org.jkiss.dbeaver.model.struct.DBSStructureAssistant;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.*;
+
+/**
+ * Short-lived cache of structure assistant searches made by SQL completion.
+ * Completion searches the catalog on each keystroke while an object name is typed. Complete search results
+ * (fewer than max results) of mask "abc%" contain all results of mask "abcd%", so narrower searches are
+ * answered by filtering cached references without a catalog query. Repeated searches are answered from cache too.
+ *
+ * Searches are kept in the data source attributes for a few seconds, so objects created meanwhile are found soon.
+ * Navigator refresh drops them immediately.
+ */
+public class SQLCompletionAssistantCache {
+
+    public static final long SEARCH_TTL = 10_000;
+    // Maximum number of cached searches of one data source
+    private static final int MAX_SEARCHES = 100;
+    private static final String SEARCHES_ATTRIBUTE = "sql.completion.assistantSearches";
+    private static final char MATCH_ANY = '%';
+    private static final char MATCH_ONE = '_';
+
+    /**
+     * Search parameters except the mask and max results
+     */
+    private record SearchScope(
+        @NotNull DBSStructureAssistant<?> assistant,
+        @Nullable DBCExecutionContext executionContext,
+        @Nullable DBSObject defaultCatalog,
+        @Nullable DBSObject defaultSchema,
+        @NotNull List<DBSObjectType> objectTypes,
+        @Nullable DBSObject parentObject,
+        boolean caseSensitive,
+        boolean globalSearch,
+        boolean searchInComments,
+        boolean searchInDefinitions,
+        boolean likeCondition
+    ) {
+    }
+
+    private record Search(
+        @NotNull SearchScope scope,
+        @NotNull String mask,
+        int maxResults,
+        long time,
+        @NotNull List<DBSObjectReference> references
+    ) {
+        boolean isComplete() {
+            return references.size() < maxResults;
+        }
+    }
+
+    private SQLCompletionAssistantCache() {
+    }
+
+    /**
+     * Finds objects with the structure assistant or takes them from the previous searches.
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public static Collection<DBSObjectReference> findObjectsByMask(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBPDataSource dataSource,
+        @NotNull DBSStructureAssistant assistant,
+        @Nullable DBCExecutionContext executionContext,
+        @NotNull DBSStructureAssistant.ObjectsSearchParams params
+    ) throws DBException {
+        DBCExecutionContextDefaults<?, ?> contextDefaults = executionContext == null ? null : executionContext.getContextDefaults();
+        SearchScope scope = new SearchScope(
+            assistant,
+            executionContext,
+            contextDefaults == null ? null : contextDefaults.getDefaultCatalog(),
+            contextDefaults == null ? null : contextDefaults.getDefaultSchema(),
+            List.of(params.getObjectTypes()),
+            params.getParentObject(),
+            params.isCaseSensitive(),
+            params.isGlobalSearch(),
+            params.isSearchInComments(),
+            params.isSearchInDefinitions(),
+            params.isLikeCondition());
+        String mask = params.getMask();
+        int maxResults = params.getMaxResults();
+        List<DBSObjectReference> cached = findCachedReferences(dataSource, scope, mask, maxResults);
+        if (cached != null) {
+            return cached;
+        }
+        List<DBSObjectReference> references = List.copyOf(assistant.findObjectsByMask(monitor, executionContext, params));
+        Deque<Search> searches = getSearches(dataSource);
+        synchronized (searches) {
+            searches.addFirst(new Search(scope, mask, maxResults, System.currentTimeMillis(), references));
+            while (searches.size() > MAX_SEARCHES) {
+                searches.removeLast();
+            }
+        }
+        return new ArrayList<>(references);
+    }
+
+    /**
+     * Drops searches of the specified data source
+     */
+    public static void invalidate(@NotNull DBPDataSourceContainer dataSourceContainer) {
+        DBPDataSource dataSource = dataSourceContainer.getDataSource();
+        if (dataSource != null) {
+            synchronized (SQLCompletionAssistantCache.class) {
+                dataSource.removeContextAttribute(SEARCHES_ATTRIBUTE);
+            }
+        }
+    }
+
+    @Nullable
+    private static List<DBSObjectReference> findCachedReferences(
+        @NotNull DBPDataSource dataSource,
+        @NotNull SearchScope scope,
+        @NotNull String mask,
+        int maxResults
+    ) {
+        long minTime = System.currentTimeMillis() - SEARCH_TTL;
+        Deque<Search> searches = getSearches(dataSource);
+        synchronized (searches) {
+            // The most recent searches go first
+            for (Iterator<Search> iter = searches.iterator(); iter.hasNext(); ) {
+                Search search = iter.next();
+                if (search.time() < minTime) {
+                    iter.remove();
+                    continue;
+                }
+                if (!search.scope().equals(scope)) {
+                    continue;
+                }
+                if (search.mask().equals(mask) && (search.isComplete() || search.maxResults() >= maxResults)) {
+                    return new ArrayList<>(search.references().subList(0, Math.min(maxResults, search.references().size())));
+                }
+                if (search.isComplete() && isNarrowerMask(search.mask(), mask, scope.caseSensitive())) {
+                    List<DBSObjectReference> result = new ArrayList<>();
+                    for (DBSObjectReference reference : search.references()) {
+                        if (result.size() >= maxResults) {
+                            break;
+                        }
+                        if (matchesMask(CommonUtils.notEmpty(reference.getName()), mask, scope.caseSensitive())) {
+                            result.add(reference);
+                        }
+                    }
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether all names matched by the new mask are matched by the previous mask.
+     * Only masks made by completion are recognized: "name%" (or just "name") and "%name%".
+     */
+    static boolean isNarrowerMask(@NotNull String prevMask, @NotNull String mask, boolean caseSensitive) {
+        if (prevMask.length() < 1 || prevMask.charAt(prevMask.length() - 1) != MATCH_ANY) {
+            return false;
+        }
+        boolean prevContains = prevMask.length() > 1 && prevMask.charAt(0) == MATCH_ANY;
+        String prevPart = prevMask.substring(prevContains ? 1 : 0, prevMask.length() - 1);
+        if (prevPart.indexOf(MATCH_ANY) != -1) {
+            return false;
+        }
+        if (!caseSensitive) {
+            prevPart = prevPart.toUpperCase(Locale.ENGLISH);
+            mask = mask.toUpperCase(Locale.ENGLISH);
+        }
+        if (prevContains) {
+            // Any part of the new mask which contains the previous part
+            for (String part : mask.split(String.valueOf(MATCH_ANY))) {
+                if (part.contains(prevPart)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return mask.startsWith(prevPart);
+    }
+
+    /**
+     * Matches name with the mask in the same way as SQL LIKE: % matches any characters, _ matches a single character.
+     */
+    static boolean matchesMask(@NotNull String name, @NotNull String mask, boolean caseSensitive) {
+        if (!caseSensitive) {
+            name = name.toUpperCase(Locale.ENGLISH);
+            mask = mask.toUpperCase(Locale.ENGLISH);
+        }
+        int namePos = 0, maskPos = 0;
+        // Positions to return to after the last % mismatch
+        int anyMaskPos = -1, anyNamePos = 0;
+        while (namePos < name.length()) {
+            if (maskPos < mask.length() && mask.charAt(maskPos) == MATCH_ANY) {
+                anyMaskPos = maskPos++;
+                anyNamePos = namePos;
+            } else if (maskPos < mask.length() && (mask.charAt(maskPos) == MATCH_ONE || mask.charAt(maskPos) == name.charAt(namePos))) {
+                maskPos++;
+                namePos++;
+            } else if (anyMaskPos != -1) {
+                maskPos = anyMaskPos + 1;
+                namePos = ++anyNamePos;
+            } else {
+                return false;
+            }
+        }
+        while (maskPos < mask.length() && mask.charAt(maskPos) == MATCH_ANY) {
+            maskPos++;
+        }
+        return maskPos == mask.length();
+    }
+
+    @NotNull
+    private static Deque<Search> getSearches(@NotNull DBPDataSource dataSource) {
+        synchronized (SQLCompletionAssistantCache.class) {
+            Deque<Search> searches = dataSource.getContextAttribute(SEARCHES_ATTRIBUTE);
+            if (searches == null) {
+                searches = new ArrayDeque<>();
+                dataSource.setContextAttribute(SEARCHES_ATTRIBUTE, searches);
+            }
+            return searches;
+        }
+    }
+}
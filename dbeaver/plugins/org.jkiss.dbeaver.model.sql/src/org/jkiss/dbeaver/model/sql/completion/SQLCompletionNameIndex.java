@@ -0,0 +1,283 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPObject;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.text.TextUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.*;
+
+/**
+ * Index of object names of a big container (e.g. schema tables), used by SQL completion.
+ * Index is built from container children, which are read from object caches.
+ * Indexes are kept in the container data source attributes, so they are released together with
+ * the data source on disconnect or close.
+ * Each lookup checks children fingerprint (names and object identities), so the index is rebuilt
+ * once children are refreshed, added, removed or renamed.
+ *
+ * Prefix lookup uses sorted names. Fuzzy lookup prefilters names by character masks and then scores
+ * candidates with {@link TextUtils#fuzzyScore(CharSequence, CharSequence)}, so it gives the same results as full scan.
+ */
+public class SQLCompletionNameIndex {
+
+    // Smaller containers are scanned directly
+    public static final int MIN_INDEXED_OBJECTS = 1000;
+    // Maximum number of indexes of one data source
+    private static final int MAX_INDEXES = 50;
+    private static final String INDEXES_ATTRIBUTE = "sql.completion.nameIndexes";
+
+    private final long fingerprint;
+    private final Locale locale;
+    // Not hidden children in original order
+    private final DBSObject[] objects;
+    private final String[] names;
+    private final long[] nameMasks;
+    // Upper case names of ASCII-only objects, sorted
+    private final String[] sortedKeys;
+    private final int[] sortedPositions;
+    // Objects with non-ASCII names, always checked directly
+    private final int[] unsortedPositions;
+
+    private SQLCompletionNameIndex(long fingerprint, @NotNull List<DBSObject> children) {
+        this.fingerprint = fingerprint;
+        this.locale = Locale.getDefault();
+        this.objects = children.toArray(new DBSObject[0]);
+        this.names = new String[objects.length];
+        this.nameMasks = new long[objects.length];
+
+        String[] keys = new String[objects.length];
+        List<Integer> asciiPositions = new ArrayList<>(objects.length);
+        List<Integer> otherPositions = new ArrayList<>();
+        for (int i = 0; i < objects.length; i++) {
+            String name = CommonUtils.notEmpty(objects[i].getName());
+            names[i] = name;
+            nameMasks[i] = getCharsMask(name.toLowerCase(locale));
+            if (isAscii(name)) {
+                keys[i] = name.toUpperCase(Locale.ENGLISH);
+                asciiPositions.add(i);
+            } else {
+                otherPositions.add(i);
+            }
+        }
+        asciiPositions.sort(Comparator.comparing(pos -> keys[pos]));
+        this.sortedKeys = new String[asciiPositions.size()];
+        this.sortedPositions = new int[asciiPositions.size()];
+        for (int i = 0; i < sortedKeys.length; i++) {
+            sortedPositions[i] = asciiPositions.get(i);
+            sortedKeys[i] = keys[sortedPositions[i]];
+        }
+        this.unsortedPositions = otherPositions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns index of container children. Index is built on demand.
+     *
+     * @return index or null if container is too small, has no data source or children can't be indexed
+     */
+    @Nullable
+    public static SQLCompletionNameIndex getIndex(
+        @NotNull DBPObject parent,
+        @NotNull Collection<? extends DBSObject> children
+    ) {
+        if (children.size() < MIN_INDEXED_OBJECTS) {
+            return null;
+        }
+        DBPDataSource dataSource = parent instanceof DBPDataSource ds ? ds :
+            parent instanceof DBSObject object ? object.getDataSource() : null;
+        if (dataSource == null) {
+            return null;
+        }
+        long fingerprint = children.size();
+        for (DBSObject child : children) {
+            if (DBUtils.isVirtualObject(child)) {
+                // Virtual objects are expanded by completion analyzer
+                return null;
+            }
+            fingerprint = 31 * fingerprint + System.identityHashCode(child) + CommonUtils.notEmpty(child.getName()).hashCode();
+        }
+        Map<DBPObject, SQLCompletionNameIndex> indexes = getIndexes(dataSource);
+        synchronized (indexes) {
+            SQLCompletionNameIndex index = indexes.get(parent);
+            if (index != null && index.fingerprint == fingerprint && index.locale.equals(Locale.getDefault())) {
+                return index;
+            }
+        }
+        List<DBSObject> indexedChildren = new ArrayList<>(children.size());
+        for (DBSObject child : children) {
+            if (!DBUtils.isHiddenObject(child)) {
+                indexedChildren.add(child);
+            }
+        }
+        SQLCompletionNameIndex index = new SQLCompletionNameIndex(fingerprint, indexedChildren);
+        synchronized (indexes) {
+            indexes.put(parent, index);
+        }
+        return index;
+    }
+
+    /**
+     * Drops indexes of the specified data source
+     */
+    public static void invalidate(@NotNull DBPDataSourceContainer dataSourceContainer) {
+        DBPDataSource dataSource = dataSourceContainer.getDataSource();
+        if (dataSource != null) {
+            synchronized (SQLCompletionNameIndex.class) {
+                dataSource.removeContextAttribute(INDEXES_ATTRIBUTE);
+            }
+        }
+    }
+
+    @NotNull
+    private static Map<DBPObject, SQLCompletionNameIndex> getIndexes(@NotNull DBPDataSource dataSource) {
+        synchronized (SQLCompletionNameIndex.class) {
+            Map<DBPObject, SQLCompletionNameIndex> indexes = dataSource.getContextAttribute(INDEXES_ATTRIBUTE);
+            if (indexes == null) {
+                // Least recently used indexes are dropped first
+                indexes = new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<DBPObject, SQLCompletionNameIndex> eldest) {
+                        return size() > MAX_INDEXES;
+                    }
+                };
+                dataSource.setContextAttribute(INDEXES_ATTRIBUTE, indexes);
+            }
+            return indexes;
+        }
+    }
+
+    /**
+     * Finds objects which names start with the specified string (ignoring case).
+     *
+     * @return matched objects in the original order
+     */
+    @NotNull
+    public List<DBSObject> findByPrefix(@NotNull String prefix) {
+        if (prefix.isEmpty()) {
+            return new ArrayList<>(Arrays.asList(objects));
+        }
+        if (!isAscii(prefix)) {
+            // Non-ASCII characters may match ASCII ones ignoring case
+            List<DBSObject> result = new ArrayList<>();
+            for (int i = 0; i < objects.length; i++) {
+                if (CommonUtils.startsWithIgnoreCase(names[i], prefix)) {
+                    result.add(objects[i]);
+                }
+            }
+            return result;
+        }
+        String key = prefix.toUpperCase(Locale.ENGLISH);
+        int first = findFirstKey(key), last = first;
+        while (last < sortedKeys.length && sortedKeys[last].startsWith(key)) {
+            last++;
+        }
+        int[] positions = new int[last - first + unsortedPositions.length];
+        int count = last - first;
+        System.arraycopy(sortedPositions, first, positions, 0, count);
+        for (int pos : unsortedPositions) {
+            if (CommonUtils.startsWithIgnoreCase(names[pos], prefix)) {
+                positions[count++] = pos;
+            }
+        }
+        Arrays.sort(positions, 0, count);
+        List<DBSObject> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(objects[positions[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns position of the first sorted key which is not less than the specified key
+     */
+    private int findFirstKey(@NotNull String key) {
+        int start = 0, end = sortedKeys.length;
+        while (start < end) {
+            int middle = (start + end) >>> 1;
+            if (sortedKeys[middle].compareTo(key) < 0) {
+                start = middle + 1;
+            } else {
+                end = middle;
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Finds objects which names contain all query characters in the same order.
+     *
+     * @param scores receives match score of each found object name
+     * @return matched objects in the original order
+     */
+    @NotNull
+    public List<DBSObject> findFuzzy(@NotNull String query, @NotNull Map<String, Integer> scores) {
+        long queryMask = getCharsMask(query.toLowerCase(locale));
+        List<DBSObject> result = new ArrayList<>();
+        for (int i = 0; i < objects.length; i++) {
+            if ((queryMask & ~nameMasks[i]) != 0) {
+                // Some query characters are missing in name
+                continue;
+            }
+            int score = TextUtils.fuzzyScore(names[i], query);
+            if (score > 0) {
+                result.add(objects[i]);
+                scores.put(names[i], score);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Bit mask of characters of the string. Letters, digits and some symbols have their own bits,
+     * other characters share the rest bits. Mask is used as a filter only, so collisions are allowed.
+     */
+    private static long getCharsMask(@NotNull String str) {
+        long mask = 0;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            int bit;
+            if (c >= 'a' && c <= 'z') {
+                bit = c - 'a';
+            } else if (c >= '0' && c <= '9') {
+                bit = 26 + c - '0';
+            } else if (c == '_') {
+                bit = 36;
+            } else if (c == '$') {
+                bit = 37;
+            } else {
+                bit = 38 + c % 26;
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    private static boolean isAscii(@NotNull String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (str.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -41,6 +41,7 @@ public class FileLock implements AutoCloseable {
     public void unlock() {
         try {
             Files.deleteIfExists(lockFilePath);
+            FileLockController.notifyUnlocked(lockFilePath);
         } catch (IOException e) {
             log.error("Failed to unlock file: " + lockFilePath, e);
             if (Files.exists(lockFilePath)) {
@@ -30,7 +30,9 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * File based resource locks
@@ -43,6 +45,10 @@ public class FileLockController {
     private static final String LOCK_META_FOLDER = ".locks";
     private static final String LOCK_FILE_EXTENSION = ".lock";
 
+    // In-process monitors of lock files. Used to wake up waiters when a lock is released in this JVM,
+    // lock files of other instances are still polled. Monitor is removed when its last user releases it.
+    private static final Map<Path, LockMonitor> LOCK_MONITORS = new ConcurrentHashMap<>();
+
     private final Gson gson = new Gson();
 
     private final Path lockFolderPath;
@@ -73,25 +79,23 @@ public class FileLockController {
      */
     @NotNull
     public FileLock lock(@NotNull String lockFileName, @NotNull String operationName) throws DBException {
-        synchronized (FileLockController.class) {
-            try {
-                FileLockInfo lockInfo = new FileLockInfo.Builder(UUID.randomUUID().toString())
-                    .setApplicationId(applicationId)
-                    .setOperationName(operationName)
-                    .setOperationStartTime(System.currentTimeMillis())
-                    .build();
-                Path lockFilePath = getLockFilePath(lockFileName);
-
-                if (!IOUtils.isFileFromDefaultFS(lockFolderPath)) {
-                    // fake lock for external file system?
-                    return new FileLock(lockFilePath);
-                }
-                createLockFolderIfNeeded();
-                createLockFile(lockFilePath, lockInfo);
+        try {
+            FileLockInfo lockInfo = new FileLockInfo.Builder(UUID.randomUUID().toString())
+                .setApplicationId(applicationId)
+                .setOperationName(operationName)
+                .setOperationStartTime(System.currentTimeMillis())
+                .build();
+            Path lockFilePath = getLockFilePath(lockFileName);
+
+            if (!IOUtils.isFileFromDefaultFS(lockFolderPath)) {
+                // fake lock for external file system?
                 return new FileLock(lockFilePath);
-            } catch (Exception e) {
-                throw new DBException("Failed to lock file: " + lockFileName, e);
             }
+            createLockFolderIfNeeded();
+            createLockFile(lockFilePath, lockInfo);
+            return new FileLock(lockFilePath);
+        } catch (Exception e) {
+            throw new DBException("Failed to lock file: " + lockFileName, e);
         }
     }
 
@@ -105,11 +109,17 @@ public class FileLockController {
      */
     @Nullable
     public FileLock lockIfNotLocked(@NotNull String lockFileName, @NotNull String operationName) throws DBException {
-        synchronized (FileLockController.class) {
-            if (isLocked(getLockFilePath(lockFileName))) {
-                return null;
+        Path lockFilePath = getLockFilePath(lockFileName);
+        LockMonitor lockMonitor = acquireLockMonitor(lockFilePath);
+        try {
+            synchronized (lockMonitor) {
+                if (isLocked(lockFilePath)) {
+                    return null;
+                }
+                return lock(lockFileName, operationName);
             }
-            return lock(lockFileName, operationName);
+        } finally {
+            releaseLockMonitor(lockFilePath);
         }
     }
 
@@ -169,21 +179,28 @@ public class FileLockController {
         log.info("Waiting for a file to be unlocked: " + lockFile);
         FileLockInfo originalLockInfo = readLockInfo(lockFile);
         boolean fileUnlocked = originalLockInfo == null; //lock can be removed at the moment when we try to read lock file info
-        long maxIterations = maxLockTime / CHECK_PERIOD;
-        int currentCheckCount = 0;
-
-        while (!fileUnlocked) {
-            fileUnlocked = !isLocked(lockFile);
-            if (currentCheckCount >= maxIterations || fileUnlocked) {
-                break;
-            }
-            if (originalLockInfo != null && originalLockInfo.isBlank()) {
-                // possible in situation where the project has just been locked
-                // and the lock information has not yet been written
-                originalLockInfo = readLockInfo(lockFile);
+        long waitDeadline = System.currentTimeMillis() + maxLockTime;
+        LockMonitor lockMonitor = acquireLockMonitor(lockFile);
+        try {
+            while (!fileUnlocked) {
+                fileUnlocked = !isLocked(lockFile);
+                if (fileUnlocked || System.currentTimeMillis() >= waitDeadline) {
+                    break;
+                }
+                if (originalLockInfo != null && originalLockInfo.isBlank()) {
+                    // possible in situation where the project has just been locked
+                    // and the lock information has not yet been written
+                    originalLockInfo = readLockInfo(lockFile);
+                }
+                synchronized (lockMonitor) {
+                    // Local unlock notifies the monitor. Timeout is for locks of other instances.
+                    if (isLocked(lockFile)) {
+                        lockMonitor.wait(CHECK_PERIOD);
+                    }
+                }
             }
-            currentCheckCount++;
-            Thread.sleep(CHECK_PERIOD);
+        } finally {
+            releaseLockMonitor(lockFile);
         }
 
         if (fileUnlocked) {
@@ -212,6 +229,7 @@ public class FileLockController {
         } catch (IOException e) {
             log.error(e);
         }
+        notifyUnlocked(projectLockFile);
     }
 
     @Nullable
@@ -242,10 +260,47 @@ public class FileLockController {
     }
 
     private void createLockFolderIfNeeded() throws IOException {
-        synchronized (FileLockController.class) {
-            if (Files.notExists(lockFolderPath)) {
-                Files.createDirectories(lockFolderPath);
+        if (Files.notExists(lockFolderPath)) {
+            Files.createDirectories(lockFolderPath);
+        }
+    }
+
+    @NotNull
+    private static LockMonitor acquireLockMonitor(@NotNull Path lockFilePath) {
+        return LOCK_MONITORS.compute(getMonitorKey(lockFilePath), (path, monitor) -> {
+            if (monitor == null) {
+                monitor = new LockMonitor();
             }
+            monitor.users++;
+            return monitor;
+        });
+    }
+
+    private static void releaseLockMonitor(@NotNull Path lockFilePath) {
+        LOCK_MONITORS.computeIfPresent(getMonitorKey(lockFilePath), (path, monitor) -> --monitor.users == 0 ? null : monitor);
+    }
+
+    @NotNull
+    private static Path getMonitorKey(@NotNull Path lockFilePath) {
+        return lockFilePath.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Wakes up in-process waiters of the released lock file
+     */
+    static void notifyUnlocked(@NotNull Path lockFilePath) {
+        LockMonitor lockMonitor = LOCK_MONITORS.get(getMonitorKey(lockFilePath));
+        if (lockMonitor == null) {
+            // Nobody waits for this file
+            return;
         }
+        synchronized (lockMonitor) {
+            lockMonitor.notifyAll();
+        }
+    }
+
+    private static class LockMonitor {
+        // Modified inside map compute functions only
+        private int users;
     }
 }
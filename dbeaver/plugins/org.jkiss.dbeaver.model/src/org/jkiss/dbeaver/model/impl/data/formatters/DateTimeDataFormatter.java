@@ -24,7 +24,6 @@ import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.time.ExtendedDateFormat;
 
 import java.text.DateFormat;
-import java.text.FieldPosition;
 import java.text.ParseException;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
@@ -44,9 +43,9 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
 
     private String pattern;
     private ZoneId zone;
+    // Configured format, each thread formats values with its own copy
     private DateFormat dateFormat;
-    private StringBuffer buffer;
-    private FieldPosition position;
+    private ThreadLocal<DateFormat> threadDateFormat;
     private DateTimeFormatter dateTimeFormatter;
     private boolean hasZone;
 
@@ -62,8 +61,8 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
             locale);
         // We shouldn't use lenient formatter (#7244)
         dateFormat.setLenient(false);
-        buffer = new StringBuffer();
-        position = new FieldPosition(0);
+        DateFormat configuredFormat = dateFormat;
+        threadDateFormat = ThreadLocal.withInitial(() -> (DateFormat) configuredFormat.clone());
         // DateTimeFormatter pattern for nanoseconds is "n" but old "f" (ExtendedDateFormat)
         String java8DatePattern = pattern.replaceAll("f+", "n");
         dateTimeFormatter = DateTimeFormatter.ofPattern(java8DatePattern);
@@ -75,9 +74,12 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
         return zone;
     }
 
+    /**
+     * Returns date format of the current thread
+     */
     @NotNull
     public DateFormat getDateFormat() {
-        return dateFormat;
+        return threadDateFormat.get();
     }
 
     @Override
@@ -106,10 +108,7 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
             }
             return dateTimeFormatter.format((TemporalAccessor) value);
         }
-        synchronized (dateFormat) {
-            buffer.setLength(0);
-            return value == null ? null : dateFormat.format(value, buffer, position).toString();
-        }
+        return value == null ? null : threadDateFormat.get().format(value);
     }
 
     @Override
@@ -138,7 +137,7 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
                 return LocalDateTime.parse(value, dateTimeFormatter);
             }
         } catch (Exception e) {
-            return dateFormat.parse(value);
+            return threadDateFormat.get().parse(value);
         }
     }
 
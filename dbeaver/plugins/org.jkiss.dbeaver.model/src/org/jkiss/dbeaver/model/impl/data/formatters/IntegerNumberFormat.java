@@ -0,0 +1,119 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data.formatters;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Immutable renderer of integer values.
+ * Produces the same output as the DecimalFormat it was created from, but doesn't need synchronization
+ * and doesn't go through DecimalFormat digit list and field delegates.
+ */
+final class IntegerNumberFormat {
+
+    // Maximum number of digits in long value
+    private static final int MAX_LONG_DIGITS = 19;
+    // DecimalFormat limits digits count of long values, so larger settings are left to it
+    private static final int MAX_PADDING_DIGITS = 300;
+
+    private final String positivePrefix;
+    private final String positiveSuffix;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+    private final char zeroDigit;
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    private final int groupingSize;
+    private final int minIntegerDigits;
+    private final int minFractionDigits;
+
+    private IntegerNumberFormat(@NotNull DecimalFormat format) {
+        DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+        this.positivePrefix = format.getPositivePrefix();
+        this.positiveSuffix = format.getPositiveSuffix();
+        this.negativePrefix = format.getNegativePrefix();
+        this.negativeSuffix = format.getNegativeSuffix();
+        this.zeroDigit = symbols.getZeroDigit();
+        this.groupingSeparator = symbols.getGroupingSeparator();
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.groupingSize = format.isGroupingUsed() ? format.getGroupingSize() : 0;
+        this.minIntegerDigits = format.getMinimumIntegerDigits();
+        this.minFractionDigits = format.getMinimumFractionDigits();
+    }
+
+    /**
+     * Creates renderer for the specified format.
+     * Returns null if format has settings which are not supported (e.g. multiplier, currency or exponent).
+     */
+    @Nullable
+    static IntegerNumberFormat create(@NotNull DecimalFormat format) {
+        if (format.getMultiplier() != 1 ||
+            format.isDecimalSeparatorAlwaysShown() ||
+            format.getMaximumIntegerDigits() < MAX_LONG_DIGITS ||
+            format.getMinimumIntegerDigits() > MAX_PADDING_DIGITS ||
+            format.getMinimumFractionDigits() > MAX_PADDING_DIGITS ||
+            format.toPattern().indexOf('\u00A4') != -1 ||
+            format.toPattern().indexOf('E') != -1)
+        {
+            return null;
+        }
+        return new IntegerNumberFormat(format);
+    }
+
+    @NotNull
+    String format(long value) {
+        if (value == Long.MIN_VALUE) {
+            // Can't be negated
+            return formatDigits(true, "9223372036854775808");
+        }
+        return formatDigits(value < 0, value == 0 ? "" : Long.toString(Math.abs(value)));
+    }
+
+    @NotNull
+    private String formatDigits(boolean negative, @NotNull String digits) {
+        int digitCount = digits.length();
+        int count = Math.max(minIntegerDigits, digitCount);
+        StringBuilder result = new StringBuilder(count * 2 + minFractionDigits + 8);
+        result.append(negative ? negativePrefix : positivePrefix);
+        int integerStart = result.length();
+        int zeroDelta = zeroDigit - '0';
+        for (int i = count - 1; i >= 0; i--) {
+            if (i < digitCount) {
+                result.append((char) (digits.charAt(digitCount - 1 - i) + zeroDelta));
+            } else {
+                result.append(zeroDigit);
+            }
+            if (groupingSize > 0 && i > 0 && i % groupingSize == 0) {
+                result.append(groupingSeparator);
+            }
+        }
+        if (minFractionDigits > 0) {
+            result.append(decimalSeparator);
+            for (int i = 0; i < minFractionDigits; i++) {
+                result.append(zeroDigit);
+            }
+        } else if (result.length() == integerStart) {
+            result.append(zeroDigit);
+        }
+        result.append(negative ? negativeSuffix : positiveSuffix);
+        return result.toString();
+    }
+}
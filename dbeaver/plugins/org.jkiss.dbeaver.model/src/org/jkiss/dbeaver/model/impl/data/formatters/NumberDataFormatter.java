@@ -16,6 +16,7 @@
  */
 package org.jkiss.dbeaver.model.impl.data.formatters;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.data.DBDDataFormatter;
@@ -26,7 +27,6 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
-import java.text.FieldPosition;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Locale;
@@ -38,9 +38,12 @@ public class NumberDataFormatter implements DBDDataFormatter {
 
     private static final Log log = Log.getLog(NumberDataFormatter.class);
 
+    // Configured format, each thread formats values with its own copy
     private DecimalFormat numberFormat;
-    private StringBuffer buffer;
-    private FieldPosition position;
+    private ThreadLocal<DecimalFormat> threadFormat;
+    @Nullable
+    private IntegerNumberFormat integerFormat;
+    private volatile boolean roundingDisabled;
     private boolean nativeSpecialValues;
 
     public NumberDataFormatter() {
@@ -113,8 +116,10 @@ public class NumberDataFormatter implements DBDDataFormatter {
                 numberFormat.setGroupingUsed(false);
             }
         }
-        buffer = new StringBuffer();
-        position = new FieldPosition(0);
+        DecimalFormat configuredFormat = numberFormat;
+        threadFormat = ThreadLocal.withInitial(() -> (DecimalFormat) configuredFormat.clone());
+        integerFormat = IntegerNumberFormat.create(numberFormat);
+        roundingDisabled = false;
         nativeSpecialValues = CommonUtils.toBoolean(properties.get(NumberFormatSample.PROP_NATIVE_SPECIAL_VALUES));
     }
 
@@ -139,22 +144,23 @@ public class NumberDataFormatter implements DBDDataFormatter {
         } else if (value instanceof Float || value instanceof Double) {
             // Convert to BigDecimal so we don't have rounding issues with high minimum fraction digits set
             value = new BigDecimal(value.toString());
+        } else if (integerFormat != null && (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)) {
+            return integerFormat.format(((Number) value).longValue());
         } else if (!(value instanceof Number)) {
             return value.toString();
         }
         try {
-            synchronized (this) {
-                buffer.setLength(0);
-                try {
-                    return numberFormat.format(value, buffer, position).toString();
-                } catch (ArithmeticException e) {
-                    if (numberFormat.getRoundingMode() == RoundingMode.UNNECESSARY) {
-                        // This type can't use UNNECESSARY rounding. Let's set default one
-                        log.debug("Disabling UNNECESSARY rounding for numbers (" + e.getMessage() + ")");
-                        numberFormat.setRoundingMode(RoundingMode.HALF_EVEN);
-                    }
-                    return numberFormat.format(value, buffer, position).toString();
+            DecimalFormat format = getThreadFormat();
+            try {
+                return format.format(value);
+            } catch (ArithmeticException e) {
+                if (format.getRoundingMode() == RoundingMode.UNNECESSARY) {
+                    // This type can't use UNNECESSARY rounding. Let's set default one
+                    log.debug("Disabling UNNECESSARY rounding for numbers (" + e.getMessage() + ")");
+                    roundingDisabled = true;
+                    format.setRoundingMode(RoundingMode.HALF_EVEN);
                 }
+                return format.format(value);
             }
         } catch (Exception e) {
             return value.toString();
@@ -164,39 +170,47 @@ public class NumberDataFormatter implements DBDDataFormatter {
     @Override
     public Object parseValue(String value, @Nullable Class<?> typeHint) throws ParseException
     {
-        synchronized (this) {
-            numberFormat.setParseBigDecimal(typeHint == BigDecimal.class || typeHint == BigInteger.class);
-            Number number = numberFormat.parse(value);
-            if (number != null && typeHint != null) {
-                boolean isFloat = number instanceof Double || number instanceof Float;
-                if (typeHint == Byte.class) {
-                    if (isFloat) {
-                        return number;
-                    }
-                    return number.byteValue();
-                } else if (typeHint == Short.class) {
-                    if (isFloat) {
-                        return number;
-                    }
-                    return number.shortValue();
-                } else if (typeHint == Integer.class) {
-                    if (isFloat) {
-                        return number;
-                    }
-                    return number.intValue();
-                } else if (typeHint == Long.class) {
-                    if (isFloat) {
-                        return number;
-                    }
-                    return number.longValue();
-                } else if (typeHint == Float.class) {
-                    return number.floatValue();
-                } else if (typeHint == Double.class) {
-                    return number.doubleValue();
+        DecimalFormat format = getThreadFormat();
+        format.setParseBigDecimal(typeHint == BigDecimal.class || typeHint == BigInteger.class);
+        Number number = format.parse(value);
+        if (number != null && typeHint != null) {
+            boolean isFloat = number instanceof Double || number instanceof Float;
+            if (typeHint == Byte.class) {
+                if (isFloat) {
+                    return number;
+                }
+                return number.byteValue();
+            } else if (typeHint == Short.class) {
+                if (isFloat) {
+                    return number;
+                }
+                return number.shortValue();
+            } else if (typeHint == Integer.class) {
+                if (isFloat) {
+                    return number;
                 }
+                return number.intValue();
+            } else if (typeHint == Long.class) {
+                if (isFloat) {
+                    return number;
+                }
+                return number.longValue();
+            } else if (typeHint == Float.class) {
+                return number.floatValue();
+            } else if (typeHint == Double.class) {
+                return number.doubleValue();
             }
-            return number;
         }
+        return number;
+    }
+
+    @NotNull
+    private DecimalFormat getThreadFormat() {
+        DecimalFormat format = threadFormat.get();
+        if (roundingDisabled && format.getRoundingMode() == RoundingMode.UNNECESSARY) {
+            format.setRoundingMode(RoundingMode.HALF_EVEN);
+        }
+        return format;
     }
 
 }
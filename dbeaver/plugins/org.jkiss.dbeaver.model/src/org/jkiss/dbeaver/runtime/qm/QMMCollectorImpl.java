@@ -31,11 +31,10 @@ import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
-import org.jkiss.utils.LongKeyMap;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Query manager execution handler implementation
@@ -46,15 +45,20 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
     private static final int MAX_HISTORY_EVENTS = 10000;
 
-    // Session map
-    private LongKeyMap<QMMConnectionInfo> connectionMap = new LongKeyMap<>();
-    private List<Long> closedConnections = new ArrayList<>();
+    // Session map. Read without locks on each statement event,
+    // connection info itself is guarded by its own monitor.
+    private final Map<Long, QMMConnectionInfo> connectionMap = new ConcurrentHashMap<>();
+    private final Queue<Long> closedConnections = new ConcurrentLinkedQueue<>();
+    // Guards connection open/close
+    private final Object connectionSync = new Object();
 
     // External listeners
     private final List<QMMetaListener> listeners = new ArrayList<>();
 
-    // Temporary event pool
-    private List<QMMetaEvent> eventPool = new ArrayList<>();
+    // Temporary event pool. Filled by execution threads, drained by the event dispatcher.
+    private final Queue<QMMetaEvent> eventPool = new ConcurrentLinkedQueue<>();
+    // Events drained from the pool but not dispatched yet. Accessed by the event dispatcher only.
+    private List<QMMetaEvent> pendingEvents = new ArrayList<>();
     // Sync object
     private final Object historySync = new Object();
     // History (may be purged when limit reached)
@@ -71,7 +75,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         new EventDispatcher().schedule(eventDispatchPeriod);
     }
 
-    public synchronized void dispose() {
+    public void dispose() {
         if (!connectionMap.isEmpty()) {
             List<QMMConnectionInfo> openSessions = new ArrayList<>();
             for (QMMConnectionInfo connection : connectionMap.values()) {
@@ -128,7 +132,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         }
     }
 
-    private synchronized void tryFireMetaEvent(final QMMObject object, final QMEventAction action, DBCExecutionContext context) {
+    private void tryFireMetaEvent(final QMMObject object, final QMEventAction action, DBCExecutionContext context) {
         try {
             String sessionId = QMUtils.getQmSessionId(context);
             eventPool.add(new QMMetaEvent(object, action, sessionId));
@@ -138,13 +142,16 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         }
     }
 
-    private synchronized List<QMMetaEvent> obtainEvents() {
-        if (eventPool.isEmpty()) {
+    private List<QMMetaEvent> obtainEvents() {
+        for (QMMetaEvent event = eventPool.poll(); event != null; event = eventPool.poll()) {
+            pendingEvents.add(event);
+        }
+        if (pendingEvents.isEmpty()) {
             return Collections.emptyList();
         }
         // qm session id might be null if database migration is in progress for single user product
         if (DBWorkbench.getPlatform().getApplication() instanceof QMSessionProvider qmSessionProvider) {
-            for (QMMetaEvent event : eventPool) {
+            for (QMMetaEvent event : pendingEvents) {
                 if (event.getSessionId() != null) {
                     continue;
                 }
@@ -159,12 +166,12 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
                 event.setSessionId(sessionId);
             }
         }
-        List<QMMetaEvent> events = eventPool;
-        eventPool = new ArrayList<>();
+        List<QMMetaEvent> events = pendingEvents;
+        pendingEvents = new ArrayList<>();
         return events;
     }
 
-    public synchronized QMMConnectionInfo getConnectionInfo(DBCExecutionContext context) {
+    public QMMConnectionInfo getConnectionInfo(DBCExecutionContext context) {
         QMMConnectionInfo connectionInfo = connectionMap.get(context.getContextId());
         if (connectionInfo == null) {
             log.debug("Can't find connectionInfo meta information: " + context.getContextId() + " (" + context.getContextName() + ")");
@@ -179,132 +186,157 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     }
 
     @Override
-    public synchronized void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
+    public void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional) {
         final long contextId = context.getContextId();
-        QMMConnectionInfo connection = connectionMap.get(contextId);
-        if (connection == null) {
-            connection = new QMMConnectionInfo(
-                context,
-                transactional);
-            connectionMap.put(contextId, connection);
-        } else {
-            // This session may already be in cache in case of reconnect/invalidate
-            // (when context closed and reopened without new context object creation)
-            connection.reopen(context);
-        }
+        synchronized (connectionSync) {
+            QMMConnectionInfo connection = connectionMap.get(contextId);
+            if (connection == null) {
+                connection = new QMMConnectionInfo(
+                    context,
+                    transactional);
+                connectionMap.put(contextId, connection);
+            } else {
+                // This session may already be in cache in case of reconnect/invalidate
+                // (when context closed and reopened without new context object creation)
+                synchronized (connection) {
+                    connection.reopen(context);
+                }
+            }
 
-        // Remove from closed sessions (in case of re-opened connection)
-        closedConnections.remove(contextId);
-        tryFireMetaEvent(connection, QMEventAction.BEGIN, context);
-        // Notify
+            // Remove from closed sessions (in case of re-opened connection)
+            closedConnections.remove(contextId);
+            tryFireMetaEvent(connection, QMEventAction.BEGIN, context);
+        }
     }
 
     @Override
-    public synchronized void handleContextClose(@NotNull DBCExecutionContext context) {
-        QMMConnectionInfo session = getConnectionInfo(context);
-        if (session != null) {
-            session.close();
-            tryFireMetaEvent(session, QMEventAction.END, context);
+    public void handleContextClose(@NotNull DBCExecutionContext context) {
+        synchronized (connectionSync) {
+            QMMConnectionInfo session = getConnectionInfo(context);
+            if (session != null) {
+                synchronized (session) {
+                    session.close();
+                    tryFireMetaEvent(session, QMEventAction.END, context);
+                }
+            }
+            closedConnections.add(context.getContextId());
         }
-        closedConnections.add(context.getContextId());
     }
 
     @Override
-    public synchronized void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit) {
+    public void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+                }
+                tryFireMetaEvent(sessionInfo, QMEventAction.UPDATE, context);
             }
-            tryFireMetaEvent(sessionInfo, QMEventAction.UPDATE, context);
         }
     }
 
     @Override
-    public synchronized void handleTransactionCommit(@NotNull DBCExecutionContext context) {
+    public void handleTransactionCommit(@NotNull DBCExecutionContext context) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.commit();
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.commit();
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint) {
+    public void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint) {
         QMMConnectionInfo sessionInfo = getConnectionInfo(context);
         if (sessionInfo != null) {
-            QMMObject oldTxn = sessionInfo.rollback(savepoint);
-            if (oldTxn != null) {
-                tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+            synchronized (sessionInfo) {
+                QMMObject oldTxn = sessionInfo.rollback(savepoint);
+                if (oldTxn != null) {
+                    tryFireMetaEvent(oldTxn, QMEventAction.END, context);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementOpen(@NotNull DBCStatement statement) {
+    public void handleStatementOpen(@NotNull DBCStatement statement) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.openStatement(statement);
-            tryFireMetaEvent(stat, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementInfo stat = session.openStatement(statement);
+                tryFireMetaEvent(stat, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+            }
         }
     }
 
     @Override
-    public synchronized void handleStatementClose(@NotNull DBCStatement statement, long rows) {
+    public void handleStatementClose(@NotNull DBCStatement statement, long rows) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.closeStatement(statement, rows);
-            if (stat == null) {
-                log.warn("Can't properly handle statement close");
-            } else {
-                tryFireMetaEvent(stat, QMEventAction.END, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementInfo stat = session.closeStatement(statement, rows);
+                if (stat == null) {
+                    log.warn("Can't properly handle statement close");
+                } else {
+                    tryFireMetaEvent(stat, QMEventAction.END, statement.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteBegin(@NotNull DBCStatement statement) {
+    public void handleStatementExecuteBegin(@NotNull DBCStatement statement) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginExecution(statement);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginExecution(statement);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.BEGIN, statement.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
+    public void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
         QMMConnectionInfo session = getConnectionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.END, statement.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.END, statement.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetOpen(@NotNull DBCResultSet resultSet) {
+    public void handleResultSetOpen(@NotNull DBCResultSet resultSet) {
         QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
+    public void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
         QMMConnectionInfo session = getConnectionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
-            if (exec != null) {
-                tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
+                if (exec != null) {
+                    tryFireMetaEvent(exec, QMEventAction.UPDATE, resultSet.getSession().getExecutionContext());
+                }
             }
         }
     }
@@ -319,13 +351,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
         @Override
         protected IStatus run(DBRProgressMonitor monitor) {
-            final List<QMMetaEvent> events;
-            List<Long> sessionsToClose;
-            synchronized (QMMCollectorImpl.this) {
-                events = obtainEvents();
-                sessionsToClose = closedConnections;
-                closedConnections.clear();
-            }
+            final List<QMMetaEvent> events = obtainEvents();
             if (!events.isEmpty()) {
                 final List<QMMetaListener> listeners = getListeners();
                 if (!listeners.isEmpty() && !events.isEmpty()) {
@@ -349,10 +375,10 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
                 }
             }
             // Cleanup closed sessions
-            synchronized (QMMCollectorImpl.this) {
-                for (Long sessionId : sessionsToClose) {
+            synchronized (connectionSync) {
+                for (Long sessionId = closedConnections.poll(); sessionId != null; sessionId = closedConnections.poll()) {
                     final QMMConnectionInfo session = connectionMap.get(sessionId);
-                    if (session != null && !session.isClosed()) {
+                    if (session != null && session.isClosed()) {
                         // It is possible (rarely) that session was reopened before event dispatcher run
                         // In that case just ignore it
                         connectionMap.remove(sessionId);
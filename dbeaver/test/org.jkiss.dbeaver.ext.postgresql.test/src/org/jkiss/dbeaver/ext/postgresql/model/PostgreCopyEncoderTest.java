@@ -0,0 +1,208 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.dbeaver.ext.postgresql.model.PostgreCopyEncoder.BinaryType;
+import org.jkiss.junit.DBeaverUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+public class PostgreCopyEncoderTest extends DBeaverUnitTest {
+
+    private static final BinaryType[] BINARY_TYPES = {
+        BinaryType.INT4, BinaryType.INT8, BinaryType.FLOAT8, BinaryType.BOOL, BinaryType.UUID, BinaryType.TEXT
+    };
+
+    @Test
+    public void testBinaryRows() throws IOException {
+        PostgreCopyEncoder encoder = new PostgreCopyEncoder(BINARY_TYPES, BINARY_TYPES.length, 1024);
+        Assert.assertTrue(encoder.isBinary());
+        Assert.assertEquals("FORMAT BINARY", encoder.getFormatOptions());
+
+        UUID uuid = UUID.randomUUID();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        encoder.writeHeader();
+        encoder.writeRow(new Object[]{42, new BigDecimal("9000000000"), 1.5f, true, uuid, "Z\u00fcrich \"1\""});
+        encoder.writeRow(new Object[]{"-7", null, "2.25", "f", uuid.toString(), null});
+        encoder.writeTrailer();
+        encoder.flushBuffer(stream);
+        Assert.assertEquals(0, encoder.getBufferedSize());
+
+        List<Object[]> rows = readBinaryCopy(stream.toByteArray());
+        Assert.assertEquals(2, rows.size());
+        Assert.assertArrayEquals(new Object[]{42, 9000000000L, 1.5d, true, uuid, "Z\u00fcrich \"1\""}, rows.get(0));
+        Assert.assertArrayEquals(new Object[]{-7, null, 2.25d, false, uuid, null}, rows.get(1));
+    }
+
+    @Test
+    public void testBinaryRangeCheck() {
+        PostgreCopyEncoder encoder = new PostgreCopyEncoder(new BinaryType[]{BinaryType.INT2}, 1, 1024);
+        Assert.assertThrows(IOException.class, () -> encoder.writeRow(new Object[]{40000}));
+        Assert.assertThrows(IOException.class, () -> encoder.writeRow(new Object[]{new BigDecimal("1.5")}));
+        Assert.assertThrows(IOException.class, () -> encoder.writeRow(new Object[]{"abc"}));
+    }
+
+    @Test
+    public void testCsvRows() throws IOException {
+        PostgreCopyEncoder encoder = new PostgreCopyEncoder(null, 3, 1024);
+        Assert.assertFalse(encoder.isBinary());
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        encoder.writeHeader();
+        encoder.writeRow(new Object[]{1, "say \"hi\"", new BigDecimal("1E+3")});
+        encoder.writeRow(new Object[]{null, "", "C:\\temp\\"});
+        encoder.writeTrailer();
+        encoder.flushBuffer(stream);
+
+        Assert.assertEquals(
+            "1,\"say \\\"hi\\\"\",1000\n" +
+            ",\"\",\"C:\\\\temp\\\\\"\n",
+            stream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testStreamingCopy() throws IOException {
+        // Copy stream stand-in which keeps statistics only
+        CountingCopyIn copyIn = new CountingCopyIn();
+        int bufferSize = 8 * 1024;
+        PostgreCopyEncoder encoder = new PostgreCopyEncoder(BINARY_TYPES, BINARY_TYPES.length, bufferSize);
+        UUID uuid = UUID.randomUUID();
+        int rowCount = 200_000;
+
+        encoder.writeHeader();
+        for (int i = 0; i < rowCount; i++) {
+            encoder.writeRow(new Object[]{i, (long) i * 1000, i / 3.0, i % 2 == 0, uuid, "row " + i});
+            if (encoder.getBufferedSize() >= bufferSize) {
+                encoder.flushBuffer(copyIn);
+            }
+        }
+        encoder.writeTrailer();
+        encoder.flushBuffer(copyIn);
+
+        // Rows are written in bounded chunks
+        Assert.assertTrue(copyIn.maxChunkSize < bufferSize * 2);
+        Assert.assertTrue(copyIn.chunkCount > rowCount / 1000);
+        Assert.assertEquals(rowCount, copyIn.rowCount);
+    }
+
+    private static List<Object[]> readBinaryCopy(byte[] data) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(data));
+        byte[] signature = new byte[11];
+        input.readFully(signature);
+        Assert.assertArrayEquals("PGCOPY\n\377\r\n\0".getBytes(StandardCharsets.ISO_8859_1), signature);
+        Assert.assertEquals(0, input.readInt());
+        Assert.assertEquals(0, input.readInt());
+
+        List<Object[]> rows = new ArrayList<>();
+        for (short fieldCount = input.readShort(); fieldCount != -1; fieldCount = input.readShort()) {
+            Assert.assertEquals(BINARY_TYPES.length, fieldCount);
+            Object[] row = new Object[fieldCount];
+            for (int i = 0; i < fieldCount; i++) {
+                int length = input.readInt();
+                if (length == -1) {
+                    continue;
+                }
+                byte[] value = new byte[length];
+                input.readFully(value);
+                ByteBuffer buffer = ByteBuffer.wrap(value);
+                row[i] = switch (BINARY_TYPES[i]) {
+                    case INT4 -> buffer.getInt();
+                    case INT8 -> buffer.getLong();
+                    case FLOAT8 -> buffer.getDouble();
+                    case BOOL -> value[0] != 0;
+                    case UUID -> new UUID(buffer.getLong(), buffer.getLong());
+                    case TEXT -> new String(value, StandardCharsets.UTF_8);
+                    default -> throw new IllegalStateException();
+                };
+            }
+            rows.add(row);
+        }
+        Assert.assertEquals(-1, input.read());
+        return rows;
+    }
+
+    /**
+     * Parses binary COPY data on the fly and counts rows
+     */
+    private static class CountingCopyIn extends OutputStream {
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private int chunkCount;
+        private int maxChunkSize;
+        private int rowCount;
+        private boolean headerRead;
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            chunkCount++;
+            maxChunkSize = Math.max(maxChunkSize, len);
+            pending.write(b, off, len);
+            ByteBuffer buffer = ByteBuffer.wrap(pending.toByteArray());
+            if (!headerRead) {
+                buffer.position(19);
+                headerRead = true;
+            }
+            while (buffer.remaining() >= 2) {
+                int rowStart = buffer.position();
+                short fieldCount = buffer.getShort();
+                if (fieldCount == -1) {
+                    break;
+                }
+                boolean complete = true;
+                for (int i = 0; i < fieldCount && complete; i++) {
+                    if (buffer.remaining() < 4) {
+                        complete = false;
+                        break;
+                    }
+                    int length = buffer.getInt();
+                    if (length > 0) {
+                        if (buffer.remaining() < length) {
+                            complete = false;
+                        } else {
+                            buffer.position(buffer.position() + length);
+                        }
+                    }
+                }
+                if (!complete) {
+                    buffer.position(rowStart);
+                    break;
+                }
+                rowCount++;
+            }
+            byte[] rest = Arrays.copyOfRange(buffer.array(), buffer.position(), buffer.limit());
+            pending.reset();
+            pending.write(rest, 0, rest.length);
+        }
+    }
+}
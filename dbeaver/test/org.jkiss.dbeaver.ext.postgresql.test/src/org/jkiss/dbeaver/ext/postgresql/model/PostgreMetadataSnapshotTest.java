@@ -0,0 +1,174 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataSnapshotStore;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCPreparedStatementImpl;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.junit.DBeaverUnitTest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class PostgreMetadataSnapshotTest extends DBeaverUnitTest {
+
+    private static final String COLLATIONS_QUERY = "SELECT c.oid,c.* FROM pg_catalog.pg_collation c ORDER BY c.oid";
+    private static final String[][] COLLATIONS = {{"100", "default"}, {"950", "C"}, {"951", "POSIX"}};
+
+    private final JDBCMetadataSnapshotStore store = JDBCMetadataSnapshotStore.getInstance();
+    private final List<ResultSet> openedResults = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        store.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        store.setEnabled(false);
+    }
+
+    @Test
+    public void testSessionsWithSameConfigurationShareCollations() throws Exception {
+        PostgreDatabase.CollationCache cache = new PostgreDatabase.CollationCache();
+        Assert.assertTrue(cache.isSharedSnapshotSupported());
+        long hits = store.getHitCount();
+
+        // Two users open the same connection configuration, each gets its own data source
+        DBSObject firstOwner = mockDatabase();
+        JDBCSession firstSession = mockSession();
+        JDBCPreparedStatementImpl firstStatement = mockStatement(openCollations());
+        store.executeStatement(firstSession, firstStatement, firstOwner, cache, null);
+        Assert.assertEquals(List.of("100:default", "950:C", "951:POSIX"), readCollations(openedResults.get(0)));
+
+        DBSObject secondOwner = mockDatabase();
+        JDBCSession secondSession = mockSession();
+        JDBCPreparedStatementImpl secondStatement = mockStatement(null);
+        store.executeStatement(secondSession, secondStatement, secondOwner, cache, null);
+        Assert.assertEquals(List.of("100:default", "950:C", "951:POSIX"), readCollations(openedResults.get(1)));
+
+        // Second session didn't query the catalog
+        Mockito.verify(firstStatement).executeStatement();
+        Mockito.verify(secondStatement, Mockito.never()).executeStatement();
+        Assert.assertEquals(hits + 1, store.getHitCount());
+    }
+
+    @Test
+    public void testChangedConfigurationIsNotShared() throws Exception {
+        PostgreDatabase.CollationCache cache = new PostgreDatabase.CollationCache();
+        store.executeStatement(mockSession(), mockStatement(openCollations()), mockDatabase(), cache, null);
+        readCollations(openedResults.get(0));
+
+        DBSObject otherUserDatabase = mockDatabase();
+        otherUserDatabase.getDataSource().getContainer().getActualConnectionConfiguration().setUserName("other");
+        JDBCPreparedStatementImpl statement = mockStatement(openCollations());
+        store.executeStatement(mockSession(), statement, otherUserDatabase, cache, null);
+        Mockito.verify(statement).executeStatement();
+    }
+
+    private DBSObject mockDatabase() {
+        DBPConnectionConfiguration configuration = new DBPConnectionConfiguration();
+        configuration.setHostName("localhost");
+        configuration.setHostPort("5432");
+        configuration.setDatabaseName("postgres");
+        configuration.setUserName("tester");
+        configuration.setUserPassword("test");
+
+        DBPProject project = Mockito.mock(DBPProject.class);
+        Mockito.when(project.getId()).thenReturn("General");
+        DBPDriver driver = Mockito.mock(DBPDriver.class);
+        Mockito.when(driver.getFullId()).thenReturn("postgresql:postgres-jdbc");
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        Mockito.when(container.getId()).thenReturn("postgres-jdbc-1");
+        Mockito.when(container.getProject()).thenReturn(project);
+        Mockito.when(container.getDriver()).thenReturn(driver);
+        Mockito.when(container.getActualConnectionConfiguration()).thenReturn(configuration);
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+
+        DBSObject database = Mockito.mock(DBSObject.class);
+        Mockito.when(database.getName()).thenReturn("postgres");
+        Mockito.when(database.getDataSource()).thenReturn(dataSource);
+        return database;
+    }
+
+    private JDBCSession mockSession() throws SQLException {
+        JDBCSession session = Mockito.mock(JDBCSession.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(session.getDataSource().getJdbcFactory().createResultSet(
+            Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())
+        ).thenAnswer(invocation -> {
+            openedResults.add(invocation.getArgument(2));
+            return Mockito.mock(JDBCResultSet.class);
+        });
+        return session;
+    }
+
+    private static JDBCPreparedStatementImpl mockStatement(JDBCResultSet resultSet) throws SQLException {
+        JDBCPreparedStatementImpl statement = Mockito.mock(JDBCPreparedStatementImpl.class);
+        Mockito.when(statement.getQueryString()).thenReturn(COLLATIONS_QUERY);
+        Mockito.when(statement.getBoundValues()).thenReturn(Map.of());
+        Mockito.when(statement.getResultSet()).thenReturn(resultSet);
+        return statement;
+    }
+
+    private static JDBCResultSet openCollations() throws SQLException {
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(2);
+        Mockito.when(metaData.getColumnType(Mockito.anyInt())).thenReturn(Types.VARCHAR);
+        Mockito.when(metaData.getColumnLabel(1)).thenReturn("oid");
+        Mockito.when(metaData.getColumnLabel(2)).thenReturn("collname");
+
+        int[] position = {-1};
+        JDBCResultSet resultSet = Mockito.mock(JDBCResultSet.class);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> ++position[0] < COLLATIONS.length);
+        Mockito.when(resultSet.getObject(Mockito.anyInt())).thenAnswer(
+            invocation -> COLLATIONS[position[0]][(Integer) invocation.getArgument(0) - 1]);
+        Mockito.when(resultSet.getString(Mockito.anyInt())).thenAnswer(
+            invocation -> COLLATIONS[position[0]][(Integer) invocation.getArgument(0) - 1]);
+        Mockito.when(resultSet.getString(Mockito.anyString())).thenAnswer(
+            invocation -> COLLATIONS[position[0]]["oid".equals(invocation.getArgument(0)) ? 0 : 1]);
+        return resultSet;
+    }
+
+    private static List<String> readCollations(ResultSet resultSet) throws SQLException {
+        List<String> collations = new ArrayList<>();
+        try (resultSet) {
+            while (resultSet.next()) {
+                collations.add(resultSet.getString("oid") + ":" + resultSet.getString("collname"));
+            }
+        }
+        return collations;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data.formatters;
+
+import org.jkiss.dbeaver.model.struct.DBSTypedObject;
+import org.jkiss.junit.DBeaverUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class NumberDataFormatterTest extends DBeaverUnitTest {
+
+    private static final Locale[] LOCALES = {
+        Locale.US, Locale.GERMANY, Locale.FRANCE, new Locale("de", "CH"), new Locale("ar", "EG"),
+        new Locale("fa", "IR"), new Locale("hi", "IN"), new Locale("th", "TH", "TH"), new Locale("sv", "SE")
+    };
+
+    private static final long[] VALUES = {
+        0, 1, -1, 7, -42, 999, 1000, -1000, 123456789, -987654321, Integer.MAX_VALUE, Integer.MIN_VALUE,
+        Long.MAX_VALUE, Long.MIN_VALUE, 100000000000L, -5000000000000000L
+    };
+
+    @Test
+    public void testIntegersMatchDecimalFormat() {
+        for (Locale locale : LOCALES) {
+            for (boolean grouping : new boolean[]{true, false}) {
+                for (int groupingSize : new int[]{0, 2, 3, 4}) {
+                    for (int minIntDigits : new int[]{0, 1, 5, 25}) {
+                        for (int typeScale : new int[]{0, 2}) {
+                            Map<String, Object> properties = new HashMap<>();
+                            properties.put(NumberFormatSample.PROP_USE_GROUPING, grouping);
+                            properties.put(NumberFormatSample.PROP_GROUPING_SIZE, groupingSize);
+                            properties.put(NumberFormatSample.PROP_MIN_INT_DIGITS, minIntDigits);
+                            properties.put(NumberFormatSample.PROP_USE_TYPE_SCALE, true);
+
+                            NumberDataFormatter formatter = new NumberDataFormatter();
+                            formatter.init(makeType(typeScale), locale, properties);
+
+                            DecimalFormat expectedFormat = (DecimalFormat) NumberFormat.getNumberInstance(locale);
+                            expectedFormat.setGroupingUsed(grouping);
+                            expectedFormat.setGroupingSize(groupingSize);
+                            expectedFormat.setMinimumIntegerDigits(minIntDigits);
+                            expectedFormat.setMinimumFractionDigits(typeScale);
+                            for (long value : VALUES) {
+                                String expected = expectedFormat.format(value);
+                                String message = locale + ", grouping " + grouping + "/" + groupingSize +
+                                    ", min digits " + minIntDigits + ", scale " + typeScale;
+                                Assert.assertEquals(message, expected, formatter.formatValue(value));
+                                Assert.assertEquals(message, expectedFormat.format((int) value), formatter.formatValue((int) value));
+                                Assert.assertEquals(message, expectedFormat.format((short) value), formatter.formatValue((short) value));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLeadingZeroesAndLimitedDigits() {
+        DBSTypedObject type = makeType(2);
+        Mockito.when(type.getPrecision()).thenReturn(8);
+        Mockito.when(type.getTypeModifiers()).thenReturn((long) DBSTypedObject.TYPE_MOD_NUMBER_LEADING_ZEROES);
+        NumberDataFormatter formatter = new NumberDataFormatter();
+        formatter.init(type, Locale.US, new HashMap<>());
+        Assert.assertEquals("001234.00", formatter.formatValue(1234));
+        Assert.assertEquals("-000042.00", formatter.formatValue(-42L));
+        Assert.assertEquals("001234.50", formatter.formatValue(new BigDecimal("1234.5")));
+
+        // High order digits are truncated by DecimalFormat, the same must happen for integers
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(NumberFormatSample.PROP_MAX_INT_DIGITS, 3);
+        formatter.init(null, Locale.US, properties);
+        Assert.assertEquals("456", formatter.formatValue(123456L));
+    }
+
+    @Test
+    public void testConcurrentFormatting() throws Exception {
+        Map<String, Object> properties = new NumberFormatSample().getDefaultProperties(Locale.GERMANY);
+        NumberDataFormatter formatter = new NumberDataFormatter();
+        formatter.init(makeType(4), Locale.GERMANY, properties);
+
+        Random random = new Random(1);
+        Object[] values = new Object[2000];
+        String[] expected = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = switch (i % 4) {
+                case 0 -> random.nextLong();
+                case 1 -> random.nextInt();
+                case 2 -> random.nextDouble() * 1_000_000;
+                default -> BigDecimal.valueOf(random.nextLong(), 4);
+            };
+            expected[i] = formatter.formatValue(values[i]);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 32; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int round = 0; round < 5; round++) {
+                        for (int i = 0; i < values.length; i++) {
+                            Assert.assertEquals(expected[i], formatter.formatValue(values[i]));
+                            Assert.assertEquals(
+                                ((Number) values[i]).longValue(),
+                                ((Number) formatter.parseValue(formatter.formatValue(((Number) values[i]).longValue()), Long.class)).longValue());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParseValue() throws ParseException {
+        NumberDataFormatter formatter = new NumberDataFormatter();
+        formatter.init(null, Locale.US, new HashMap<>());
+        Assert.assertEquals(1234567, formatter.parseValue("1,234,567", Integer.class));
+        Assert.assertEquals(new BigDecimal("1234.5678"), formatter.parseValue("1,234.5678", BigDecimal.class));
+        Assert.assertEquals(12.5d, formatter.parseValue("12.5", Double.class));
+    }
+
+    private static DBSTypedObject makeType(int scale) {
+        DBSTypedObject type = Mockito.mock(DBSTypedObject.class);
+        Mockito.when(type.getScale()).thenReturn(scale);
+        return type;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.junit.DBeaverUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class JDBCMetadataSnapshotTest extends DBeaverUnitTest {
+
+    private static final String[] COLUMNS = {"TABLE_NAME", "TABLE_OID", "IS_VIEW", "CREATED", "CREATE_DATE"};
+    private static final int[] TYPES = {Types.VARCHAR, Types.NUMERIC, Types.BOOLEAN, Types.TIMESTAMP, Types.DATE};
+
+    private final AtomicInteger catalogQueries = new AtomicInteger();
+
+    @Test
+    public void testReplayMatchesSource() throws SQLException {
+        Object[][] rows = makeRows(3);
+        AtomicReference<JDBCMetadataSnapshot> snapshot = new AtomicReference<>();
+        List<String> recorded = readTables(JDBCMetadataSnapshot.recordResultSet(openCatalog(rows), 100, snapshot::set));
+        Assert.assertNotNull(snapshot.get());
+        Assert.assertEquals(3, snapshot.get().getRowCount());
+
+        List<String> replayed = readTables(snapshot.get().openResultSet(null));
+        Assert.assertEquals(recorded, replayed);
+        Assert.assertEquals("table_1:1:false:1000", replayed.get(1));
+
+        try (ResultSet resultSet = snapshot.get().openResultSet(null)) {
+            Assert.assertEquals(COLUMNS.length, resultSet.getMetaData().getColumnCount());
+            Assert.assertEquals("TABLE_OID", resultSet.getMetaData().getColumnLabel(2));
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(0, resultSet.getInt(2));
+            Assert.assertEquals("0", resultSet.getString("table_oid"));
+            Assert.assertNull(resultSet.getString("CREATED"));
+            Assert.assertTrue(resultSet.wasNull());
+            Assert.assertThrows(SQLException.class, () -> resultSet.getString("MISSING"));
+        }
+    }
+
+    @Test
+    public void testValuesAreNotConverted() throws SQLException {
+        AtomicReference<JDBCMetadataSnapshot> snapshot = new AtomicReference<>();
+        Statement statement = Mockito.mock(Statement.class);
+        List<String> recorded = readValues(JDBCMetadataSnapshot.recordResultSet(openCatalog(makeRows(2)), 100, snapshot::set));
+        // Driver formats booleans in its own way, dates are not turned into timestamps
+        Assert.assertEquals(
+            List.of("table_0:0:t:null:1970-01-01", "table_1:1:f:" + new Timestamp(1000L) + ":1970-01-02"),
+            recorded);
+        Assert.assertEquals(recorded, readValues(snapshot.get().openResultSet(statement)));
+
+        try (ResultSet resultSet = snapshot.get().openResultSet(statement)) {
+            Assert.assertSame(statement, resultSet.getStatement());
+            Assert.assertEquals(Types.DATE, resultSet.getMetaData().getColumnType(5));
+            Assert.assertEquals(10, resultSet.getMetaData().getPrecision(5));
+            Assert.assertEquals(java.sql.Date.class.getName(), resultSet.getMetaData().getColumnClassName(5));
+        }
+    }
+
+    @Test
+    public void testSourceIsReadDirectly() throws SQLException {
+        AtomicReference<JDBCMetadataSnapshot> snapshot = new AtomicReference<>();
+        Statement statement = Mockito.mock(Statement.class);
+        try (ResultSet resultSet = JDBCMetadataSnapshot.recordResultSet(openCatalog(makeRows(2), statement), 100, snapshot::set)) {
+            Assert.assertSame(statement, resultSet.getStatement());
+            Assert.assertTrue(resultSet.next());
+            // Unsupported source method fails as in the source
+            Assert.assertThrows(UnsupportedOperationException.class, () -> resultSet.getBytes(1));
+        }
+    }
+
+    @Test
+    public void testIncompleteResultsAreNotShared() throws SQLException {
+        AtomicReference<JDBCMetadataSnapshot> snapshot = new AtomicReference<>();
+        try (ResultSet resultSet = JDBCMetadataSnapshot.recordResultSet(openCatalog(makeRows(3)), 100, snapshot::set)) {
+            Assert.assertTrue(resultSet.next());
+        }
+        Assert.assertNull(snapshot.get());
+
+        // Too many rows
+        readTables(JDBCMetadataSnapshot.recordResultSet(openCatalog(makeRows(3)), 2, snapshot::set));
+        Assert.assertNull(snapshot.get());
+    }
+
+    @Test
+    public void testSessionsShareCatalogRead() throws SQLException {
+        Object[][] rows = makeRows(1000);
+        AtomicReference<JDBCMetadataSnapshot> sharedSnapshot = new AtomicReference<>();
+        List<String> firstSessionTables = null;
+        int sessionCount = 50;
+        for (int i = 0; i < sessionCount; i++) {
+            JDBCMetadataSnapshot snapshot = sharedSnapshot.get();
+            ResultSet resultSet = snapshot != null ?
+                snapshot.openResultSet(null) :
+                JDBCMetadataSnapshot.recordResultSet(openCatalog(rows), 100_000, sharedSnapshot::set);
+            List<String> tables = readTables(resultSet);
+            if (firstSessionTables == null) {
+                firstSessionTables = tables;
+            } else {
+                Assert.assertEquals(firstSessionTables, tables);
+            }
+        }
+        // One catalog read and one copy of rows for all sessions
+        Assert.assertEquals(1, catalogQueries.get());
+        Assert.assertEquals(rows.length, sharedSnapshot.get().getRowCount());
+    }
+
+    private static Object[][] makeRows(int count) {
+        Object[][] rows = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = new Object[]{
+                "table_" + i,
+                new BigDecimal(i),
+                i % 2 == 0,
+                i == 0 ? null : new Timestamp(i * 1000L),
+                java.sql.Date.valueOf(LocalDate.of(1970, 1, 1).plusDays(i))};
+        }
+        return rows;
+    }
+
+    private static List<String> readTables(ResultSet resultSet) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (resultSet) {
+            while (resultSet.next()) {
+                Timestamp created = resultSet.getTimestamp("CREATED");
+                tables.add(resultSet.getString("TABLE_NAME") + ":" + resultSet.getLong("TABLE_OID") + ":" +
+                    resultSet.getBoolean("IS_VIEW") + ":" + (created == null ? null : created.getTime()));
+            }
+        }
+        return tables;
+    }
+
+    private static List<String> readValues(ResultSet resultSet) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (resultSet) {
+            while (resultSet.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 1; i <= COLUMNS.length; i++) {
+                    row.append(i > 1 ? ":" : "").append(resultSet.getString(i));
+                }
+                values.add(row.toString());
+            }
+        }
+        return values;
+    }
+
+    private ResultSet openCatalog(Object[][] rows) {
+        return openCatalog(rows, null);
+    }
+
+    /**
+     * Simple forward-only result set over rows array.
+     * Formats booleans like PostgreSQL driver does.
+     */
+    private ResultSet openCatalog(Object[][] rows, Statement statement) {
+        catalogQueries.incrementAndGet();
+        int[] position = {-1};
+        boolean[] wasNull = {false};
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[]{ResultSetMetaData.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getColumnCount" -> COLUMNS.length;
+                case "getColumnLabel", "getColumnName" -> COLUMNS[(Integer) args[0] - 1];
+                case "getColumnType" -> TYPES[(Integer) args[0] - 1];
+                case "getColumnTypeName" -> JDBCType.valueOf(TYPES[(Integer) args[0] - 1]).getName();
+                case "getPrecision" -> 10;
+                case "getColumnClassName" -> TYPES[(Integer) args[0] - 1] == Types.DATE ? java.sql.Date.class.getName() : "";
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+        return (ResultSet) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getMetaData" -> metaData;
+                case "getStatement" -> statement;
+                case "next" -> ++position[0] < rows.length;
+                case "close" -> null;
+                case "wasNull" -> wasNull[0];
+                case "getObject", "getString", "getLong", "getInt", "getBoolean", "getTimestamp" -> {
+                    int index = args[0] instanceof Integer number ? number - 1 : List.of(COLUMNS).indexOf(args[0]);
+                    Object value = rows[position[0]][index];
+                    wasNull[0] = value == null;
+                    yield switch (method.getName()) {
+                        case "getString" -> value instanceof Boolean bool ? (bool ? "t" : "f") : value == null ? null : value.toString();
+                        case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                        case "getInt" -> value == null ? 0 : ((Number) value).intValue();
+                        case "getBoolean" -> value != null && (Boolean) value;
+                        case "getTimestamp" -> value == null ? null : new Timestamp(((java.util.Date) value).getTime());
+                        default -> value;
+                    };
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
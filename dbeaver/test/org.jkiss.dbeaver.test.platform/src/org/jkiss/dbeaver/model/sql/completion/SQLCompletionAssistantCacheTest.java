@@ -0,0 +1,204 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectReference;
+import org.jkiss.dbeaver.model.struct.DBSObjectType;
+import org.jkiss.dbeaver.model.struct.DBSStructureAssistant;
+import org.jkiss.dbeaver.model.impl.struct.RelationalObjectType;
+import org.jkiss.junit.DBeaverUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class SQLCompletionAssistantCacheTest extends DBeaverUnitTest {
+
+    private static final String[] WORDS = {"customer", "order", "item", "invoice", "payment", "product", "user", "tmp"};
+    private static final DBSObjectType[] TABLE_TYPES = {RelationalObjectType.TYPE_TABLE};
+    private static final DBRProgressMonitor MONITOR = new VoidProgressMonitor();
+
+    @Test
+    public void testMaskMatching() {
+        Assert.assertTrue(SQLCompletionAssistantCache.matchesMask("customer_1", "CUST%", false));
+        Assert.assertFalse(SQLCompletionAssistantCache.matchesMask("customer_1", "CUST%", true));
+        Assert.assertTrue(SQLCompletionAssistantCache.matchesMask("order_customer", "%tom%", false));
+        Assert.assertTrue(SQLCompletionAssistantCache.matchesMask("customerX1", "customer_1", false));
+        Assert.assertFalse(SQLCompletionAssistantCache.matchesMask("customer_12", "customer_1", false));
+
+        Assert.assertTrue(SQLCompletionAssistantCache.isNarrowerMask("cu%", "cust%", false));
+        Assert.assertTrue(SQLCompletionAssistantCache.isNarrowerMask("cu%", "CUSTOMER", false));
+        Assert.assertFalse(SQLCompletionAssistantCache.isNarrowerMask("cu%", "CUST%", true));
+        Assert.assertTrue(SQLCompletionAssistantCache.isNarrowerMask("%", "c%", false));
+        Assert.assertTrue(SQLCompletionAssistantCache.isNarrowerMask("%us%", "%cust%", false));
+        Assert.assertFalse(SQLCompletionAssistantCache.isNarrowerMask("%us%", "%cs%", false));
+        Assert.assertFalse(SQLCompletionAssistantCache.isNarrowerMask("cust%", "cu%", false));
+        Assert.assertFalse(SQLCompletionAssistantCache.isNarrowerMask("cust", "customer", false));
+    }
+
+    /**
+     * Types a table name over a synthetic 50k tables catalog, checks catalog round trips and results
+     */
+    @Test
+    public void testTypingDoesNotQueryCatalog() throws Exception {
+        List<DBSObjectReference> catalog = makeCatalog(50_000);
+        AtomicInteger catalogQueries = new AtomicInteger();
+        DBSStructureAssistant<?> assistant = mockAssistant(catalog, catalogQueries);
+        DBPDataSource dataSource = mockDataSource();
+
+        String[] keystrokes = {
+            "c", "cu", "cus", "custo", "customer_", "customer_o", "customer_order_",
+            "customer_order_1", "customer_order_12", "customer_order_123", "customer_order_1234", "customer_order_12"};
+        for (String typed : keystrokes) {
+            Collection<DBSObjectReference> references = SQLCompletionAssistantCache.findObjectsByMask(
+                MONITOR, dataSource, assistant, null, makeParams(typed + "%"));
+            Assert.assertEquals(typed, searchCatalog(catalog, typed + "%", SQLCompletionAnalyzer.MAX_STRUCT_PROPOSALS), references);
+        }
+        // Prefixes up to "customer_order_1" match more than max results, the rest is filtered in memory
+        Assert.assertEquals(9, catalogQueries.get());
+
+        SQLCompletionAssistantCache.invalidate(dataSource.getContainer());
+        SQLCompletionAssistantCache.findObjectsByMask(MONITOR, dataSource, assistant, null, makeParams("customer_order_12%"));
+        Assert.assertEquals(10, catalogQueries.get());
+    }
+
+    @Test
+    public void testDifferentScopesAreNotMixed() throws Exception {
+        List<DBSObjectReference> catalog = makeCatalog(1000);
+        AtomicInteger catalogQueries = new AtomicInteger();
+        DBSStructureAssistant<?> assistant = mockAssistant(catalog, catalogQueries);
+        DBPDataSource dataSource = mockDataSource();
+
+        SQLCompletionAssistantCache.findObjectsByMask(MONITOR, dataSource, assistant, null, makeParams("zzz%"));
+        DBSStructureAssistant.ObjectsSearchParams caseSensitive = makeParams("zzz%");
+        caseSensitive.setCaseSensitive(true);
+        SQLCompletionAssistantCache.findObjectsByMask(MONITOR, dataSource, assistant, null, caseSensitive);
+        DBSStructureAssistant.ObjectsSearchParams inParent = makeParams("zzz%");
+        inParent.setParentObject(mock(DBSObject.class));
+        SQLCompletionAssistantCache.findObjectsByMask(MONITOR, dataSource, assistant, null, inParent);
+        Assert.assertEquals(3, catalogQueries.get());
+
+        // Same search again
+        SQLCompletionAssistantCache.findObjectsByMask(MONITOR, dataSource, assistant, null, makeParams("zzz%"));
+        Assert.assertEquals(3, catalogQueries.get());
+    }
+
+    private static DBSStructureAssistant.ObjectsSearchParams makeParams(String mask) {
+        DBSStructureAssistant.ObjectsSearchParams params = new DBSStructureAssistant.ObjectsSearchParams(TABLE_TYPES, mask);
+        params.setMaxResults(SQLCompletionAnalyzer.MAX_STRUCT_PROPOSALS);
+        return params;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DBSStructureAssistant<?> mockAssistant(List<DBSObjectReference> catalog, AtomicInteger catalogQueries) throws Exception {
+        DBSStructureAssistant<?> assistant = mock(DBSStructureAssistant.class);
+        when(assistant.findObjectsByMask(any(), any(), any())).then(x -> {
+            catalogQueries.incrementAndGet();
+            DBSStructureAssistant.ObjectsSearchParams params = x.getArgument(2);
+            return searchCatalog(catalog, params.getMask(), params.getMaxResults());
+        });
+        return assistant;
+    }
+
+    /**
+     * Emulates catalog query: LIKE with case-insensitive comparison
+     */
+    private static List<DBSObjectReference> searchCatalog(List<DBSObjectReference> catalog, String mask, int maxResults) {
+        Pattern pattern = Pattern.compile(
+            mask.replace("_", ".").replace("%", ".*"),
+            Pattern.CASE_INSENSITIVE);
+        List<DBSObjectReference> result = new ArrayList<>();
+        for (DBSObjectReference reference : catalog) {
+            if (result.size() < maxResults && pattern.matcher(reference.getName()).matches()) {
+                result.add(reference);
+            }
+        }
+        return result;
+    }
+
+    private static List<DBSObjectReference> makeCatalog(int size) {
+        Random random = new Random(size);
+        List<DBSObjectReference> tables = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tables.add(new TestReference(WORDS[random.nextInt(WORDS.length)] + "_" + WORDS[random.nextInt(WORDS.length)] + "_" + i));
+        }
+        return tables;
+    }
+
+    private static DBPDataSource mockDataSource() {
+        Map<String, Object> attributes = new HashMap<>();
+        DBPDataSource dataSource = mock(DBPDataSource.class);
+        DBPDataSourceContainer container = mock(DBPDataSourceContainer.class);
+        when(container.getDataSource()).thenReturn(dataSource);
+        when(dataSource.getContainer()).thenReturn(container);
+        when(dataSource.getContextAttribute(anyString())).then(x -> attributes.get(x.getArgument(0, String.class)));
+        doAnswer(x -> attributes.put(x.getArgument(0), x.getArgument(1)))
+            .when(dataSource).setContextAttribute(anyString(), any());
+        doAnswer(x -> attributes.remove(x.getArgument(0, String.class)))
+            .when(dataSource).removeContextAttribute(anyString());
+        return dataSource;
+    }
+
+    private record TestReference(String name) implements DBSObjectReference {
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getFullyQualifiedName(DBPEvaluationContext context) {
+            return name;
+        }
+
+        @Override
+        public DBSObject getContainer() {
+            return null;
+        }
+
+        @Override
+        public Class<?> getObjectClass() {
+            return DBSObject.class;
+        }
+
+        @Override
+        public DBSObjectType getObjectType() {
+            return RelationalObjectType.TYPE_TABLE;
+        }
+
+        @Override
+        public String getObjectDescription() {
+            return null;
+        }
+
+        @Override
+        public DBSObject resolveObject(DBRProgressMonitor monitor) {
+            return null;
+        }
+    }
+}
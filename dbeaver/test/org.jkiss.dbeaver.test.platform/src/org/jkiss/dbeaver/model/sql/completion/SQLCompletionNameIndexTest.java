@@ -0,0 +1,202 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.text.TextUtils;
+import org.jkiss.junit.DBeaverUnitTest;
+import org.jkiss.utils.CommonUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class SQLCompletionNameIndexTest extends DBeaverUnitTest {
+
+    private static final String[] WORDS = {
+        "customer", "order", "item", "invoice", "payment", "product", "stock", "audit", "log", "user", "role", "tmp"
+    };
+    private static final String[] QUERIES = {
+        "c", "CUST", "customer_o", "ord", "x", "pay", "ProductStock", "tmp_9", "\u00dcber", "ueb", "cusord", "pmt", "aud_lg_1"
+    };
+    private static final DBPDataSource DATA_SOURCE = mockDataSource();
+
+    @Test
+    public void testLookupMatchesFullScan() {
+        List<DBSObject> tables = makeCatalog(50_000);
+        SQLCompletionNameIndex index = SQLCompletionNameIndex.getIndex(new TestObject("schema"), tables);
+        Assert.assertNotNull(index);
+
+        for (String query : QUERIES) {
+            Assert.assertEquals(query, scanByPrefix(tables, query), index.findByPrefix(query));
+
+            Map<String, Integer> expectedScores = new HashMap<>();
+            List<DBSObject> expected = scanFuzzy(tables, query, expectedScores);
+            Map<String, Integer> scores = new HashMap<>();
+            Assert.assertEquals(query, expected, index.findFuzzy(query, scores));
+            Assert.assertEquals(query, expectedScores, scores);
+        }
+    }
+
+    @Test
+    public void testIndexFollowsChildrenChanges() {
+        List<DBSObject> tables = makeCatalog(SQLCompletionNameIndex.MIN_INDEXED_OBJECTS);
+        TestObject parent = new TestObject("schema");
+        SQLCompletionNameIndex index = SQLCompletionNameIndex.getIndex(parent, tables);
+        Assert.assertSame(index, SQLCompletionNameIndex.getIndex(parent, tables));
+        Assert.assertNull(SQLCompletionNameIndex.getIndex(parent, tables.subList(0, 10)));
+
+        // Refresh creates new objects with the same names
+        List<DBSObject> refreshed = new ArrayList<>();
+        for (DBSObject table : tables) {
+            refreshed.add(new TestObject(table.getName()));
+        }
+        refreshed.set(0, new TestObject("new_table"));
+        SQLCompletionNameIndex newIndex = SQLCompletionNameIndex.getIndex(parent, refreshed);
+        Assert.assertNotSame(index, newIndex);
+        Assert.assertEquals(List.of(refreshed.get(0)), newIndex.findByPrefix("new_"));
+        Assert.assertSame(refreshed.get(1), newIndex.findByPrefix(refreshed.get(1).getName()).get(0));
+    }
+
+    @Test
+    public void testIndexesBelongToDataSource() {
+        List<DBSObject> tables = makeCatalog(SQLCompletionNameIndex.MIN_INDEXED_OBJECTS);
+        TestObject parent = new TestObject("schema");
+        SQLCompletionNameIndex index = SQLCompletionNameIndex.getIndex(parent, tables);
+        Assert.assertNotNull(index);
+        Assert.assertNotNull(DATA_SOURCE.getContextAttribute("sql.completion.nameIndexes"));
+
+        SQLCompletionNameIndex.invalidate(DATA_SOURCE.getContainer());
+        Assert.assertNull(DATA_SOURCE.getContextAttribute("sql.completion.nameIndexes"));
+        Assert.assertNotSame(index, SQLCompletionNameIndex.getIndex(parent, tables));
+
+        // Objects without data source are scanned directly
+        DBSObject orphan = mock(DBSObject.class);
+        Assert.assertNull(SQLCompletionNameIndex.getIndex(orphan, tables));
+    }
+
+    /**
+     * Compares lookup latency with full scan over a synthetic 50k tables catalog
+     */
+    @Test
+    public void testLookupLatency() {
+        List<DBSObject> tables = makeCatalog(50_000);
+        SQLCompletionNameIndex index = SQLCompletionNameIndex.getIndex(new TestObject("schema"), tables);
+        Assert.assertNotNull(index);
+        String[] keystrokes = {"c", "cu", "cus", "cust", "custo", "custom", "custome", "customer", "customer_", "customer_o"};
+
+        long scanTime = 0, indexTime = 0;
+        for (int round = 0; round < 5; round++) {
+            for (String query : keystrokes) {
+                long start = System.nanoTime();
+                int scanned = scanByPrefix(tables, query).size();
+                scanTime += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                Assert.assertEquals(scanned, index.findByPrefix(query).size());
+                indexTime += System.nanoTime() - start;
+            }
+        }
+        Assert.assertTrue("Index " + indexTime + "ns, scan " + scanTime + "ns", indexTime < scanTime);
+    }
+
+    private static List<DBSObject> scanByPrefix(List<DBSObject> tables, String prefix) {
+        List<DBSObject> result = new ArrayList<>();
+        for (DBSObject table : tables) {
+            if (CommonUtils.startsWithIgnoreCase(table.getName(), prefix)) {
+                result.add(table);
+            }
+        }
+        return result;
+    }
+
+    private static List<DBSObject> scanFuzzy(List<DBSObject> tables, String query, Map<String, Integer> scores) {
+        List<DBSObject> result = new ArrayList<>();
+        for (DBSObject table : tables) {
+            int score = TextUtils.fuzzyScore(table.getName(), query);
+            if (score > 0) {
+                result.add(table);
+                scores.put(table.getName(), score);
+            }
+        }
+        return result;
+    }
+
+    private static List<DBSObject> makeCatalog(int size) {
+        Random random = new Random(size);
+        List<DBSObject> tables = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + "_" + WORDS[random.nextInt(WORDS.length)] + "_" + i;
+            if (i % 97 == 0) {
+                name = name.toUpperCase(Locale.ENGLISH);
+            } else if (i % 101 == 0) {
+                name = "\u00dcber" + name;
+            } else if (i % 103 == 0) {
+                name = "ProductStock" + i;
+            }
+            tables.add(new TestObject(name));
+        }
+        return tables;
+    }
+
+    private static DBPDataSource mockDataSource() {
+        Map<String, Object> attributes = new HashMap<>();
+        DBPDataSource dataSource = mock(DBPDataSource.class);
+        DBPDataSourceContainer container = mock(DBPDataSourceContainer.class);
+        when(container.getDataSource()).thenReturn(dataSource);
+        when(dataSource.getContainer()).thenReturn(container);
+        when(dataSource.getContextAttribute(anyString())).then(x -> attributes.get(x.getArgument(0, String.class)));
+        doAnswer(x -> attributes.put(x.getArgument(0), x.getArgument(1)))
+            .when(dataSource).setContextAttribute(anyString(), any());
+        doAnswer(x -> attributes.remove(x.getArgument(0, String.class)))
+            .when(dataSource).removeContextAttribute(anyString());
+        return dataSource;
+    }
+
+    private record TestObject(String name) implements DBSObject {
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public DBSObject getParentObject() {
+            return null;
+        }
+
+        @Override
+        public DBPDataSource getDataSource() {
+            return DATA_SOURCE;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+    }
+}
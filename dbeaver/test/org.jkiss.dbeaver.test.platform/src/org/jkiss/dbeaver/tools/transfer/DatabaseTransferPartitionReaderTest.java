@@ -0,0 +1,236 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferPartitionReader;
+import org.jkiss.junit.DBeaverUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class DatabaseTransferPartitionReaderTest extends DBeaverUnitTest {
+
+    @Test
+    public void testSplitNumericRange() {
+        Assert.assertEquals(
+            List.of("250001", "500001", "750001"),
+            toStrings(DatabaseTransferPartitionReader.splitKeyRange(1, 1_000_000L, 4)));
+        Assert.assertEquals(
+            List.of("0.75", "1.00", "1.25"),
+            toStrings(DatabaseTransferPartitionReader.splitKeyRange(new BigDecimal("0.50"), 1.5, 4)));
+        // Narrow range gives fewer partitions
+        Assert.assertEquals(List.of("2", "3"), toStrings(DatabaseTransferPartitionReader.splitKeyRange(1, 3, 3)));
+        Assert.assertEquals(List.of("2"), toStrings(DatabaseTransferPartitionReader.splitKeyRange(1, 2, 8)));
+        Assert.assertTrue(DatabaseTransferPartitionReader.splitKeyRange(5, 5, 4).isEmpty());
+        Assert.assertTrue(DatabaseTransferPartitionReader.splitKeyRange(0, Double.NaN, 4).isEmpty());
+        Assert.assertTrue(DatabaseTransferPartitionReader.splitKeyRange("a", "z", 4).isEmpty());
+    }
+
+    @Test
+    public void testSplitDateRange() {
+        long start = Timestamp.valueOf("2024-01-01 00:00:00").getTime();
+        long day = 24 * 60 * 60 * 1000L;
+        List<Object> boundaries = DatabaseTransferPartitionReader.splitKeyRange(
+            new Timestamp(start), new Timestamp(start + 4 * day), 4);
+        Assert.assertEquals(
+            List.of(new Timestamp(start + day), new Timestamp(start + 2 * day), new Timestamp(start + 3 * day)),
+            boundaries);
+    }
+
+    /**
+     * Delivers rows of several partitions concurrently, checks that consumer gets them in non-overlapping blocks
+     */
+    @Test
+    public void testConcurrentDelivery() throws Exception {
+        int partitionCount = 4, rowCount = 10_000;
+        Set<Long> consumedKeys = ConcurrentHashMap.newKeySet();
+        AtomicBoolean inBlock = new AtomicBoolean();
+        AtomicLong consumedRows = new AtomicLong();
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        IDataTransferConsumer consumer = Mockito.mock(IDataTransferConsumer.class);
+        Mockito.doAnswer(invocation -> {
+            if (!inBlock.compareAndSet(false, true)) {
+                errors.add("Block started twice");
+            }
+            if ((Long) invocation.getArgument(2) != consumedRows.get()) {
+                errors.add("Wrong block offset " + invocation.getArgument(2));
+            }
+            return null;
+        }).when(consumer).fetchStart(Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.anyLong());
+        Mockito.doAnswer(invocation -> {
+            if (!inBlock.get()) {
+                errors.add("Row out of block");
+            }
+            consumedKeys.add((Long) ((DBCResultSet) invocation.getArgument(1)).getAttributeValue("id"));
+            consumedRows.incrementAndGet();
+            return null;
+        }).when(consumer).fetchRow(Mockito.any(), Mockito.any());
+        Mockito.doAnswer(invocation -> {
+            if (!inBlock.compareAndSet(true, false)) {
+                errors.add("Block ended twice");
+            }
+            return null;
+        }).when(consumer).fetchEnd(Mockito.any(), Mockito.any());
+
+        ReentrantLock deliveryLock = new ReentrantLock(true);
+        AtomicLong deliveredRows = new AtomicLong();
+        List<DatabaseTransferPartitionReader.PartitionReceiver> receivers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            DatabaseTransferPartitionReader.PartitionReceiver receiver = new DatabaseTransferPartitionReader.PartitionReceiver(
+                consumer, deliveryLock, deliveredRows, 1000, "id");
+            receivers.add(receiver);
+            long firstKey = (long) i * rowCount;
+            threads.add(new Thread(() -> fetchRows(receiver, firstKey, rowCount, -1, errors)));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(List.of(), errors);
+        Assert.assertFalse(inBlock.get());
+        Assert.assertEquals(partitionCount * rowCount, consumedKeys.size());
+        Assert.assertEquals(partitionCount * rowCount, deliveredRows.get());
+        for (int i = 0; i < partitionCount; i++) {
+            Assert.assertEquals(rowCount, receivers.get(i).getRowCount());
+            Assert.assertEquals((long) (i + 1) * rowCount - 1, receivers.get(i).getLastKey());
+        }
+    }
+
+    @Test
+    public void testReadErrorKeepsLastKey() throws Exception {
+        IDataTransferConsumer consumer = Mockito.mock(IDataTransferConsumer.class);
+        Mockito.doThrow(new DBCException("Disk full"))
+            .when(consumer).fetchRow(Mockito.any(), Mockito.argThat(resultSet -> getKey(resultSet) == 30));
+        ReentrantLock deliveryLock = new ReentrantLock(true);
+        List<String> errors = new ArrayList<>();
+
+        // Read error: last delivered key is used to resume reading
+        DatabaseTransferPartitionReader.PartitionReceiver receiver = new DatabaseTransferPartitionReader.PartitionReceiver(
+            consumer, deliveryLock, new AtomicLong(), 7, "id");
+        fetchRows(receiver, 0, 20, 15, errors);
+        Assert.assertEquals(List.of("Read error"), errors);
+        Assert.assertEquals(14L, receiver.getLastKey());
+        Assert.assertNull(receiver.getConsumerError());
+        Assert.assertFalse(deliveryLock.isLocked());
+
+        // Consumer error: partition must not be retried
+        errors.clear();
+        receiver = new DatabaseTransferPartitionReader.PartitionReceiver(consumer, deliveryLock, new AtomicLong(), 7, "id");
+        fetchRows(receiver, 25, 10, -1, errors);
+        Assert.assertEquals(List.of("Disk full"), errors);
+        Assert.assertEquals(29L, receiver.getLastKey());
+        Assert.assertNotNull(receiver.getConsumerError());
+        Assert.assertFalse(deliveryLock.isLocked());
+    }
+
+    @Test
+    public void testResumedDateRowsSkipped() throws Exception {
+        List<Object> consumedKeys = new ArrayList<>();
+        IDataTransferConsumer consumer = Mockito.mock(IDataTransferConsumer.class);
+        Mockito.doAnswer(invocation -> consumedKeys.add(((DBCResultSet) invocation.getArgument(1)).getAttributeValue("id")))
+            .when(consumer).fetchRow(Mockito.any(), Mockito.any());
+        DatabaseTransferPartitionReader.PartitionReceiver receiver = new DatabaseTransferPartitionReader.PartitionReceiver(
+            consumer, new ReentrantLock(true), new AtomicLong(), 10, "id");
+
+        // Resumed read starts from the whole second, rows up to the last delivered key are skipped
+        Timestamp lastKey = Timestamp.valueOf("2024-01-01 10:00:00.123456789");
+        receiver.skipDeliveredRows(lastKey);
+        List<Timestamp> keys = List.of(
+            Timestamp.valueOf("2024-01-01 10:00:00"),
+            Timestamp.valueOf("2024-01-01 10:00:00.1"),
+            Timestamp.valueOf("2024-01-01 10:00:00.123456789"),
+            Timestamp.valueOf("2024-01-01 10:00:00.12345679"),
+            Timestamp.valueOf("2024-01-01 10:00:01"));
+        Iterator<Timestamp> keysIterator = keys.iterator();
+        DBCSession session = Mockito.mock(DBCSession.class);
+        DBCResultSet resultSet = Mockito.mock(DBCResultSet.class);
+        Timestamp[] currentKey = new Timestamp[1];
+        Mockito.when(resultSet.getAttributeValue("id")).thenAnswer(invocation -> currentKey[0]);
+        receiver.fetchStart(session, resultSet, 0, -1);
+        while (keysIterator.hasNext()) {
+            currentKey[0] = keysIterator.next();
+            receiver.fetchRow(session, resultSet);
+        }
+        receiver.fetchEnd(session, resultSet);
+        receiver.close();
+
+        Assert.assertEquals(keys.subList(3, 5), consumedKeys);
+        Assert.assertEquals(2, receiver.getRowCount());
+    }
+
+    /**
+     * Emulates data container reading partition rows to the receiver
+     */
+    private static void fetchRows(
+        DatabaseTransferPartitionReader.PartitionReceiver receiver,
+        long firstKey,
+        int rowCount,
+        int failedRow,
+        List<String> errors
+    ) {
+        AtomicLong currentKey = new AtomicLong(firstKey);
+        DBCSession session = Mockito.mock(DBCSession.class);
+        DBCResultSet resultSet = Mockito.mock(DBCResultSet.class);
+        try {
+            Mockito.when(resultSet.getAttributeValue("id")).thenAnswer(invocation -> currentKey.get());
+            receiver.fetchStart(session, resultSet, 0, -1);
+            try {
+                for (int i = 0; i < rowCount; i++) {
+                    if (i == failedRow) {
+                        throw new DBCException("Read error");
+                    }
+                    currentKey.set(firstKey + i);
+                    receiver.fetchRow(session, resultSet);
+                }
+            } finally {
+                receiver.fetchEnd(session, resultSet);
+                receiver.close();
+            }
+        } catch (DBCException e) {
+            errors.add(e.getMessage());
+        }
+    }
+
+    private static long getKey(DBCResultSet resultSet) {
+        try {
+            return resultSet == null ? -1 : (Long) resultSet.getAttributeValue("id");
+        } catch (DBCException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> toStrings(List<Object> values) {
+        List<String> result = new ArrayList<>();
+        for (Object value : values) {
+            result.add(((BigDecimal) value).toPlainString());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.tools.transfer.stream.AsyncOutputStream;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamExportPipeline;
+import org.jkiss.junit.DBeaverUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class StreamExportPipelineTest extends DBeaverUnitTest {
+
+    private static final int ROW_COUNT = 200_000;
+
+    @Test
+    public void testRowsOrder() throws Exception {
+        List<Object> exported = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        StreamExportPipeline pipeline = new StreamExportPipeline("Test export", row -> {
+            exported.add(row[0]);
+            if (threads.isEmpty()) {
+                threads.add(Thread.currentThread());
+            }
+        }, 100, 2);
+        for (int i = 0; i < 10_050; i++) {
+            pipeline.addRow(new Object[]{i});
+            if (i == 5000) {
+                pipeline.flush();
+                Assert.assertEquals(5001, exported.size());
+            }
+        }
+        pipeline.finish();
+
+        Assert.assertEquals(10_050, exported.size());
+        for (int i = 0; i < exported.size(); i++) {
+            Assert.assertEquals(i, exported.get(i));
+        }
+        Assert.assertNotSame(Thread.currentThread(), threads.get(0));
+        Assert.assertThrows(DBCException.class, () -> pipeline.addRow(new Object[]{0}));
+    }
+
+    @Test
+    public void testExportError() {
+        StreamExportPipeline pipeline = new StreamExportPipeline("Test export", row -> {
+            if ((Integer) row[0] == 150) {
+                throw new IOException("Disk full");
+            }
+        }, 10, 2);
+        DBCException error = Assert.assertThrows(DBCException.class, () -> {
+            for (int i = 0; i < 1000; i++) {
+                pipeline.addRow(new Object[]{i});
+            }
+            pipeline.finish();
+        });
+        Assert.assertEquals("Disk full", error.getCause().getMessage());
+        Assert.assertNotNull(pipeline.getError());
+        pipeline.close();
+    }
+
+    @Test
+    public void testAsyncOutput() throws IOException {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        AsyncOutputStream stream = new AsyncOutputStream(target, "Test output", 1000, 2);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int i = 0; i < 10_000; i++) {
+            byte[] data = ("line " + i + "\n").getBytes(StandardCharsets.UTF_8);
+            stream.write(data);
+            stream.write(i % 256);
+            expected.write(data);
+            expected.write(i % 256);
+            if (i % 1000 == 0) {
+                stream.flush();
+            }
+        }
+        stream.finish();
+        Assert.assertArrayEquals(expected.toByteArray(), target.toByteArray());
+        Assert.assertThrows(IOException.class, () -> stream.write(new byte[2000]));
+    }
+
+    /**
+     * Exports synthetic result set sequentially and with pipeline, checks that output is the same
+     */
+    @Test
+    public void testPipelinedExport() throws Exception {
+        for (Format format : Format.values()) {
+            for (boolean compress : new boolean[]{false, true}) {
+                if (compress && format != Format.CSV) {
+                    continue;
+                }
+                ByteArrayOutputStream sequentialOutput = new ByteArrayOutputStream();
+                long sequentialTime = export(format, compress, false, sequentialOutput);
+                ByteArrayOutputStream pipelinedOutput = new ByteArrayOutputStream();
+                long pipelinedTime = export(format, compress, true, pipelinedOutput);
+
+                String message = format + (compress ? " gzip" : "") +
+                    ": sequential " + sequentialTime / 1000000 + "ms, pipelined " + pipelinedTime / 1000000 + "ms";
+                Assert.assertArrayEquals(
+                    message,
+                    readOutput(sequentialOutput, compress),
+                    readOutput(pipelinedOutput, compress));
+            }
+        }
+    }
+
+    private static long export(Format format, boolean compress, boolean pipelined, OutputStream target) throws Exception {
+        long startTime = System.nanoTime();
+        OutputStream stream = target;
+        if (compress) {
+            stream = new GZIPOutputStream(stream, 64 * 1024);
+            if (pipelined) {
+                stream = new AsyncOutputStream(stream, "Test compression", 64 * 1024, 16);
+            }
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 * 1024);
+        StreamExportPipeline pipeline = pipelined ?
+            new StreamExportPipeline("Test export", row -> format.write(writer, row), 1000, 4) : null;
+        for (int i = 0; i < ROW_COUNT; i++) {
+            Object[] row = {i, "name \"" + i + "\"", i * 1.5, i % 3 == 0 ? null : "comment " + (i * 31)};
+            if (pipeline == null) {
+                format.write(writer, row);
+            } else {
+                pipeline.addRow(row);
+            }
+        }
+        if (pipeline != null) {
+            pipeline.finish();
+        }
+        writer.close();
+        return System.nanoTime() - startTime;
+    }
+
+    private static byte[] readOutput(ByteArrayOutputStream output, boolean compressed) throws IOException {
+        if (!compressed) {
+            return output.toByteArray();
+        }
+        try (InputStream stream = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            return stream.readAllBytes();
+        }
+    }
+
+    private enum Format {
+        CSV {
+            @Override
+            void write(Writer writer, Object[] row) throws IOException {
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    if (row[i] instanceof String str) {
+                        writer.write('"' + str.replace("\"", "\"\"") + '"');
+                    } else if (row[i] != null) {
+                        writer.write(String.valueOf(row[i]));
+                    }
+                }
+                writer.write('\n');
+            }
+        },
+        JSON {
+            @Override
+            void write(Writer writer, Object[] row) throws IOException {
+                writer.write("\t{\n");
+                for (int i = 0; i < row.length; i++) {
+                    writer.write("\t\t\"column" + i + "\" : ");
+                    if (row[i] instanceof String str) {
+                        writer.write('"' + str.replace("\"", "\\\"") + '"');
+                    } else {
+                        writer.write(String.valueOf(row[i]));
+                    }
+                    writer.write(i < row.length - 1 ? ",\n" : "\n");
+                }
+                writer.write("\t},\n");
+            }
+        };
+
+        abstract void write(Writer writer, Object[] row) throws IOException;
+    }
+}
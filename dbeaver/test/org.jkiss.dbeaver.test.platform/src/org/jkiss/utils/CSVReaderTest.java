@@ -0,0 +1,156 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2025 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils;
+
+import org.jkiss.junit.DBeaverUnitTest;
+import org.jkiss.utils.csv.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CSVReaderTest extends DBeaverUnitTest {
+
+    @Test
+    public void testParseLine() throws IOException {
+        CSVParser parser = new CSVParser(',', '"', '\\');
+        assertRow(parser.parseLine("a,b,,c"), "a", "b", "", "c");
+        assertRow(parser.parseLine("\"a,b\",\"c\"\"d\",\"e\\\"f\""), "a,b", "c\"d", "e\"f");
+        assertRow(parser.parseLine("a,bc\"d\"ef,g"), "a", "bc\"d\"ef", "g");
+        assertRow(parser.parseLine(""), "");
+        Assert.assertThrows(IOException.class, () -> parser.parseLine("a,\"b"));
+
+        CSVParser nullParser = new CSVParserBuilder().withFieldAsNull(CSVReaderNullFieldIndicator.EMPTY_SEPARATORS).build();
+        assertRow(nullParser.parseLine("a,,\"\""), "a", null, "");
+    }
+
+    @Test
+    public void testLineTerminators() throws IOException {
+        Assert.assertEquals(
+            List.of("[a, b]", "[c, d]", "[e, f]", "[]", "[g]"),
+            readAll(new CSVReader(new StringReader("a,b\r\nc,d\re,f\n\ng"))));
+        Assert.assertEquals(
+            List.of("[a, b\nc]", "[d, e\n\nf]"),
+            readAll(new CSVReader(new StringReader("a,\"b\r\nc\"\r\nd,\"e\n\nf\"\n"))));
+    }
+
+    @Test
+    public void testLongRecord() throws IOException {
+        String value = "x".repeat(200_000);
+        String text = "1,\"" + value + "\n" + value + "\"\n2," + value + "\n";
+        Assert.assertEquals(
+            List.of("[1, " + value + "\n" + value + "]", "[2, " + value + "]"),
+            readAll(new CSVReader(new StringReader(text))));
+    }
+
+    @Test
+    public void testUnterminatedQuote() throws IOException {
+        String text = "a,b\nc,\"d\ne,f\n";
+        CSVReader reader = new CSVReader(new StringReader(text));
+        Assert.assertEquals(List.of("[a, b]", "[c]"), readAll(reader));
+        Assert.assertTrue(reader.getParser().isPending());
+
+        try (CSVParallelReader parallelReader = new CSVParallelReader(new StringReader(text), CSVParser::new, 0, 2, 1)) {
+            Assert.assertEquals(List.of("[a, b]", "[c]"), readAll(parallelReader));
+            Assert.assertTrue(parallelReader.isPending());
+        }
+    }
+
+    /**
+     * Reads generated files sequentially and in parallel, checks that records are the same
+     */
+    @Test
+    public void testParallelRead() throws IOException {
+        for (Content content : Content.values()) {
+            String text = content.generate();
+            long startTime = System.nanoTime();
+            List<String> sequentialRows = readAll(new CSVReader(new StringReader(text), 1, new CSVParser()));
+            long sequentialTime = System.nanoTime() - startTime;
+            startTime = System.nanoTime();
+            List<String> parallelRows;
+            try (CSVParallelReader reader = new CSVParallelReader(new StringReader(text), CSVParser::new, 1, 4, 64 * 1024)) {
+                parallelRows = readAll(reader);
+                Assert.assertFalse(reader.isPending());
+            }
+            long parallelTime = System.nanoTime() - startTime;
+
+            String message = content + ": sequential " + sequentialTime / 1000000 + "ms, parallel " + parallelTime / 1000000 + "ms";
+            Assert.assertEquals(message, content.rowCount, sequentialRows.size());
+            Assert.assertEquals(message, sequentialRows, parallelRows);
+        }
+    }
+
+    private static void assertRow(String[] row, String... expected) {
+        Assert.assertArrayEquals(expected, row);
+    }
+
+    private static List<String> readAll(CSVReader reader) throws IOException {
+        List<String> rows = new ArrayList<>();
+        for (String[] row = reader.readNext(); row != null; row = reader.readNext()) {
+            rows.add(Arrays.toString(row));
+        }
+        return rows;
+    }
+
+    private static List<String> readAll(CSVParallelReader reader) throws IOException {
+        List<String> rows = new ArrayList<>();
+        for (String[] row = reader.readNext(); row != null; row = reader.readNext()) {
+            rows.add(Arrays.toString(row));
+        }
+        return rows;
+    }
+
+    private enum Content {
+        QUOTED(10, 50_000),
+        MULTILINE(10, 50_000),
+        WIDE(500, 1_000);
+
+        private final int columnCount;
+        private final int rowCount;
+
+        Content(int columnCount, int rowCount) {
+            this.columnCount = columnCount;
+            this.rowCount = rowCount;
+        }
+
+        String generate() {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < columnCount; i++) {
+                text.append(i > 0 ? "," : "").append("column").append(i);
+            }
+            text.append('\n');
+            for (int row = 0; row < rowCount; row++) {
+                for (int i = 0; i < columnCount; i++) {
+                    if (i > 0) {
+                        text.append(',');
+                    }
+                    switch (this) {
+                        case QUOTED -> text.append("\"name, \"\"").append(row).append("\"\" ").append(i).append('"');
+                        case MULTILINE -> text.append(i % 3 == 0 ? "\"first\r\nsecond " + row + "\"" : "value" + i);
+                        case WIDE -> text.append(row * columnCount + i);
+                    }
+                }
+                text.append(row % 2 == 0 ? "\n" : "\r\n");
+            }
+            return text.toString();
+        }
+    }
+}
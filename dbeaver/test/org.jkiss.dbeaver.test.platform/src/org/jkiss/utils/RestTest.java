@@ -27,6 +27,8 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class RestTest extends DBeaverUnitTest {
@@ -51,6 +53,30 @@ public class RestTest extends DBeaverUnitTest {
         server.stop();
     }
 
+    @Test
+    public void restLargeResponseTest() {
+        final RestServer<Controller> server = RestServer
+            .builder(Controller.class, new ControllerImpl())
+            .setFilter(address -> address.getAddress().isLoopbackAddress())
+            .create();
+
+        final Controller client = RestClient
+            .builder(URI.create("http://localhost:" + server.getAddress().getPort()), Controller.class)
+            .create();
+
+        // Large response is streamed
+        List<Double> values = client.getValues(100_000, false);
+        Assert.assertEquals(100_000, values.size());
+        Assert.assertEquals(99_999.0, values.get(99_999), 0.0);
+        // Serialization errors fail the call, both before and after the response was partially sent
+        Assert.assertThrows(RuntimeException.class, () -> client.getValues(1, true));
+        Assert.assertThrows(RuntimeException.class, () -> client.getValues(100_000, true));
+        // Connection is still usable
+        Assert.assertEquals("1.0", client.getVersion());
+
+        server.stop();
+    }
+
     private interface Controller {
         @NotNull
         @RequestMapping("version")
@@ -67,6 +93,10 @@ public class RestTest extends DBeaverUnitTest {
         @Nullable
         @RequestMapping("setting/default")
         Object getSetting(@RequestParameter("key") @NotNull String key, @RequestParameter("default") @Nullable Object def);
+
+        @NotNull
+        @RequestMapping("values")
+        List<Double> getValues(@RequestParameter("count") int count, @RequestParameter("invalid") boolean invalid);
     }
 
     private static class ControllerImpl implements Controller {
@@ -93,5 +123,19 @@ public class RestTest extends DBeaverUnitTest {
         public Object getSetting(@NotNull String key, @Nullable Object def) {
             return getSettings().getOrDefault(key, def);
         }
+
+        @NotNull
+        @Override
+        public List<Double> getValues(int count, boolean invalid) {
+            List<Double> values = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                values.add((double) i);
+            }
+            if (invalid) {
+                // NaN can't be serialized to JSON
+                values.add(Double.NaN);
+            }
+            return values;
+        }
     }
 }